@@ -0,0 +1,81 @@
+package com.example.networkdiagnostictool.metrics;
+
+import com.example.networkdiagnostictool.service.AsyncConnector;
+import com.example.networkdiagnostictool.service.HostResolver;
+import com.example.networkdiagnostictool.service.NioPortScanner;
+import com.example.networkdiagnostictool.service.TcpIpDiagnosticService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loopback port checks with and without the timing aspect, so the difference between the two is its overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiagnosticMetricsAspectBenchmark {
+
+    private TcpIpDiagnosticService plain;
+    private TcpIpDiagnosticService instrumented;
+    private ServerSocket server;
+
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        plain = new TcpIpDiagnosticService(new NioPortScanner(), new AsyncConnector(),
+                new HostResolver(10, 60_000, 60_000, 0.8, false), registry, 2000, 256);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new TcpIpDiagnosticService(new NioPortScanner(),
+                new AsyncConnector(), new HostResolver(10, 60_000, 60_000, 0.8, false), registry, 2000, 256));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new DiagnosticMetricsAspect(registry));
+        instrumented = factory.getProxy();
+        server = new ServerSocket(0, 4096, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try {
+                    server.accept().close();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }, "benchmark-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public int checkOpenPort() {
+        return plain.checkPort("127.0.0.1", server.getLocalPort());
+    }
+
+    @Benchmark
+    public int checkOpenPortInstrumented() {
+        return instrumented.checkPort("127.0.0.1", server.getLocalPort());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.networkdiagnostictool.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates and renders a single rule into its iptables command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IptablesRuleBenchmark {
+
+    private final IptablesRule rule = IptablesRule.builder()
+            .chain(IptablesRule.Chain.INPUT).sourceIp("192.168.1.0/24").protocol(IptablesRule.Protocol.TCP)
+            .destinationPort(443).action(IptablesRule.Action.ACCEPT).build();
+
+    @Benchmark
+    public String toIptablesCommand() {
+        return rule.toIptablesCommand();
+    }
+
+    @Benchmark
+    public List<String> validate() {
+        return rule.validate();
+    }
+}
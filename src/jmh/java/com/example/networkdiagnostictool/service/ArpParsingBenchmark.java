@@ -0,0 +1,83 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ArpEntry;
+import com.example.networkdiagnostictool.util.OperatingSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses synthetic neighbour tables: the legacy split of {@code arp -e} output, the
+ * {@code /proc/net/arp} reader, and the reader feeding the indexed {@link ArpTable}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArpParsingBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int entries;
+
+    private List<String> arpCommandLines;
+    private Path procFile;
+    private final ProcNetArpReader reader = new ProcNetArpReader();
+
+    @Setup(Level.Trial)
+    public void createFixtures() throws IOException {
+        arpCommandLines = new ArrayList<>(entries);
+        StringBuilder proc = new StringBuilder("IP address       HW type     Flags       HW address            Mask     Device\n");
+        for (int i = 0; i < entries; i++) {
+            String ip = String.format("10.%d.%d.%d", (i >> 16) & 0xff, (i >> 8) & 0xff, i & 0xff);
+            String mac = String.format("02:00:00:%02x:%02x:%02x", (i >> 16) & 0xff, (i >> 8) & 0xff, i & 0xff);
+            String device = "veth" + i % 16;
+            arpCommandLines.add(String.format("%-24s ether   %-20s C   %s", ip, mac, device));
+            proc.append(String.format("%-16s 0x1         0x2         %s     *        %s%n", ip, mac, device));
+        }
+        procFile = Files.createTempFile("arp-benchmark", ".txt");
+        Files.write(procFile, proc.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFixtures() throws IOException {
+        Files.deleteIfExists(procFile);
+    }
+
+    @Benchmark
+    public List<ArpEntry> parseArpCommandOutput() {
+        return ArpCacheService.parseArpEntries(arpCommandLines, OperatingSystem.LINUX);
+    }
+
+    @Benchmark
+    public int readProcNetArp(Blackhole blackhole) throws IOException {
+        return reader.read(procFile, blackhole::consume);
+    }
+
+    @Benchmark
+    public ArpTable buildIndexedTable() throws IOException {
+        ArpTable.Builder builder = new ArpTable.Builder();
+        reader.read(procFile, builder);
+        return builder.build();
+    }
+}
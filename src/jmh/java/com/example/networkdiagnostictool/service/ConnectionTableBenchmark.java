@@ -0,0 +1,69 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ConnectionSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.networkdiagnostictool.service.ProcNetSocketReaderTest.HEADER;
+import static com.example.networkdiagnostictool.service.ProcNetSocketReaderTest.line;
+
+/**
+ * Summarizes a synthetic {@code /proc/net/tcp} of half a million established sockets spread over
+ * 50000 remote addresses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionTableBenchmark {
+
+    private static final int SOCKETS = 500_000;
+    private static final int REMOTES = 50_000;
+
+    private Path procDir;
+    private ConnectionTableService service;
+
+    @Setup(Level.Trial)
+    public void createFixtures() throws IOException {
+        procDir = Files.createTempDirectory("connections-benchmark");
+        try (BufferedWriter out = Files.newBufferedWriter(procDir.resolve("tcp"), StandardCharsets.US_ASCII)) {
+            out.write(HEADER);
+            for (int i = 0; i < SOCKETS; i++) {
+                int remote = i % REMOTES;
+                out.write(line(i, "10.0.0.1", 1024 + i % 60000, "10." + (remote >>> 16) + "." + ((remote >>> 8) & 0xff)
+                        + "." + (remote & 0xff), 443, 1, 0, 0));
+            }
+        }
+        service = new ConnectionTableService(procDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFixtures() throws IOException {
+        Files.deleteIfExists(procDir.resolve("tcp"));
+        Files.deleteIfExists(procDir);
+    }
+
+    @Benchmark
+    public ConnectionSummary summarize() {
+        return service.summarize(10);
+    }
+}
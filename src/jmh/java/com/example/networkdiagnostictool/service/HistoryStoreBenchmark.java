@@ -0,0 +1,78 @@
+package com.example.networkdiagnostictool.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Records samples into 1000 series from four producer threads, retrying samples dropped while the
+ * buffer is full, so the rate is what the writer sustains. {@code -prof gc} shows that recording
+ * allocates nothing per sample.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class HistoryStoreBenchmark {
+
+    private Path directory;
+    private HistoryStore store;
+    private final int[] ids = new int[1000];
+
+    /**
+     * The position of one producer in the series.
+     */
+    @State(Scope.Thread)
+    public static class Producer {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void openStore() throws IOException {
+        directory = Files.createTempDirectory("history-benchmark");
+        store = new HistoryStore(directory.toString(), 6, 7, 90, 1 << 22, 1 << 16);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = store.seriesId("bench/" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStore() throws IOException {
+        store.shutdown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public int record(Producer producer) {
+        int i = producer.next++;
+        int retries = 0;
+        while (!store.record(ids[(i & Integer.MAX_VALUE) % ids.length], System.currentTimeMillis(), i, false)) {
+            retries++;
+            Thread.onSpinWait();
+        }
+        return retries;
+    }
+}
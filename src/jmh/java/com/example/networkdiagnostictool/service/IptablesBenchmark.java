@@ -0,0 +1,71 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.IptablesBatchOperation;
+import com.example.networkdiagnostictool.model.IptablesChain;
+import com.example.networkdiagnostictool.model.IptablesRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders and parses synthetic iptables rulesets: batch rendering for iptables-restore and
+ * parsing {@code iptables-save -c} output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IptablesBenchmark {
+
+    @Param({"100", "5000"})
+    public int rules;
+
+    private List<IptablesBatchOperation> batch;
+    private List<String> saveOutput;
+
+    @Setup(Level.Trial)
+    public void createFixtures() {
+        batch = new ArrayList<>(rules);
+        saveOutput = new ArrayList<>(rules + 8);
+        saveOutput.add("*filter");
+        saveOutput.add(":INPUT DROP [1200:96000]");
+        saveOutput.add(":FORWARD DROP [0:0]");
+        saveOutput.add(":OUTPUT ACCEPT [5000:400000]");
+        for (int i = 0; i < rules; i++) {
+            String source = "10." + (i >> 8) + "." + (i & 0xff) + ".0/24";
+            batch.add(new IptablesBatchOperation(IptablesBatchOperation.Operation.ADD, IptablesRule.builder()
+                    .chain(IptablesRule.Chain.INPUT).sourceIp(source).protocol(IptablesRule.Protocol.TCP)
+                    .destinationPort(1 + i % 1024).action(IptablesRule.Action.ACCEPT).build()));
+            saveOutput.add("[" + i * 7 + ":" + i * 420 + "] -A INPUT -s " + source
+                    + " -p tcp -m tcp --dport " + (1 + i % 1024) + " -j ACCEPT");
+        }
+        saveOutput.add("COMMIT");
+    }
+
+    @Benchmark
+    public String renderRestoreInput() {
+        return IpTablesService.renderRestoreInput(batch);
+    }
+
+    @Benchmark
+    public List<IptablesChain> parseIptablesSave() {
+        IptablesSaveParser parser = new IptablesSaveParser();
+        saveOutput.forEach(parser);
+        return parser.chains();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.networkdiagnostictool.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probes a loopback server: a port check against a listening port and against a closed one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProbeBenchmark {
+
+    private TcpIpDiagnosticService service;
+    private ServerSocket server;
+    private int closedPort;
+
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        service = new TcpIpDiagnosticService(new NioPortScanner(), new AsyncConnector(), new HostResolver(10, 60_000, 60_000, 0.8, false),
+                new SimpleMeterRegistry(), 2000, 256);
+        try (ServerSocket closed = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            closedPort = closed.getLocalPort();
+        }
+        server = new ServerSocket(0, 4096, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try {
+                    server.accept().close();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }, "benchmark-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public int checkOpenPort() {
+        return service.checkPort("127.0.0.1", server.getLocalPort());
+    }
+
+    @Benchmark
+    public int checkClosedPort() {
+        return service.checkPort("127.0.0.1", closedPort);
+    }
+}
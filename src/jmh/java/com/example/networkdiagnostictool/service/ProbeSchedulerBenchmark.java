@@ -0,0 +1,124 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ProbeStatus;
+import com.example.networkdiagnostictool.model.ProbeTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Probes 10000 loopback targets every second and counts the probes completed, failed and skipped per
+ * second; all 10000 are due each second. The loopback server shares the machine, so this understates
+ * what the scheduler sustains against remote targets. The benchmark method only samples the counters
+ * once a second, so its own score is meaningless.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ProbeSchedulerBenchmark {
+
+    private static final int TARGETS = 10_000;
+
+    private Path historyDirectory;
+    private HistoryStore history;
+    private AsyncConnector connector;
+    private HostResolver resolver;
+    private ProbeScheduler scheduler;
+    private ServerSocket server;
+
+    /**
+     * Probe outcomes over the iteration, reported per second.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Probes {
+        public long completed;
+        public long failed;
+        public long skipped;
+    }
+
+    @Setup(Level.Trial)
+    public void registerTargets() throws IOException {
+        server = new ServerSocket(0, 4096, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try (Socket ignored = server.accept()) {
+                    // Close right away
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }, "benchmark-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        historyDirectory = Files.createTempDirectory("probe-benchmark");
+        history = new HistoryStore(historyDirectory.toString(), 1, 1, 1, 1 << 20, 1 << 16);
+        connector = new AsyncConnector();
+        resolver = new HostResolver(10, 60_000, 5_000, 0.8, false);
+        TcpIpDiagnosticService service = new TcpIpDiagnosticService(new NioPortScanner(), connector, resolver,
+                new SimpleMeterRegistry(), 2000, 256);
+        scheduler = new ProbeScheduler(service, history, TARGETS, 4, 1, 65536, 0.1, 10);
+        for (int i = 0; i < TARGETS; i++) {
+            scheduler.register(ProbeTarget.builder().host("127.0.0.1").port(server.getLocalPort())
+                    .type(ProbeTarget.Type.TCP).intervalMillis(1000).build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        scheduler.shutdown();
+        history.shutdown();
+        connector.shutdown();
+        resolver.shutdown();
+        server.close();
+        try (Stream<Path> files = Files.walk(historyDirectory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public void probeTargetsEverySecond(Probes probes) throws InterruptedException {
+        long[] before = totals();
+        TimeUnit.SECONDS.sleep(1);
+        long[] after = totals();
+        probes.completed += after[0] - before[0];
+        probes.failed += after[1] - before[1];
+        probes.skipped += after[2] - before[2];
+    }
+
+    private long[] totals() {
+        long[] totals = new long[3];
+        for (ProbeStatus status : scheduler.getStatuses()) {
+            totals[0] += status.getProbes();
+            totals[1] += status.getFailures();
+            totals[2] += status.getSkipped();
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.networkdiagnostictool.validator;
+
+import com.example.networkdiagnostictool.service.HostResolver;
+import com.example.networkdiagnostictool.util.HostParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Validates IPv4 and IPv6 literals, a cached host name and malformed input, next to the regex
+ * validator {@link HostParser} replaced and to the parser's classification alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HostValidatorBenchmark {
+
+    private static final Pattern LEGACY_IPV4_PATTERN = Pattern.compile(
+            "^(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\." +
+                    "(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\." +
+                    "(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\." +
+                    "(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)$");
+
+    private final HostResolver hostResolver = new HostResolver(1000, 60_000, 60_000, 0.8, false);
+    private final HostValidator validator = new HostValidator(hostResolver);
+
+    @Benchmark
+    public boolean validateIpv4Literal() {
+        return validator.isValidHost("192.168.100.254");
+    }
+
+    @Benchmark
+    public boolean validateIpv6Literal() {
+        return validator.isValidHost("2001:db8:85a3::8a2e:370:7334");
+    }
+
+    @Benchmark
+    public boolean validateCachedHostname() {
+        return validator.isValidHost("localhost");
+    }
+
+    @Benchmark
+    public boolean validateMalformedAddress() {
+        return validator.isValidHost("999.1.1.1");
+    }
+
+    @Benchmark
+    public boolean legacyValidateIpv4Literal() {
+        return legacyIsValidHost("192.168.100.254");
+    }
+
+    @Benchmark
+    public boolean legacyValidateIpv6Literal() {
+        return legacyIsValidHost("2001:db8:85a3::8a2e:370:7334");
+    }
+
+    @Benchmark
+    public boolean legacyValidateMalformedAddress() {
+        return legacyIsValidHost("999.1.1.1");
+    }
+
+    @Benchmark
+    public int classifyIpv6Literal() {
+        return HostParser.classify("2001:db8:85a3::8a2e:370:7334");
+    }
+
+    @Benchmark
+    public int classifyHostname() {
+        return HostParser.classify("db-1.internal.example.com");
+    }
+
+    /**
+     * The validator as it was before {@link HostParser}: an IPv4 regex, then a resolver call for everything
+     * else, which passed anything with a colon to {@link InetAddress#getByName(String)}.
+     */
+    private boolean legacyIsValidHost(String host) {
+        if (LEGACY_IPV4_PATTERN.matcher(host).matches()) {
+            return true;
+        }
+        try {
+            if (host.indexOf(':') >= 0) {
+                InetAddress.getByName(host);
+            } else {
+                hostResolver.resolve(host);
+            }
+            return true;
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -2,13 +2,23 @@ package com.example.networkdiagnostictool.controller;
 
 import com.example.networkdiagnostictool.model.ArpEntry;
 import com.example.networkdiagnostictool.service.ArpCacheService;
+import com.example.networkdiagnostictool.util.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -21,15 +31,18 @@ import java.util.List;
 public class ArpCacheController {
 
     private final ArpCacheService arpCacheService;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Constructor for dependency injection of ArpCacheService.
+     * Constructor for dependency injection of ArpCacheService and the JSON mapper.
      *
      * @param arpCacheService The service to be used for ARP cache operations.
+     * @param objectMapper    The mapper used to write streamed entries.
      */
     @Autowired
-    public ArpCacheController(ArpCacheService arpCacheService) {
+    public ArpCacheController(ArpCacheService arpCacheService, ObjectMapper objectMapper) {
         this.arpCacheService = arpCacheService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -44,4 +57,88 @@ public class ArpCacheController {
         log.debug("Retrieved {} ARP cache entries", arpEntries.size());
         return ResponseEntity.ok(arpEntries);
     }
-}
\ No newline at end of file
+
+    /**
+     * Endpoint streaming the ARP cache as newline-delimited JSON, selected with
+     * {@code Accept: application/x-ndjson}. Entries are written while the table is being read,
+     * so memory use does not grow with the table and the first entry arrives immediately.
+     *
+     * @return ResponseEntity streaming one ARP entry per line.
+     */
+    @GetMapping(value = "/cache", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamArpCache() {
+        log.info("Received request to stream ARP cache");
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+                arpCacheService.streamArpCache(writer::write);
+                log.debug("Streamed {} ARP cache entries", writer.getCount());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Endpoint for looking up the ARP entries of an IPv4 address.
+     *
+     * @param ip The IPv4 address.
+     * @return ResponseEntity containing the matching entries, 404 if there are none, or an error message.
+     */
+    @GetMapping("/ip/{ip:.+}")
+    public ResponseEntity<?> findByIp(@PathVariable String ip) {
+        try {
+            return found(arpCacheService.findByIp(ip));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Endpoint for looking up the IP addresses that map to a MAC address.
+     *
+     * @param mac The MAC address, e.g. {@code aa:bb:cc:dd:ee:ff}.
+     * @return ResponseEntity containing the matching entries, 404 if there are none, or an error message.
+     */
+    @GetMapping("/mac/{mac}")
+    public ResponseEntity<?> findByMac(@PathVariable String mac) {
+        try {
+            return found(arpCacheService.findByMac(mac));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Endpoint for listing the ARP entries learned on one interface.
+     *
+     * @param name The interface name.
+     * @return ResponseEntity containing the matching entries, or 404 if there are none.
+     */
+    @GetMapping("/interface/{name:.+}")
+    public ResponseEntity<?> findByInterface(@PathVariable String name) {
+        return found(arpCacheService.findByInterface(name));
+    }
+
+    private static ResponseEntity<?> found(List<ArpEntry> entries) {
+        return entries.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(entries);
+    }
+
+    /**
+     * Endpoint streaming ARP cache changes as server-sent events.
+     * New subscribers first receive a {@code snapshot} event with the whole table, followed by
+     * {@code change} events that carry only added, removed and changed entries.
+     *
+     * @param lastEventId The id of the last event received, sent by clients when reconnecting.
+     * @return The event stream.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamArpChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.info("Received request to stream ARP cache changes");
+        try {
+            return arpCacheService.streamChanges(lastEventId);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+}
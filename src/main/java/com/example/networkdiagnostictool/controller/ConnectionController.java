@@ -0,0 +1,78 @@
+package com.example.networkdiagnostictool.controller;
+
+import com.example.networkdiagnostictool.service.ConnectionTableService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for inspecting the TCP and UDP sockets of the host, read from {@code /proc/net}.
+ */
+@RestController
+@RequestMapping("/api/connections")
+public class ConnectionController {
+
+    private static final int MAX_TOP = 1000;
+    private static final int MAX_LIMIT = 100_000;
+
+    private final ConnectionTableService connectionTableService;
+
+    /**
+     * Constructor for dependency injection of ConnectionTableService.
+     *
+     * @param connectionTableService The service reading the socket tables.
+     */
+    @Autowired
+    public ConnectionController(ConnectionTableService connectionTableService) {
+        this.connectionTableService = connectionTableService;
+    }
+
+    /**
+     * Endpoint for socket counts by protocol and TCP state, with the busiest remote addresses and local ports.
+     *
+     * @param top Number of remote addresses and local ports to report.
+     * @return ResponseEntity containing the summary or an error message.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<?> getSummary(@RequestParam(defaultValue = "10") int top) {
+        if (top < 1 || top > MAX_TOP) {
+            return ResponseEntity.badRequest().body("Invalid top. Must be between 1 and " + MAX_TOP);
+        }
+        try {
+            return ResponseEntity.ok(connectionTableService.summarize(top));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Endpoint for listing sockets, optionally filtered.
+     *
+     * @param protocol   {@code tcp} or {@code udp}.
+     * @param state      TCP state name such as {@code ESTABLISHED}, or {@code UNCONN}.
+     * @param localPort  The local port.
+     * @param remotePort The remote port.
+     * @param remote     A literal IPv4 or IPv6 remote address.
+     * @param limit      Maximum number of sockets returned.
+     * @return ResponseEntity containing the matching sockets or an error message.
+     */
+    @GetMapping
+    public ResponseEntity<?> listConnections(@RequestParam(required = false) String protocol,
+                                             @RequestParam(required = false) String state,
+                                             @RequestParam(required = false) Integer localPort,
+                                             @RequestParam(required = false) Integer remotePort,
+                                             @RequestParam(required = false) String remote,
+                                             @RequestParam(defaultValue = "1000") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body("Invalid limit. Must be between 1 and " + MAX_LIMIT);
+        }
+        try {
+            return ResponseEntity.ok(connectionTableService.list(protocol, state, localPort, remotePort, remote, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.networkdiagnostictool.controller;
+
+import com.example.networkdiagnostictool.service.FleetClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * REST Controller running a diagnostic on many instances of this tool at once, e.g. checking a port
+ * from every host of a cluster. Each peer runs the diagnostic from its own network position and
+ * validates its input itself; the answers are merged into one response, which still reports the
+ * peers that answered when others failed.
+ */
+@RestController
+@RequestMapping("/api/fleet")
+public class FleetController {
+
+    private static final int MAX_TIMEOUT_MS = 120_000;
+
+    private final FleetClient fleetClient;
+
+    /**
+     * Constructor for dependency injection of FleetClient.
+     *
+     * @param fleetClient The client sending requests to the peers.
+     */
+    @Autowired
+    public FleetController(FleetClient fleetClient) {
+        this.fleetClient = fleetClient;
+    }
+
+    /**
+     * Endpoint for checking a port from every peer.
+     *
+     * @param peer      Peers as {@code host:port} or base URLs; the configured peers if omitted.
+     * @param host      The hostname or IP address to check.
+     * @param port      The port number to check.
+     * @param timeoutMs Deadline for each peer's answer in milliseconds, defaults to 5000.
+     * @return ResponseEntity containing every peer's answer or an error message.
+     */
+    @GetMapping("/port")
+    public CompletableFuture<ResponseEntity<?>> checkPort(@RequestParam(required = false) List<String> peer,
+                                                          @RequestParam String host, @RequestParam int port,
+                                                          @RequestParam(defaultValue = "5000") int timeoutMs) {
+        if (host.isEmpty()) {
+            return badRequest("Invalid hostname or IP address");
+        }
+        if (port < 1 || port > 65535) {
+            return badRequest("Invalid port number. Must be between 1 and 65535");
+        }
+        return fanOut(peer, UriComponentsBuilder.fromPath("/api/tcpip/port")
+                .queryParam("host", host)
+                .queryParam("port", port), timeoutMs);
+    }
+
+    /**
+     * Endpoint for measuring latency to a port from every peer.
+     *
+     * @param peer       Peers as {@code host:port} or base URLs; the configured peers if omitted.
+     * @param host       The hostname or IP address to measure.
+     * @param port       The port number to connect to.
+     * @param samples    Number of connects per peer; a single connect if omitted.
+     * @param intervalMs Pause between a peer's connects in milliseconds.
+     * @param timeoutMs  Deadline for each peer's answer in milliseconds, defaults to 5000.
+     * @return ResponseEntity containing every peer's answer or an error message.
+     */
+    @GetMapping("/latency")
+    public CompletableFuture<ResponseEntity<?>> measureLatency(@RequestParam(required = false) List<String> peer,
+                                                               @RequestParam String host, @RequestParam int port,
+                                                               @RequestParam(required = false) Integer samples,
+                                                               @RequestParam(required = false) Long intervalMs,
+                                                               @RequestParam(defaultValue = "5000") int timeoutMs) {
+        if (host.isEmpty()) {
+            return badRequest("Invalid hostname or IP address");
+        }
+        if (port < 1 || port > 65535) {
+            return badRequest("Invalid port number. Must be between 1 and 65535");
+        }
+        UriComponentsBuilder path = UriComponentsBuilder.fromPath("/api/tcpip/latency")
+                .queryParam("host", host)
+                .queryParam("port", port);
+        if (samples != null) {
+            path.queryParam("samples", samples);
+        }
+        if (intervalMs != null) {
+            path.queryParam("intervalMs", intervalMs);
+        }
+        return fanOut(peer, path, timeoutMs);
+    }
+
+    /**
+     * Endpoint for looking up an IP address in every peer's ARP cache.
+     *
+     * @param peer      Peers as {@code host:port} or base URLs; the configured peers if omitted.
+     * @param ip        The IP address to look up.
+     * @param timeoutMs Deadline for each peer's answer in milliseconds, defaults to 5000.
+     * @return ResponseEntity containing every peer's answer or an error message.
+     */
+    @GetMapping("/arp")
+    public CompletableFuture<ResponseEntity<?>> findArpEntry(@RequestParam(required = false) List<String> peer,
+                                                             @RequestParam String ip,
+                                                             @RequestParam(defaultValue = "5000") int timeoutMs) {
+        if (ip.isEmpty()) {
+            return badRequest("Invalid IP address");
+        }
+        return fanOut(peer, UriComponentsBuilder.fromPath("/api/arp/ip/{ip}").uriVariables(Map.of("ip", ip)),
+                timeoutMs);
+    }
+
+    /**
+     * Endpoint for the busiest iptables rules of every peer.
+     *
+     * @param peer      Peers as {@code host:port} or base URLs; the configured peers if omitted.
+     * @param limit     Number of rules per peer, defaults to 10.
+     * @param by        {@code packets} or {@code bytes}, defaults to packets.
+     * @param timeoutMs Deadline for each peer's answer in milliseconds, defaults to 5000.
+     * @return ResponseEntity containing every peer's answer or an error message.
+     */
+    @GetMapping("/rules")
+    public CompletableFuture<ResponseEntity<?>> getHotRules(@RequestParam(required = false) List<String> peer,
+                                                            @RequestParam(defaultValue = "10") int limit,
+                                                            @RequestParam(defaultValue = "packets") String by,
+                                                            @RequestParam(defaultValue = "5000") int timeoutMs) {
+        if (limit < 1 || limit > 1000) {
+            return badRequest("limit must be between 1 and 1000");
+        }
+        return fanOut(peer, UriComponentsBuilder.fromPath("/api/iptables/ruleset/hot")
+                .queryParam("limit", limit)
+                .queryParam("by", by), timeoutMs);
+    }
+
+    private CompletableFuture<ResponseEntity<?>> fanOut(List<String> peer, UriComponentsBuilder path, int timeoutMs) {
+        if (timeoutMs < 1 || timeoutMs > MAX_TIMEOUT_MS) {
+            return badRequest("Invalid timeout. Must be between 1 and " + MAX_TIMEOUT_MS + " milliseconds");
+        }
+        List<URI> peers;
+        try {
+            peers = fleetClient.peers(peer);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+        String pathAndQuery = path.encode().build().toUriString();
+        return fleetClient.fanOut(peers, pathAndQuery, timeoutMs).thenApply(ResponseEntity::ok);
+    }
+
+    private static CompletableFuture<ResponseEntity<?>> badRequest(String message) {
+        return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(message));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.networkdiagnostictool.controller;
+
+import com.example.networkdiagnostictool.model.HistoryResolution;
+import com.example.networkdiagnostictool.model.HistorySeries;
+import com.example.networkdiagnostictool.service.HistoryStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * REST Controller for range queries over recorded measurements, such as probe latencies
+ * ({@code probe/tcp/<host>:<port>} and {@code probe/ping/<host>}) and iptables chain packet rates
+ * ({@code iptables/<table>/<chain>/packets}).
+ */
+@RestController
+@RequestMapping("/api/history")
+public class HistoryController {
+
+    private static final int MAX_LIMIT = 100_000;
+
+    private final HistoryStore historyStore;
+
+    /**
+     * Constructor for dependency injection of HistoryStore.
+     *
+     * @param historyStore The store holding the recorded series.
+     */
+    @Autowired
+    public HistoryController(HistoryStore historyStore) {
+        this.historyStore = historyStore;
+    }
+
+    /**
+     * Endpoint for reading a series over a time range.
+     *
+     * @param series     The series name.
+     * @param resolution {@code raw}, {@code minute} or {@code hour}.
+     * @param from       Start of the range in epoch milliseconds, defaults to one hour before {@code to}.
+     * @param to         End of the range in epoch milliseconds, defaults to now.
+     * @param limit      Maximum number of points to return.
+     * @return ResponseEntity containing the points in time order, 404 for an unknown series, or an error message.
+     */
+    @GetMapping
+    public ResponseEntity<?> query(@RequestParam String series,
+                                   @RequestParam(defaultValue = "raw") String resolution,
+                                   @RequestParam(required = false) Long from,
+                                   @RequestParam(required = false) Long to,
+                                   @RequestParam(defaultValue = "10000") int limit) {
+        HistoryResolution parsed;
+        try {
+            parsed = HistoryResolution.valueOf(resolution.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid resolution. Must be raw, minute or hour");
+        }
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - 3_600_000;
+        if (start > end) {
+            return ResponseEntity.badRequest().body("Invalid range. from must not be after to");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body("Invalid limit. Must be between 1 and " + MAX_LIMIT);
+        }
+
+        HistorySeries result = historyStore.query(series, parsed, start, end, limit);
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Unknown series: " + series);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Endpoint for listing the recorded series.
+     *
+     * @param prefix Optional prefix the names must start with, e.g. {@code probe/}.
+     * @return ResponseEntity containing the series names.
+     */
+    @GetMapping("/series")
+    public ResponseEntity<List<String>> getSeries(@RequestParam(required = false) String prefix) {
+        return ResponseEntity.ok(historyStore.getSeries(prefix));
+    }
+}
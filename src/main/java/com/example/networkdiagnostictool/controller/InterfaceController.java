@@ -0,0 +1,61 @@
+package com.example.networkdiagnostictool.controller;
+
+import com.example.networkdiagnostictool.model.InterfaceRates;
+import com.example.networkdiagnostictool.model.InterfaceStats;
+import com.example.networkdiagnostictool.service.InterfaceStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for network interface statistics, sampled in the background from {@code /proc/net/dev}.
+ */
+@RestController
+@RequestMapping("/api/interfaces")
+public class InterfaceController {
+
+    private final InterfaceStatsService interfaceStatsService;
+
+    /**
+     * Constructor for dependency injection of InterfaceStatsService.
+     *
+     * @param interfaceStatsService The service sampling the interface counters.
+     */
+    @Autowired
+    public InterfaceController(InterfaceStatsService interfaceStatsService) {
+        this.interfaceStatsService = interfaceStatsService;
+    }
+
+    /**
+     * Endpoint for listing all interfaces with their counters, current rates and link utilization.
+     *
+     * @return ResponseEntity containing the interfaces sorted by name.
+     */
+    @GetMapping
+    public ResponseEntity<List<InterfaceStats>> getInterfaces() {
+        return ResponseEntity.ok(interfaceStatsService.getInterfaces());
+    }
+
+    /**
+     * Endpoint for the recent rate history of one interface.
+     *
+     * @param name  The interface name.
+     * @param limit Maximum number of most recent samples, defaults to all retained.
+     * @return ResponseEntity containing the samples oldest first, 404 for an unknown interface, or an error message.
+     */
+    @GetMapping("/{name}/rates")
+    public ResponseEntity<?> getRates(@PathVariable String name,
+                                      @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().body("Invalid limit. Must be at least 1");
+        }
+        InterfaceRates rates = interfaceStatsService.getRates(name, limit);
+        if (rates == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Unknown interface: " + name);
+        }
+        return ResponseEntity.ok(rates);
+    }
+}
@@ -1,13 +1,29 @@
 package com.example.networkdiagnostictool.controller;
 
+import com.example.networkdiagnostictool.model.IptablesBatchOperation;
+import com.example.networkdiagnostictool.model.IptablesBatchResult;
 import com.example.networkdiagnostictool.model.IptablesRule;
+import com.example.networkdiagnostictool.model.IptablesRuleStats;
+import com.example.networkdiagnostictool.model.IptablesRuleset;
+import com.example.networkdiagnostictool.model.SimulationRequest;
+import com.example.networkdiagnostictool.model.SimulationResult;
 import com.example.networkdiagnostictool.service.IpTablesService;
+import com.example.networkdiagnostictool.service.IptablesRulesetService;
+import com.example.networkdiagnostictool.service.IptablesSimulator;
+import com.example.networkdiagnostictool.util.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @RestController
@@ -15,10 +31,17 @@ import java.util.List;
 public class IpTablesController {
 
     private final IpTablesService ipTablesService;
+    private final IptablesRulesetService rulesetService;
+    private final IptablesSimulator simulator;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public IpTablesController(IpTablesService ipTablesService) {
+    public IpTablesController(IpTablesService ipTablesService, IptablesRulesetService rulesetService,
+                              IptablesSimulator simulator, ObjectMapper objectMapper) {
         this.ipTablesService = ipTablesService;
+        this.rulesetService = rulesetService;
+        this.simulator = simulator;
+        this.objectMapper = objectMapper;
     }
 
 
@@ -36,6 +59,34 @@ public class IpTablesController {
         return ResponseEntity.ok(rules);
     }
 
+    /**
+     * Streams the rules of every table as newline-delimited JSON, selected with
+     * {@code Accept: application/x-ndjson}. Each rule is written as soon as iptables-save has
+     * printed and the service has parsed it. A listing that fails ends with an {@code error} line.
+     *
+     * @return ResponseEntity streaming one rule per line.
+     */
+    @GetMapping(value = "/rules", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamRules() {
+        log.info("Streaming IP tables rules");
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+                try {
+                    ipTablesService.streamRules(writer::write);
+                } catch (IllegalStateException | RejectedExecutionException e) {
+                    log.warn("Streaming IP tables rules failed: {}", e.getMessage());
+                    writer.write(Map.of("error", e.getMessage()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    writer.write(Map.of("error", "Listing rules was interrupted"));
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @PostMapping("/rule")
     public ResponseEntity<String> addRule(@RequestBody IptablesRule rule) {
         log.info("Adding IP tables rule: {}", rule);
@@ -50,17 +101,86 @@ public class IpTablesController {
         return ResponseEntity.ok(result);
     }
 
-    @PostMapping("/rule")
+    @PostMapping(value = "/rule", params = "rule")
     public ResponseEntity<String> addRule(@RequestParam String rule) {
         log.info("Adding IP tables rule: {}", rule);
         String result = ipTablesService.addRule(rule);
         return ResponseEntity.ok(result);
     }
 
-    @DeleteMapping("/rule")
+    @DeleteMapping(value = "/rule", params = "rule")
     public ResponseEntity<String> deleteRule(@RequestParam String rule) {
         log.info("Deleting IP tables rule: {}", rule);
         String result = ipTablesService.deleteRule(rule);
         return ResponseEntity.ok(result);
     }
-}
\ No newline at end of file
+
+    /**
+     * Applies a list of rule additions and deletions atomically.
+     *
+     * @param operations The operations, applied in order.
+     * @return ResponseEntity containing the batch outcome; 400 with per-operation errors if validation fails.
+     */
+    @PostMapping("/rules/batch")
+    public ResponseEntity<IptablesBatchResult> applyBatch(@RequestBody List<IptablesBatchOperation> operations) {
+        log.info("Applying batch of {} IP tables operations", operations.size());
+        IptablesBatchResult result = ipTablesService.applyBatch(operations);
+        if (!result.getErrors().isEmpty()) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Returns the cached, structured ruleset with counters and per-rule counter rates.
+     *
+     * @return ResponseEntity containing the last snapshot; 503 if the ruleset cannot be read.
+     */
+    @GetMapping("/ruleset")
+    public ResponseEntity<?> getRuleset() {
+        IptablesRuleset ruleset = rulesetService.getRuleset();
+        if (ruleset == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("IP tables ruleset is not available");
+        }
+        return ResponseEntity.ok(ruleset);
+    }
+
+    /**
+     * Returns the rules matching the most traffic since the previous snapshot.
+     *
+     * @param limit Maximum number of rules (1-1000).
+     * @param by    Rate to sort by: packets or bytes.
+     * @return ResponseEntity containing the rules in descending order of rate.
+     */
+    @GetMapping("/ruleset/hot")
+    public ResponseEntity<?> getHotRules(@RequestParam(defaultValue = "10") int limit,
+                                         @RequestParam(defaultValue = "packets") String by) {
+        if (limit < 1 || limit > 1000) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and 1000");
+        }
+        try {
+            List<IptablesRuleStats> rules = rulesetService.getHotRules(limit, by);
+            return ResponseEntity.ok(rules);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Evaluates packets against the cached ruleset, plus any proposed rules, without calling iptables.
+     *
+     * @param request The chain, the packets and optional proposed rules.
+     * @return ResponseEntity containing one verdict per packet; 503 if the ruleset cannot be read.
+     */
+    @PostMapping("/simulate")
+    public ResponseEntity<?> simulate(@RequestBody SimulationRequest request) {
+        try {
+            SimulationResult result = simulator.simulate(request);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+}
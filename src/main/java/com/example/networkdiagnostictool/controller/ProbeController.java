@@ -0,0 +1,91 @@
+package com.example.networkdiagnostictool.controller;
+
+import com.example.networkdiagnostictool.model.ProbeStatus;
+import com.example.networkdiagnostictool.model.ProbeTarget;
+import com.example.networkdiagnostictool.service.ProbeScheduler;
+import com.example.networkdiagnostictool.validator.HostValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for continuously probed monitoring targets.
+ * Targets are registered once and probed in the background; reads return the latest results
+ * from memory without probing.
+ */
+@RestController
+@RequestMapping("/api/probes")
+public class ProbeController {
+
+    private final ProbeScheduler probeScheduler;
+    private final HostValidator hostValidator;
+
+    /**
+     * Constructor for dependency injection of ProbeScheduler and HostValidator.
+     *
+     * @param probeScheduler The scheduler probing the registered targets.
+     * @param hostValidator  The validator for hostnames and IP addresses.
+     */
+    @Autowired
+    public ProbeController(ProbeScheduler probeScheduler, HostValidator hostValidator) {
+        this.probeScheduler = probeScheduler;
+        this.hostValidator = hostValidator;
+    }
+
+    /**
+     * Endpoint for registering a probe target.
+     *
+     * @param target The host, port, probe type, interval and optional timeout and concurrency limit.
+     * @return ResponseEntity containing the registered target with its id, or an error message.
+     */
+    @PostMapping
+    public ResponseEntity<?> register(@RequestBody ProbeTarget target) {
+        if (!hostValidator.isValidHost(target.getHost())) {
+            return ResponseEntity.badRequest().body("Invalid hostname or IP address");
+        }
+        try {
+            return ResponseEntity.ok(probeScheduler.register(target));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Endpoint for unregistering a probe target.
+     *
+     * @param id The id assigned on registration.
+     * @return ResponseEntity containing the final results of the target, or 404 if it is unknown.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ProbeStatus> unregister(@PathVariable String id) {
+        ProbeStatus status = probeScheduler.unregister(id);
+        return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+    }
+
+    /**
+     * Endpoint for reading the latest results of all targets.
+     *
+     * @return ResponseEntity containing every target with its latest result.
+     */
+    @GetMapping
+    public ResponseEntity<List<ProbeStatus>> getStatuses() {
+        return ResponseEntity.ok(probeScheduler.getStatuses());
+    }
+
+    /**
+     * Endpoint for reading the latest result of one target.
+     *
+     * @param id The id assigned on registration.
+     * @return ResponseEntity containing the target with its latest result, or 404 if it is unknown.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ProbeStatus> getStatus(@PathVariable String id) {
+        ProbeStatus status = probeScheduler.getStatus(id);
+        return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+    }
+}
@@ -1,15 +1,47 @@
 package com.example.networkdiagnostictool.controller;
 
+import com.example.networkdiagnostictool.model.DnsCacheStats;
+import com.example.networkdiagnostictool.model.ThroughputResult;
+import com.example.networkdiagnostictool.service.CidrRange;
+import com.example.networkdiagnostictool.service.ConnectionTimingProbe;
+import com.example.networkdiagnostictool.service.DiagnosticExecutor;
+import com.example.networkdiagnostictool.service.HostResolver;
+import com.example.networkdiagnostictool.service.HostSweeper;
+import com.example.networkdiagnostictool.service.NioPortScanner;
+import com.example.networkdiagnostictool.service.PingProber;
+import com.example.networkdiagnostictool.service.ProbeResultCache;
 import com.example.networkdiagnostictool.service.TcpIpDiagnosticService;
+import com.example.networkdiagnostictool.service.ThroughputTester;
 import com.example.networkdiagnostictool.validator.HostValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * REST Controller for TCP/IP diagnostic operations with input validation.
  * This controller provides endpoints for basic network diagnostics
  * such as ping, port checking, and latency measurement.
+ * Diagnostics run on the {@link DiagnosticExecutor}, so a slow target holds none of the servlet threads.
  */
 @RestController
 @RequestMapping("/api/tcpip")
@@ -17,69 +49,421 @@ public class TcpIpDiagnosticController {
 
     private final TcpIpDiagnosticService tcpIpDiagnosticService;
     private final HostValidator hostValidator;
+    private final HostResolver hostResolver;
+    private final ThroughputTester throughputTester;
+    private final ProbeResultCache probeResultCache;
+    private final DiagnosticExecutor diagnosticExecutor;
+    private final ConnectionTimingProbe connectionTimingProbe;
+    private final HostSweeper hostSweeper;
+    private final PingProber pingProber;
+    private final long sweepTimeoutMillis;
 
     /**
-     * Constructor for dependency injection of TcpIpDiagnosticService and HostValidator.
+     * Constructor for dependency injection of TcpIpDiagnosticService, HostValidator, HostResolver,
+     * ThroughputTester, ProbeResultCache, DiagnosticExecutor, ConnectionTimingProbe, HostSweeper and PingProber.
      *
      * @param tcpIpDiagnosticService The service to be used for TCP/IP diagnostics.
      * @param hostValidator The validator for hostnames and IP addresses.
+     * @param hostResolver The shared host name cache.
+     * @param throughputTester The client side of throughput tests.
+     * @param probeResultCache The cache shared by identical ping and port probes.
+     * @param diagnosticExecutor The executor running diagnostics with per-host limits.
+     * @param connectionTimingProbe The probe timing the phases of connections to URLs.
+     * @param hostSweeper The rate-limited host discovery over address ranges.
+     * @param pingProber The prober sending series of pings.
+     * @param sweepTimeoutMillis Longest time a sweep may stream its results.
      */
     @Autowired
-    public TcpIpDiagnosticController(TcpIpDiagnosticService tcpIpDiagnosticService, HostValidator hostValidator) {
+    public TcpIpDiagnosticController(TcpIpDiagnosticService tcpIpDiagnosticService, HostValidator hostValidator,
+                                     HostResolver hostResolver, ThroughputTester throughputTester,
+                                     ProbeResultCache probeResultCache, DiagnosticExecutor diagnosticExecutor,
+                                     ConnectionTimingProbe connectionTimingProbe, HostSweeper hostSweeper,
+                                     PingProber pingProber,
+                                     @Value("${sweep.stream-timeout-ms:1800000}") long sweepTimeoutMillis) {
         this.tcpIpDiagnosticService = tcpIpDiagnosticService;
         this.hostValidator = hostValidator;
+        this.hostResolver = hostResolver;
+        this.throughputTester = throughputTester;
+        this.probeResultCache = probeResultCache;
+        this.diagnosticExecutor = diagnosticExecutor;
+        this.connectionTimingProbe = connectionTimingProbe;
+        this.hostSweeper = hostSweeper;
+        this.pingProber = pingProber;
+        this.sweepTimeoutMillis = sweepTimeoutMillis;
     }
 
     /**
-     * Endpoint for pinging a host.
+     * Endpoint for pinging a host. Identical concurrent requests share one ping, and its result is
+     * reused for {@code tcpip.cache.ttl-ms}; the {@code Age} and {@code X-Cache} headers tell the two apart.
      *
-     * @param host The hostname or IP address to ping.
-     * @return ResponseEntity containing the ping result or an error message.
+     * @param host  The hostname or IP address to ping.
+     * @param fresh Whether to ignore a cached result.
+     * @return ResponseEntity containing the ping result or an error message, once the ping finished.
      */
     @GetMapping("/ping")
-    public ResponseEntity<?> pingHost(@RequestParam String host) {
-        if (!hostValidator.isValidHost(host)) {
-            return ResponseEntity.badRequest().body("Invalid hostname or IP address");
+    public CompletableFuture<ResponseEntity<?>> pingHost(@RequestParam String host,
+                                                         @RequestParam(defaultValue = "false") boolean fresh) {
+        return respond(probeResultCache.get("ping", host, 0, fresh,
+                () -> submit(host, () -> tcpIpDiagnosticService.pingHost(host))),
+                TcpIpDiagnosticController::cached);
+    }
+
+    /**
+     * Endpoint for pinging a host with a series of probes sent at a fixed interval, without waiting for
+     * earlier replies. Probes are ICMP echo requests when the process has CAP_NET_RAW and TCP connects to
+     * {@code port} otherwise, or as chosen with {@code method}.
+     *
+     * @param host       The hostname or IP address to ping.
+     * @param count      The number of probes, defaults to 10.
+     * @param intervalMs The spacing between probes in milliseconds, defaults to 1000.
+     * @param timeoutMs  How long each probe waits for its reply in milliseconds, defaults to 2000.
+     * @param method     Optional {@code icmp} or {@code tcp}.
+     * @param port       The port TCP probes connect to, defaults to 80.
+     * @return ResponseEntity containing loss, RTT min/avg/max/mdev and reordering, or an error message.
+     */
+    @GetMapping("/ping/stats")
+    public CompletableFuture<ResponseEntity<?>> pingStats(@RequestParam String host,
+                                                          @RequestParam(defaultValue = "10") int count,
+                                                          @RequestParam(defaultValue = "1000") long intervalMs,
+                                                          @RequestParam(defaultValue = "2000") int timeoutMs,
+                                                          @RequestParam(required = false) String method,
+                                                          @RequestParam(defaultValue = "80") int port) {
+        if (count < 1 || count > 1000) {
+            return badRequest("Invalid count. Must be between 1 and 1000");
+        }
+        if (intervalMs < 10 || intervalMs > 10000) {
+            return badRequest("Invalid interval. Must be between 10 and 10000 milliseconds");
+        }
+        if ((count - 1) * intervalMs > 60000) {
+            return badRequest("Invalid count and interval. Probes must be sent within 60000 milliseconds");
+        }
+        if (timeoutMs < 1 || timeoutMs > 10000) {
+            return badRequest("Invalid timeout. Must be between 1 and 10000 milliseconds");
+        }
+        if (port < 1 || port > 65535) {
+            return badRequest("Invalid port number. Must be between 1 and 65535");
         }
-        boolean result = tcpIpDiagnosticService.pingHost(host);
-        return ResponseEntity.ok(result);
+        String probeMethod = method == null ? null : method.toLowerCase(Locale.ROOT);
+        return respond(submit(host, () -> pingProber.ping(host, probeMethod, port, count, intervalMs, timeoutMs)),
+                ResponseEntity::ok);
     }
 
     /**
-     * Endpoint for checking if a specific port on a host is open.
+     * Endpoint for checking if a specific port on a host is open. Identical requests are shared
+     * and cached like pings.
      *
-     * @param host The hostname or IP address to check.
-     * @param port The port number to check.
-     * @return ResponseEntity containing the port check result or an error message.
+     * @param host  The hostname or IP address to check.
+     * @param port  The port number to check.
+     * @param fresh Whether to ignore a cached result.
+     * @return ResponseEntity containing the port check result or an error message, once the check finished.
      */
     @GetMapping("/port")
-    public ResponseEntity<?> checkPort(@RequestParam String host, @RequestParam int port) {
-        if (!hostValidator.isValidHost(host)) {
-            return ResponseEntity.badRequest().body("Invalid hostname or IP address");
-        }
+    public CompletableFuture<ResponseEntity<?>> checkPort(@RequestParam String host, @RequestParam int port,
+                                                          @RequestParam(defaultValue = "false") boolean fresh) {
         if (port < 1 || port > 65535) {
-            return ResponseEntity.badRequest().body("Invalid port number. Must be between 1 and 65535");
+            return badRequest("Invalid port number. Must be between 1 and 65535");
         }
-        int result = tcpIpDiagnosticService.checkPort(host, port);
-        return ResponseEntity.ok(result);
+        return respond(probeResultCache.get("port", host, port, fresh,
+                () -> submit(host, () -> tcpIpDiagnosticService.checkPort(host, port))),
+                TcpIpDiagnosticController::cached);
+    }
+
+    /**
+     * Wraps a shared probe result with its age: {@code Age} in whole seconds as HTTP defines it,
+     * {@code X-Cache-Age-Ms} for sub-second TTLs, and {@code X-Cache} as HIT, MISS or COALESCED.
+     */
+    private static ResponseEntity<?> cached(ProbeResultCache.Result<?> result) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, Long.toString(result.getAgeMillis() / 1000))
+                .header("X-Cache-Age-Ms", Long.toString(result.getAgeMillis()))
+                .header("X-Cache", result.getSource().name())
+                .body(result.getValue());
     }
 
     /**
      * Endpoint for measuring latency to a specific host and port.
+     * Without {@code samples} a single connect time in milliseconds is returned; with it,
+     * a series of probes is sent and summarised into percentiles, jitter and failures.
      *
-     * @param host The hostname or IP address to measure latency to.
-     * @param port The port number to connect to.
-     * @return ResponseEntity containing the latency measurement or an error message.
+     * @param host       The hostname or IP address to measure latency to.
+     * @param port       The port number to connect to.
+     * @param samples    Optional number of probes to send.
+     * @param intervalMs Optional spacing between probes in milliseconds, defaults to 100.
+     * @return ResponseEntity containing the latency measurement or an error message, once measured.
      */
     @GetMapping("/latency")
-    public ResponseEntity<?> measureLatency(@RequestParam String host, @RequestParam int port) {
-        if (!hostValidator.isValidHost(host)) {
-            return ResponseEntity.badRequest().body("Invalid hostname or IP address");
+    public CompletableFuture<ResponseEntity<?>> measureLatency(@RequestParam String host, @RequestParam int port,
+                                                               @RequestParam(required = false) Integer samples,
+                                                               @RequestParam(defaultValue = "100") long intervalMs) {
+        if (port < 1 || port > 65535) {
+            return badRequest("Invalid port number. Must be between 1 and 65535");
+        }
+        if (samples == null) {
+            return respond(submit(host, () -> tcpIpDiagnosticService.measureLatency(host, port)), ResponseEntity::ok);
+        }
+        if (samples < 1 || samples > 1000) {
+            return badRequest("Invalid sample count. Must be between 1 and 1000");
+        }
+        if (intervalMs < 0 || intervalMs > 10000) {
+            return badRequest("Invalid interval. Must be between 0 and 10000 milliseconds");
+        }
+        return respond(submit(host, () -> tcpIpDiagnosticService.measureLatency(host, port, samples, intervalMs)),
+                ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint for timing the phases of connections to one or more URLs: name resolution, TCP connect,
+     * the TLS handshake for https URLs and, unless {@code request=false}, an HTTP GET up to the first
+     * response byte. The URLs are probed concurrently.
+     *
+     * @param url       One or more http or https URLs.
+     * @param request   Whether to send an HTTP request, defaults to true.
+     * @param timeoutMs Deadline of each network phase in milliseconds, defaults to 5000.
+     * @return ResponseEntity containing the per-phase timings in the order of the URLs, or an error message.
+     */
+    @GetMapping("/timing")
+    public CompletableFuture<ResponseEntity<?>> timeConnections(@RequestParam List<String> url,
+                                                                @RequestParam(defaultValue = "true") boolean request,
+                                                                @RequestParam(defaultValue = "5000") int timeoutMs) {
+        if (url.isEmpty() || url.size() > 100) {
+            return badRequest("Invalid URL count. Must be between 1 and 100");
+        }
+        if (timeoutMs < 1 || timeoutMs > 30000) {
+            return badRequest("Invalid timeout. Must be between 1 and 30000 milliseconds");
+        }
+        List<URI> urls = new ArrayList<>(url.size());
+        try {
+            for (String u : url) {
+                urls.add(ConnectionTimingProbe.parse(u));
+            }
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+        return respond(connectionTimingProbe.probeAll(urls, request, timeoutMs), ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint for discovering the live hosts of an IPv4 range. Hosts known from the ARP cache are
+     * reported first, then the remaining addresses are probed at a rate limited overall and per subnet.
+     * Results are streamed as newline-delimited JSON, one host per line, as they arrive, followed by a
+     * {@code {"summary": ...}} line with the totals, or an {@code {"error": ...}} line if the sweep failed.
+     *
+     * @param cidr      The range, e.g. {@code 10.0.0.0/20}.
+     * @param ports     Optional comma-separated TCP ports and ranges to try on every address.
+     * @param timeoutMs Per-probe deadline in milliseconds, defaults to 1000.
+     * @param all       Whether to report addresses that did not answer as well.
+     * @return ResponseEntity streaming one host per line.
+     */
+    @GetMapping(value = "/sweep", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> sweep(@RequestParam String cidr,
+                                                     @RequestParam(required = false) String ports,
+                                                     @RequestParam(defaultValue = "1000") int timeoutMs,
+                                                     @RequestParam(defaultValue = "false") boolean all) {
+        if (timeoutMs < 1 || timeoutMs > 10000) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid timeout. Must be between 1 and 10000 milliseconds");
+        }
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(sweepTimeoutMillis);
+        CompletableFuture<?> sweep;
+        try {
+            int[] portList = ports == null ? new int[0] : NioPortScanner.parsePortSpec(ports);
+            if (portList.length > 16) {
+                throw new IllegalArgumentException("Invalid port list. At most 16 ports per sweep");
+            }
+            sweep = hostSweeper.sweep(CidrRange.parse(cidr), portList, timeoutMs, all, host -> send(emitter, host));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+        sweep.whenComplete((summary, failure) -> {
+            if (failure instanceof CancellationException) {
+                emitter.complete();
+                return;
+            }
+            try {
+                if (failure == null) {
+                    send(emitter, Map.of("summary", summary));
+                    emitter.complete();
+                } else {
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure;
+                    send(emitter, Map.of("error", String.valueOf(cause.getMessage())));
+                    emitter.completeWithError(cause);
+                }
+            } catch (UncheckedIOException e) {
+                // The client went away
+                emitter.completeWithError(e);
+            }
+        });
+        // A client that went away or a stream past its timeout stops the probes
+        emitter.onTimeout(() -> sweep.cancel(false));
+        emitter.onError(e -> sweep.cancel(false));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    /**
+     * Writes one host or the closing line; results arrive from several probe threads, so the line is written under the emitter's lock.
+     */
+    private static void send(ResponseBodyEmitter emitter, Object line) {
+        synchronized (emitter) {
+            try {
+                emitter.send(line, MediaType.APPLICATION_JSON);
+                emitter.send("\n", MediaType.TEXT_PLAIN);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Endpoint for scanning many ports on a host in one request.
+     *
+     * @param host        The hostname or IP address to scan.
+     * @param ports       Comma-separated ports and ranges, e.g. {@code 22,80,8000-8100}.
+     * @param timeoutMs   Optional per-port connect deadline in milliseconds.
+     * @param concurrency Optional limit on concurrently outstanding connects.
+     * @return ResponseEntity containing the per-port scan result or an error message, once the scan finished.
+     */
+    @GetMapping("/scan")
+    public CompletableFuture<ResponseEntity<?>> scanPorts(@RequestParam String host, @RequestParam String ports,
+                                                          @RequestParam(required = false) Integer timeoutMs,
+                                                          @RequestParam(required = false) Integer concurrency) {
+        if (timeoutMs != null && (timeoutMs < 1 || timeoutMs > 30000)) {
+            return badRequest("Invalid timeout. Must be between 1 and 30000 milliseconds");
+        }
+        if (concurrency != null && concurrency < 1) {
+            return badRequest("Invalid concurrency. Must be at least 1");
+        }
+        int[] portList;
+        try {
+            portList = NioPortScanner.parsePortSpec(ports);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
         }
+        return respond(submit(host, () -> tcpIpDiagnosticService.scanPorts(host, portList, timeoutMs, concurrency)),
+                ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint for measuring TCP throughput to another instance of this tool running the throughput listener.
+     * The response is sent once the test has finished.
+     *
+     * @param host       The hostname or IP address of the listener.
+     * @param port       The listener port, defaults to 5201.
+     * @param direction  {@code upload} to send to the listener, {@code download} to receive from it.
+     * @param durationMs Test length in milliseconds, defaults to 5000.
+     * @param bytes      Optional total number of bytes after which the test ends early.
+     * @param streams    Number of parallel connections, defaults to 1.
+     * @param intervalMs Sampling interval in milliseconds, defaults to 1000.
+     * @return ResponseEntity containing the goodput over the test and per interval, or an error message.
+     */
+    @GetMapping("/throughput")
+    public CompletableFuture<ResponseEntity<?>> measureThroughput(@RequestParam String host,
+                                                                  @RequestParam(defaultValue = "5201") int port,
+                                                                  @RequestParam(defaultValue = "upload") String direction,
+                                                                  @RequestParam(defaultValue = "5000") long durationMs,
+                                                                  @RequestParam(required = false) Long bytes,
+                                                                  @RequestParam(defaultValue = "1") int streams,
+                                                                  @RequestParam(defaultValue = "1000") long intervalMs) {
         if (port < 1 || port > 65535) {
-            return ResponseEntity.badRequest().body("Invalid port number. Must be between 1 and 65535");
+            return badRequest("Invalid port number. Must be between 1 and 65535");
+        }
+        ThroughputResult.Direction parsed;
+        try {
+            parsed = ThroughputResult.Direction.valueOf(direction.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return badRequest("Invalid direction. Must be upload or download");
+        }
+        if (durationMs < 1 || durationMs > 60000) {
+            return badRequest("Invalid duration. Must be between 1 and 60000 milliseconds");
+        }
+        if (bytes != null && bytes < 1) {
+            return badRequest("Invalid byte count. Must be at least 1");
+        }
+        if (streams < 1 || streams > 16) {
+            return badRequest("Invalid stream count. Must be between 1 and 16");
+        }
+        if (intervalMs < 100 || intervalMs > 10000) {
+            return badRequest("Invalid interval. Must be between 100 and 10000 milliseconds");
+        }
+        return respond(submit(host, () -> throughputTester.run(host, port, parsed, durationMs, bytes, streams, intervalMs)),
+                ResponseEntity::ok);
+    }
+
+    /**
+     * Runs a diagnostic on the diagnostic executor, validating the host there as well, since
+     * validating a name may have to resolve it.
+     */
+    private <T> CompletableFuture<T> submit(String host, Supplier<T> diagnostic) {
+        if (host == null || host.isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid hostname or IP address"));
         }
-        long result = tcpIpDiagnosticService.measureLatency(host, port);
-        return ResponseEntity.ok(result);
+        return diagnosticExecutor.submit(host, () -> {
+            if (!hostValidator.isValidHost(host)) {
+                throw new IllegalArgumentException("Invalid hostname or IP address");
+            }
+            return diagnostic.get();
+        });
+    }
+
+    /**
+     * Turns the outcome of a diagnostic into a response: invalid input into 400, and a saturated
+     * host or executor into 503, so clients back off instead of queueing more work.
+     */
+    private static <T> CompletableFuture<ResponseEntity<?>> respond(CompletableFuture<T> result,
+                                                                    Function<T, ResponseEntity<?>> response) {
+        return result.handle((value, failure) -> {
+            if (failure == null) {
+                return response.apply(value);
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            if (cause instanceof IllegalArgumentException) {
+                return ResponseEntity.badRequest().body(cause.getMessage());
+            }
+            if (cause instanceof RejectedExecutionException || cause instanceof IllegalStateException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(cause.getMessage());
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    private static CompletableFuture<ResponseEntity<?>> badRequest(String message) {
+        return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(message));
+    }
+
+    /**
+     * Endpoint for inspecting the shared host name cache.
+     *
+     * @return ResponseEntity containing the cache hit, miss and eviction counters.
+     */
+    @GetMapping("/dns-cache")
+    public ResponseEntity<DnsCacheStats> getDnsCacheStats() {
+        return ResponseEntity.ok(hostResolver.getStats());
+    }
+
+    /**
+     * Endpoint for switching the host name cache off or back on, e.g. while troubleshooting resolution.
+     *
+     * @param bypass true to resolve every name directly, false to use the cache again.
+     * @return ResponseEntity containing the cache counters after the change.
+     */
+    @PutMapping("/dns-cache")
+    public ResponseEntity<DnsCacheStats> setDnsCacheBypass(@RequestParam boolean bypass) {
+        hostResolver.setBypass(bypass);
+        return ResponseEntity.ok(hostResolver.getStats());
+    }
+
+    /**
+     * Endpoint for dropping every cached host name.
+     *
+     * @return ResponseEntity containing the cache counters after clearing.
+     */
+    @DeleteMapping("/dns-cache")
+    public ResponseEntity<DnsCacheStats> clearDnsCache() {
+        hostResolver.clear();
+        return ResponseEntity.ok(hostResolver.getStats());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.example.networkdiagnostictool.metrics;
+
+import com.example.networkdiagnostictool.service.CommandExecutor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the process counters of the {@link CommandExecutor}: processes forked, destroyed on
+ * timeout, rejected for lack of a slot and failed to start, plus the number currently running.
+ * The meters read the executor's own counters when scraped and add nothing to the command path.
+ */
+@Component
+public class CommandExecutorMetrics implements MeterBinder {
+
+    private final CommandExecutor commandExecutor;
+
+    @Autowired
+    public CommandExecutorMetrics(CommandExecutor commandExecutor) {
+        this.commandExecutor = commandExecutor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("command.forks", commandExecutor, CommandExecutor::getForkCount)
+                .description("External processes started")
+                .register(registry);
+        FunctionCounter.builder("command.timeouts", commandExecutor, CommandExecutor::getTimeoutCount)
+                .description("External processes destroyed after exceeding their timeout")
+                .register(registry);
+        FunctionCounter.builder("command.rejections", commandExecutor, CommandExecutor::getRejectedCount)
+                .description("Commands rejected because every execution slot was busy")
+                .register(registry);
+        FunctionCounter.builder("command.start.failures", commandExecutor, CommandExecutor::getStartFailureCount)
+                .description("Commands whose process could not be started")
+                .register(registry);
+        Gauge.builder("command.active", commandExecutor, CommandExecutor::getActiveCount)
+                .description("External processes currently running")
+                .register(registry);
+        Gauge.builder("command.duration.max", commandExecutor, CommandExecutor::getMaxDurationMillis)
+                .description("Longest wall-clock time of any completed command")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+}
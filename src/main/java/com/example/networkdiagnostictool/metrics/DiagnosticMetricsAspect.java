@@ -0,0 +1,116 @@
+package com.example.networkdiagnostictool.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the diagnostic services into the {@code diagnostic.method} timer,
+ * tagged with the class, the method and the outcome:
+ * <ul>
+ *     <li>{@code success} - the method returned a regular result,</li>
+ *     <li>{@code failure} - the method reported a failed diagnostic through its result:
+ *     {@code false}, a negative number, or an "Error"/"Failed" message,</li>
+ *     <li>{@code error} - the method threw.</li>
+ * </ul>
+ * Methods returning a {@link CompletableFuture} are timed until the future completes, and its value
+ * is classified instead of the future itself.
+ * Timers publish a percentile histogram for Prometheus. They are looked up once per method and
+ * cached, so a call costs a map lookup, two clock reads and a lock-free histogram update.
+ */
+@Aspect
+@Component
+public class DiagnosticMetricsAspect {
+
+    static final String METRIC_NAME = "diagnostic.method";
+
+    private enum Outcome {
+        SUCCESS, FAILURE, ERROR
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DiagnosticMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.example.networkdiagnostictool.service.TcpIpDiagnosticService.*(..))"
+            + " || execution(public * com.example.networkdiagnostictool.service.ArpCacheService.*(..))"
+            + " || execution(public * com.example.networkdiagnostictool.service.IpTablesService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timer[] byOutcome = timers.get(method);
+        if (byOutcome == null) {
+            byOutcome = timers.computeIfAbsent(method, this::register);
+        }
+
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            Object result = joinPoint.proceed();
+            if (result instanceof CompletableFuture) {
+                // Hand out the dependent stage, so callers observe completion only once it is recorded
+                Timer[] timersByOutcome = byOutcome;
+                outcome = null;
+                return ((CompletableFuture<?>) result).whenComplete((value, error) -> {
+                    Outcome completed = error != null ? Outcome.ERROR : classify(value);
+                    timersByOutcome[completed.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                });
+            }
+            outcome = classify(result);
+            return result;
+        } finally {
+            if (outcome != null) {
+                byOutcome[outcome.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private Timer[] register(Method method) {
+        Outcome[] outcomes = Outcome.values();
+        Timer[] byOutcome = new Timer[outcomes.length];
+        for (Outcome outcome : outcomes) {
+            byOutcome[outcome.ordinal()] = Timer.builder(METRIC_NAME)
+                    .description("Duration of diagnostic service calls")
+                    .tag("class", method.getDeclaringClass().getSimpleName())
+                    .tag("method", method.getName())
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(60))
+                    .register(registry);
+        }
+        return byOutcome;
+    }
+
+    /**
+     * Recognises the sentinel results the services use to report a failed diagnostic.
+     */
+    private static Outcome classify(Object result) {
+        if (Boolean.FALSE.equals(result)) {
+            return Outcome.FAILURE;
+        }
+        if (result instanceof Number && ((Number) result).longValue() < 0) {
+            return Outcome.FAILURE;
+        }
+        if (result instanceof String && (((String) result).startsWith("Error") || ((String) result).startsWith("Failed"))) {
+            return Outcome.FAILURE;
+        }
+        return Outcome.SUCCESS;
+    }
+}
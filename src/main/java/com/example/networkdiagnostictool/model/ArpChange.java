@@ -0,0 +1,29 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents a single difference between two consecutive ARP cache snapshots.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArpChange {
+    private Type type;
+
+    /**
+     * The entry as it is now, or the entry that disappeared for {@link Type#REMOVED}.
+     */
+    private ArpEntry entry;
+
+    /**
+     * The entry as it was before, only set for {@link Type#CHANGED}.
+     */
+    private ArpEntry previous;
+
+    public enum Type {
+        ADDED, REMOVED, CHANGED
+    }
+}
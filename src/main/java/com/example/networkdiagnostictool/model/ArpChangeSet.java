@@ -0,0 +1,27 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The changes detected by one ARP cache refresh, published to change feed subscribers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArpChangeSet {
+    /**
+     * Monotonically increasing sequence number, also used as the SSE event id.
+     */
+    private long sequence;
+
+    /**
+     * Epoch milliseconds at which the refresh completed.
+     */
+    private long timestamp;
+
+    private List<ArpChange> changes;
+}
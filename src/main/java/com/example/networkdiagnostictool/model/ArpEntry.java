@@ -13,6 +13,16 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ArpEntry {
+    /**
+     * ARP flag set once the neighbour's hardware address is known (ATF_COM).
+     */
+    public static final int FLAG_COMPLETE = 0x2;
+
+    /**
+     * ARP flag set on statically configured entries (ATF_PERM).
+     */
+    public static final int FLAG_PERMANENT = 0x4;
+
     /**
      * The IP address associated with this entry.
      */
@@ -27,4 +37,25 @@ public class ArpEntry {
      * The name of the network interface for this entry.
      */
     private String interfaceName;
-}
\ No newline at end of file
+
+    /**
+     * The ARP hardware type (1 for Ethernet), or null if the source does not report it.
+     */
+    private Integer hwType;
+
+    /**
+     * The ARP flags bit set, or null if the source does not report them.
+     */
+    private Integer flags;
+
+    /**
+     * Creates an entry for sources that do not report hardware type or flags.
+     *
+     * @param ipAddress     The IP address.
+     * @param macAddress    The MAC address.
+     * @param interfaceName The network interface name.
+     */
+    public ArpEntry(String ipAddress, String macAddress, String interfaceName) {
+        this(ipAddress, macAddress, interfaceName, null, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A value and the number of sockets sharing it, such as a remote address or a local port.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionCount {
+    private String value;
+    private int count;
+}
@@ -0,0 +1,47 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregate view of the kernel's TCP and UDP socket tables, IPv4 and IPv6 combined.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionSummary {
+    private int total;
+    private int tcp;
+    private int udp;
+
+    /**
+     * Number of TCP sockets per state, only states with sockets.
+     */
+    private Map<String, Integer> tcpStates;
+
+    /**
+     * Number of distinct remote addresses among connected sockets.
+     */
+    private int remoteAddresses;
+
+    /**
+     * Remote addresses with the most sockets, listening and unconnected sockets excluded.
+     */
+    private List<ConnectionCount> topRemoteAddresses;
+
+    /**
+     * Local ports, as {@code <port>/<protocol>}, with the most sockets, listening sockets excluded.
+     */
+    private List<ConnectionCount> topLocalPorts;
+
+    /**
+     * Time spent reading and aggregating the tables.
+     */
+    private long elapsedMicros;
+}
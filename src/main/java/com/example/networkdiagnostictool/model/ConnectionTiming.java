@@ -0,0 +1,62 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-phase timings of one connection to a URL. All times are in microseconds; a phase that was
+ * not run, or not reached because an earlier phase failed, is null.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionTiming {
+    private String url;
+    private String address;
+    private int port;
+
+    /**
+     * A query to the name servers for the host's address, bypassing every cache; 0 for IP literals.
+     * Null if the query got no address, see {@link #dnsError}.
+     */
+    private Long dnsMicros;
+
+    /**
+     * Why the DNS query got no address, e.g. the name servers could not be reached or the name is only
+     * in the hosts file. The connection still uses the address the tool's resolver returns.
+     */
+    private String dnsError;
+
+    /**
+     * TCP handshake.
+     */
+    private Long connectMicros;
+
+    /**
+     * TLS handshake, for https URLs only.
+     */
+    private Long tlsMicros;
+
+    /**
+     * From sending the HTTP request to receiving the first byte of the response.
+     */
+    private Long firstByteMicros;
+
+    /**
+     * All phases that were run, back to back.
+     */
+    private Long totalMicros;
+
+    private String tlsProtocol;
+    private String cipherSuite;
+    private Integer statusCode;
+
+    /**
+     * The phase that failed ({@code dns}, {@code connect}, {@code tls} or {@code http}), null on success.
+     */
+    private String failedPhase;
+    private String error;
+}
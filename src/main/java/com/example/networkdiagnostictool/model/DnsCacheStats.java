@@ -0,0 +1,41 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counters of the shared host name cache.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DnsCacheStats {
+    /**
+     * Whether names are currently resolved directly, bypassing the cache.
+     */
+    private boolean bypass;
+    private int size;
+    private int maxEntries;
+    private long hits;
+
+    /**
+     * Hits on names remembered as unknown.
+     */
+    private long negativeHits;
+    private long misses;
+
+    /**
+     * Misses that waited for a lookup already in progress instead of starting their own.
+     */
+    private long coalescedMisses;
+
+    /**
+     * Background refreshes of names hit shortly before expiring.
+     */
+    private long refreshes;
+    private long evictions;
+    private double hitRatio;
+}
@@ -0,0 +1,43 @@
+package com.example.networkdiagnostictool.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The answer of one peer instance to a fanned-out diagnostic.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetPeerResult {
+    /**
+     * The peer's base URL, e.g. {@code http://10.0.0.7:8080}.
+     */
+    private String peer;
+
+    /**
+     * The peer's HTTP status; null if it did not answer.
+     */
+    private Integer status;
+
+    /**
+     * The HTTP version the answer came over, e.g. {@code HTTP_2}.
+     */
+    private String protocol;
+
+    private long elapsedMillis;
+
+    /**
+     * The peer's response body: JSON as returned, anything else as a string.
+     */
+    private JsonNode body;
+
+    /**
+     * Why the peer did not answer, or the non-2xx status it answered with.
+     */
+    private String error;
+}
@@ -0,0 +1,42 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The merged answers of all peers to one fanned-out diagnostic. Peers that failed are reported
+ * alongside the others rather than failing the whole request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetResult {
+    /**
+     * The path and query sent to every peer.
+     */
+    private String request;
+
+    private int peers;
+
+    /**
+     * Peers that answered with a 2xx status.
+     */
+    private int succeeded;
+
+    /**
+     * Peers that did not answer within the timeout, could not be reached, or answered with a non-2xx status.
+     */
+    private int failed;
+
+    private long elapsedMillis;
+
+    /**
+     * One result per peer, in the order the peers were given.
+     */
+    private List<FleetPeerResult> results;
+}
@@ -0,0 +1,33 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One raw sample or one aggregated bucket of a history series. For a raw sample the count is 1
+ * and min, max and mean are the sampled value.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryPoint {
+    /**
+     * Sample time, or the start of the bucket, in epoch milliseconds.
+     */
+    private long timestamp;
+
+    private int count;
+
+    /**
+     * Samples that recorded a failure, e.g. a probe that did not connect. Failures carry no value
+     * and are excluded from min, max and mean.
+     */
+    private int failures;
+
+    private Double min;
+    private Double max;
+    private Double mean;
+}
@@ -0,0 +1,24 @@
+package com.example.networkdiagnostictool.model;
+
+/**
+ * The resolutions kept by the history store. Raw samples are stored as measured; each coarser
+ * resolution aggregates the one below it into fixed time buckets.
+ */
+public enum HistoryResolution {
+    RAW(0),
+    MINUTE(60_000),
+    HOUR(3_600_000);
+
+    private final long bucketMillis;
+
+    HistoryResolution(long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+    }
+
+    /**
+     * @return The bucket width in milliseconds, or 0 for raw samples.
+     */
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The result of a history range query.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistorySeries {
+    private String series;
+    private HistoryResolution resolution;
+    private long from;
+    private long to;
+
+    /**
+     * Whether more points matched than the query limit; the earliest points are returned.
+     */
+    private boolean truncated;
+
+    private List<HistoryPoint> points;
+}
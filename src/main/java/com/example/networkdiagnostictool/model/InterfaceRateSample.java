@@ -0,0 +1,34 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-second rates of one interface over one sampling interval.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterfaceRateSample {
+    /**
+     * End of the interval, epoch milliseconds.
+     */
+    private long timestamp;
+
+    /**
+     * Length of the interval the rates span, which may differ from the configured sampling interval.
+     */
+    private double durationMillis;
+
+    private double rxBytesPerSecond;
+    private double txBytesPerSecond;
+    private double rxPacketsPerSecond;
+    private double txPacketsPerSecond;
+    private double rxErrorsPerSecond;
+    private double txErrorsPerSecond;
+    private double rxDroppedPerSecond;
+    private double txDroppedPerSecond;
+}
@@ -0,0 +1,47 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counters and current rates of one network interface, as sampled from {@code /proc/net/dev}.
+ * Rates cover the latest sampling interval and are null until the interface has been sampled twice.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterfaceStats {
+    private String name;
+
+    /**
+     * The kernel's operational state, e.g. {@code up} or {@code down}, from {@code /sys/class/net}.
+     */
+    private String operState;
+
+    /**
+     * Link speed in megabits per second, null where the driver reports none (e.g. veth, loopback).
+     */
+    private Integer speedMbps;
+
+    private long rxBytes;
+    private long txBytes;
+    private long rxPackets;
+    private long txPackets;
+    private long rxErrors;
+    private long txErrors;
+    private long rxDropped;
+    private long txDropped;
+
+    private Double rxBytesPerSecond;
+    private Double txBytesPerSecond;
+    private Double rxPacketsPerSecond;
+    private Double txPacketsPerSecond;
+
+    /**
+     * The busier direction's bit rate as a fraction of the link speed, null without a link speed.
+     */
+    private Double utilization;
+}
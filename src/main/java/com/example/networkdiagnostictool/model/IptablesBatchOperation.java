@@ -0,0 +1,33 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One rule addition or deletion within an atomic batch of iptables changes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IptablesBatchOperation {
+    private Operation operation;
+    private IptablesRule rule;
+
+    public enum Operation {
+        ADD("-A"), DELETE("-D");
+
+        private final String flag;
+
+        Operation(String flag) {
+            this.flag = flag;
+        }
+
+        /**
+         * @return The iptables command flag for this operation.
+         */
+        public String getFlag() {
+            return flag;
+        }
+    }
+}
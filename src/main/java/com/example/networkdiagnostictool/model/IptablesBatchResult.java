@@ -0,0 +1,48 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The outcome of applying a batch of iptables changes. A batch is applied all-or-nothing:
+ * if any operation fails validation, nothing is applied and every problem is reported.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IptablesBatchResult {
+    /**
+     * Whether the whole batch was committed.
+     */
+    private boolean applied;
+
+    /**
+     * Number of operations in the batch.
+     */
+    private int operationCount;
+
+    /**
+     * Human-readable summary, including iptables-restore's error output on failure.
+     */
+    private String message;
+
+    private long durationMillis;
+
+    /**
+     * Validation problems, keyed by the index of the operation in the request.
+     */
+    private List<RuleError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RuleError {
+        private int index;
+        private String message;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A chain of one iptables table with its policy counters and rules.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IptablesChain {
+    private String table;
+    private String name;
+
+    /**
+     * The default policy of a built-in chain, or null for user-defined chains.
+     */
+    private String policy;
+
+    /**
+     * Packets that reached the end of the chain and got the policy applied.
+     */
+    private long packets;
+    private long bytes;
+
+    private List<IptablesRuleStats> rules;
+}
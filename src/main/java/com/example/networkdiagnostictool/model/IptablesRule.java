@@ -1,10 +1,18 @@
 package com.example.networkdiagnostictool.model;
 
+import com.example.networkdiagnostictool.util.HostParser;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class IptablesRule {
     private Chain chain;
     private String sourceIp;
@@ -26,27 +34,79 @@ public class IptablesRule {
         ACCEPT, DROP, REJECT
     }
 
+    /**
+     * Checks that the rule can be rendered into a well-formed iptables rule specification.
+     *
+     * @return The problems found, empty if the rule is valid.
+     */
+    public List<String> validate() {
+        List<String> errors = new ArrayList<>();
+        if (chain == null) {
+            errors.add("chain is required");
+        }
+        if (action == null) {
+            errors.add("action is required");
+        }
+        if (sourceIp != null && !isValidAddress(sourceIp)) {
+            errors.add("sourceIp must be an IPv4 address or CIDR block: " + sourceIp);
+        }
+        if (destinationIp != null && !isValidAddress(destinationIp)) {
+            errors.add("destinationIp must be an IPv4 address or CIDR block: " + destinationIp);
+        }
+        if (sourcePort != null && (sourcePort < 1 || sourcePort > 65535)) {
+            errors.add("sourcePort must be between 1 and 65535");
+        }
+        if (destinationPort != null && (destinationPort < 1 || destinationPort > 65535)) {
+            errors.add("destinationPort must be between 1 and 65535");
+        }
+        if ((sourcePort != null || destinationPort != null) && protocol != Protocol.TCP && protocol != Protocol.UDP) {
+            errors.add("ports require protocol TCP or UDP");
+        }
+        return errors;
+    }
+
     public String toIptablesCommand() {
-        StringBuilder command = new StringBuilder();
-        command.append("-A ").append(chain);
+        return String.join(" ", toArguments("-A"));
+    }
+
+    /**
+     * Renders the rule as separate iptables arguments, suitable for execution without a shell.
+     *
+     * @param operation The rule operation, e.g. {@code -A} to append or {@code -D} to delete.
+     * @return The arguments, starting with the operation and the chain.
+     */
+    public List<String> toArguments(String operation) {
+        List<String> arguments = new ArrayList<>();
+        arguments.add(operation);
+        arguments.add(String.valueOf(chain));
 
         if (sourceIp != null) {
-            command.append(" -s ").append(sourceIp);
+            arguments.add("-s");
+            arguments.add(sourceIp);
         }
         if (destinationIp != null) {
-            command.append(" -d ").append(destinationIp);
+            arguments.add("-d");
+            arguments.add(destinationIp);
         }
         if (protocol != null) {
-            command.append(" -p ").append(protocol.toString().toLowerCase());
+            arguments.add("-p");
+            arguments.add(protocol.toString().toLowerCase());
         }
         if (sourcePort != null) {
-            command.append(" --sport ").append(sourcePort);
+            arguments.add("--sport");
+            arguments.add(sourcePort.toString());
         }
         if (destinationPort != null) {
-            command.append(" --dport ").append(destinationPort);
+            arguments.add("--dport");
+            arguments.add(destinationPort.toString());
         }
-        command.append(" -j ").append(action);
+        arguments.add("-j");
+        arguments.add(String.valueOf(action));
+
+        return arguments;
+    }
 
-        return command.toString();
+    private static boolean isValidAddress(String address) {
+        return HostParser.parseIpv4Cidr(address) >= 0;
     }
-}
\ No newline at end of file
+}
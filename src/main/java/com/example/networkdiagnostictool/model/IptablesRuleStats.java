@@ -0,0 +1,81 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A rule parsed from {@code iptables-save -c} output, with its counters and counter rates.
+ * Match options this tool understands are broken out into fields; the complete rule text
+ * is always kept in {@link #spec}.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class IptablesRuleStats {
+    private String table;
+    private String chain;
+
+    /**
+     * 1-based position of the rule within its chain.
+     */
+    private int position;
+
+    /**
+     * The rule specification as saved, without the leading {@code -A <chain>}.
+     */
+    private String spec;
+
+    private String sourceIp;
+    private String destinationIp;
+
+    /**
+     * The protocol when it is one of the {@link IptablesRule.Protocol} values, otherwise null.
+     */
+    private IptablesRule.Protocol protocol;
+
+    /**
+     * The raw protocol name or number, e.g. {@code tcp}, {@code sctp} or {@code 47}.
+     */
+    private String protocolName;
+
+    /**
+     * Source port or port range ({@code low:high}).
+     */
+    private String sourcePort;
+
+    /**
+     * Destination port or port range ({@code low:high}).
+     */
+    private String destinationPort;
+
+    private String inInterface;
+    private String outInterface;
+
+    /**
+     * The jump or goto target: a verdict, an extension target or a user-defined chain.
+     */
+    private String target;
+
+    /**
+     * The verdict when the target is one of the {@link IptablesRule.Action} values, otherwise null.
+     */
+    private IptablesRule.Action action;
+
+    /**
+     * Whether the target was given with {@code -g} (goto) rather than {@code -j}.
+     */
+    private boolean gotoTarget;
+
+    /**
+     * False if the rule uses negation or match options beyond the fields above.
+     */
+    private boolean fullyParsed;
+
+    private long packets;
+    private long bytes;
+    private double packetsPerSecond;
+    private double bytesPerSecond;
+}
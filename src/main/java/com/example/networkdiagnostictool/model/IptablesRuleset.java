@@ -0,0 +1,27 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A point-in-time snapshot of the complete iptables ruleset with counters.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IptablesRuleset {
+    /**
+     * Epoch milliseconds at which the snapshot was taken.
+     */
+    private long timestamp;
+
+    /**
+     * Time since the previous snapshot that the counter rates were computed over, or 0 for the first one.
+     */
+    private long intervalMillis;
+
+    private List<IptablesChain> chains;
+}
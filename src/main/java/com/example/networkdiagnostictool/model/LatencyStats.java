@@ -0,0 +1,42 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Summarises a series of TCP connect latency probes to one host and port.
+ * All times are in microseconds and cover only the TCP handshake.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencyStats {
+    private String host;
+    private String address;
+    private int port;
+
+    /**
+     * Number of probes sent.
+     */
+    private int samples;
+
+    /**
+     * Number of probes that failed to connect within the timeout.
+     */
+    private int failures;
+
+    private long minMicros;
+    private long p50Micros;
+    private long p90Micros;
+    private long p99Micros;
+    private long maxMicros;
+    private double meanMicros;
+
+    /**
+     * Mean absolute difference between consecutive successful samples.
+     */
+    private double jitterMicros;
+}
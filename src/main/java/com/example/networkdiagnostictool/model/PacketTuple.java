@@ -0,0 +1,31 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A packet to run through the iptables simulator, described by the header fields rules match on.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PacketTuple {
+    private IptablesRule.Protocol protocol;
+    private String sourceIp;
+    private Integer sourcePort;
+    private String destinationIp;
+    private Integer destinationPort;
+
+    /**
+     * The interface the packet arrives on; rules matching on {@code -i} never match when absent.
+     */
+    private String inInterface;
+
+    /**
+     * The interface the packet leaves through; rules matching on {@code -o} never match when absent.
+     */
+    private String outInterface;
+}
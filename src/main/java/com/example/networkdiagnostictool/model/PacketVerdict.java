@@ -0,0 +1,33 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The simulated fate of one packet.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PacketVerdict {
+    /**
+     * The terminating target, e.g. ACCEPT, DROP or REJECT, or the chain policy.
+     */
+    private String verdict;
+
+    /**
+     * The chain holding the rule that decided the verdict.
+     */
+    private String chain;
+
+    /**
+     * 1-based position of the deciding rule within its chain, or null if the policy applied.
+     */
+    private Integer position;
+
+    /**
+     * False if the packet passed a rule the simulator cannot evaluate, which might have matched.
+     */
+    private boolean exact;
+}
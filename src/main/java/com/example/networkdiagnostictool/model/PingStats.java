@@ -0,0 +1,49 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Summarises a series of ping probes to one host, in the terms of the {@code ping} command.
+ * Round-trip times are in microseconds and cover only the probes that were answered.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PingStats {
+    private String host;
+    private String address;
+
+    /**
+     * {@code icmp} for echo requests, {@code tcp} for connection attempts, which count a reset as a reply.
+     */
+    private String method;
+
+    /**
+     * The port connected to by TCP probes; null for ICMP.
+     */
+    private Integer port;
+
+    private int sent;
+    private int received;
+    private double lossPercent;
+
+    private Long minMicros;
+    private Double avgMicros;
+    private Long maxMicros;
+
+    /**
+     * Standard deviation of the round-trip times, which {@code ping} reports as mdev.
+     */
+    private Double mdevMicros;
+
+    /**
+     * Replies that arrived after the reply to a probe sent later.
+     */
+    private int outOfOrder;
+
+    private long elapsedMillis;
+}
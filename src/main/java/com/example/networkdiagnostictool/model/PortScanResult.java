@@ -0,0 +1,42 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents the result of scanning a set of TCP ports on a single host.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortScanResult {
+    /**
+     * The host as requested by the caller.
+     */
+    private String host;
+
+    /**
+     * The IP address the host resolved to.
+     */
+    private String address;
+
+    private int scannedPorts;
+    private int openPorts;
+    private int closedPorts;
+    private int filteredPorts;
+
+    /**
+     * Wall-clock duration of the whole scan in milliseconds.
+     */
+    private long durationMillis;
+
+    /**
+     * Per-port results, in the order the ports were requested.
+     */
+    private List<PortStatus> ports;
+}
@@ -0,0 +1,43 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the outcome of probing a single TCP port during a port scan.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortStatus {
+    /**
+     * The port number that was probed.
+     */
+    private int port;
+
+    /**
+     * The observed state of the port.
+     */
+    private State state;
+
+    /**
+     * Time taken to complete the TCP handshake in microseconds, or -1 if the port is not open.
+     */
+    private long connectMicros;
+
+    public enum State {
+        /**
+         * The handshake completed.
+         */
+        OPEN,
+        /**
+         * The host actively refused the connection (RST).
+         */
+        CLOSED,
+        /**
+         * No answer before the deadline, or the path reported the host as unreachable.
+         */
+        FILTERED
+    }
+}
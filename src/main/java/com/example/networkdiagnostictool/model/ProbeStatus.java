@@ -0,0 +1,38 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A registered probe target together with its latest result and running counters.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProbeStatus {
+    private ProbeTarget target;
+
+    /**
+     * Completion time of the latest probe in epoch milliseconds, or null before the first probe completed.
+     */
+    private Long lastProbeTime;
+
+    private Boolean lastSuccess;
+
+    /**
+     * Duration of the latest probe in microseconds, or -1 if it failed.
+     */
+    private long lastLatencyMicros;
+
+    private long probes;
+    private long failures;
+    private long consecutiveFailures;
+
+    /**
+     * Probes not sent because the target's concurrency limit was reached or the probe pool was saturated.
+     */
+    private long skipped;
+}
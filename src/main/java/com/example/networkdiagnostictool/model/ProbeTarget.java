@@ -0,0 +1,56 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A target probed continuously by the probe scheduler.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProbeTarget {
+    /**
+     * Assigned on registration; ignored in registration requests.
+     */
+    private String id;
+
+    private String host;
+
+    /**
+     * The port to connect to; required for TCP probes, ignored for pings.
+     */
+    private Integer port;
+
+    private Type type;
+
+    /**
+     * Spacing between consecutive probes.
+     */
+    private long intervalMillis;
+
+    /**
+     * Deadline of a single probe; defaults to the interval, capped at 5 seconds.
+     */
+    private Integer timeoutMillis;
+
+    /**
+     * Maximum number of probes of this target outstanding at once; a probe that is due while the limit
+     * is reached is skipped. Defaults to 1.
+     */
+    private Integer maxConcurrent;
+
+    public enum Type {
+        /**
+         * Times a TCP handshake to the port.
+         */
+        TCP,
+        /**
+         * Checks reachability of the host, as {@code /api/tcpip/ping} does.
+         */
+        PING
+    }
+}
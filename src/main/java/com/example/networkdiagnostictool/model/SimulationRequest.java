@@ -0,0 +1,27 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A batch of packets to evaluate against the current ruleset, optionally with proposed rules.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationRequest {
+    /**
+     * The built-in filter chain the packets traverse.
+     */
+    private IptablesRule.Chain chain;
+
+    /**
+     * Rules appended to the end of their chains before evaluating, as {@code iptables -A} would.
+     */
+    private List<IptablesRule> proposedRules;
+
+    private List<PacketTuple> packets;
+}
@@ -0,0 +1,37 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The verdicts of a simulation batch, in the order the packets were given.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationResult {
+    private String chain;
+
+    /**
+     * Epoch milliseconds of the ruleset snapshot the packets were evaluated against.
+     */
+    private long rulesetTimestamp;
+
+    /**
+     * Number of filter rules compiled, including proposed rules.
+     */
+    private int ruleCount;
+
+    /**
+     * Number of rules using matches or negations the simulator does not model; they never match.
+     */
+    private int unsupportedRuleCount;
+
+    private long evaluationMicros;
+    private List<PacketVerdict> verdicts;
+}
@@ -0,0 +1,42 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One socket from the kernel's TCP or UDP socket table.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SocketEntry {
+    /**
+     * {@code tcp} or {@code udp}; IPv6 sockets are told apart by their addresses.
+     */
+    private String protocol;
+    private String localAddress;
+    private int localPort;
+    private String remoteAddress;
+    private int remotePort;
+
+    /**
+     * The TCP state, e.g. {@code ESTABLISHED} or {@code TIME_WAIT}; {@code UNCONN} for unconnected UDP sockets.
+     */
+    private String state;
+
+    /**
+     * Bytes queued for sending (TCP: not yet acknowledged).
+     */
+    private long txQueue;
+
+    /**
+     * Bytes received but not yet read by the application.
+     */
+    private long rxQueue;
+
+    private int uid;
+    private long inode;
+}
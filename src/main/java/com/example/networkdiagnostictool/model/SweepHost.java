@@ -0,0 +1,41 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One address found by a host-discovery sweep.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SweepHost {
+    private String address;
+    private boolean alive;
+
+    /**
+     * How the host was found: {@code arp} if it was already in the ARP cache, {@code ping} if it
+     * answered a reachability probe, {@code tcp} if only a port answered; null for a silent address.
+     */
+    private String source;
+
+    /**
+     * The hardware address from the ARP cache, if the host was found there.
+     */
+    private String macAddress;
+
+    /**
+     * Round trip of the probe that found the host; null for hosts found in the ARP cache.
+     */
+    private Long rttMicros;
+
+    /**
+     * Requested ports that accepted a connection; null if no ports were requested.
+     */
+    private List<Integer> openPorts;
+}
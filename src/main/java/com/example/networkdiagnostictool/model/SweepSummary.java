@@ -0,0 +1,30 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totals of a finished host-discovery sweep.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SweepSummary {
+    private String cidr;
+
+    /**
+     * Host addresses in the range, network and broadcast addresses excluded.
+     */
+    private long addresses;
+
+    /**
+     * Addresses probed over the network; the rest came from the ARP cache.
+     */
+    private long probed;
+
+    private long alive;
+    private long elapsedMillis;
+}
@@ -0,0 +1,63 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The outcome of a TCP throughput test against a throughput listener.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThroughputResult {
+    private String host;
+    private int port;
+    private Direction direction;
+    private int streams;
+    private long durationMillis;
+
+    /**
+     * Bytes handed to or read from the local sockets.
+     */
+    private long bytes;
+
+    /**
+     * Bytes delivered to the receiving application: read locally for downloads, and confirmed by the
+     * listener for uploads. Retransmissions and headers are not included.
+     */
+    private long goodputBytes;
+
+    /**
+     * Time from the start until the last stream's goodput was confirmed, which for uploads includes
+     * delivering the data still buffered when the test ended.
+     */
+    private long confirmedMillis;
+
+    /**
+     * Goodput in megabits per second over {@link #confirmedMillis}.
+     */
+    private double mbps;
+
+    private List<ThroughputSample> samples;
+
+    /**
+     * Errors of individual streams; the other streams' data is still counted.
+     */
+    private List<String> errors;
+
+    public enum Direction {
+        /**
+         * This instance sends and the listener discards.
+         */
+        UPLOAD,
+        /**
+         * The listener sends and this instance discards.
+         */
+        DOWNLOAD
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.networkdiagnostictool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bytes moved by all streams of a throughput test during one sampling interval.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThroughputSample {
+    /**
+     * End of the interval, in milliseconds since the test started.
+     */
+    private long offsetMillis;
+
+    private long bytes;
+    private double mbps;
+}
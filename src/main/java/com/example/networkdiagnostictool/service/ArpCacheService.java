@@ -1,29 +1,210 @@
 package com.example.networkdiagnostictool.service;
 
+import com.example.networkdiagnostictool.model.ArpChange;
 import com.example.networkdiagnostictool.model.ArpEntry;
+import com.example.networkdiagnostictool.util.OperatingSystem;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service class for ARP cache inspection.
  * This class provides methods to retrieve and parse ARP cache entries from the system.
+ * On Linux the kernel table is read directly from {@code /proc/net/arp}; the {@code arp}
+ * command is only used as a fallback. A background refresh keeps the last snapshot as an
+ * indexed {@link ArpTable} that answers lookups by IP, MAC and interface, and publishes the
+ * differences between consecutive snapshots to the {@link ArpChangeFeed}.
  */
 @Slf4j
 @Service
 public class ArpCacheService {
 
+    private static final OperatingSystem OS = OperatingSystem.current();
+
+    private final Path procArpPath;
+    private final ProcNetArpReader procReader = new ProcNetArpReader();
+    private final ArpChangeFeed changeFeed;
+    private final CommandExecutor commandExecutor;
+
+    // Last refreshed, indexed table; replaced wholesale on every refresh
+    private volatile ArpTable table = ArpTable.EMPTY;
+
+    /**
+     * Constructor for injecting the location of the kernel ARP table, the change feed and the command executor.
+     *
+     * @param procArpPath     Path of the {@code /proc/net/arp} file.
+     * @param changeFeed      The feed that receives the differences found by each refresh.
+     * @param commandExecutor The executor used to run the fallback {@code arp} command.
+     */
+    @Autowired
+    public ArpCacheService(@Value("${arp.proc-path:/proc/net/arp}") String procArpPath, ArpChangeFeed changeFeed,
+                           CommandExecutor commandExecutor) {
+        this.procArpPath = Paths.get(procArpPath);
+        this.changeFeed = changeFeed;
+        this.commandExecutor = commandExecutor;
+    }
+
     /**
      * Retrieves the ARP cache entries from the system.
      *
      * @return A list of ArpEntry objects representing the ARP cache.
      */
     public List<ArpEntry> getArpCache() {
+        if (OS == OperatingSystem.LINUX && Files.isReadable(procArpPath)) {
+            List<ArpEntry> entries = new ArrayList<>();
+            try {
+                procReader.read(procArpPath, entries::add);
+                return entries;
+            } catch (IOException e) {
+                log.warn("Error reading {}, falling back to the arp command", procArpPath, e);
+            }
+        }
         List<String> rawEntries = retrieveRawArpEntries();
-        return parseArpEntries(rawEntries);
+        return parseArpEntries(rawEntries, OS);
+    }
+
+    /**
+     * Reads the ARP cache and hands each entry to the sink as soon as it is parsed, without
+     * collecting the table. The sink may block to apply backpressure, and stops the read by throwing.
+     * Each stream reads through its own reader, so a slow client never holds the lock of the shared
+     * reader that the scheduled refresh uses; output of the fallback {@code arp} command is collected
+     * first, so it never holds a process slot either.
+     *
+     * @param sink Receives the entries in table order.
+     */
+    public void streamArpCache(Consumer<ArpEntry> sink) {
+        if (OS == OperatingSystem.LINUX && Files.isReadable(procArpPath)) {
+            try {
+                new ProcNetArpReader().read(procArpPath, sink);
+                return;
+            } catch (IOException e) {
+                log.warn("Error reading {}, falling back to the arp command", procArpPath, e);
+            }
+        }
+        for (String line : retrieveRawArpEntries()) {
+            ArpEntry entry = parseArpEntry(line, OS);
+            if (entry != null) {
+                sink.accept(entry);
+            }
+        }
+    }
+
+    /**
+     * Re-reads the ARP cache, replaces the snapshot and publishes added, removed and changed entries.
+     * Runs on the scheduler at the configured interval.
+     */
+    @Scheduled(fixedDelayString = "${arp.refresh-interval-ms:5000}")
+    public void refresh() {
+        ArpTable previous = table;
+        ArpTable next = loadTable();
+        List<ArpChange> changes = new ArrayList<>();
+
+        for (int row = 0; row < next.size(); row++) {
+            int before = previous.findRow(next.ipAt(row), next.interfaceAt(row));
+            if (before < 0) {
+                changes.add(new ArpChange(ArpChange.Type.ADDED, next.entry(row), null));
+            } else if (!next.sameBinding(row, previous, before)) {
+                changes.add(new ArpChange(ArpChange.Type.CHANGED, next.entry(row), previous.entry(before)));
+            }
+        }
+        for (int row = 0; row < previous.size(); row++) {
+            if (next.findRow(previous.ipAt(row), previous.interfaceAt(row)) < 0) {
+                changes.add(new ArpChange(ArpChange.Type.REMOVED, previous.entry(row), null));
+            }
+        }
+
+        table = next;
+        if (!changes.isEmpty()) {
+            log.debug("ARP refresh found {} changes across {} entries", changes.size(), next.size());
+            changeFeed.publish(changes);
+        }
+    }
+
+    /**
+     * @return The last refreshed ARP table; the snapshot is immutable.
+     */
+    public ArpTable getTable() {
+        return table;
+    }
+
+    /**
+     * Looks up the refreshed table by IPv4 address.
+     *
+     * @param ip The dotted-quad IPv4 address.
+     * @return The entries for the address, one per interface it was seen on.
+     * @throws IllegalArgumentException if the address is not a valid IPv4 address.
+     */
+    public List<ArpEntry> findByIp(String ip) {
+        long address = ArpTable.parseIpv4(ip);
+        if (address < 0) {
+            throw new IllegalArgumentException("Invalid IPv4 address: " + ip);
+        }
+        return table.findByIp((int) address);
+    }
+
+    /**
+     * Looks up the refreshed table by hardware address.
+     *
+     * @param mac The MAC address, with {@code :} or {@code -} separators.
+     * @return The entries that resolve to the address.
+     * @throws IllegalArgumentException if the text is not a valid MAC address.
+     */
+    public List<ArpEntry> findByMac(String mac) {
+        long address = ArpTable.parseMac(mac);
+        if (address < 0) {
+            throw new IllegalArgumentException("Invalid MAC address: " + mac);
+        }
+        return table.findByMac(address);
+    }
+
+    /**
+     * Looks up the refreshed table by interface.
+     *
+     * @param interfaceName The interface name.
+     * @return The entries learned on the interface.
+     */
+    public List<ArpEntry> findByInterface(String interfaceName) {
+        return table.findByInterface(interfaceName);
+    }
+
+    /**
+     * Subscribes to the stream of ARP cache changes.
+     *
+     * @param lastEventId The last change set id the client received, or null for a fresh subscription.
+     * @return The server-sent event emitter for the subscription.
+     */
+    public SseEmitter streamChanges(Long lastEventId) {
+        return changeFeed.subscribe(lastEventId, () -> table.toEntries());
+    }
+
+    /**
+     * Reads the current ARP cache into an indexed table, straight from the kernel table when possible.
+     */
+    private ArpTable loadTable() {
+        ArpTable.Builder builder = new ArpTable.Builder();
+        if (OS == OperatingSystem.LINUX && Files.isReadable(procArpPath)) {
+            try {
+                procReader.read(procArpPath, builder);
+                return builder.build();
+            } catch (IOException e) {
+                log.warn("Error reading {}, falling back to the arp command", procArpPath, e);
+                builder = new ArpTable.Builder();
+            }
+        }
+        for (ArpEntry entry : parseArpEntries(retrieveRawArpEntries(), OS)) {
+            builder.add(entry);
+        }
+        return builder.build();
     }
 
     /**
@@ -33,61 +214,70 @@ public class ArpCacheService {
      */
     private List<String> retrieveRawArpEntries() {
         List<String> arpEntries = new ArrayList<>();
-        String osName = System.getProperty("os.name").toLowerCase();
+        retrieveRawArpEntries(arpEntries::add);
+        return arpEntries;
+    }
 
+    /**
+     * Runs the arp command and streams its non-empty output lines, trimmed, to the sink.
+     */
+    private void retrieveRawArpEntries(Consumer<String> sink) {
         try {
-            Process process;
-            if (osName.contains("win")) {
+            CommandExecutor.Command command;
+            if (OS == OperatingSystem.WINDOWS) {
                 // Windows command to display ARP cache
-                process = Runtime.getRuntime().exec("arp -a");
-            } else if (osName.contains("nix") || osName.contains("nux") || osName.contains("mac")) {
+                command = CommandExecutor.command("arp", "-a");
+            } else if (OS.isUnixLike()) {
                 // Unix-like systems (Linux, macOS) command to display ARP cache
-                process = Runtime.getRuntime().exec("arp -e");
+                command = CommandExecutor.command("arp", "-e");
             } else {
                 throw new UnsupportedOperationException("Unsupported operating system");
             }
 
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String line;
-            while ((line = reader.readLine()) != null) {
+            commandExecutor.execute(command.onStdout(line -> {
                 if (!line.trim().isEmpty()) {
-                    arpEntries.add(line.trim());
+                    sink.accept(line.trim());
                 }
-            }
+            }));
         } catch (Exception e) {
             log.error("Error retrieving ARP cache entries", e);
         }
-
-        return arpEntries;
     }
 
     /**
      * Parses the raw ARP cache entries into ArpEntry objects.
      *
      * @param rawEntries The list of raw ARP cache entries.
+     * @param os         The operating system that produced the entries.
      * @return A list of ArpEntry objects.
      */
-    private List<ArpEntry> parseArpEntries(List<String> rawEntries) {
+    static List<ArpEntry> parseArpEntries(List<String> rawEntries, OperatingSystem os) {
         List<ArpEntry> parsedEntries = new ArrayList<>();
-        String osName = System.getProperty("os.name").toLowerCase();
 
         for (String entry : rawEntries) {
-            String[] parts;
-            if (osName.contains("win")) {
-                // Parse Windows ARP entry format
-                parts = entry.split("\\s+");
-                if (parts.length >= 3) {
-                    parsedEntries.add(new ArpEntry(parts[0], parts[1], parts[2]));
-                }
-            } else {
-                // Parse Unix-like ARP entry format
-                parts = entry.split("\\s+");
-                if (parts.length >= 4) {
-                    parsedEntries.add(new ArpEntry(parts[0], parts[2], parts[3]));
-                }
+            ArpEntry parsed = parseArpEntry(entry, os);
+            if (parsed != null) {
+                parsedEntries.add(parsed);
             }
         }
 
         return parsedEntries;
     }
-}
\ No newline at end of file
+
+    /**
+     * Parses one raw ARP cache entry.
+     *
+     * @param entry The trimmed output line of the arp command.
+     * @param os    The operating system that produced the entry.
+     * @return The entry, or null if the line has too few columns.
+     */
+    static ArpEntry parseArpEntry(String entry, OperatingSystem os) {
+        String[] parts = entry.split("\\s+");
+        if (os == OperatingSystem.WINDOWS) {
+            // Parse Windows ARP entry format
+            return parts.length >= 3 ? new ArpEntry(parts[0], parts[1], parts[2]) : null;
+        }
+        // Parse Unix-like ARP entry format
+        return parts.length >= 4 ? new ArpEntry(parts[0], parts[2], parts[3]) : null;
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ArpChange;
+import com.example.networkdiagnostictool.model.ArpChangeSet;
+import com.example.networkdiagnostictool.model.ArpEntry;
+import com.example.networkdiagnostictool.util.NamedThreadFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Fans ARP change sets out to server-sent event subscribers.
+ * Each change set is serialised once into a fixed-size ring; publishing only writes the ring
+ * slot and schedules a single wake-up task, so its cost does not depend on the number of
+ * subscribers. Every subscriber reads the ring at its own cursor, so its queue is bounded by the
+ * ring, and a subscriber that falls a full ring behind is told to resynchronise and disconnected
+ * instead of holding back the refresh loop or buffering without bound. Sending blocks while a
+ * client is not reading, so each subscriber with pending events is drained on a sender thread of
+ * its own, and a stalled client only ever holds up itself.
+ */
+@Slf4j
+@Component
+public class ArpChangeFeed {
+
+    private final ObjectMapper objectMapper;
+    private final Semaphore subscriberSlots;
+    private final long emitterTimeoutMillis;
+
+    private final String[] ring;
+    // Number of change sets published so far; the sequence of the next one
+    private volatile long published;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(new NamedThreadFactory("arp-feed-dispatch"));
+    // Threads exist only while their subscriber has events to send
+    private final ExecutorService senders = Executors.newCachedThreadPool(new NamedThreadFactory("arp-feed-send"));
+
+    /**
+     * Constructor for dependency injection of the JSON mapper and feed limits.
+     *
+     * @param objectMapper         Mapper used to serialise each change set once.
+     * @param capacity             Number of change sets retained for lagging or reconnecting subscribers.
+     * @param maxSubscribers       Maximum number of concurrent subscribers.
+     * @param emitterTimeoutMillis Lifetime of a subscription before the client has to reconnect.
+     */
+    @Autowired
+    public ArpChangeFeed(ObjectMapper objectMapper,
+                         @Value("${arp.stream.capacity:256}") int capacity,
+                         @Value("${arp.stream.max-subscribers:200}") int maxSubscribers,
+                         @Value("${arp.stream.timeout-ms:1800000}") long emitterTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.ring = new String[capacity];
+        this.subscriberSlots = new Semaphore(maxSubscribers);
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+    }
+
+    /**
+     * Publishes the changes found by one refresh. Must only be called from a single thread.
+     *
+     * @param changes The changes; nothing is published if the list is empty.
+     */
+    public void publish(List<ArpChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        long sequence = published;
+        try {
+            ring[slot(sequence)] = objectMapper.writeValueAsString(
+                    new ArpChangeSet(sequence, System.currentTimeMillis(), changes));
+        } catch (JsonProcessingException e) {
+            log.error("Error serialising ARP change set", e);
+            return;
+        }
+        published = sequence + 1;
+        if (!subscribers.isEmpty()) {
+            dispatcher.execute(this::wakeSubscribers);
+        }
+    }
+
+    /**
+     * Registers a new subscriber.
+     *
+     * @param lastEventId The last sequence the client saw, used to resume without gaps, or null.
+     * @param snapshot    Supplies the current table, sent first when the subscription cannot be resumed.
+     * @return The emitter for the subscription.
+     * @throws IllegalStateException if the subscriber limit has been reached.
+     */
+    public SseEmitter subscribe(Long lastEventId, Supplier<List<ArpEntry>> snapshot) {
+        if (!subscriberSlots.tryAcquire()) {
+            throw new IllegalStateException("Too many ARP stream subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        // Read the head before the snapshot so nothing published in between is lost
+        long head = published;
+        boolean resumable = lastEventId != null && lastEventId < head && head - (lastEventId + 1) < ring.length;
+        Subscriber subscriber = new Subscriber(emitter, resumable ? lastEventId + 1 : head);
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        if (!resumable) {
+            try {
+                emitter.send(SseEmitter.event().id(Long.toString(head - 1)).name("snapshot")
+                        .data(snapshot.get(), MediaType.APPLICATION_JSON));
+            } catch (IOException | RuntimeException e) {
+                remove(subscriber);
+                emitter.completeWithError(e);
+                return emitter;
+            }
+        }
+        subscribers.add(subscriber);
+        if (subscriber.removed.get()) {
+            // Completed while the snapshot was sent, before it could be found in the list
+            subscribers.remove(subscriber);
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * @return The number of currently connected subscribers.
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void wakeSubscribers() {
+        long head = published;
+        for (Subscriber subscriber : subscribers) {
+            if (head - subscriber.nextSequence >= ring.length) {
+                // Its queue overflowed, most likely while a send was stuck: free its place now and
+                // let its sender tell it to resynchronise once the client reads again
+                remove(subscriber);
+                startDrain(subscriber);
+            } else {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Takes a subscriber off the feed and frees its slot, once however often it is called.
+     */
+    private void remove(Subscriber subscriber) {
+        if (subscriber.removed.compareAndSet(false, true)) {
+            subscribers.remove(subscriber);
+            subscriberSlots.release();
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.nextSequence < published && !subscriber.removed.get()) {
+            startDrain(subscriber);
+        }
+    }
+
+    private void startDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            long sequence;
+            while ((sequence = subscriber.nextSequence) < published) {
+                String payload = ring[slot(sequence)];
+                if (published - sequence >= ring.length) {
+                    // The slot was overwritten before this subscriber got to it
+                    overrun(subscriber);
+                    return;
+                }
+                try {
+                    subscriber.emitter.send(SseEmitter.event().id(Long.toString(sequence)).name("change")
+                            .data(payload, MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping ARP stream subscriber", e);
+                    remove(subscriber);
+                    subscriber.emitter.completeWithError(e);
+                    return;
+                }
+                subscriber.nextSequence = sequence + 1;
+            }
+            subscriber.draining.set(false);
+            // Re-check after releasing the flag so a publish racing with the release is not missed
+        } while (subscriber.nextSequence < published && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void overrun(Subscriber subscriber) {
+        log.warn("ARP stream subscriber fell more than {} change sets behind, disconnecting", ring.length);
+        remove(subscriber);
+        try {
+            subscriber.emitter.send(SseEmitter.event().name("resync").data("Subscriber fell behind; reconnect to resynchronise"));
+            subscriber.emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+
+    /**
+     * A connected client and its position in the ring.
+     */
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean removed = new AtomicBoolean();
+        volatile long nextSequence;
+
+        Subscriber(SseEmitter emitter, long nextSequence) {
+            this.emitter = emitter;
+            this.nextSequence = nextSequence;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ArpEntry;
+import com.example.networkdiagnostictool.util.HostParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, indexed snapshot of the ARP cache.
+ * Entries are stored column-wise in primitive arrays: IPv4 addresses as {@code int}, MAC
+ * addresses as {@code long} and interfaces as an index into a small table of shared names.
+ * Open-addressing hash indexes on the IP and MAC columns and per-interface chains answer
+ * lookups in O(1) plus the number of matches, without materialising {@link ArpEntry} objects
+ * for rows that are not returned.
+ */
+public final class ArpTable {
+
+    public static final ArpTable EMPTY = new Builder().build();
+
+    private static final int UNKNOWN = -1;
+
+    private final int size;
+    private final int[] ips;
+    private final long[] macs;
+    private final int[] interfaceIndexes;
+    private final short[] hwTypes;
+    private final int[] flags;
+    private final String[] interfaceNames;
+
+    // Hash slots hold row + 1 of the first row with a given key; 0 marks an empty slot
+    private final int[] ipSlots;
+    private final int[] macSlots;
+    // Rows sharing a key are chained in table order; -1 terminates a chain
+    private final int[] nextByIp;
+    private final int[] nextByMac;
+    private final int[] interfaceHeads;
+    private final int[] nextByInterface;
+
+    private ArpTable(Builder builder) {
+        size = builder.size;
+        ips = Arrays.copyOf(builder.ips, size);
+        macs = Arrays.copyOf(builder.macs, size);
+        interfaceIndexes = Arrays.copyOf(builder.interfaceIndexes, size);
+        hwTypes = Arrays.copyOf(builder.hwTypes, size);
+        flags = Arrays.copyOf(builder.flags, size);
+        interfaceNames = builder.interfaceNames.toArray(new String[0]);
+
+        int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+        ipSlots = new int[capacity];
+        macSlots = new int[capacity];
+        nextByIp = new int[size];
+        nextByMac = new int[size];
+        interfaceHeads = new int[interfaceNames.length];
+        nextByInterface = new int[size];
+        Arrays.fill(interfaceHeads, -1);
+
+        // Insert from the back so every chain lists its rows in table order
+        for (int row = size - 1; row >= 0; row--) {
+            nextByIp[row] = insertIp(row);
+            nextByMac[row] = insertMac(row);
+            nextByInterface[row] = interfaceHeads[interfaceIndexes[row]];
+            interfaceHeads[interfaceIndexes[row]] = row;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return All entries with the given IPv4 address, one per interface it was seen on.
+     */
+    public List<ArpEntry> findByIp(int ip) {
+        List<ArpEntry> result = new ArrayList<>(1);
+        for (int row = ipHead(ip); row >= 0; row = nextByIp[row]) {
+            result.add(entry(row));
+        }
+        return result;
+    }
+
+    /**
+     * @return All entries whose hardware address is the given 48-bit MAC.
+     */
+    public List<ArpEntry> findByMac(long mac) {
+        List<ArpEntry> result = new ArrayList<>(1);
+        for (int row = macHead(mac); row >= 0; row = nextByMac[row]) {
+            result.add(entry(row));
+        }
+        return result;
+    }
+
+    /**
+     * @return All entries learned on the named interface.
+     */
+    public List<ArpEntry> findByInterface(String name) {
+        int index = interfaceIndex(name);
+        if (index < 0) {
+            return Collections.emptyList();
+        }
+        List<ArpEntry> result = new ArrayList<>();
+        for (int row = interfaceHeads[index]; row >= 0; row = nextByInterface[row]) {
+            result.add(entry(row));
+        }
+        return result;
+    }
+
+    /**
+     * @return Every entry in table order.
+     */
+    public List<ArpEntry> toEntries() {
+        List<ArpEntry> result = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            result.add(entry(row));
+        }
+        return result;
+    }
+
+    /**
+     * Materialises the given row.
+     */
+    public ArpEntry entry(int row) {
+        return new ArpEntry(formatIpv4(ips[row]), formatMac(macs[row]), interfaceNames[interfaceIndexes[row]],
+                hwTypes[row] == UNKNOWN ? null : (int) hwTypes[row],
+                flags[row] == UNKNOWN ? null : flags[row]);
+    }
+
+    /**
+     * Finds the row holding the given address on the given interface.
+     *
+     * @return The row, or -1 if absent.
+     */
+    public int findRow(int ip, String interfaceName) {
+        for (int row = ipHead(ip); row >= 0; row = nextByIp[row]) {
+            String name = interfaceNames[interfaceIndexes[row]];
+            if (name == interfaceName || name.equals(interfaceName)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds a row in which the given address resolved to a hardware address.
+     *
+     * @return The first such row, or -1 if the address is absent or only has incomplete entries.
+     */
+    public int findResolvedRow(int ip) {
+        for (int row = ipHead(ip); row >= 0; row = nextByIp[row]) {
+            if (isResolved(row)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return true if the row holds a hardware address, i.e. the neighbour answered ARP.
+     */
+    public boolean isResolved(int row) {
+        return macs[row] != 0 && (flags[row] == UNKNOWN || (flags[row] & ArpEntry.FLAG_COMPLETE) != 0);
+    }
+
+    public int ipAt(int row) {
+        return ips[row];
+    }
+
+    public String macAt(int row) {
+        return formatMac(macs[row]);
+    }
+
+    public String interfaceAt(int row) {
+        return interfaceNames[interfaceIndexes[row]];
+    }
+
+    /**
+     * @return true if the row in this table and the row in the other table hold the same binding.
+     */
+    public boolean sameBinding(int row, ArpTable other, int otherRow) {
+        return macs[row] == other.macs[otherRow]
+                && hwTypes[row] == other.hwTypes[otherRow]
+                && flags[row] == other.flags[otherRow];
+    }
+
+    /**
+     * Parses a dotted-quad IPv4 address.
+     *
+     * @return The address as an unsigned 32-bit value, or -1 if the text is not a valid IPv4 address.
+     */
+    public static long parseIpv4(CharSequence text) {
+        return HostParser.parseIpv4(text);
+    }
+
+    /**
+     * Parses a MAC address written as six hex octets separated by {@code :} or {@code -}.
+     *
+     * @return The address as a 48-bit value, or -1 if the text is not a valid MAC address.
+     */
+    public static long parseMac(CharSequence text) {
+        if (text.length() != 17) {
+            return -1;
+        }
+        long mac = 0;
+        for (int octet = 0; octet < 6; octet++) {
+            int i = octet * 3;
+            int high = Character.digit(text.charAt(i), 16);
+            int low = Character.digit(text.charAt(i + 1), 16);
+            if (high < 0 || low < 0) {
+                return -1;
+            }
+            if (octet < 5 && text.charAt(i + 2) != ':' && text.charAt(i + 2) != '-') {
+                return -1;
+            }
+            mac = (mac << 8) | (high << 4) | low;
+        }
+        return mac;
+    }
+
+    public static String formatIpv4(int ip) {
+        return (ip >>> 24) + "." + ((ip >>> 16) & 0xff) + "." + ((ip >>> 8) & 0xff) + "." + (ip & 0xff);
+    }
+
+    public static String formatMac(long mac) {
+        char[] text = new char[17];
+        for (int octet = 0; octet < 6; octet++) {
+            int value = (int) (mac >>> (40 - octet * 8)) & 0xff;
+            text[octet * 3] = Character.forDigit(value >>> 4, 16);
+            text[octet * 3 + 1] = Character.forDigit(value & 0xf, 16);
+            if (octet < 5) {
+                text[octet * 3 + 2] = ':';
+            }
+        }
+        return new String(text);
+    }
+
+    private int insertIp(int row) {
+        int mask = ipSlots.length - 1;
+        for (int slot = mix(ips[row]) & mask; ; slot = (slot + 1) & mask) {
+            int head = ipSlots[slot] - 1;
+            if (head < 0 || ips[head] == ips[row]) {
+                ipSlots[slot] = row + 1;
+                return head;
+            }
+        }
+    }
+
+    private int insertMac(int row) {
+        int mask = macSlots.length - 1;
+        for (int slot = mix(macs[row]) & mask; ; slot = (slot + 1) & mask) {
+            int head = macSlots[slot] - 1;
+            if (head < 0 || macs[head] == macs[row]) {
+                macSlots[slot] = row + 1;
+                return head;
+            }
+        }
+    }
+
+    private int ipHead(int ip) {
+        int mask = ipSlots.length - 1;
+        for (int slot = mix(ip) & mask; ; slot = (slot + 1) & mask) {
+            int head = ipSlots[slot] - 1;
+            if (head < 0 || ips[head] == ip) {
+                return head;
+            }
+        }
+    }
+
+    private int macHead(long mac) {
+        int mask = macSlots.length - 1;
+        for (int slot = mix(mac) & mask; ; slot = (slot + 1) & mask) {
+            int head = macSlots[slot] - 1;
+            if (head < 0 || macs[head] == mac) {
+                return head;
+            }
+        }
+    }
+
+    private int interfaceIndex(String name) {
+        for (int i = 0; i < interfaceNames.length; i++) {
+            if (interfaceNames[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Accumulates rows and builds the indexes once. Implements the record callback of
+     * {@link ProcNetArpReader} so the kernel table can be loaded without intermediate objects.
+     */
+    public static final class Builder implements ProcNetArpReader.RecordVisitor {
+        private int size;
+        private int[] ips = new int[16];
+        private long[] macs = new long[16];
+        private int[] interfaceIndexes = new int[16];
+        private short[] hwTypes = new short[16];
+        private int[] flags = new int[16];
+        private final List<String> interfaceNames = new ArrayList<>();
+        private final Map<String, Integer> interfaceLookup = new HashMap<>();
+
+        @Override
+        public void visit(int ip, long mac, String interfaceName, int hwType, int entryFlags) {
+            if (size == ips.length) {
+                int capacity = size * 2;
+                ips = Arrays.copyOf(ips, capacity);
+                macs = Arrays.copyOf(macs, capacity);
+                interfaceIndexes = Arrays.copyOf(interfaceIndexes, capacity);
+                hwTypes = Arrays.copyOf(hwTypes, capacity);
+                flags = Arrays.copyOf(flags, capacity);
+            }
+            Integer index = interfaceLookup.get(interfaceName);
+            if (index == null) {
+                index = interfaceNames.size();
+                interfaceNames.add(interfaceName);
+                interfaceLookup.put(interfaceName, index);
+            }
+            ips[size] = ip;
+            macs[size] = mac;
+            interfaceIndexes[size] = index;
+            hwTypes[size] = (short) hwType;
+            flags[size] = entryFlags;
+            size++;
+        }
+
+        /**
+         * Adds an already parsed entry, skipping entries without an IPv4 or MAC address.
+         *
+         * @return true if the entry was added.
+         */
+        public boolean add(ArpEntry entry) {
+            long ip = entry.getIpAddress() == null ? -1 : parseIpv4(entry.getIpAddress());
+            long mac = entry.getMacAddress() == null ? -1 : parseMac(entry.getMacAddress());
+            if (ip < 0 || mac < 0) {
+                return false;
+            }
+            visit((int) ip, mac, String.valueOf(entry.getInterfaceName()),
+                    entry.getHwType() == null ? UNKNOWN : entry.getHwType(),
+                    entry.getFlags() == null ? UNKNOWN : entry.getFlags());
+            return true;
+        }
+
+        public ArpTable build() {
+            return new ArpTable(this);
+        }
+    }
+}
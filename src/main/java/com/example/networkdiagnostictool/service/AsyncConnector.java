@@ -0,0 +1,221 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.util.NamedThreadFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Times TCP handshakes without holding a thread per connect. Connects are started on the caller's
+ * thread and then driven to completion, or to their deadline, by a single long-lived selector thread,
+ * so any number of probes can be outstanding at once. Probe sockets are closed with a reset
+ * instead of a FIN, so a high probe rate does not exhaust local ports in TIME_WAIT.
+ */
+@Slf4j
+@Component
+public class AsyncConnector {
+
+    private final Selector selector;
+    private final Queue<Connect> registrations = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final Thread loop;
+    private volatile boolean running = true;
+
+    // Selector thread only
+    private final PriorityQueue<Connect> deadlines = new PriorityQueue<>(Comparator.comparingLong(c -> c.deadline));
+
+    public AsyncConnector() {
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open connect selector", e);
+        }
+        this.loop = new NamedThreadFactory("connect-selector").newThread(this::run);
+        loop.start();
+    }
+
+    /**
+     * Starts a TCP connect to the given address.
+     *
+     * @param target        The resolved address to connect to.
+     * @param timeoutMillis Handshake deadline.
+     * @return The handshake duration in nanoseconds. Fails with a {@link SocketTimeoutException} if
+     * the deadline passed, and with the connect error, e.g. a {@code ConnectException} for a refused
+     * connection, otherwise. Completion callbacks run on the selector thread and must not block.
+     */
+    public CompletableFuture<Long> connect(InetSocketAddress target, long timeoutMillis) {
+        Connect connect = new Connect(System.nanoTime(), timeoutMillis * 1_000_000L);
+        SocketChannel channel;
+        try {
+            channel = SocketChannel.open();
+        } catch (IOException e) {
+            connect.future.completeExceptionally(e);
+            return connect.future;
+        }
+        connect.channel = channel;
+        try {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.SO_LINGER, 0);
+            if (channel.connect(target)) {
+                complete(connect);
+                return connect.future;
+            }
+        } catch (IOException e) {
+            fail(connect, e);
+            return connect.future;
+        }
+
+        registrations.add(connect);
+        if (!running && registrations.remove(connect)) {
+            fail(connect, new IOException("Connector has been shut down"));
+        } else if (wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+        return connect.future;
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                // Reset before draining, so a connect added after the drain wakes the next select
+                wakeupPending.set(false);
+                register();
+                long waitMillis = expire(System.nanoTime());
+                int ready = waitMillis == 0 ? selector.select() : selector.select(waitMillis);
+                if (ready == 0) {
+                    continue;
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Connect connect = (Connect) key.attachment();
+                    try {
+                        if (connect.channel.finishConnect()) {
+                            complete(connect);
+                        }
+                    } catch (IOException e) {
+                        fail(connect, e);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                log.error("Connect selector failed", e);
+            }
+        } finally {
+            failOutstanding();
+        }
+    }
+
+    private void register() {
+        Connect connect;
+        while ((connect = registrations.poll()) != null) {
+            if (connect.future.isDone()) {
+                continue;
+            }
+            try {
+                connect.channel.register(selector, SelectionKey.OP_CONNECT, connect);
+                deadlines.add(connect);
+            } catch (IOException e) {
+                fail(connect, e);
+            }
+        }
+    }
+
+    /**
+     * Fails every connect whose deadline has passed.
+     *
+     * @return Milliseconds until the next deadline, or 0 if none is outstanding.
+     */
+    private long expire(long now) {
+        Connect oldest;
+        while ((oldest = deadlines.peek()) != null) {
+            if (oldest.future.isDone()) {
+                deadlines.poll();
+            } else if (oldest.deadline <= now) {
+                deadlines.poll();
+                fail(oldest, new SocketTimeoutException("Connect timed out"));
+            } else {
+                return Math.max(1, (oldest.deadline - now + 999_999) / 1_000_000);
+            }
+        }
+        return 0;
+    }
+
+    private void complete(Connect connect) {
+        long elapsed = System.nanoTime() - connect.startNanos;
+        closeQuietly(connect.channel);
+        connect.future.complete(elapsed);
+    }
+
+    private void fail(Connect connect, Throwable error) {
+        closeQuietly(connect.channel);
+        connect.future.completeExceptionally(error);
+    }
+
+    private void failOutstanding() {
+        IOException shutdown = new IOException("Connector has been shut down");
+        Connect connect;
+        while ((connect = registrations.poll()) != null) {
+            fail(connect, shutdown);
+        }
+        while ((connect = deadlines.poll()) != null) {
+            fail(connect, shutdown);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        selector.wakeup();
+        try {
+            loop.join(1000);
+            selector.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.debug("Error closing connect selector", e);
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Error closing probe channel", e);
+        }
+    }
+
+    /**
+     * An outstanding connect attempt.
+     */
+    private static final class Connect {
+        final long startNanos;
+        final long deadline;
+        final CompletableFuture<Long> future = new CompletableFuture<>();
+        SocketChannel channel;
+
+        Connect(long startNanos, long timeoutNanos) {
+            this.startNanos = startNanos;
+            this.deadline = startNanos + timeoutNanos;
+        }
+    }
+}
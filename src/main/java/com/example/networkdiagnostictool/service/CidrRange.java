@@ -0,0 +1,71 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.util.HostParser;
+
+/**
+ * An IPv4 network in CIDR notation, held as its network address and prefix length.
+ * Addresses are never expanded into a collection; callers walk them by index.
+ */
+public final class CidrRange {
+
+    private final int network;
+    private final int prefix;
+
+    private CidrRange(int network, int prefix) {
+        this.network = network;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Parses {@code a.b.c.d/n}, or a single address as a /32. Host bits below the prefix are ignored.
+     *
+     * @throws IllegalArgumentException if the text is not an IPv4 CIDR range.
+     */
+    public static CidrRange parse(String text) {
+        long cidr = HostParser.parseIpv4Cidr(text);
+        if (cidr < 0) {
+            throw new IllegalArgumentException("Invalid CIDR range: " + text);
+        }
+        int prefix = HostParser.cidrPrefix(cidr);
+        return new CidrRange(HostParser.cidrAddress(cidr) & mask(prefix), prefix);
+    }
+
+    private static int mask(int prefix) {
+        return prefix == 0 ? 0 : -1 << (32 - prefix);
+    }
+
+    public int getNetwork() {
+        return network;
+    }
+
+    public int getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * @return The number of addresses in the range, network and broadcast addresses included.
+     */
+    public long size() {
+        return 1L << (32 - prefix);
+    }
+
+    public boolean contains(int ip) {
+        return (ip & mask(prefix)) == network;
+    }
+
+    /**
+     * @return true if the address is in the range and is neither its network nor its broadcast
+     * address; /31 and /32 ranges have neither.
+     */
+    public boolean isHost(int ip) {
+        if (!contains(ip)) {
+            return false;
+        }
+        return prefix >= 31 || (ip != network && ip != (network | ~mask(prefix)));
+    }
+
+    @Override
+    public String toString() {
+        return ArpTable.formatIpv4(network) + "/" + prefix;
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.util.NamedThreadFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs external commands for all services with bounded concurrency and per-command timeouts.
+ * Commands are passed as argument arrays and never through a shell. At most a configured number
+ * of processes run at once; further callers wait briefly for a slot and are then rejected.
+ * Standard output and standard error are drained concurrently on a dedicated pool, either into
+ * collected lines or into streaming line callbacks, so a chatty process can never block on a full
+ * pipe. A process that exceeds its timeout is destroyed, forcibly if it does not exit promptly.
+ */
+@Slf4j
+@Component
+public class CommandExecutor {
+
+    private static final int MAX_COLLECTED_STDERR_LINES = 100;
+    private static final long DESTROY_GRACE_MILLIS = 1000;
+
+    private final int maxConcurrent;
+    private final Semaphore slots;
+    private final ExecutorService streamPool;
+    private final long defaultTimeoutMillis;
+    private final long queueTimeoutMillis;
+
+    private final AtomicLong forks = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalDurationNanos = new AtomicLong();
+    private final AtomicLong maxDurationNanos = new AtomicLong();
+
+    /**
+     * Constructor for injecting the execution limits.
+     *
+     * @param maxConcurrent        Maximum number of processes running at once.
+     * @param defaultTimeoutMillis Timeout applied to commands that do not set their own.
+     * @param queueTimeoutMillis   How long a caller waits for a free slot before being rejected.
+     */
+    @Autowired
+    public CommandExecutor(@Value("${command.max-concurrent:8}") int maxConcurrent,
+                           @Value("${command.default-timeout-ms:10000}") long defaultTimeoutMillis,
+                           @Value("${command.queue-timeout-ms:5000}") long queueTimeoutMillis) {
+        this.maxConcurrent = maxConcurrent;
+        this.slots = new Semaphore(maxConcurrent, true);
+        // stdin writer, stdout reader and stderr reader for every running process
+        this.streamPool = Executors.newFixedThreadPool(maxConcurrent * 3, new NamedThreadFactory("command-io"));
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+    }
+
+    /**
+     * Creates a command from its program and arguments.
+     *
+     * @param arguments The program followed by its arguments, each passed to the process verbatim.
+     * @return A command that can be further configured and passed to {@link #execute(Command)}.
+     */
+    public static Command command(String... arguments) {
+        return new Command(Arrays.asList(arguments));
+    }
+
+    /**
+     * Creates a command from its program and arguments.
+     *
+     * @param arguments The program followed by its arguments, each passed to the process verbatim.
+     * @return A command that can be further configured and passed to {@link #execute(Command)}.
+     */
+    public static Command command(List<String> arguments) {
+        return new Command(new ArrayList<>(arguments));
+    }
+
+    /**
+     * Runs a command with the default timeout and collects its output.
+     *
+     * @param arguments The program followed by its arguments.
+     * @return The result of the command.
+     * @throws IOException          if the process cannot be started.
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public CommandResult execute(String... arguments) throws IOException, InterruptedException {
+        return execute(command(arguments));
+    }
+
+    /**
+     * Runs a command.
+     *
+     * @param command The command to run.
+     * @return The result of the command.
+     * @throws RejectedExecutionException if no execution slot became free in time.
+     * @throws IOException                if the process cannot be started.
+     * @throws InterruptedException       if the calling thread is interrupted while waiting.
+     */
+    public CommandResult execute(Command command) throws IOException, InterruptedException {
+        if (!slots.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            rejections.incrementAndGet();
+            throw new RejectedExecutionException("Too many commands running, rejected: " + command.arguments.get(0));
+        }
+        try {
+            return run(command);
+        } finally {
+            slots.release();
+        }
+    }
+
+    private CommandResult run(Command command) throws IOException, InterruptedException {
+        long timeoutMillis = command.timeout != null ? command.timeout.toMillis() : defaultTimeoutMillis;
+        List<String> stdout = command.stdoutHandler == null ? new ArrayList<>() : Collections.emptyList();
+        List<String> stderr = new ArrayList<>();
+        Consumer<String> stdoutSink = command.stdoutHandler != null ? command.stdoutHandler : stdout::add;
+        Consumer<String> stderrSink = command.stderrHandler != null ? command.stderrHandler : line -> {
+            if (stderr.size() < MAX_COLLECTED_STDERR_LINES) {
+                stderr.add(line);
+            }
+        };
+
+        long start = System.nanoTime();
+        Process process;
+        try {
+            process = new ProcessBuilder(command.arguments).start();
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            throw e;
+        }
+        forks.incrementAndGet();
+
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Future<?> stdoutReader = streamPool.submit(() -> drain(process.getInputStream(), stdoutSink));
+        Future<?> stderrReader = streamPool.submit(() -> drain(process.getErrorStream(), stderrSink));
+        Future<?> stdinWriter = null;
+        if (command.input != null) {
+            stdinWriter = streamPool.submit(() -> feed(process.getOutputStream(), command.input));
+        } else {
+            process.getOutputStream().close();
+        }
+
+        boolean timedOut = false;
+        try {
+            if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                timedOut = true;
+                timeouts.incrementAndGet();
+                log.warn("Command {} timed out after {} ms, destroying it", command.arguments, timeoutMillis);
+                destroy(process);
+            }
+            if (stdinWriter != null) {
+                awaitStream(stdinWriter, process, deadline);
+            }
+            // A slow streaming handler may still be consuming buffered output after the process exited
+            awaitStream(stdoutReader, process, deadline);
+            awaitStream(stderrReader, process, deadline);
+        } catch (InterruptedException e) {
+            destroy(process);
+            throw e;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        totalDurationNanos.addAndGet(elapsed);
+        maxDurationNanos.accumulateAndGet(elapsed, Math::max);
+        return new CommandResult(timedOut ? -1 : process.exitValue(), timedOut,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), stdout, stderr);
+    }
+
+    private static void drain(InputStream stream, Consumer<String> sink) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                sink.accept(line);
+            }
+        } catch (IOException e) {
+            // The stream is closed when the process is destroyed
+            log.debug("Command output stream closed", e);
+        }
+    }
+
+    private static void feed(OutputStream stream, byte[] input) {
+        try (OutputStream out = stream) {
+            if (input != null) {
+                out.write(input);
+            }
+        } catch (IOException e) {
+            log.debug("Command exited before reading all of its input", e);
+        }
+    }
+
+    /**
+     * Waits for a stream task to finish once the process has exited. Output can outlive the
+     * process when a grandchild inherited the pipe, so the wait is bounded by the command's
+     * deadline, or a short grace period past it, after which the streams are closed.
+     */
+    private static void awaitStream(Future<?> task, Process process, long deadlineNanos) throws InterruptedException {
+        long waitNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(DESTROY_GRACE_MILLIS), deadlineNanos - System.nanoTime());
+        try {
+            task.get(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            closeStreams(process);
+            task.cancel(true);
+        } catch (ExecutionException e) {
+            log.warn("Command output handler failed", e.getCause());
+        }
+    }
+
+    private static void destroy(Process process) throws InterruptedException {
+        process.descendants().forEach(ProcessHandle::destroy);
+        process.destroy();
+        if (!process.waitFor(DESTROY_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly().waitFor(DESTROY_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        closeStreams(process);
+    }
+
+    private static void closeStreams(Process process) {
+        try {
+            process.getInputStream().close();
+            process.getErrorStream().close();
+            process.getOutputStream().close();
+        } catch (IOException e) {
+            log.debug("Error closing command streams", e);
+        }
+    }
+
+    /**
+     * @return The number of processes started.
+     */
+    public long getForkCount() {
+        return forks.get();
+    }
+
+    /**
+     * @return The number of processes destroyed after exceeding their timeout.
+     */
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    /**
+     * @return The number of commands rejected because every execution slot was busy.
+     */
+    public long getRejectedCount() {
+        return rejections.get();
+    }
+
+    /**
+     * @return The number of commands whose process could not be started.
+     */
+    public long getStartFailureCount() {
+        return failures.get();
+    }
+
+    /**
+     * @return The number of processes currently running.
+     */
+    public int getActiveCount() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    /**
+     * @return The mean wall-clock time of completed commands in milliseconds.
+     */
+    public double getMeanDurationMillis() {
+        long completed = forks.get();
+        return completed == 0 ? 0 : totalDurationNanos.get() / 1e6 / completed;
+    }
+
+    /**
+     * @return The longest wall-clock time of any completed command in milliseconds.
+     */
+    public double getMaxDurationMillis() {
+        return maxDurationNanos.get() / 1e6;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streamPool.shutdownNow();
+    }
+
+    /**
+     * A command line plus its execution options.
+     */
+    public static final class Command {
+        private final List<String> arguments;
+        private Duration timeout;
+        private byte[] input;
+        private Consumer<String> stdoutHandler;
+        private Consumer<String> stderrHandler;
+
+        private Command(List<String> arguments) {
+            if (arguments.isEmpty()) {
+                throw new IllegalArgumentException("Command must not be empty");
+            }
+            this.arguments = arguments;
+        }
+
+        /**
+         * Overrides the default timeout.
+         */
+        public Command timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Supplies bytes written to the process's standard input, which is closed afterwards.
+         */
+        public Command input(byte[] input) {
+            this.input = input;
+            return this;
+        }
+
+        /**
+         * Streams standard output line by line to the handler instead of collecting it.
+         * The handler runs on an I/O thread; blocking in it applies backpressure to the process.
+         */
+        public Command onStdout(Consumer<String> handler) {
+            this.stdoutHandler = handler;
+            return this;
+        }
+
+        /**
+         * Streams standard error line by line to the handler instead of collecting it.
+         */
+        public Command onStderr(Consumer<String> handler) {
+            this.stderrHandler = handler;
+            return this;
+        }
+
+        public List<String> getArguments() {
+            return Collections.unmodifiableList(arguments);
+        }
+    }
+}
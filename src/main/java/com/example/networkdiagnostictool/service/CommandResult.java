@@ -0,0 +1,45 @@
+package com.example.networkdiagnostictool.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * The outcome of running an external command through the {@link CommandExecutor}.
+ */
+@Data
+@AllArgsConstructor
+public class CommandResult {
+    /**
+     * The exit code of the process, or -1 if it was killed after timing out.
+     */
+    private int exitCode;
+
+    /**
+     * Whether the process exceeded its timeout and was destroyed.
+     */
+    private boolean timedOut;
+
+    /**
+     * Wall-clock time from start to exit in milliseconds.
+     */
+    private long durationMillis;
+
+    /**
+     * The collected standard output lines; empty when a streaming stdout handler was used.
+     */
+    private List<String> stdout;
+
+    /**
+     * The collected standard error lines, capped to the first lines of output.
+     */
+    private List<String> stderr;
+
+    /**
+     * @return true if the process exited on its own with status 0.
+     */
+    public boolean isSuccess() {
+        return !timedOut && exitCode == 0;
+    }
+}
@@ -0,0 +1,696 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.IptablesChain;
+import com.example.networkdiagnostictool.model.IptablesRule;
+import com.example.networkdiagnostictool.model.IptablesRuleStats;
+import com.example.networkdiagnostictool.model.PacketVerdict;
+import com.example.networkdiagnostictool.util.HostParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, compiled form of the filter table for evaluating packets without iptables.
+ * Every chain turns each match dimension into an index that yields, for one packet field,
+ * the bitset of rules that field satisfies: prefix tries for source and destination address,
+ * port intervals for source and destination port, and lookup tables for protocol
+ * and interfaces. ANDing the sets and taking the lowest set bit gives the first matching rule,
+ * so a lookup costs a few trie steps and a scan of {@code rules / 64} words regardless of how
+ * the rules are ordered. Jumps, gotos and RETURN follow iptables semantics.
+ * <p>
+ * Rules with negations or matches the simulator does not model never match; verdicts reached
+ * past such a rule are flagged as inexact.
+ * <p>
+ * Rules appended to built-in chains can be overlaid on a compiled ruleset with
+ * {@link #append(Map)}, which compiles only the appended rules and shares everything else.
+ */
+public final class CompiledRuleset {
+
+    private static final int MAX_JUMP_DEPTH = 32;
+    private static final Set<String> TERMINAL_TARGETS = Set.of("ACCEPT", "DROP", "REJECT", "QUEUE", "NFQUEUE");
+
+    private static final byte CONTINUE = 0;
+    private static final byte TERMINAL = 1;
+    private static final byte RETURN = 2;
+    private static final byte JUMP = 3;
+    private static final byte GOTO = 4;
+
+    // Returned by walk for a RETURN, to tell it from reaching the end of a chain
+    private static final String RETURNED = "RETURN";
+
+    private final Map<String, CompiledChain> chains;
+    private final Map<String, Integer> chainIndexes;
+    private final CompiledChain[] indexedChains;
+    // Rules appended to built-in chains, evaluated when a packet reaches the end of the chain
+    private final Map<String, CompiledChain> appended;
+    private final int ruleCount;
+    private final int unsupportedRuleCount;
+
+    private CompiledRuleset(List<IptablesChain> filterChains) {
+        chains = new HashMap<>();
+        chainIndexes = new HashMap<>();
+        for (IptablesChain chain : filterChains) {
+            chainIndexes.put(chain.getName(), chainIndexes.size());
+        }
+        indexedChains = new CompiledChain[filterChains.size()];
+        appended = Map.of();
+        int rules = 0;
+        int unsupported = 0;
+        for (int i = 0; i < indexedChains.length; i++) {
+            IptablesChain chain = filterChains.get(i);
+            indexedChains[i] = new CompiledChain(chain.getName(), chain.getPolicy(), chain.getRules(), 0,
+                    chainIndexes, indexedChains);
+            chains.put(chain.getName(), indexedChains[i]);
+            rules += indexedChains[i].size;
+            unsupported += indexedChains[i].unsupportedCount;
+        }
+        ruleCount = rules;
+        unsupportedRuleCount = unsupported;
+    }
+
+    private CompiledRuleset(CompiledRuleset base, Map<String, CompiledChain> appended) {
+        this.chains = base.chains;
+        this.chainIndexes = base.chainIndexes;
+        this.indexedChains = base.indexedChains;
+        this.appended = appended;
+        int rules = base.ruleCount;
+        int unsupported = base.unsupportedRuleCount;
+        for (CompiledChain chain : appended.values()) {
+            rules += chain.size;
+            unsupported += chain.unsupportedCount;
+        }
+        ruleCount = rules;
+        unsupportedRuleCount = unsupported;
+    }
+
+    /**
+     * Compiles the chains of the filter table; chains of other tables are ignored.
+     *
+     * @param chains Parsed chains, e.g. from a ruleset snapshot.
+     * @return The compiled ruleset.
+     */
+    public static CompiledRuleset compile(List<IptablesChain> chains) {
+        List<IptablesChain> filter = new ArrayList<>();
+        for (IptablesChain chain : chains) {
+            if ("filter".equals(chain.getTable())) {
+                filter.add(chain);
+            }
+        }
+        return new CompiledRuleset(filter);
+    }
+
+    /**
+     * Overlays rules appended to the end of built-in chains. Only the appended rules are compiled;
+     * the chains of this ruleset are shared, so trying out a few rules against a large ruleset
+     * costs what the few rules cost. Rules for chains that are not built-in chains of this
+     * ruleset are ignored.
+     *
+     * @param rules The rules to append, by chain name, in order.
+     * @return A ruleset evaluating as if the rules had been appended to their chains.
+     * @throws IllegalStateException if this ruleset is an overlay itself.
+     */
+    public CompiledRuleset append(Map<String, List<IptablesRuleStats>> rules) {
+        if (!appended.isEmpty()) {
+            throw new IllegalStateException("Rules were appended to this ruleset already");
+        }
+        Map<String, CompiledChain> compiled = new HashMap<>();
+        rules.forEach((name, chainRules) -> {
+            CompiledChain chain = chains.get(name);
+            if (chain != null && chain.policy != null && !chainRules.isEmpty()) {
+                compiled.put(name, new CompiledChain(name, null, chainRules, chain.size, chainIndexes, indexedChains));
+            }
+        });
+        return new CompiledRuleset(this, compiled);
+    }
+
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    public int getUnsupportedRuleCount() {
+        return unsupportedRuleCount;
+    }
+
+    /**
+     * @return true if the chain exists and is a built-in chain with a policy.
+     */
+    public boolean hasBuiltInChain(String chain) {
+        CompiledChain compiled = chains.get(chain);
+        return compiled != null && compiled.policy != null;
+    }
+
+    /**
+     * Runs a packet through a built-in chain with first-match semantics.
+     *
+     * @param chain  The built-in chain the packet enters.
+     * @param packet The packet.
+     * @return The verdict and the rule that decided it.
+     * @throws IllegalArgumentException if the chain is not a built-in chain of the filter table.
+     */
+    public PacketVerdict evaluate(String chain, Packet packet) {
+        CompiledChain start = chains.get(chain);
+        if (start == null || start.policy == null) {
+            throw new IllegalArgumentException("Not a built-in filter chain: " + chain);
+        }
+        PacketVerdict verdict = new PacketVerdict(null, null, null, true);
+        String target = walk(start, packet, 0, verdict);
+        CompiledChain tail = appended.get(chain);
+        if (target == null && tail != null) {
+            target = walk(tail, packet, 0, verdict);
+        }
+        if (target == null || target == RETURNED) {
+            verdict.setVerdict(start.policy);
+            verdict.setChain(start.name);
+        } else {
+            verdict.setVerdict(target);
+        }
+        return verdict;
+    }
+
+    /**
+     * Evaluates a chain until a terminal target, a RETURN or its end.
+     *
+     * @return The terminal target, {@link #RETURNED} if evaluation returned to the calling chain
+     * early, or null if it reached the end of the chain.
+     */
+    private static String walk(CompiledChain chain, Packet packet, int depth, PacketVerdict verdict) {
+        long[] protocol = chain.protocols.lookup(packet.protocol);
+        long[] source = chain.sources.lookup(packet.sourceIp);
+        long[] destination = chain.destinations.lookup(packet.destinationIp);
+        long[] sourcePort = chain.sourcePorts.lookup(packet.sourcePort);
+        long[] destinationPort = chain.destinationPorts.lookup(packet.destinationPort);
+        long[] in = chain.inInterfaces.lookup(packet.inInterface);
+        long[] out = chain.outInterfaces.lookup(packet.outInterface);
+
+        int from = 0;
+        while (true) {
+            int rule = firstSetBit(from, protocol, source, destination, sourcePort, destinationPort, in, out);
+            if (verdict.isExact() && chain.anyUnsupported(from, rule < 0 ? chain.size : rule)) {
+                verdict.setExact(false);
+            }
+            if (rule < 0) {
+                return null;
+            }
+            switch (chain.kinds[rule]) {
+                case TERMINAL:
+                    verdict.setChain(chain.name);
+                    verdict.setPosition(chain.offset + rule + 1);
+                    return chain.targets[rule];
+                case RETURN:
+                    return RETURNED;
+                case JUMP:
+                case GOTO:
+                    if (depth >= MAX_JUMP_DEPTH) {
+                        verdict.setExact(false);
+                        break;
+                    }
+                    String target = walk(chain.jumps[chain.jumpTargets[rule]], packet, depth + 1, verdict);
+                    if (chain.kinds[rule] == GOTO) {
+                        // Whatever ends the chain gone to also ends this one
+                        return target == null ? RETURNED : target;
+                    }
+                    if (target != null && target != RETURNED) {
+                        return target;
+                    }
+                    break;
+                default:
+                    // Non-terminating targets such as LOG, and rules without a target
+                    break;
+            }
+            from = rule + 1;
+        }
+    }
+
+    /**
+     * @return The lowest bit at or above from that is set in every set, or -1.
+     */
+    private static int firstSetBit(int from, long[] a, long[] b, long[] c, long[] d, long[] e, long[] f, long[] g) {
+        int word = from >>> 6;
+        long mask = -1L << (from & 63);
+        for (; word < a.length; word++, mask = -1L) {
+            long bits = a[word] & b[word] & c[word] & d[word] & e[word] & f[word] & g[word] & mask;
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    private static final class CompiledChain {
+        private final String name;
+        private final String policy;
+        private final int size;
+        // Rules before the first one of this chain, when it holds rules appended to another
+        private final int offset;
+        private final byte[] kinds;
+        private final String[] targets;
+        private final int[] jumpTargets;
+        // Shared array of all chains, filled in as they are compiled, so jumps can be resolved lazily
+        private final CompiledChain[] jumps;
+        private final long[] unsupported;
+        private final int unsupportedCount;
+
+        private final ProtocolIndex protocols;
+        private final AddressIndex sources;
+        private final AddressIndex destinations;
+        private final PortIndex sourcePorts;
+        private final PortIndex destinationPorts;
+        private final InterfaceIndex inInterfaces;
+        private final InterfaceIndex outInterfaces;
+
+        private CompiledChain(String name, String policy, List<IptablesRuleStats> rules, int offset,
+                              Map<String, Integer> chainIndexes, CompiledChain[] jumps) {
+            this.name = name;
+            this.policy = policy;
+            this.size = rules.size();
+            this.offset = offset;
+            this.jumps = jumps;
+            int words = Math.max(1, (size + 63) >>> 6);
+            kinds = new byte[size];
+            targets = new String[size];
+            jumpTargets = new int[size];
+            unsupported = new long[words];
+
+            protocols = new ProtocolIndex(words);
+            sources = new AddressIndex(words);
+            destinations = new AddressIndex(words);
+            sourcePorts = new PortIndex(words);
+            destinationPorts = new PortIndex(words);
+            inInterfaces = new InterfaceIndex(words);
+            outInterfaces = new InterfaceIndex(words);
+
+            int unsupportedRules = 0;
+            for (int i = 0; i < size; i++) {
+                IptablesRuleStats rule = rules.get(i);
+                classifyTarget(i, rule.getTarget(), rule.isGotoTarget(), chainIndexes);
+                boolean compiled = rule.isFullyParsed()
+                        && sources.add(i, rule.getSourceIp())
+                        && destinations.add(i, rule.getDestinationIp())
+                        && sourcePorts.add(i, rule.getSourcePort())
+                        && destinationPorts.add(i, rule.getDestinationPort());
+                if (compiled) {
+                    protocols.add(i, rule.getProtocolName());
+                } else {
+                    // Leaving the rule out of every protocol set is enough to stop it from ever matching
+                    unsupported[i >>> 6] |= 1L << i;
+                    unsupportedRules++;
+                }
+                inInterfaces.add(i, rule.getInInterface());
+                outInterfaces.add(i, rule.getOutInterface());
+            }
+            unsupportedCount = unsupportedRules;
+
+            sources.build();
+            destinations.build();
+            sourcePorts.build();
+            destinationPorts.build();
+        }
+
+        private void classifyTarget(int rule, String target, boolean gotoTarget, Map<String, Integer> chainIndexes) {
+            targets[rule] = target;
+            if (target == null) {
+                kinds[rule] = CONTINUE;
+            } else if (TERMINAL_TARGETS.contains(target)) {
+                kinds[rule] = TERMINAL;
+            } else if (target.equals("RETURN")) {
+                kinds[rule] = RETURN;
+            } else if (chainIndexes.containsKey(target)) {
+                kinds[rule] = gotoTarget ? GOTO : JUMP;
+                jumpTargets[rule] = chainIndexes.get(target);
+            } else {
+                kinds[rule] = CONTINUE;
+            }
+        }
+
+        /**
+         * @return true if a rule in [from, to) could not be compiled.
+         */
+        private boolean anyUnsupported(int from, int to) {
+            for (int word = from >>> 6; word < unsupported.length && (word << 6) < to; word++) {
+                long bits = unsupported[word];
+                if (word == from >>> 6) {
+                    bits &= -1L << (from & 63);
+                }
+                if (bits != 0 && (word << 6) + Long.numberOfTrailingZeros(bits) < to) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Rule sets per protocol number for the protocols a packet can carry.
+     */
+    private static final class ProtocolIndex {
+        private final long[] tcp;
+        private final long[] udp;
+        private final long[] icmp;
+        private final long[] none;
+
+        private ProtocolIndex(int words) {
+            tcp = new long[words];
+            udp = new long[words];
+            icmp = new long[words];
+            none = new long[words];
+        }
+
+        private void add(int rule, String protocol) {
+            if (protocol == null || protocol.equals("all") || protocol.equals("0")) {
+                set(tcp, rule);
+                set(udp, rule);
+                set(icmp, rule);
+            } else if (protocol.equals("tcp") || protocol.equals("6")) {
+                set(tcp, rule);
+            } else if (protocol.equals("udp") || protocol.equals("17")) {
+                set(udp, rule);
+            } else if (protocol.equals("icmp") || protocol.equals("1")) {
+                set(icmp, rule);
+            }
+            // Any other protocol can never match a simulated packet
+        }
+
+        private long[] lookup(IptablesRule.Protocol protocol) {
+            if (protocol == null) {
+                return none;
+            }
+            switch (protocol) {
+                case TCP:
+                    return tcp;
+                case UDP:
+                    return udp;
+                default:
+                    return icmp;
+            }
+        }
+    }
+
+    /**
+     * A binary trie over IPv4 prefixes. Each node that ends a rule prefix holds the set of rules
+     * whose prefix covers it, so a lookup returns the set of the deepest such node on its path.
+     */
+    private static final class AddressIndex {
+        private final int words;
+        private final long[] wildcard;
+        // Trie nodes as parallel arrays; node 0 is the root, 0 in a child slot means no child
+        private int[] zero = new int[64];
+        private int[] one = new int[64];
+        private int[] setIndex = new int[64];
+        private int nodes = 1;
+        private final List<long[]> ownRules = new ArrayList<>();
+        private long[][] sets;
+
+        private AddressIndex(int words) {
+            this.words = words;
+            this.wildcard = new long[words];
+            Arrays.fill(setIndex, -1);
+        }
+
+        /**
+         * Adds a rule's address match, an IPv4 address or CIDR block, or null for any address.
+         *
+         * @return false if the address cannot be compiled.
+         */
+        private boolean add(int rule, String cidr) {
+            if (cidr == null) {
+                set(wildcard, rule);
+                return true;
+            }
+            long parsed = HostParser.parseIpv4Cidr(cidr);
+            if (parsed < 0) {
+                return false;
+            }
+            long address = HostParser.cidrAddress(parsed) & 0xFFFFFFFFL;
+            int prefix = HostParser.cidrPrefix(parsed);
+            if (prefix == 0) {
+                set(wildcard, rule);
+                return true;
+            }
+
+            int node = 0;
+            for (int bit = 0; bit < prefix; bit++) {
+                boolean high = (address & (1L << (31 - bit))) != 0;
+                int child = high ? one[node] : zero[node];
+                if (child == 0) {
+                    child = newNode();
+                    if (high) {
+                        one[node] = child;
+                    } else {
+                        zero[node] = child;
+                    }
+                }
+                node = child;
+            }
+            if (setIndex[node] < 0) {
+                setIndex[node] = ownRules.size();
+                ownRules.add(new long[words]);
+            }
+            set(ownRules.get(setIndex[node]), rule);
+            return true;
+        }
+
+        private int newNode() {
+            if (nodes == zero.length) {
+                zero = Arrays.copyOf(zero, nodes * 2);
+                one = Arrays.copyOf(one, nodes * 2);
+                setIndex = Arrays.copyOf(setIndex, nodes * 2);
+                Arrays.fill(setIndex, nodes, nodes * 2, -1);
+            }
+            return nodes++;
+        }
+
+        /**
+         * Turns the rules ending at each node into the cumulative set of every rule covering it.
+         */
+        private void build() {
+            sets = new long[ownRules.size()][];
+            accumulate(0, wildcard);
+        }
+
+        private void accumulate(int node, long[] inherited) {
+            long[] covering = inherited;
+            if (setIndex[node] >= 0) {
+                covering = or(inherited, ownRules.get(setIndex[node]));
+                sets[setIndex[node]] = covering;
+            }
+            if (zero[node] != 0) {
+                accumulate(zero[node], covering);
+            }
+            if (one[node] != 0) {
+                accumulate(one[node], covering);
+            }
+        }
+
+        private long[] lookup(int address) {
+            long[] result = setIndex[0] >= 0 ? sets[setIndex[0]] : wildcard;
+            int node = 0;
+            for (int bit = 31; bit >= 0; bit--) {
+                node = (address & (1 << bit)) != 0 ? one[node] : zero[node];
+                if (node == 0) {
+                    break;
+                }
+                if (setIndex[node] >= 0) {
+                    result = sets[setIndex[node]];
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Splits the port space at every range boundary of the chain's rules; each resulting
+     * interval holds the set of rules whose range contains it. A port's interval is found by
+     * binary search over the interval starts, or, once enough rules match on ports for the
+     * search to get deep, from a table of all 65536 ports.
+     */
+    private static final class PortIndex {
+        private static final int DENSE_MIN_RULES = 64;
+
+        private final int words;
+        private final long[] wildcard;
+        private final List<int[]> ranges = new ArrayList<>();
+        // Sorted start of every interval; ports below the first belong to no range
+        private int[] starts;
+        private char[] intervalOfPort;
+        private long[][] sets;
+
+        private PortIndex(int words) {
+            this.words = words;
+            this.wildcard = new long[words];
+        }
+
+        /**
+         * Adds a rule's port match, a port or a {@code low:high} range, or null for any port.
+         *
+         * @return false if the match cannot be compiled.
+         */
+        private boolean add(int rule, String spec) {
+            if (spec == null) {
+                set(wildcard, rule);
+                return true;
+            }
+            int colon = spec.indexOf(':');
+            try {
+                int low = colon < 0 ? Integer.parseInt(spec) : colon == 0 ? 0 : Integer.parseInt(spec.substring(0, colon));
+                int high = colon < 0 ? low
+                        : colon == spec.length() - 1 ? 65535 : Integer.parseInt(spec.substring(colon + 1));
+                if (low < 0 || high > 65535 || low > high) {
+                    return false;
+                }
+                ranges.add(new int[]{low, high, rule});
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        private void build() {
+            if (ranges.isEmpty()) {
+                starts = new int[0];
+                sets = new long[][]{wildcard};
+                return;
+            }
+            // Sweep the port space, opening rules at the start of their range and closing them after its end
+            Map<Integer, List<int[]>> opening = new HashMap<>();
+            for (int[] range : ranges) {
+                opening.computeIfAbsent(range[0], port -> new ArrayList<>()).add(range);
+                if (range[1] < 65535) {
+                    opening.computeIfAbsent(range[1] + 1, port -> new ArrayList<>());
+                }
+            }
+            int[] boundaries = opening.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            if (ranges.size() >= DENSE_MIN_RULES) {
+                intervalOfPort = new char[65536];
+            }
+            List<long[]> intervalSets = new ArrayList<>();
+            intervalSets.add(wildcard);
+            List<int[]> open = new ArrayList<>();
+            for (int i = 0; i < boundaries.length; i++) {
+                int boundary = boundaries[i];
+                open.removeIf(range -> range[1] < boundary);
+                open.addAll(opening.get(boundary));
+                long[] covering = wildcard.clone();
+                for (int[] range : open) {
+                    set(covering, range[2]);
+                }
+                if (intervalOfPort != null) {
+                    int end = i + 1 < boundaries.length ? boundaries[i + 1] : 65536;
+                    Arrays.fill(intervalOfPort, boundary, end, (char) intervalSets.size());
+                }
+                intervalSets.add(covering);
+            }
+            starts = boundaries;
+            sets = intervalSets.toArray(new long[0][]);
+        }
+
+        private long[] lookup(int port) {
+            if (port < 0 || port > 65535) {
+                return wildcard;
+            }
+            if (intervalOfPort != null) {
+                return sets[intervalOfPort[port]];
+            }
+            // Interval i starts at starts[i] and has set i + 1; set 0 covers the ports below every range
+            int found = Arrays.binarySearch(starts, port);
+            return sets[found >= 0 ? found + 1 : -found - 1];
+        }
+    }
+
+    /**
+     * Rule sets per interface name. Patterns ending in {@code +} match every name with that prefix.
+     */
+    private static final class InterfaceIndex {
+        private static final int MAX_CACHED_NAMES = 1024;
+
+        private final long[] wildcard;
+        private final List<String> patterns = new ArrayList<>();
+        private final List<Integer> patternRules = new ArrayList<>();
+        private final Map<String, long[]> byName = new ConcurrentHashMap<>();
+
+        private InterfaceIndex(int words) {
+            this.wildcard = new long[words];
+        }
+
+        private void add(int rule, String pattern) {
+            if (pattern == null || pattern.equals("+")) {
+                set(wildcard, rule);
+            } else {
+                patterns.add(pattern);
+                patternRules.add(rule);
+            }
+        }
+
+        private long[] lookup(String name) {
+            if (name == null || patterns.isEmpty()) {
+                return wildcard;
+            }
+            long[] cached = byName.get(name);
+            if (cached != null) {
+                return cached;
+            }
+            long[] matching = wildcard.clone();
+            for (int i = 0; i < patterns.size(); i++) {
+                String pattern = patterns.get(i);
+                boolean matches = pattern.endsWith("+")
+                        ? name.startsWith(pattern.substring(0, pattern.length() - 1))
+                        : name.equals(pattern);
+                if (matches) {
+                    set(matching, patternRules.get(i));
+                }
+            }
+            if (byName.size() < MAX_CACHED_NAMES) {
+                byName.put(name, matching);
+            }
+            return matching;
+        }
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static long[] or(long[] a, long[] b) {
+        long[] result = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = a[i] | b[i];
+        }
+        return result;
+    }
+
+    /**
+     * A packet in the primitive form evaluated by the compiled ruleset. Instances can be reused.
+     */
+    public static final class Packet {
+        private IptablesRule.Protocol protocol;
+        private int sourceIp;
+        private int sourcePort = -1;
+        private int destinationIp;
+        private int destinationPort = -1;
+        private String inInterface;
+        private String outInterface;
+
+        /**
+         * Sets the header fields; a port of -1 stands for a packet without ports, such as ICMP.
+         */
+        public Packet set(IptablesRule.Protocol protocol, int sourceIp, int sourcePort,
+                          int destinationIp, int destinationPort) {
+            this.protocol = protocol;
+            this.sourceIp = sourceIp;
+            this.sourcePort = sourcePort;
+            this.destinationIp = destinationIp;
+            this.destinationPort = destinationPort;
+            return this;
+        }
+
+        public Packet interfaces(String inInterface, String outInterface) {
+            this.inInterface = inInterface;
+            this.outInterface = outInterface;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ConnectionCount;
+import com.example.networkdiagnostictool.model.ConnectionSummary;
+import com.example.networkdiagnostictool.model.SocketEntry;
+import com.example.networkdiagnostictool.util.AddressCountMap;
+import com.example.networkdiagnostictool.util.HostParser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.example.networkdiagnostictool.service.ProcNetSocketReader.PROTOCOL_TCP;
+import static com.example.networkdiagnostictool.service.ProcNetSocketReader.PROTOCOL_UDP;
+
+/**
+ * Inspects the kernel socket tables in {@code /proc/net/tcp}, {@code tcp6}, {@code udp} and {@code udp6}.
+ * Summaries count sockets per state, remote address and local port into primitive arrays and an
+ * {@link AddressCountMap} while the tables are read, and only the top entries are turned into objects,
+ * so hosts with hundreds of thousands of sockets are summarized without one object per socket.
+ * Listings filter on the decoded primitives and materialize only the sockets that match.
+ */
+@Service
+public class ConnectionTableService {
+
+    public static final int STATE_ESTABLISHED = 1;
+    public static final int STATE_UNCONNECTED = 7;
+    public static final int STATE_LISTEN = 10;
+
+    // Kernel TCP states, indexed by their numeric value in the tables
+    private static final String[] STATE_NAMES = {
+            null, "ESTABLISHED", "SYN_SENT", "SYN_RECV", "FIN_WAIT1", "FIN_WAIT2", "TIME_WAIT",
+            "CLOSE", "CLOSE_WAIT", "LAST_ACK", "LISTEN", "CLOSING", "NEW_SYN_RECV"};
+    private static final String[] PROTOCOL_NAMES = {"tcp", "udp"};
+    private static final String[][] TABLES = {{"tcp", "tcp6"}, {"udp", "udp6"}};
+    private static final int PORTS = 65536;
+
+    private final Path procDir;
+    private final ProcNetSocketReader reader = new ProcNetSocketReader();
+
+    // Summary counters, reused across summaries under the instance lock
+    private final int[][] states = new int[PROTOCOL_NAMES.length][STATE_NAMES.length];
+    private final int[] localPorts = new int[PROTOCOL_NAMES.length * PORTS];
+    private final AddressCountMap remotes = new AddressCountMap(1024);
+    private final int[] protocolTotals = new int[PROTOCOL_NAMES.length];
+    private final ProcNetSocketReader.SocketVisitor counter = this::count;
+
+    /**
+     * Constructor for injecting the location of the socket tables.
+     *
+     * @param procDir Directory holding the {@code tcp}, {@code tcp6}, {@code udp} and {@code udp6} tables.
+     */
+    @Autowired
+    public ConnectionTableService(@Value("${connections.proc-dir:/proc/net}") String procDir) {
+        this(Paths.get(procDir));
+    }
+
+    ConnectionTableService(Path procDir) {
+        this.procDir = procDir;
+    }
+
+    /**
+     * Reads all socket tables and aggregates them.
+     *
+     * @param top Number of remote addresses and local ports to report.
+     * @return Totals, TCP state counts and the busiest remote addresses and local ports.
+     * @throws IllegalStateException if no socket table exists, e.g. on a non-Linux host.
+     */
+    public synchronized ConnectionSummary summarize(int top) {
+        long start = System.nanoTime();
+        for (int[] counts : states) {
+            Arrays.fill(counts, 0);
+        }
+        Arrays.fill(localPorts, 0);
+        Arrays.fill(protocolTotals, 0);
+        remotes.clear();
+
+        readAll(-1, counter);
+
+        Map<String, Integer> tcpStates = new LinkedHashMap<>();
+        for (int state = 1; state < STATE_NAMES.length; state++) {
+            if (states[PROTOCOL_TCP][state] > 0) {
+                tcpStates.put(STATE_NAMES[state], states[PROTOCOL_TCP][state]);
+            }
+        }
+
+        TopCounts topRemotes = new TopCounts(top);
+        for (int slot = 0; slot < remotes.capacity(); slot++) {
+            topRemotes.offer(slot, remotes.count(slot));
+        }
+        List<ConnectionCount> remoteCounts = new ArrayList<>(topRemotes.size);
+        for (int i : topRemotes.sortedIndexes()) {
+            int slot = topRemotes.keys[i];
+            remoteCounts.add(new ConnectionCount(formatAddress(remotes.high(slot), remotes.low(slot)), topRemotes.counts[i]));
+        }
+
+        TopCounts topPorts = new TopCounts(top);
+        for (int key = 0; key < localPorts.length; key++) {
+            topPorts.offer(key, localPorts[key]);
+        }
+        List<ConnectionCount> portCounts = new ArrayList<>(topPorts.size);
+        for (int i : topPorts.sortedIndexes()) {
+            int key = topPorts.keys[i];
+            portCounts.add(new ConnectionCount((key % PORTS) + "/" + PROTOCOL_NAMES[key / PORTS], topPorts.counts[i]));
+        }
+
+        return ConnectionSummary.builder()
+                .total(protocolTotals[PROTOCOL_TCP] + protocolTotals[PROTOCOL_UDP])
+                .tcp(protocolTotals[PROTOCOL_TCP])
+                .udp(protocolTotals[PROTOCOL_UDP])
+                .tcpStates(tcpStates)
+                .remoteAddresses(remotes.size())
+                .topRemoteAddresses(remoteCounts)
+                .topLocalPorts(portCounts)
+                .elapsedMicros((System.nanoTime() - start) / 1000)
+                .build();
+    }
+
+    private void count(ProcNetSocketReader.SocketRecord socket) {
+        int protocol = socket.protocol;
+        protocolTotals[protocol]++;
+        if (socket.state > 0 && socket.state < STATE_NAMES.length) {
+            states[protocol][socket.state]++;
+        }
+        if (isListening(socket)) {
+            return;
+        }
+        localPorts[protocol * PORTS + socket.localPort]++;
+        if (!isUnspecified(socket.remoteHigh, socket.remoteLow)) {
+            remotes.increment(socket.remoteHigh, socket.remoteLow);
+        }
+    }
+
+    /**
+     * Lists the sockets matching every given filter; a null filter matches everything.
+     *
+     * @param protocol   {@code tcp} or {@code udp}.
+     * @param state      A TCP state name such as {@code ESTABLISHED}, or {@code UNCONN} for unconnected UDP sockets.
+     * @param localPort  The local port.
+     * @param remotePort The remote port.
+     * @param remote     A literal IPv4 or IPv6 remote address.
+     * @param limit      Maximum number of sockets returned.
+     * @return The matching sockets in table order, TCP before UDP and IPv4 before IPv6.
+     * @throws IllegalArgumentException if a filter is not valid.
+     * @throws IllegalStateException    if no socket table exists, e.g. on a non-Linux host.
+     */
+    public synchronized List<SocketEntry> list(String protocol, String state, Integer localPort, Integer remotePort,
+                                               String remote, int limit) {
+        int protocolFilter = protocol == null ? -1 : parseProtocol(protocol);
+        int stateFilter = state == null ? -1 : parseState(state);
+        int localPortFilter = localPort == null ? -1 : checkPort(localPort);
+        int remotePortFilter = remotePort == null ? -1 : checkPort(remotePort);
+        long[] remoteFilter = remote == null ? null : parseAddress(remote);
+
+        List<SocketEntry> entries = new ArrayList<>(Math.min(limit, 1024));
+        readAll(protocolFilter, socket -> {
+            if (entries.size() < limit
+                    && (stateFilter < 0 || socket.state == stateFilter)
+                    && (localPortFilter < 0 || socket.localPort == localPortFilter)
+                    && (remotePortFilter < 0 || socket.remotePort == remotePortFilter)
+                    && (remoteFilter == null || (socket.remoteHigh == remoteFilter[0] && socket.remoteLow == remoteFilter[1]))) {
+                entries.add(toEntry(socket));
+            }
+        });
+        return entries;
+    }
+
+    private void readAll(int protocolFilter, ProcNetSocketReader.SocketVisitor visitor) {
+        boolean found = false;
+        for (int protocol = 0; protocol < TABLES.length; protocol++) {
+            if (protocolFilter >= 0 && protocol != protocolFilter) {
+                continue;
+            }
+            for (String table : TABLES[protocol]) {
+                Path path = procDir.resolve(table);
+                try {
+                    reader.read(path, protocol, visitor);
+                    found = true;
+                } catch (NoSuchFileException e) {
+                    // IPv6 or UDP may be compiled out of the kernel
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error reading " + path, e);
+                }
+            }
+        }
+        if (!found) {
+            throw new IllegalStateException("Socket tables unavailable in " + procDir);
+        }
+    }
+
+    private static SocketEntry toEntry(ProcNetSocketReader.SocketRecord socket) {
+        return SocketEntry.builder()
+                .protocol(PROTOCOL_NAMES[socket.protocol])
+                .localAddress(formatAddress(socket.localHigh, socket.localLow))
+                .localPort(socket.localPort)
+                .remoteAddress(formatAddress(socket.remoteHigh, socket.remoteLow))
+                .remotePort(socket.remotePort)
+                .state(stateName(socket.protocol, socket.state))
+                .txQueue(socket.txQueue)
+                .rxQueue(socket.rxQueue)
+                .uid(socket.uid)
+                .inode(socket.inode)
+                .build();
+    }
+
+    /**
+     * Listening TCP sockets and unconnected UDP sockets have no peer and are left out of the port
+     * and address counts, which would otherwise be dominated by servers rather than traffic.
+     */
+    private static boolean isListening(ProcNetSocketReader.SocketRecord socket) {
+        return socket.state == (socket.protocol == PROTOCOL_TCP ? STATE_LISTEN : STATE_UNCONNECTED);
+    }
+
+    private static boolean isUnspecified(long high, long low) {
+        return high == 0 && (low == 0 || low == ProcNetSocketReader.ipv4Low(0));
+    }
+
+    private static String stateName(int protocol, int state) {
+        if (protocol == PROTOCOL_UDP && state == STATE_UNCONNECTED) {
+            return "UNCONN";
+        }
+        return state > 0 && state < STATE_NAMES.length ? STATE_NAMES[state] : Integer.toString(state);
+    }
+
+    private static int parseProtocol(String protocol) {
+        for (int i = 0; i < PROTOCOL_NAMES.length; i++) {
+            if (PROTOCOL_NAMES[i].equalsIgnoreCase(protocol)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Invalid protocol. Must be tcp or udp");
+    }
+
+    private static int parseState(String state) {
+        String name = state.toUpperCase(Locale.ROOT);
+        if (name.equals("UNCONN")) {
+            return STATE_UNCONNECTED;
+        }
+        for (int i = 1; i < STATE_NAMES.length; i++) {
+            if (STATE_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Invalid state: " + state);
+    }
+
+    private static int checkPort(int port) {
+        if (port < 0 || port >= PORTS) {
+            throw new IllegalArgumentException("Invalid port. Must be between 0 and 65535");
+        }
+        return port;
+    }
+
+    /**
+     * Parses a literal address into the 128-bit form of {@link ProcNetSocketReader}, without name resolution.
+     */
+    static long[] parseAddress(String address) {
+        HostParser parser = new HostParser();
+        if (!parser.parseAddress(address)) {
+            throw new IllegalArgumentException("Invalid address: " + address);
+        }
+        // Both hold IPv4 in its IPv4-mapped form
+        return new long[]{parser.getHigh(), parser.getLow()};
+    }
+
+    static String formatAddress(long high, long low) {
+        if (ProcNetSocketReader.isIpv4(high, low)) {
+            return ArpTable.formatIpv4((int) low);
+        }
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (high >>> (56 - i * 8));
+            bytes[i + 8] = (byte) (low >>> (56 - i * 8));
+        }
+        try {
+            return InetAddress.getByAddress(bytes).getHostAddress();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Keeps the keys with the highest counts in a primitive min-heap, so picking the top entries
+     * out of every address or port costs no allocation per candidate.
+     */
+    private static final class TopCounts {
+        private final int[] keys;
+        private final int[] counts;
+        private int size;
+
+        private TopCounts(int capacity) {
+            this.keys = new int[capacity];
+            this.counts = new int[capacity];
+        }
+
+        private void offer(int key, int count) {
+            if (count <= 0) {
+                return;
+            }
+            if (size < keys.length) {
+                int i = size++;
+                while (i > 0 && counts[(i - 1) / 2] > count) {
+                    int parent = (i - 1) / 2;
+                    keys[i] = keys[parent];
+                    counts[i] = counts[parent];
+                    i = parent;
+                }
+                keys[i] = key;
+                counts[i] = count;
+            } else if (size > 0 && count > counts[0]) {
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && counts[child + 1] < counts[child]) {
+                        child++;
+                    }
+                    if (counts[child] >= count) {
+                        break;
+                    }
+                    keys[i] = keys[child];
+                    counts[i] = counts[child];
+                    i = child;
+                }
+                keys[i] = key;
+                counts[i] = count;
+            }
+        }
+
+        /**
+         * @return Heap positions ordered by descending count, ties by ascending key.
+         */
+        private Integer[] sortedIndexes() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> counts[a] != counts[b]
+                    ? Integer.compare(counts[b], counts[a]) : Integer.compare(keys[a], keys[b]));
+            return order;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ConnectionTiming;
+import com.example.networkdiagnostictool.util.HostParser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.naming.Context;
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * Times the phases of a connection to a URL separately: name resolution, TCP connect, the TLS
+ * handshake for https URLs, and optionally an HTTP request up to the first byte of the response,
+ * so a slow service can be attributed to DNS, the network, TLS or the application.
+ * The probe connects to the address the shared {@link HostResolver} returns, like every other
+ * diagnostic. The DNS phase is timed with a separate query to the name servers, since lookups through
+ * {@link InetAddress} are answered from the JVM's address cache after the first one and would time the cache.
+ * Certificates are verified against the JVM's default trust store.
+ */
+@Service
+public class ConnectionTimingProbe {
+
+    private static final int MAX_STATUS_LINE = 256;
+    private static final String[] ADDRESS_RECORDS = {"A", "AAAA"};
+
+    private final DiagnosticExecutor diagnosticExecutor;
+    private final HostResolver hostResolver;
+    private final SSLContext sslContext;
+
+    /**
+     * Constructor for dependency injection of the executor running the probes and the shared resolver.
+     *
+     * @param diagnosticExecutor The executor running probes with per-host limits.
+     * @param hostResolver       The resolver providing the address to connect to.
+     */
+    @Autowired
+    public ConnectionTimingProbe(DiagnosticExecutor diagnosticExecutor, HostResolver hostResolver)
+            throws NoSuchAlgorithmException {
+        this(diagnosticExecutor, hostResolver, SSLContext.getDefault());
+    }
+
+    ConnectionTimingProbe(DiagnosticExecutor diagnosticExecutor, HostResolver hostResolver, SSLContext sslContext) {
+        this.diagnosticExecutor = diagnosticExecutor;
+        this.hostResolver = hostResolver;
+        this.sslContext = sslContext;
+        // Load the DNS provider now rather than in the first probe's DNS time
+        try {
+            dnsContext(1000).close();
+        } catch (NamingException e) {
+            // Probes fall back to the system resolver
+        }
+    }
+
+    /**
+     * Parses a URL to probe.
+     *
+     * @param url An http or https URL.
+     * @return The parsed URL.
+     * @throws IllegalArgumentException if the URL is malformed, has no host or another scheme.
+     */
+    public static URI parse(String url) {
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid URL: " + url);
+        }
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            throw new IllegalArgumentException("Invalid URL scheme. Must be http or https: " + url);
+        }
+        if (uri.getHost() == null) {
+            throw new IllegalArgumentException("Invalid URL, no host: " + url);
+        }
+        return uri;
+    }
+
+    /**
+     * Probes several URLs concurrently.
+     *
+     * @param urls          The URLs, as returned by {@link #parse}.
+     * @param request       Whether to send an HTTP request and time the first response byte.
+     * @param timeoutMillis Deadline of each network phase.
+     * @return The timings in the order of the URLs, once all probes finished. A probe that could not
+     *         run because its host is saturated is reported as failed rather than failing the whole list.
+     */
+    public CompletableFuture<List<ConnectionTiming>> probeAll(List<URI> urls, boolean request, int timeoutMillis) {
+        List<CompletableFuture<ConnectionTiming>> probes = new ArrayList<>(urls.size());
+        for (URI url : urls) {
+            probes.add(diagnosticExecutor.submit(url.getHost(), () -> probe(url, request, timeoutMillis))
+                    .exceptionally(failure -> ConnectionTiming.builder()
+                            .url(url.toString())
+                            .error(failure instanceof CompletionException && failure.getCause() != null
+                                    ? failure.getCause().getMessage() : failure.getMessage())
+                            .build()));
+        }
+        return CompletableFuture.allOf(probes.toArray(new CompletableFuture[0])).thenApply(done -> {
+            List<ConnectionTiming> timings = new ArrayList<>(probes.size());
+            for (CompletableFuture<ConnectionTiming> probe : probes) {
+                timings.add(probe.join());
+            }
+            return timings;
+        });
+    }
+
+    /**
+     * Probes one URL on the calling thread.
+     *
+     * @param url           The URL, as returned by {@link #parse}.
+     * @param request       Whether to send an HTTP request and time the first response byte.
+     * @param timeoutMillis Deadline of each network phase.
+     * @return The timing of every phase reached; a failure is recorded in the result, not thrown.
+     */
+    public ConnectionTiming probe(URI url, boolean request, int timeoutMillis) {
+        boolean tls = "https".equalsIgnoreCase(url.getScheme());
+        String host = url.getHost();
+        int port = url.getPort() > 0 ? url.getPort() : tls ? 443 : 80;
+        ConnectionTiming.ConnectionTimingBuilder timing = ConnectionTiming.builder().url(url.toString()).port(port);
+        long total = 0;
+
+        String phase = "dns";
+        try {
+            total += timeDnsQuery(host, timeoutMillis, timing);
+            InetAddress address = hostResolver.resolve(host);
+            timing.address(address.getHostAddress());
+
+            phase = "connect";
+            long start = System.nanoTime();
+            try (Socket socket = new Socket()) {
+                socket.setTcpNoDelay(true);
+                socket.setSoLinger(true, 0);
+                socket.connect(new InetSocketAddress(address, port), timeoutMillis);
+                socket.setSoTimeout(timeoutMillis);
+                total += record(start, timing::connectMicros);
+
+                Socket channel = socket;
+                if (tls) {
+                    phase = "tls";
+                    start = System.nanoTime();
+                    SSLSocket ssl = handshake(socket, host, port);
+                    total += record(start, timing::tlsMicros);
+                    timing.tlsProtocol(ssl.getSession().getProtocol()).cipherSuite(ssl.getSession().getCipherSuite());
+                    channel = ssl;
+                }
+
+                if (request) {
+                    phase = "http";
+                    start = System.nanoTime();
+                    channel.getOutputStream().write(request(url, port, tls));
+                    InputStream in = channel.getInputStream();
+                    int first = in.read();
+                    if (first < 0) {
+                        throw new IOException("Connection closed before the response");
+                    }
+                    total += record(start, timing::firstByteMicros);
+                    timing.statusCode(readStatus(first, in));
+                }
+            }
+        } catch (UnknownHostException e) {
+            return timing.totalMicros(total).failedPhase(phase).error("Unable to resolve host: " + host).build();
+        } catch (IOException e) {
+            return timing.totalMicros(total).failedPhase(phase).error(e.toString()).build();
+        }
+        return timing.totalMicros(total).build();
+    }
+
+    /**
+     * Times a query to the name servers for the address records of a name. Only the time of a query
+     * answered with an address is recorded; a query that fails, times out or finds no address is
+     * reported in the timing's DNS error and its wait is left out of the phases. IP literals need no
+     * query and take no time.
+     *
+     * @return The recorded time in microseconds, 0 if none was recorded.
+     */
+    private static long timeDnsQuery(String host, int timeoutMillis, ConnectionTiming.ConnectionTimingBuilder timing) {
+        if (HostParser.isIpLiteral(host)) {
+            timing.dnsMicros(0L);
+            return 0;
+        }
+        long start = System.nanoTime();
+        DirContext context = null;
+        try {
+            context = dnsContext(timeoutMillis);
+            Attributes records = context.getAttributes(host, ADDRESS_RECORDS);
+            for (String type : ADDRESS_RECORDS) {
+                Attribute addresses = records.get(type);
+                if (addresses != null && addresses.size() > 0) {
+                    return record(start, timing::dnsMicros);
+                }
+            }
+            timing.dnsError("No A or AAAA records for " + host);
+        } catch (NameNotFoundException e) {
+            timing.dnsError("Name servers do not know " + host);
+        } catch (NamingException e) {
+            timing.dnsError("DNS query failed: " + e.getMessage());
+        } finally {
+            if (context != null) {
+                try {
+                    context.close();
+                } catch (NamingException e) {
+                    // Nothing is held open between queries
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static DirContext dnsContext(int timeoutMillis) throws NamingException {
+        Hashtable<String, String> environment = new Hashtable<>();
+        environment.put(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.dns.DnsContextFactory");
+        environment.put("com.sun.jndi.dns.timeout.initial", String.valueOf(timeoutMillis));
+        environment.put("com.sun.jndi.dns.timeout.retries", "1");
+        return new InitialDirContext(environment);
+    }
+
+    private SSLSocket handshake(Socket socket, String host, int port) throws IOException {
+        SSLSocket ssl = (SSLSocket) sslContext.getSocketFactory().createSocket(socket, host, port, true);
+        SSLParameters parameters = ssl.getSSLParameters();
+        parameters.setEndpointIdentificationAlgorithm("HTTPS");
+        if (!HostParser.isIpLiteral(host)) {
+            // Server names are only sent for names, not for IP literals
+            parameters.setServerNames(List.of(new SNIHostName(host)));
+        }
+        ssl.setSSLParameters(parameters);
+        ssl.startHandshake();
+        return ssl;
+    }
+
+    private static byte[] request(URI url, int port, boolean tls) {
+        String path = url.getRawPath() == null || url.getRawPath().isEmpty() ? "/" : url.getRawPath();
+        if (url.getRawQuery() != null) {
+            path += "?" + url.getRawQuery();
+        }
+        boolean defaultPort = port == (tls ? 443 : 80);
+        String request = "GET " + path + " HTTP/1.1\r\n"
+                + "Host: " + url.getHost() + (defaultPort ? "" : ":" + port) + "\r\n"
+                + "User-Agent: network-diagnostic-tool\r\n"
+                + "Connection: close\r\n\r\n";
+        return request.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reads the rest of the status line after its first byte.
+     *
+     * @return The response status code, or -1 if the status line could not be parsed.
+     */
+    private static int readStatus(int first, InputStream in) throws IOException {
+        StringBuilder statusLine = new StringBuilder();
+        int b = first;
+        while (b >= 0 && b != '\n' && statusLine.length() < MAX_STATUS_LINE) {
+            statusLine.append((char) b);
+            b = in.read();
+        }
+        String[] parts = statusLine.toString().trim().split(" ");
+        try {
+            return parts.length >= 2 && parts[0].startsWith("HTTP/") ? Integer.parseInt(parts[1]) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long record(long start, LongFunction<?> phase) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        phase.apply(micros);
+        return micros;
+    }
+}
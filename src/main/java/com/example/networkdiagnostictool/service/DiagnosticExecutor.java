@@ -0,0 +1,166 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.util.NamedThreadFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking diagnostics off the servlet threads, so slow probes cannot starve unrelated requests.
+ * Work is queued per target host: each host gets a fixed number of concurrently running probes and a
+ * short queue behind them, and probes beyond that are rejected right away instead of piling up behind
+ * a target that is not answering. All hosts share one bounded thread pool, which rejects work the same
+ * way once it is saturated.
+ */
+@Component
+public class DiagnosticExecutor {
+
+    private final int perHostConcurrency;
+    private final int perHostQueue;
+    private final ThreadPoolExecutor pool;
+    // Lanes exist only while their host has work; all changes happen inside compute for the host
+    private final ConcurrentHashMap<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final Counter shed;
+
+    /**
+     * Constructor for injecting the pool and per-host limits.
+     *
+     * @param meterRegistry      The registry receiving the rejection counter and pool gauges.
+     * @param threads            Threads running diagnostics across all hosts.
+     * @param queueCapacity      Diagnostics waiting for a thread across all hosts.
+     * @param perHostConcurrency Diagnostics running at once against one host.
+     * @param perHostQueue       Diagnostics waiting behind those for one host.
+     */
+    @Autowired
+    public DiagnosticExecutor(MeterRegistry meterRegistry,
+                              @Value("${diagnostic.executor.threads:64}") int threads,
+                              @Value("${diagnostic.executor.queue-capacity:1000}") int queueCapacity,
+                              @Value("${diagnostic.executor.per-host-concurrency:4}") int perHostConcurrency,
+                              @Value("${diagnostic.executor.per-host-queue:16}") int perHostQueue) {
+        this.perHostConcurrency = perHostConcurrency;
+        this.perHostQueue = perHostQueue;
+        this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), new NamedThreadFactory("diagnostic"));
+        this.pool.allowCoreThreadTimeOut(true);
+        this.shed = Counter.builder("diagnostic.executor.rejections")
+                .description("Diagnostics rejected because their host or the pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("diagnostic.executor.active", pool, ThreadPoolExecutor::getActiveCount)
+                .description("Diagnostics currently running")
+                .register(meterRegistry);
+        Gauge.builder("diagnostic.executor.hosts", lanes, ConcurrentHashMap::size)
+                .description("Hosts with running or queued diagnostics")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a blocking diagnostic against a host.
+     *
+     * @param host The target host, whose limits apply.
+     * @param work The diagnostic.
+     * @return The diagnostic's result, or a {@link RejectedExecutionException} if the host or the pool is saturated.
+     */
+    public <T> CompletableFuture<T> submit(String host, Supplier<T> work) {
+        String key = host.toLowerCase(Locale.ROOT);
+        Task<T> task = new Task<>(key, work);
+        lanes.compute(key, (k, lane) -> {
+            if (lane == null) {
+                lane = new Lane();
+            }
+            if (lane.running < perHostConcurrency) {
+                lane.running++;
+                task.admitted = true;
+            } else if (lane.queued.size() < perHostQueue) {
+                lane.queued.add(task);
+            } else {
+                task.rejected = true;
+            }
+            return lane;
+        });
+        if (task.rejected) {
+            shed.increment();
+            task.result.completeExceptionally(
+                    new RejectedExecutionException("Too many diagnostics in progress for " + host));
+        } else if (task.admitted) {
+            start(task);
+        }
+        return task.result;
+    }
+
+    private void start(Task<?> task) {
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            shed.increment();
+            task.result.completeExceptionally(new RejectedExecutionException("Too many diagnostics in progress"));
+            finished(task.host);
+        }
+    }
+
+    /**
+     * Frees a slot of a host, handing it straight to the next queued diagnostic if there is one.
+     */
+    private void finished(String host) {
+        Task<?>[] next = new Task<?>[1];
+        lanes.computeIfPresent(host, (k, lane) -> {
+            next[0] = lane.queued.poll();
+            if (next[0] != null) {
+                return lane;
+            }
+            lane.running--;
+            return lane.running == 0 ? null : lane;
+        });
+        if (next[0] != null) {
+            start(next[0]);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static final class Lane {
+        private int running;
+        private final ArrayDeque<Task<?>> queued = new ArrayDeque<>();
+    }
+
+    private final class Task<T> implements Runnable {
+        private final String host;
+        private final Supplier<T> work;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        // Set inside compute for the host, read by the submitting thread afterwards
+        private boolean admitted;
+        private boolean rejected;
+
+        private Task(String host, Supplier<T> work) {
+            this.host = host;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result.complete(work.get());
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            } finally {
+                finished(host);
+            }
+        }
+    }
+}
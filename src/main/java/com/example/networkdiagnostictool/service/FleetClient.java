@@ -0,0 +1,222 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.FleetPeerResult;
+import com.example.networkdiagnostictool.model.FleetResult;
+import com.example.networkdiagnostictool.util.NamedThreadFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Sends one diagnostic request to many peer instances of this tool at once and merges their answers.
+ * All requests go through a single {@link HttpClient} speaking HTTP/2, cleartext via the h2c upgrade,
+ * so each peer is reached over one pooled, multiplexed connection that later fan-outs reuse.
+ * Every peer has its own deadline; a peer that is down, slow or answers with a non-2xx status is
+ * reported as failed without holding back the others.
+ */
+@Service
+public class FleetClient {
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper;
+    private final List<URI> defaultPeers;
+    private final int maxPeers;
+
+    /**
+     * Constructor for dependency injection of the JSON mapper, the configured peers and the client limits.
+     *
+     * @param objectMapper        The mapper reading the peers' JSON answers.
+     * @param defaultPeers        Comma-separated peers used when a request names none.
+     * @param maxPeers            Most peers a single request may fan out to.
+     * @param connectTimeoutMillis Deadline for opening a connection to a peer.
+     * @param threads             Threads handling responses.
+     */
+    @Autowired
+    public FleetClient(ObjectMapper objectMapper,
+                       @Value("${fleet.peers:}") String defaultPeers,
+                       @Value("${fleet.max-peers:1000}") int maxPeers,
+                       @Value("${fleet.connect-timeout-ms:2000}") long connectTimeoutMillis,
+                       @Value("${fleet.client-threads:4}") int threads) {
+        this.objectMapper = objectMapper;
+        this.maxPeers = maxPeers;
+        this.defaultPeers = Arrays.stream(defaultPeers.split(","))
+                .map(String::trim)
+                .filter(peer -> !peer.isEmpty())
+                .map(FleetClient::parsePeer)
+                .collect(Collectors.toList());
+        this.executor = Executors.newFixedThreadPool(threads, new NamedThreadFactory("fleet-client"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Parses a peer as {@code host:port}, or as a base URL with an {@code http} or {@code https} scheme.
+     *
+     * @return The peer's base URI, without path.
+     * @throws IllegalArgumentException if the peer has no host or port.
+     */
+    public static URI parsePeer(String peer) {
+        String text = peer.contains("://") ? peer : "http://" + peer;
+        try {
+            URI uri = new URI(text);
+            if (uri.getHost() == null || uri.getPort() < 0
+                    || !("http".equals(uri.getScheme()) || "https".equals(uri.getScheme()))) {
+                throw new IllegalArgumentException("Invalid peer: " + peer + ". Must be host:port or an http(s) URL");
+            }
+            return new URI(uri.getScheme(), null, uri.getHost(), uri.getPort(), null, null, null);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid peer: " + peer + ". Must be host:port or an http(s) URL");
+        }
+    }
+
+    /**
+     * Resolves the peers of a request: the given ones, or the configured ones if none are given.
+     *
+     * @throws IllegalArgumentException if a peer is invalid, there are none, or there are too many.
+     */
+    public List<URI> peers(List<String> requested) {
+        List<URI> peers;
+        if (requested == null || requested.isEmpty()) {
+            peers = defaultPeers;
+        } else {
+            peers = new ArrayList<>(requested.size());
+            for (String peer : requested) {
+                peers.add(parsePeer(peer.trim()));
+            }
+        }
+        if (peers.isEmpty()) {
+            throw new IllegalArgumentException("No peers. Pass peer=host:port or configure fleet.peers");
+        }
+        if (peers.size() > maxPeers) {
+            throw new IllegalArgumentException("Too many peers. At most " + maxPeers);
+        }
+        return peers;
+    }
+
+    /**
+     * Sends a GET request to every peer concurrently.
+     *
+     * @param peers         The peers' base URIs.
+     * @param pathAndQuery  The request path with its encoded query, e.g. {@code /api/tcpip/port?host=db&port=5432}.
+     * @param timeoutMillis Deadline for each peer's complete answer.
+     * @return Completes with every peer's result once all answered or timed out; never completes exceptionally.
+     */
+    public CompletableFuture<FleetResult> fanOut(List<URI> peers, String pathAndQuery, long timeoutMillis) {
+        long start = System.nanoTime();
+        List<CompletableFuture<FleetPeerResult>> requests = new ArrayList<>(peers.size());
+        for (URI peer : peers) {
+            requests.add(send(peer, pathAndQuery, timeoutMillis));
+        }
+        return CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<FleetPeerResult> results = new ArrayList<>(requests.size());
+            int failed = 0;
+            for (CompletableFuture<FleetPeerResult> request : requests) {
+                FleetPeerResult result = request.join();
+                if (result.getError() != null) {
+                    failed++;
+                }
+                results.add(result);
+            }
+            return FleetResult.builder()
+                    .request(pathAndQuery)
+                    .peers(peers.size())
+                    .succeeded(peers.size() - failed)
+                    .failed(failed)
+                    .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .results(Collections.unmodifiableList(results))
+                    .build();
+        });
+    }
+
+    private CompletableFuture<FleetPeerResult> send(URI peer, String pathAndQuery, long timeoutMillis) {
+        long start = System.nanoTime();
+        HttpRequest request = HttpRequest.newBuilder(peer.resolve(pathAndQuery))
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        FleetPeerResult.FleetPeerResultBuilder result = FleetPeerResult.builder().peer(peer.toString());
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                // The request timeout covers the response headers; this one also covers the body
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .handle((response, failure) -> {
+                    result.elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    if (failure != null) {
+                        return result.error(describe(failure, timeoutMillis)).build();
+                    }
+                    result.status(response.statusCode())
+                            .protocol(response.version().name())
+                            .body(parseBody(response));
+                    // The body is kept either way, so a peer's own validation message still reaches the caller
+                    if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                        result.error("HTTP " + response.statusCode());
+                    }
+                    return result.build();
+                });
+    }
+
+    private JsonNode parseBody(HttpResponse<byte[]> response) {
+        byte[] body = response.body();
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        boolean json = response.headers().firstValue("Content-Type")
+                .map(type -> type.startsWith("application/json") || type.contains("+json"))
+                .orElse(false);
+        if (json) {
+            try {
+                return objectMapper.readTree(body);
+            } catch (IOException e) {
+                // Returned as text below
+            }
+        }
+        return TextNode.valueOf(new String(body, StandardCharsets.UTF_8));
+    }
+
+    private static String describe(Throwable failure, long timeoutMillis) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause instanceof HttpConnectTimeoutException) {
+            return "Connect timed out";
+        }
+        if (cause instanceof HttpTimeoutException || cause instanceof TimeoutException) {
+            return "No answer within " + timeoutMillis + " ms";
+        }
+        return cause.getMessage() != null ? cause.getClass().getSimpleName() + ": " + cause.getMessage()
+                : cause.getClass().getSimpleName();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.HistoryPoint;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One memory-mapped segment file of the history store, holding fixed-size records in append order.
+ * <p>
+ * Layout: a 64 byte header (magic, version, record size, capacity, committed record count, first and
+ * last timestamp) followed by 48 byte records (timestamp, series id, sample count, failures, sum, min
+ * and max of the successful values). The committed count is updated after every record, so a
+ * restarted store sees exactly the records written before it stopped.
+ * <p>
+ * While a segment is appended to, each record links to the previous record of its series. Once the
+ * segment is full it is sealed: the links are compacted into a per-series slot index, which is also
+ * written to a sidecar file so that reopening a sealed segment reads neither its records nor rebuilds
+ * its index. Not thread-safe; {@link HistoryTier} guards access.
+ */
+@Slf4j
+final class HistorySegment {
+
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 48;
+    private static final int MAGIC = 0x4E445448; // "NDTH"
+    private static final int VERSION = 1;
+
+    private static final int COUNT_OFFSET = 16;
+    private static final int FIRST_OFFSET = 24;
+    private static final int LAST_OFFSET = 32;
+
+    private final Path path;
+    private final long sequence;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int count;
+    private long firstTimestamp = Long.MAX_VALUE;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    // Active segments: previous slot of the same series per slot, and last slot per series id
+    private int[] previous;
+    private int[] lastSlot;
+
+    // Sealed segments: series ids in ascending order, their ranges in slots, and the slots
+    private int[] seriesIds;
+    private int[] offsets;
+    private int[] slots;
+
+    private HistorySegment(Path path, long sequence, MappedByteBuffer buffer, int capacity) {
+        this.path = path;
+        this.sequence = sequence;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Creates a new, empty segment file.
+     */
+    static HistorySegment create(Path path, long sequence, int capacity) throws IOException {
+        HistorySegment segment = new HistorySegment(path, sequence, map(path, capacity), capacity);
+        segment.buffer.putInt(0, MAGIC);
+        segment.buffer.putInt(4, VERSION);
+        segment.buffer.putInt(8, RECORD_SIZE);
+        segment.buffer.putInt(12, capacity);
+        segment.buffer.putInt(COUNT_OFFSET, 0);
+        segment.buffer.putLong(FIRST_OFFSET, Long.MAX_VALUE);
+        segment.buffer.putLong(LAST_OFFSET, Long.MIN_VALUE);
+        segment.previous = new int[capacity];
+        segment.lastSlot = new int[0];
+        return segment;
+    }
+
+    /**
+     * Opens an existing segment file. A sealed segment loads its sidecar index, rebuilding it from the
+     * records only if the sidecar is missing; the active segment relinks its records.
+     *
+     * @throws IOException if the file is not a segment of this store.
+     */
+    static HistorySegment open(Path path, long sequence, boolean active) throws IOException {
+        int capacity;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Read the complete header
+            }
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != RECORD_SIZE) {
+                throw new IOException("Not a history segment: " + path);
+            }
+            capacity = header.getInt(12);
+        }
+        HistorySegment segment = new HistorySegment(path, sequence, map(path, capacity), capacity);
+        segment.count = Math.min(segment.buffer.getInt(COUNT_OFFSET), capacity);
+        segment.firstTimestamp = segment.buffer.getLong(FIRST_OFFSET);
+        segment.lastTimestamp = segment.buffer.getLong(LAST_OFFSET);
+
+        if (active) {
+            segment.previous = new int[capacity];
+            segment.lastSlot = new int[0];
+            for (int slot = 0; slot < segment.count; slot++) {
+                segment.link(slot, segment.series(slot));
+            }
+        } else if (!segment.readIndex()) {
+            segment.buildIndex();
+            segment.writeIndex();
+        }
+        return segment;
+    }
+
+    private static MappedByteBuffer map(Path path, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        }
+    }
+
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    /**
+     * Appends a record. The segment must be active and not full.
+     */
+    void append(long timestamp, int series, int samples, int failures, double sum, double min, double max) {
+        int slot = count;
+        int offset = HEADER_SIZE + slot * RECORD_SIZE;
+        buffer.putLong(offset, timestamp);
+        buffer.putInt(offset + 8, series);
+        buffer.putInt(offset + 12, samples);
+        buffer.putInt(offset + 16, failures);
+        buffer.putInt(offset + 20, 0);
+        buffer.putDouble(offset + 24, sum);
+        buffer.putDouble(offset + 32, min);
+        buffer.putDouble(offset + 40, max);
+        link(slot, series);
+
+        count = slot + 1;
+        buffer.putInt(COUNT_OFFSET, count);
+        if (timestamp < firstTimestamp) {
+            firstTimestamp = timestamp;
+            buffer.putLong(FIRST_OFFSET, timestamp);
+        }
+        if (timestamp > lastTimestamp) {
+            lastTimestamp = timestamp;
+            buffer.putLong(LAST_OFFSET, timestamp);
+        }
+    }
+
+    private void link(int slot, int series) {
+        if (series >= lastSlot.length) {
+            int[] grown = Arrays.copyOf(lastSlot, Math.max(series + 1, lastSlot.length * 2));
+            Arrays.fill(grown, lastSlot.length, grown.length, -1);
+            lastSlot = grown;
+        }
+        previous[slot] = lastSlot[series];
+        lastSlot[series] = slot;
+    }
+
+    /**
+     * Replaces the per-record links with the compact slot index and writes it to the sidecar file.
+     */
+    void seal() throws IOException {
+        buildIndex();
+        writeIndex();
+        previous = null;
+        lastSlot = null;
+    }
+
+    /**
+     * Adds the records of a series within a time range to the given list.
+     */
+    void collect(int series, long from, long to, List<HistoryPoint> points) {
+        if (count == 0 || lastTimestamp < from || firstTimestamp > to) {
+            return;
+        }
+        if (previous != null) {
+            if (series < lastSlot.length) {
+                for (int slot = lastSlot[series]; slot >= 0; slot = previous[slot]) {
+                    addIfInRange(slot, from, to, points);
+                }
+            }
+            return;
+        }
+        int index = Arrays.binarySearch(seriesIds, series);
+        if (index >= 0) {
+            for (int i = offsets[index]; i < offsets[index + 1]; i++) {
+                addIfInRange(slots[i], from, to, points);
+            }
+        }
+    }
+
+    private void addIfInRange(int slot, long from, long to, List<HistoryPoint> points) {
+        int offset = HEADER_SIZE + slot * RECORD_SIZE;
+        long timestamp = buffer.getLong(offset);
+        if (timestamp < from || timestamp > to) {
+            return;
+        }
+        int samples = buffer.getInt(offset + 12);
+        int failures = buffer.getInt(offset + 16);
+        boolean hasValues = samples > failures;
+        points.add(HistoryPoint.builder()
+                .timestamp(timestamp)
+                .count(samples)
+                .failures(failures)
+                .min(hasValues ? buffer.getDouble(offset + 32) : null)
+                .max(hasValues ? buffer.getDouble(offset + 40) : null)
+                .mean(hasValues ? buffer.getDouble(offset + 24) / (samples - failures) : null)
+                .build());
+    }
+
+    private int series(int slot) {
+        return buffer.getInt(HEADER_SIZE + slot * RECORD_SIZE + 8);
+    }
+
+    /**
+     * Groups the slots by series; within a series the slots stay in append order.
+     */
+    private void buildIndex() {
+        long[] keys = new long[count];
+        for (int slot = 0; slot < count; slot++) {
+            keys[slot] = ((long) series(slot) << 32) | slot;
+        }
+        Arrays.sort(keys);
+
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || (keys[i] >>> 32) != (keys[i - 1] >>> 32)) {
+                distinct++;
+            }
+        }
+        seriesIds = new int[distinct];
+        offsets = new int[distinct + 1];
+        slots = new int[count];
+        int group = -1;
+        for (int i = 0; i < count; i++) {
+            int series = (int) (keys[i] >>> 32);
+            if (group < 0 || seriesIds[group] != series) {
+                seriesIds[++group] = series;
+                offsets[group] = i;
+            }
+            slots[i] = (int) keys[i];
+        }
+        offsets[distinct] = count;
+    }
+
+    private Path indexPath() {
+        return path.resolveSibling(path.getFileName().toString().replace(".seg", ".idx"));
+    }
+
+    private void writeIndex() throws IOException {
+        ByteBuffer index = ByteBuffer.allocate(12 + (seriesIds.length * 2 + 1 + slots.length) * 4);
+        index.putInt(MAGIC).putInt(seriesIds.length).putInt(slots.length);
+        index.asIntBuffer().put(seriesIds).put(offsets).put(slots);
+        index.rewind();
+        Path temporary = indexPath().resolveSibling(indexPath().getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (index.hasRemaining()) {
+                channel.write(index);
+            }
+        }
+        Files.move(temporary, indexPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private boolean readIndex() {
+        Path indexPath = indexPath();
+        if (!Files.exists(indexPath)) {
+            return false;
+        }
+        try {
+            ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexPath));
+            int distinct = index.getInt(4);
+            int slotCount = index.getInt(8);
+            if (index.getInt(0) != MAGIC || slotCount != count
+                    || index.capacity() != 12 + (distinct * 2 + 1 + slotCount) * 4) {
+                log.warn("Rebuilding inconsistent history index {}", indexPath);
+                return false;
+            }
+            index.position(12);
+            seriesIds = new int[distinct];
+            offsets = new int[distinct + 1];
+            slots = new int[slotCount];
+            index.asIntBuffer().get(seriesIds).get(offsets).get(slots);
+            return true;
+        } catch (IOException e) {
+            log.warn("Rebuilding unreadable history index {}", indexPath, e);
+            return false;
+        }
+    }
+
+    /**
+     * Deletes the segment and its index. The mapping is released once the segment is unreachable.
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(indexPath());
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    long getLastTimestamp() {
+        return lastTimestamp;
+    }
+}
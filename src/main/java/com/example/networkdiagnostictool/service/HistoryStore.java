@@ -0,0 +1,469 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.HistoryPoint;
+import com.example.networkdiagnostictool.model.HistoryResolution;
+import com.example.networkdiagnostictool.model.HistorySeries;
+import com.example.networkdiagnostictool.util.NamedThreadFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Embedded, append-only history of measurements, e.g. probe latencies and counter rates, so that
+ * past values can be queried after the response that measured them is gone.
+ * <p>
+ * Samples are recorded into a bounded lock-free ring of primitive slots, so recording never blocks
+ * and never allocates; when the ring is full the sample is dropped and counted. A single writer
+ * thread drains the ring into memory-mapped segment files of fixed-size records and incrementally
+ * folds every sample into per-series minute and hour buckets, which it writes to their own
+ * segments once the bucket has passed. Each resolution has its own retention window.
+ * <p>
+ * On restart only the index sidecars of sealed segments and the records of the active segments are
+ * read. Buckets still open when the store stopped are written on a clean shutdown; a bucket written
+ * twice, before and after a restart, is merged when queried.
+ */
+@Slf4j
+@Component
+public class HistoryStore {
+
+    // A bucket is written this long after it ended, to let samples completing late land in it
+    private static final long BUCKET_GRACE_MILLIS = 5_000;
+    private static final long FLUSH_INTERVAL_MILLIS = 1_000;
+    private static final long EXPIRY_INTERVAL_MILLIS = 60_000;
+
+    private final Map<HistoryResolution, HistoryTier> tiers = new EnumMap<>(HistoryResolution.class);
+    private final Path seriesFile;
+    private final Map<String, Integer> seriesIds = new ConcurrentHashMap<>();
+    private String[] seriesNames = new String[16];
+    private volatile int seriesCount;
+
+    // Ring of pending samples: slot fields plus a sequence per slot telling producers and the writer whose turn it is
+    private final int mask;
+    private final long[] timestamps;
+    private final int[] series;
+    private final double[] values;
+    private final boolean[] failed;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    // Writer thread only: the read position and the open minute and hour buckets per series id
+    private long head;
+    private final Bucket minutes = new Bucket(HistoryResolution.MINUTE);
+    private final Bucket hours = new Bucket(HistoryResolution.HOUR);
+    private long lastFlush;
+    private long lastExpiry;
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    /**
+     * Constructor for injecting the store location and limits.
+     *
+     * @param directory            Directory holding the segment files.
+     * @param rawRetentionHours    How long raw samples are kept.
+     * @param minuteRetentionDays  How long minute buckets are kept.
+     * @param hourRetentionDays    How long hour buckets are kept.
+     * @param rawSegmentRecords    Records per raw segment file; minute and hour segments hold a sixteenth.
+     * @param bufferCapacity       Samples buffered for the writer before further samples are dropped.
+     */
+    @Autowired
+    public HistoryStore(@Value("${history.dir:data/history}") String directory,
+                        @Value("${history.raw-retention-hours:6}") long rawRetentionHours,
+                        @Value("${history.minute-retention-days:7}") long minuteRetentionDays,
+                        @Value("${history.hour-retention-days:90}") long hourRetentionDays,
+                        @Value("${history.raw-segment-records:1048576}") int rawSegmentRecords,
+                        @Value("${history.buffer-capacity:65536}") int bufferCapacity) {
+        Path root = Paths.get(directory);
+        try {
+            tiers.put(HistoryResolution.RAW, new HistoryTier(HistoryResolution.RAW, root.resolve("raw"),
+                    rawSegmentRecords, TimeUnit.HOURS.toMillis(rawRetentionHours)));
+            tiers.put(HistoryResolution.MINUTE, new HistoryTier(HistoryResolution.MINUTE, root.resolve("minute"),
+                    Math.max(1, rawSegmentRecords / 16), TimeUnit.DAYS.toMillis(minuteRetentionDays)));
+            tiers.put(HistoryResolution.HOUR, new HistoryTier(HistoryResolution.HOUR, root.resolve("hour"),
+                    Math.max(1, rawSegmentRecords / 16), TimeUnit.DAYS.toMillis(hourRetentionDays)));
+            this.seriesFile = root.resolve("series.txt");
+            loadSeries();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open history store in " + root, e);
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(2, bufferCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.timestamps = new long[capacity];
+        this.series = new int[capacity];
+        this.values = new double[capacity];
+        this.failed = new boolean[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.writer = new NamedThreadFactory("history-writer").newThread(this::run);
+        writer.start();
+    }
+
+    /**
+     * Returns the id of a series, registering the series on first use. Recording by id avoids
+     * looking the name up for every sample.
+     */
+    public int seriesId(String name) {
+        Integer id = seriesIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (seriesIds) {
+            id = seriesIds.get(name);
+            if (id != null) {
+                return id;
+            }
+            if (name.isEmpty() || name.indexOf('\n') >= 0) {
+                throw new IllegalArgumentException("Invalid series name");
+            }
+            int newId = seriesCount;
+            try {
+                Files.write(seriesFile, (name + "\n").getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to register history series " + name, e);
+            }
+            if (newId == seriesNames.length) {
+                seriesNames = Arrays.copyOf(seriesNames, newId * 2);
+            }
+            seriesNames[newId] = name;
+            seriesIds.put(name, newId);
+            seriesCount = newId + 1;
+            return newId;
+        }
+    }
+
+    private void loadSeries() throws IOException {
+        if (!Files.exists(seriesFile)) {
+            return;
+        }
+        // Ids are line numbers
+        List<String> names = Files.readAllLines(seriesFile, StandardCharsets.UTF_8);
+        for (int i = 0; i < names.size(); i++) {
+            seriesIds.put(names.get(i), i);
+        }
+        seriesNames = Arrays.copyOf(names.toArray(new String[0]), Math.max(16, names.size() * 2));
+        seriesCount = names.size();
+    }
+
+    /**
+     * Records a sample without blocking or allocating.
+     *
+     * @param seriesId        The series, from {@link #seriesId(String)}.
+     * @param timestampMillis The sample time in epoch milliseconds.
+     * @param value           The measured value; ignored for failures.
+     * @param failure         Whether the measurement failed, e.g. a probe that did not connect.
+     * @return false if the sample was dropped because the writer is behind.
+     */
+    public boolean record(int seriesId, long timestampMillis, double value, boolean failure) {
+        long position;
+        int slot;
+        while (true) {
+            position = tail.get();
+            slot = (int) (position & mask);
+            long sequence = sequences.get(slot);
+            if (sequence < position) {
+                // The writer has not consumed this slot since the previous lap
+                dropped.incrementAndGet();
+                return false;
+            }
+            if (sequence == position && tail.compareAndSet(position, position + 1)) {
+                break;
+            }
+        }
+        timestamps[slot] = timestampMillis;
+        series[slot] = seriesId;
+        values[slot] = value;
+        failed[slot] = failure;
+        sequences.lazySet(slot, position + 1);
+        return true;
+    }
+
+    /**
+     * Returns the points of a series within a time range, oldest first.
+     *
+     * @param name       The series name.
+     * @param resolution Raw samples, or minute or hour buckets.
+     * @param from       Start of the range in epoch milliseconds, inclusive.
+     * @param to         End of the range in epoch milliseconds, inclusive.
+     * @param limit      Maximum number of points to return.
+     * @return The points, or null if the series is unknown.
+     */
+    public HistorySeries query(String name, HistoryResolution resolution, long from, long to, int limit) {
+        Integer id = seriesIds.get(name);
+        if (id == null) {
+            return null;
+        }
+        List<HistoryPoint> points = tiers.get(resolution).query(id, from, to);
+        points.sort(Comparator.comparingLong(HistoryPoint::getTimestamp));
+        if (resolution != HistoryResolution.RAW) {
+            points = mergeBuckets(points);
+        }
+        boolean truncated = points.size() > limit;
+        return HistorySeries.builder()
+                .series(name)
+                .resolution(resolution)
+                .from(from)
+                .to(to)
+                .truncated(truncated)
+                .points(truncated ? new ArrayList<>(points.subList(0, limit)) : points)
+                .build();
+    }
+
+    /**
+     * @return The names of all series starting with the prefix, in alphabetical order.
+     */
+    public List<String> getSeries(String prefix) {
+        String[] names;
+        int count;
+        synchronized (seriesIds) {
+            names = seriesNames;
+            count = seriesCount;
+        }
+        return Arrays.stream(names, 0, count)
+                .filter(name -> prefix == null || name.startsWith(prefix))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return The number of samples dropped because the writer was behind.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return The number of samples written to the raw segments.
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * Combines points of the same bucket, which occur when a bucket was written before and after a restart.
+     */
+    private static List<HistoryPoint> mergeBuckets(List<HistoryPoint> points) {
+        List<HistoryPoint> merged = new ArrayList<>(points.size());
+        for (HistoryPoint point : points) {
+            HistoryPoint last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last == null || last.getTimestamp() != point.getTimestamp()) {
+                merged.add(point);
+                continue;
+            }
+            int lastValues = last.getCount() - last.getFailures();
+            int pointValues = point.getCount() - point.getFailures();
+            last.setCount(last.getCount() + point.getCount());
+            last.setFailures(last.getFailures() + point.getFailures());
+            if (pointValues > 0) {
+                if (lastValues == 0) {
+                    last.setMin(point.getMin());
+                    last.setMax(point.getMax());
+                    last.setMean(point.getMean());
+                } else {
+                    last.setMin(Math.min(last.getMin(), point.getMin()));
+                    last.setMax(Math.max(last.getMax(), point.getMax()));
+                    last.setMean((last.getMean() * lastValues + point.getMean() * pointValues)
+                            / (lastValues + pointValues));
+                }
+            }
+        }
+        return merged;
+    }
+
+    private void run() {
+        while (running) {
+            int drained = drain();
+            long now = System.currentTimeMillis();
+            if (now - lastFlush >= FLUSH_INTERVAL_MILLIS) {
+                lastFlush = now;
+                minutes.flushPassed(now);
+                hours.flushPassed(now);
+            }
+            if (now - lastExpiry >= EXPIRY_INTERVAL_MILLIS) {
+                lastExpiry = now;
+                for (HistoryTier tier : tiers.values()) {
+                    tier.expire(now);
+                }
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        drain();
+        minutes.flushAll();
+        hours.flushAll();
+    }
+
+    /**
+     * Writes every published sample to the raw segments and folds it into its minute bucket.
+     *
+     * @return The number of samples drained.
+     */
+    private int drain() {
+        HistoryTier raw = tiers.get(HistoryResolution.RAW);
+        int drained = 0;
+        while (true) {
+            int slot = (int) (head & mask);
+            if (sequences.get(slot) != head + 1) {
+                return drained;
+            }
+            long timestamp = timestamps[slot];
+            int id = series[slot];
+            double value = values[slot];
+            boolean failure = failed[slot];
+            sequences.lazySet(slot, head + mask + 1);
+            head++;
+            drained++;
+
+            if (failure) {
+                raw.append(timestamp, id, 1, 1, 0, 0, 0);
+            } else {
+                raw.append(timestamp, id, 1, 0, value, value, value);
+            }
+            written.incrementAndGet();
+            minutes.add(timestamp, id, 1, failure ? 1 : 0, failure ? 0 : value,
+                    failure ? Double.POSITIVE_INFINITY : value, failure ? Double.NEGATIVE_INFINITY : value);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The open buckets of one resolution, one per series id, held in parallel primitive arrays.
+     * A bucket is written to its tier when a sample for a later bucket arrives or once it has
+     * passed; a written minute is folded into its hour. The ids with an open bucket are listed
+     * separately, so checking for passed buckets costs the series still receiving samples rather
+     * than every series ever registered.
+     */
+    private final class Bucket {
+        private final HistoryResolution resolution;
+        private final long width;
+        private long[] start = new long[0];
+        private int[] samples = new int[0];
+        private int[] failures = new int[0];
+        private double[] sum = new double[0];
+        private double[] min = new double[0];
+        private double[] max = new double[0];
+        private boolean[] listed = new boolean[0];
+        private int[] open = new int[16];
+        private int openCount;
+
+        Bucket(HistoryResolution resolution) {
+            this.resolution = resolution;
+            this.width = resolution.getBucketMillis();
+        }
+
+        void add(long timestamp, int id, int count, int failed, double total, double low, double high) {
+            if (id >= start.length) {
+                grow(id);
+            }
+            long bucket = timestamp - Math.floorMod(timestamp, width);
+            if (samples[id] > 0 && bucket != start[id]) {
+                flush(id);
+            }
+            if (samples[id] == 0) {
+                if (!listed[id]) {
+                    listed[id] = true;
+                    if (openCount == open.length) {
+                        open = Arrays.copyOf(open, openCount * 2);
+                    }
+                    open[openCount++] = id;
+                }
+                start[id] = bucket;
+                sum[id] = 0;
+                min[id] = Double.POSITIVE_INFINITY;
+                max[id] = Double.NEGATIVE_INFINITY;
+            }
+            samples[id] += count;
+            failures[id] += failed;
+            sum[id] += total;
+            min[id] = Math.min(min[id], low);
+            max[id] = Math.max(max[id], high);
+        }
+
+        void flushPassed(long now) {
+            int kept = 0;
+            for (int i = 0; i < openCount; i++) {
+                int id = open[i];
+                if (samples[id] > 0 && start[id] + width + BUCKET_GRACE_MILLIS <= now) {
+                    flush(id);
+                }
+                if (samples[id] > 0) {
+                    open[kept++] = id;
+                } else {
+                    listed[id] = false;
+                }
+            }
+            openCount = kept;
+        }
+
+        void flushAll() {
+            for (int i = 0; i < openCount; i++) {
+                int id = open[i];
+                if (samples[id] > 0) {
+                    flush(id);
+                }
+                listed[id] = false;
+            }
+            openCount = 0;
+        }
+
+        private void flush(int id) {
+            boolean hasValues = samples[id] > failures[id];
+            tiers.get(resolution).append(start[id], id, samples[id], failures[id], sum[id],
+                    hasValues ? min[id] : 0, hasValues ? max[id] : 0);
+            if (resolution == HistoryResolution.MINUTE) {
+                hours.add(start[id], id, samples[id], failures[id], sum[id], min[id], max[id]);
+            }
+            samples[id] = 0;
+            failures[id] = 0;
+        }
+
+        private void grow(int id) {
+            int length = Math.max(id + 1, start.length * 2);
+            start = Arrays.copyOf(start, length);
+            samples = Arrays.copyOf(samples, length);
+            failures = Arrays.copyOf(failures, length);
+            sum = Arrays.copyOf(sum, length);
+            min = Arrays.copyOf(min, length);
+            max = Arrays.copyOf(max, length);
+            listed = Arrays.copyOf(listed, length);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.HistoryPoint;
+import com.example.networkdiagnostictool.model.HistoryResolution;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The segments holding one resolution of the history store: sealed segments, oldest first, and the
+ * active segment being appended to. When the active segment is full it is sealed and a new one is
+ * started; sealed segments whose newest record has left the retention window are deleted.
+ * Appends come from the store's writer thread; queries may run concurrently on any thread.
+ */
+@Slf4j
+final class HistoryTier {
+
+    private final HistoryResolution resolution;
+    private final Path directory;
+    private final int segmentRecords;
+    private final long retentionMillis;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Deque<HistorySegment> sealed = new ArrayDeque<>();
+    private HistorySegment active;
+    private long nextSequence;
+
+    /**
+     * Opens the segments of a resolution in the given directory, creating the directory if needed.
+     */
+    HistoryTier(HistoryResolution resolution, Path directory, int segmentRecords, long retentionMillis)
+            throws IOException {
+        this.resolution = resolution;
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.retentionMillis = retentionMillis;
+        Files.createDirectories(directory);
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.seg")) {
+            stream.forEach(files::add);
+        }
+        // Names are zero-padded sequence numbers, so name order is append order
+        files.sort(null);
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            try {
+                long sequence = Long.parseLong(file.getFileName().toString().replace(".seg", ""));
+                nextSequence = Math.max(nextSequence, sequence + 1);
+                HistorySegment segment = HistorySegment.open(file, sequence, i == files.size() - 1);
+                if (i == files.size() - 1) {
+                    active = segment;
+                } else {
+                    sealed.addLast(segment);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Skipping unreadable history segment {}", file, e);
+            }
+        }
+        if (active == null || active.isFull()) {
+            roll();
+        }
+    }
+
+    /**
+     * Appends a record, starting a new segment if the active one is full.
+     */
+    void append(long timestamp, int series, int samples, int failures, double sum, double min, double max) {
+        lock.writeLock().lock();
+        try {
+            if (active.isFull()) {
+                roll();
+            }
+            active.append(timestamp, series, samples, failures, sum, min, max);
+        } catch (IOException e) {
+            // Keep the full segment; the record is lost and the next append tries again
+            log.error("Unable to start a new {} history segment", resolution, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void roll() throws IOException {
+        if (active != null) {
+            active.seal();
+            sealed.addLast(active);
+        }
+        long sequence = nextSequence++;
+        Path file = directory.resolve(String.format("%019d.seg", sequence));
+        active = HistorySegment.create(file, sequence, segmentRecords);
+    }
+
+    /**
+     * Deletes sealed segments that only hold records older than the retention window.
+     */
+    void expire(long nowMillis) {
+        lock.writeLock().lock();
+        try {
+            HistorySegment oldest;
+            while ((oldest = sealed.peekFirst()) != null && oldest.getLastTimestamp() < nowMillis - retentionMillis) {
+                sealed.pollFirst();
+                try {
+                    oldest.delete();
+                } catch (IOException e) {
+                    log.warn("Unable to delete expired history segment {}", oldest.getSequence(), e);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Collects the records of a series within a time range, in no particular order.
+     */
+    List<HistoryPoint> query(int series, long from, long to) {
+        List<HistoryPoint> points = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long oldestRetained = System.currentTimeMillis() - retentionMillis;
+            for (HistorySegment segment : sealed) {
+                segment.collect(series, Math.max(from, oldestRetained), to, points);
+            }
+            active.collect(series, Math.max(from, oldestRetained), to, points);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return points;
+    }
+
+    HistoryResolution getResolution() {
+        return resolution;
+    }
+}
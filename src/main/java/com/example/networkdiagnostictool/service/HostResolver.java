@@ -0,0 +1,272 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.DnsCacheStats;
+import com.example.networkdiagnostictool.util.HostParser;
+import com.example.networkdiagnostictool.util.NamedThreadFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Resolves host names for all diagnostics through a shared, bounded cache.
+ * Successful lookups are kept for a fixed TTL and unknown names for a shorter negative TTL;
+ * the least recently used name is evicted once the cache is full. Concurrent misses for the
+ * same name share a single lookup. A hit on a name that is close to expiring triggers a
+ * background refresh, so names in steady use never expire in a caller's path.
+ * IP literals are parsed without a lookup and never cached. Caching can be bypassed entirely,
+ * e.g. to rule the cache out while troubleshooting resolution problems.
+ */
+@Slf4j
+@Component
+public class HostResolver {
+
+    /**
+     * Performs the actual name lookup.
+     */
+    interface Lookup {
+        InetAddress resolve(String host) throws UnknownHostException;
+    }
+
+    private final Lookup lookup;
+    private final LongSupplier clock;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final long refreshAheadNanos;
+    private volatile boolean bypass;
+
+    // Access-ordered for LRU eviction; guarded by its own monitor
+    private final LinkedHashMap<String, Entry> cache;
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newFixedThreadPool(2, new NamedThreadFactory("dns-refresh"));
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor for injecting the cache limits.
+     *
+     * @param maxEntries        Maximum number of cached names.
+     * @param ttlMillis         How long a resolved address is served from the cache.
+     * @param negativeTtlMillis How long an unknown name is remembered as unknown.
+     * @param refreshAhead      Fraction of the TTL after which a hit refreshes the name in the background.
+     * @param bypass            Whether to resolve every name directly, without the cache.
+     */
+    @Autowired
+    public HostResolver(@Value("${dns.cache.max-entries:10000}") int maxEntries,
+                        @Value("${dns.cache.ttl-ms:30000}") long ttlMillis,
+                        @Value("${dns.cache.negative-ttl-ms:5000}") long negativeTtlMillis,
+                        @Value("${dns.cache.refresh-ahead:0.8}") double refreshAhead,
+                        @Value("${dns.cache.bypass:false}") boolean bypass) {
+        this(InetAddress::getByName, System::nanoTime, maxEntries, ttlMillis, negativeTtlMillis, refreshAhead, bypass);
+    }
+
+    HostResolver(Lookup lookup, LongSupplier clock, int maxEntries, long ttlMillis, long negativeTtlMillis,
+                 double refreshAhead, boolean bypass) {
+        this.lookup = lookup;
+        this.clock = clock;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        this.refreshAheadNanos = (long) (ttlNanos * refreshAhead);
+        this.bypass = bypass;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > HostResolver.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Resolves a host name or IP literal.
+     *
+     * @param host The hostname or IP address.
+     * @return The resolved address.
+     * @throws UnknownHostException if the name cannot be resolved, possibly remembered from an earlier lookup.
+     */
+    public InetAddress resolve(String host) throws UnknownHostException {
+        HostParser literal = new HostParser();
+        if (literal.parseAddress(host)) {
+            // Built from the parsed bytes; no name service is involved. Zone ids need the JDK's own parsing
+            return literal.hasZone() ? InetAddress.getByName(host) : InetAddress.getByAddress(literal.toBytes());
+        }
+        if (bypass) {
+            return lookup.resolve(host);
+        }
+
+        String key = host.toLowerCase(Locale.ROOT);
+        long now = clock.getAsLong();
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(key);
+        }
+        if (entry != null && now < entry.expiresAt) {
+            if (entry.address == null) {
+                negativeHits.incrementAndGet();
+                throw new UnknownHostException(host);
+            }
+            hits.incrementAndGet();
+            if (now >= entry.refreshAt && entry.refreshing.compareAndSet(false, true)) {
+                refreshAsync(key, entry);
+            }
+            return entry.address;
+        }
+
+        misses.incrementAndGet();
+        return load(key).addressOrThrow(host);
+    }
+
+    /**
+     * Loads a name, sharing the lookup with any concurrent caller missing on the same name.
+     */
+    private Entry load(String key) {
+        CompletableFuture<Entry> pending = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            Entry entry = lookupEntry(key);
+            pending.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    private void refreshAsync(String key, Entry stale) {
+        try {
+            refresher.execute(() -> {
+                try {
+                    lookupEntry(key);
+                    refreshes.incrementAndGet();
+                } catch (RuntimeException e) {
+                    log.debug("Background refresh of {} failed", key, e);
+                    stale.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            stale.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Looks a name up and caches the outcome, negative if the name is unknown.
+     */
+    private Entry lookupEntry(String key) {
+        Entry entry;
+        try {
+            InetAddress address = lookup.resolve(key);
+            long now = clock.getAsLong();
+            entry = new Entry(address, now + ttlNanos, now + refreshAheadNanos);
+        } catch (UnknownHostException e) {
+            long now = clock.getAsLong();
+            entry = new Entry(null, now + negativeTtlNanos, Long.MAX_VALUE);
+        }
+        synchronized (cache) {
+            cache.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Enables or disables the cache at runtime. Cached entries are kept, but not used while bypassed.
+     */
+    public void setBypass(boolean bypass) {
+        this.bypass = bypass;
+    }
+
+    /**
+     * Drops every cached name.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return A snapshot of the cache counters.
+     */
+    public DnsCacheStats getStats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        long hitCount = hits.get() + negativeHits.get();
+        long lookups = hitCount + misses.get();
+        return DnsCacheStats.builder()
+                .bypass(bypass)
+                .size(size)
+                .maxEntries(maxEntries)
+                .hits(hits.get())
+                .negativeHits(negativeHits.get())
+                .misses(misses.get())
+                .coalescedMisses(coalesced.get())
+                .refreshes(refreshes.get())
+                .evictions(evictions.get())
+                .hitRatio(lookups == 0 ? 0 : (double) hitCount / lookups)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private static final class Entry {
+        // Null for a name that does not resolve
+        private final InetAddress address;
+        private final long expiresAt;
+        private final long refreshAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(InetAddress address, long expiresAt, long refreshAt) {
+            this.address = address;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+        }
+
+        private InetAddress addressOrThrow(String host) throws UnknownHostException {
+            if (address == null) {
+                throw new UnknownHostException(host);
+            }
+            return address;
+        }
+    }
+}
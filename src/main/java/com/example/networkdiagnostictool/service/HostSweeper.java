@@ -0,0 +1,327 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.SweepHost;
+import com.example.networkdiagnostictool.model.SweepSummary;
+import com.example.networkdiagnostictool.util.NamedThreadFactory;
+import com.example.networkdiagnostictool.util.TokenBucket;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Discovers live hosts in an IPv4 range. Hosts already resolved in the ARP cache are reported
+ * without sending anything; every other address gets a reachability probe and, if requested,
+ * TCP connects to a few ports, where a refused connection also proves the host is up.
+ * <p>
+ * Addresses are generated from their index as the sweep proceeds, never materialised, and in an
+ * order that visits each subnet in turn, so a large range spreads its probes across all of its
+ * subnets rather than working through one at a time. Probes are paced by a global token bucket
+ * shared by all sweeps and one bucket per subnet, and run on a bounded pool of probe threads.
+ */
+@Slf4j
+@Service
+public class HostSweeper {
+
+    private final ArpCacheService arpCacheService;
+    private final AsyncConnector asyncConnector;
+    private final Reachability reachability;
+    private final double subnetRate;
+    private final int subnetPrefix;
+    private final int minPrefix;
+
+    private final TokenBucket globalBucket;
+    private final Map<Integer, TokenBucket> subnetBuckets = new ConcurrentHashMap<>();
+    private final Semaphore sweeps;
+    private final Semaphore probeSlots;
+    private final ThreadPoolExecutor probes;
+    private final ExecutorService dispatchers = Executors.newCachedThreadPool(new NamedThreadFactory("sweep-dispatcher"));
+
+    /**
+     * Constructor for dependency injection of the ARP cache, the connector and the sweep limits.
+     *
+     * @param arpCacheService The ARP cache seeding the results.
+     * @param asyncConnector  The shared selector driving the port probes.
+     * @param rate            Probes per second across all sweeps.
+     * @param subnetRate      Probes per second into any one subnet.
+     * @param subnetPrefix    Prefix length of the subnets limited by {@code subnetRate}.
+     * @param threads         Probes outstanding at once across all sweeps.
+     * @param maxConcurrent   Sweeps allowed to run at once.
+     * @param minPrefix       Shortest prefix accepted, bounding the size of a sweep.
+     */
+    @Autowired
+    public HostSweeper(ArpCacheService arpCacheService, AsyncConnector asyncConnector,
+                       @Value("${sweep.rate-per-second:500}") double rate,
+                       @Value("${sweep.subnet-rate-per-second:50}") double subnetRate,
+                       @Value("${sweep.subnet-prefix:24}") int subnetPrefix,
+                       @Value("${sweep.threads:256}") int threads,
+                       @Value("${sweep.max-concurrent:2}") int maxConcurrent,
+                       @Value("${sweep.min-prefix:16}") int minPrefix) {
+        this(arpCacheService, asyncConnector, InetAddress::isReachable, rate, subnetRate, subnetPrefix, threads,
+                maxConcurrent, minPrefix);
+    }
+
+    HostSweeper(ArpCacheService arpCacheService, AsyncConnector asyncConnector, Reachability reachability,
+                double rate, double subnetRate, int subnetPrefix, int threads, int maxConcurrent, int minPrefix) {
+        this.arpCacheService = arpCacheService;
+        this.asyncConnector = asyncConnector;
+        this.reachability = reachability;
+        this.subnetRate = subnetRate;
+        this.subnetPrefix = subnetPrefix;
+        this.minPrefix = minPrefix;
+        // Bursts are limited to a tenth of a second of probes
+        this.globalBucket = new TokenBucket(rate, Math.max(1, rate / 10), System.nanoTime());
+        this.sweeps = new Semaphore(maxConcurrent);
+        this.probeSlots = new Semaphore(threads);
+        this.probes = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new NamedThreadFactory("sweep-probe"));
+        this.probes.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts a sweep on a background thread. Results are handed to the sink as they arrive, from
+     * several threads at once; a sink that throws stops the sweep. Cancelling the returned future
+     * stops the sweep as well.
+     *
+     * @param range         The addresses to sweep.
+     * @param ports         TCP ports to try on every address, possibly none.
+     * @param timeoutMillis Deadline of each probe.
+     * @param includeSilent Whether addresses that did not answer are passed to the sink too.
+     * @param sink          Receives each result.
+     * @return Completes with the totals once every probe finished.
+     * @throws IllegalArgumentException if the range is larger than the configured limit.
+     * @throws IllegalStateException    if the maximum number of sweeps is already running.
+     */
+    public CompletableFuture<SweepSummary> sweep(CidrRange range, int[] ports, int timeoutMillis,
+                                                 boolean includeSilent, Consumer<SweepHost> sink) {
+        if (range.getPrefix() < minPrefix) {
+            throw new IllegalArgumentException("Invalid CIDR range. Prefix must be at least /" + minPrefix);
+        }
+        if (!sweeps.tryAcquire()) {
+            throw new IllegalStateException("Too many sweeps running");
+        }
+        Sweep sweep = new Sweep(range, ports, timeoutMillis, includeSilent, sink);
+        try {
+            dispatchers.execute(sweep::run);
+        } catch (RuntimeException e) {
+            sweeps.release();
+            throw e;
+        }
+        return sweep.result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatchers.shutdownNow();
+        probes.shutdownNow();
+    }
+
+    /**
+     * Probes one address. Port connects are started first and run on the connector while this
+     * thread waits for the reachability probe.
+     */
+    private SweepHost probe(int ip, String mac, int[] ports, int timeoutMillis) {
+        InetAddress address;
+        try {
+            address = InetAddress.getByAddress(new byte[]{
+                    (byte) (ip >>> 24), (byte) (ip >>> 16), (byte) (ip >>> 8), (byte) ip});
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+        List<CompletableFuture<Long>> connects = new ArrayList<>(ports.length);
+        for (int port : ports) {
+            connects.add(asyncConnector.connect(new InetSocketAddress(address, port), timeoutMillis));
+        }
+
+        SweepHost.SweepHostBuilder host = SweepHost.builder().address(ArpTable.formatIpv4(ip));
+        boolean alive = false;
+        if (mac != null) {
+            host.source("arp").macAddress(mac);
+            alive = true;
+        } else {
+            long start = System.nanoTime();
+            try {
+                if (reachability.isReachable(address, timeoutMillis)) {
+                    host.source("ping").rttMicros((System.nanoTime() - start) / 1000);
+                    alive = true;
+                }
+            } catch (IOException e) {
+                // Unreachable network or no permission to probe; the ports may still answer
+            }
+        }
+
+        if (ports.length > 0) {
+            List<Integer> open = new ArrayList<>();
+            for (int i = 0; i < ports.length; i++) {
+                boolean answered;
+                try {
+                    long nanos = connects.get(i).join();
+                    open.add(ports[i]);
+                    answered = true;
+                    if (!alive) {
+                        host.rttMicros(nanos / 1000);
+                    }
+                } catch (CompletionException e) {
+                    // A refused connect is a reset from the host itself
+                    answered = e.getCause() instanceof ConnectException;
+                }
+                if (answered && !alive) {
+                    host.source("tcp");
+                    alive = true;
+                }
+            }
+            host.openPorts(open);
+        }
+        return host.alive(alive).build();
+    }
+
+    /**
+     * Takes a token from the global bucket and from the bucket of the address's subnet.
+     *
+     * @return Nanoseconds to wait before probing the address.
+     */
+    private long reserve(int ip, long now) {
+        int subnet = ip & (subnetPrefix == 0 ? 0 : -1 << (32 - subnetPrefix));
+        TokenBucket bucket = subnetBuckets.computeIfAbsent(subnet,
+                key -> new TokenBucket(subnetRate, Math.max(1, subnetRate / 10), now));
+        return Math.max(globalBucket.reserve(now), bucket.reserve(now));
+    }
+
+    /**
+     * State of one running sweep, driven by its dispatcher thread.
+     */
+    private final class Sweep {
+        private final CidrRange range;
+        private final int[] ports;
+        private final int timeoutMillis;
+        private final boolean includeSilent;
+        private final Consumer<SweepHost> sink;
+        private final CompletableFuture<SweepSummary> result = new CompletableFuture<>();
+        private final Phaser outstanding = new Phaser(1);
+        private final AtomicLong alive = new AtomicLong();
+
+        private Sweep(CidrRange range, int[] ports, int timeoutMillis, boolean includeSilent,
+                      Consumer<SweepHost> sink) {
+            this.range = range;
+            this.ports = ports;
+            this.timeoutMillis = timeoutMillis;
+            this.includeSilent = includeSilent;
+            this.sink = sink;
+        }
+
+        private void run() {
+            long start = System.nanoTime();
+            long addresses = 0;
+            long probed = 0;
+            try {
+                ArpTable arp = arpCacheService.getTable();
+                if (ports.length == 0) {
+                    // Without ports to try, resolved neighbours need no probe at all
+                    for (int row = 0; row < arp.size() && !result.isDone(); row++) {
+                        int ip = arp.ipAt(row);
+                        if (range.isHost(ip) && arp.isResolved(row) && arp.findResolvedRow(ip) == row) {
+                            emit(SweepHost.builder().address(ArpTable.formatIpv4(ip)).alive(true)
+                                    .source("arp").macAddress(arp.macAt(row)).build());
+                        }
+                    }
+                }
+
+                // Consecutive indexes walk across the subnets: host 0 of every subnet, then host 1, and so on
+                long size = range.size();
+                int hostsPerSubnet = 1 << (32 - Math.max(range.getPrefix(), subnetPrefix));
+                long subnets = size / hostsPerSubnet;
+                for (long index = 0; index < size && !result.isDone(); index++) {
+                    int ip = range.getNetwork() + (int) ((index % subnets) * hostsPerSubnet + index / subnets);
+                    if (!range.isHost(ip)) {
+                        continue;
+                    }
+                    addresses++;
+                    int row = arp.findResolvedRow(ip);
+                    if (row >= 0 && ports.length == 0) {
+                        continue;
+                    }
+                    String mac = row >= 0 ? arp.macAt(row) : null;
+                    long wait = reserve(ip, System.nanoTime());
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                    probeSlots.acquire();
+                    outstanding.register();
+                    probed++;
+                    try {
+                        probes.execute(() -> probeAndEmit(ip, mac));
+                    } catch (RuntimeException e) {
+                        probeSlots.release();
+                        outstanding.arriveAndDeregister();
+                        throw e;
+                    }
+                }
+                outstanding.arriveAndAwaitAdvance();
+                long now = System.nanoTime();
+                subnetBuckets.values().removeIf(bucket -> bucket.isFull(now));
+                SweepSummary summary = SweepSummary.builder()
+                        .cidr(range.toString())
+                        .addresses(addresses)
+                        .probed(probed)
+                        .alive(alive.get())
+                        .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(now - start))
+                        .build();
+                log.info("Sweep of {} found {} live hosts among {} addresses in {} ms", range, summary.getAlive(),
+                        addresses, summary.getElapsedMillis());
+                result.complete(summary);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.cancel(false);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                sweeps.release();
+            }
+        }
+
+        private void probeAndEmit(int ip, String mac) {
+            try {
+                if (!result.isDone()) {
+                    SweepHost host = probe(ip, mac, ports, timeoutMillis);
+                    if (host.isAlive() || includeSilent) {
+                        emit(host);
+                    }
+                }
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                probeSlots.release();
+                outstanding.arriveAndDeregister();
+            }
+        }
+
+        private void emit(SweepHost host) {
+            if (host.isAlive()) {
+                alive.incrementAndGet();
+            }
+            sink.accept(host);
+        }
+    }
+}
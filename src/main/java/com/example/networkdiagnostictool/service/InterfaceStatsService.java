@@ -0,0 +1,310 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.InterfaceRateSample;
+import com.example.networkdiagnostictool.model.InterfaceRates;
+import com.example.networkdiagnostictool.model.InterfaceStats;
+import com.example.networkdiagnostictool.util.NamedThreadFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static com.example.networkdiagnostictool.service.ProcNetDevReader.*;
+
+/**
+ * Samples the counters of every network interface from {@code /proc/net/dev} at a fixed interval
+ * and keeps the per-second rates of the most recent intervals in a ring per interface.
+ * Sampling reads one file for all interfaces and stores rates into preallocated arrays, so its cost
+ * stays low on hosts with hundreds of virtual interfaces. Link speed and operational state come
+ * from {@code /sys/class/net}, read only when interfaces are listed.
+ * <p>
+ * Samples are taken on a thread of their own, so slow tasks on the shared Spring scheduler cannot
+ * delay them into bursts. A sample due less than half an interval after the previous one is skipped,
+ * and every rate is reported with the time it actually spans.
+ */
+@Slf4j
+@Service
+public class InterfaceStatsService {
+
+    // Ring columns, each the rate of one counter
+    private static final int[] RATE_COUNTERS = {
+            RX_BYTES, TX_BYTES, RX_PACKETS, TX_PACKETS, RX_ERRORS, TX_ERRORS, RX_DROPPED, TX_DROPPED};
+
+    private final Path procPath;
+    private final Path sysPath;
+    private final long intervalNanos;
+    private final int capacity;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService sampler;
+
+    private final ProcNetDevReader reader = new ProcNetDevReader();
+    private final Map<String, InterfaceState> interfaces = new ConcurrentHashMap<>();
+    private final ProcNetDevReader.CounterVisitor visitor = this::update;
+    private boolean unavailableLogged;
+
+    // Time of the last sample taken, to skip samples that come too soon after it
+    private long lastSampleNanos;
+
+    // Set for the duration of one sample, read by the visitor
+    private long generation;
+    private long sampleNanos;
+    private long sampleMillis;
+
+    /**
+     * Constructor for injecting the file locations and ring size.
+     *
+     * @param procPath       Path of the {@code /proc/net/dev} file.
+     * @param sysPath        Path of the {@code /sys/class/net} directory.
+     * @param intervalMillis The sampling interval.
+     * @param capacity       Number of intervals kept per interface.
+     */
+    @Autowired
+    public InterfaceStatsService(@Value("${interfaces.proc-path:/proc/net/dev}") String procPath,
+                                 @Value("${interfaces.sys-path:/sys/class/net}") String sysPath,
+                                 @Value("${interfaces.sample-interval-ms:1000}") long intervalMillis,
+                                 @Value("${interfaces.history-samples:300}") int capacity) {
+        this(Paths.get(procPath), Paths.get(sysPath), intervalMillis, capacity, System::nanoTime, true);
+    }
+
+    InterfaceStatsService(Path procPath, Path sysPath, long intervalMillis, int capacity, LongSupplier clock) {
+        this(procPath, sysPath, intervalMillis, capacity, clock, false);
+    }
+
+    private InterfaceStatsService(Path procPath, Path sysPath, long intervalMillis, int capacity, LongSupplier clock,
+                                  boolean scheduled) {
+        this.procPath = procPath;
+        this.sysPath = sysPath;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.capacity = capacity;
+        this.clock = clock;
+        if (scheduled) {
+            this.sampler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("interface-sampler"));
+            this.sampler.scheduleAtFixedRate(this::sampleQuietly, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.sampler = null;
+        }
+    }
+
+    private void sampleQuietly() {
+        try {
+            sample();
+        } catch (RuntimeException e) {
+            // A failing sample must not cancel the schedule
+            log.warn("Interface sample failed", e);
+        }
+    }
+
+    /**
+     * Reads the counters of all interfaces and records their rates since the previous sample.
+     * Interfaces that disappeared are dropped. Runs on the sampler thread at the configured interval;
+     * a call less than half an interval after the previous sample does nothing.
+     */
+    public synchronized void sample() {
+        long now = clock.getAsLong();
+        if (generation > 0 && now - lastSampleNanos < intervalNanos / 2) {
+            return;
+        }
+        lastSampleNanos = now;
+        generation++;
+        sampleNanos = now;
+        sampleMillis = System.currentTimeMillis();
+        int count;
+        try {
+            count = reader.read(procPath, visitor);
+        } catch (IOException e) {
+            if (!unavailableLogged) {
+                log.info("Interface statistics unavailable, cannot read {}: {}", procPath, e.toString());
+                unavailableLogged = true;
+            }
+            return;
+        }
+        if (count < interfaces.size()) {
+            long current = generation;
+            interfaces.values().removeIf(state -> state.seen != current);
+        }
+    }
+
+    private void update(String name, long[] counters) {
+        InterfaceState state = interfaces.get(name);
+        if (state == null) {
+            state = new InterfaceState(capacity);
+            interfaces.put(name, state);
+        }
+        state.update(counters, generation, sampleNanos, sampleMillis);
+    }
+
+    /**
+     * @return Counters and current rates of every interface, sorted by name.
+     */
+    public List<InterfaceStats> getInterfaces() {
+        List<InterfaceStats> result = new ArrayList<>(interfaces.size());
+        for (Map.Entry<String, InterfaceState> entry : new TreeMap<>(interfaces).entrySet()) {
+            String name = entry.getKey();
+            InterfaceStats stats = entry.getValue().toStats(name);
+            stats.setOperState(readSys(name, "operstate"));
+            String speed = readSys(name, "speed");
+            if (speed != null) {
+                try {
+                    int mbps = Integer.parseInt(speed);
+                    if (mbps > 0) {
+                        stats.setSpeedMbps(mbps);
+                        if (stats.getRxBytesPerSecond() != null) {
+                            double busiest = Math.max(stats.getRxBytesPerSecond(), stats.getTxBytesPerSecond());
+                            stats.setUtilization(busiest * 8 / (mbps * 1_000_000.0));
+                        }
+                    }
+                } catch (NumberFormatException e) {
+                    // Drivers without a link speed report -1 or nothing
+                }
+            }
+            result.add(stats);
+        }
+        return result;
+    }
+
+    /**
+     * @param name  The interface name.
+     * @param limit Maximum number of most recent samples.
+     * @return The rate history of the interface, or null if there is no such interface.
+     */
+    public InterfaceRates getRates(String name, int limit) {
+        InterfaceState state = interfaces.get(name);
+        if (state == null) {
+            return null;
+        }
+        return InterfaceRates.builder()
+                .name(name)
+                .samples(state.samples(limit))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
+    }
+
+    private String readSys(String name, String attribute) {
+        try {
+            return new String(Files.readAllBytes(sysPath.resolve(name).resolve(attribute)), StandardCharsets.US_ASCII).trim();
+        } catch (IOException | RuntimeException e) {
+            // Not every interface exposes every attribute, and some reads fail while the link is down
+            return null;
+        }
+    }
+
+    /**
+     * Last counters and rate ring of one interface. Written by the sampler, read by requests.
+     */
+    private static final class InterfaceState {
+        private final long[] last = new long[COUNTERS];
+        private long lastNanos;
+        private boolean primed;
+        private long seen;
+
+        private final long[] timestamps;
+        private final long[] durations;
+        private final double[] rates;
+        private int next;
+        private int size;
+
+        private InterfaceState(int capacity) {
+            this.timestamps = new long[capacity];
+            this.durations = new long[capacity];
+            this.rates = new double[capacity * RATE_COUNTERS.length];
+        }
+
+        private synchronized void update(long[] counters, long generation, long nanos, long millis) {
+            seen = generation;
+            long elapsed = nanos - lastNanos;
+            if (primed && elapsed > 0 && !reset(counters)) {
+                double perSecond = 1e9 / elapsed;
+                int base = next * RATE_COUNTERS.length;
+                for (int column = 0; column < RATE_COUNTERS.length; column++) {
+                    int counter = RATE_COUNTERS[column];
+                    rates[base + column] = (counters[counter] - last[counter]) * perSecond;
+                }
+                timestamps[next] = millis;
+                durations[next] = elapsed;
+                next = (next + 1) % timestamps.length;
+                size = Math.min(size + 1, timestamps.length);
+            }
+            System.arraycopy(counters, 0, last, 0, COUNTERS);
+            lastNanos = nanos;
+            primed = true;
+        }
+
+        /**
+         * A counter that went backwards means the interface was recreated or a 32-bit counter wrapped;
+         * that interval is skipped rather than reported as a huge or negative rate.
+         */
+        private boolean reset(long[] counters) {
+            for (int counter : RATE_COUNTERS) {
+                if (counters[counter] < last[counter]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private synchronized InterfaceStats toStats(String name) {
+            InterfaceStats.InterfaceStatsBuilder stats = InterfaceStats.builder()
+                    .name(name)
+                    .rxBytes(last[RX_BYTES])
+                    .txBytes(last[TX_BYTES])
+                    .rxPackets(last[RX_PACKETS])
+                    .txPackets(last[TX_PACKETS])
+                    .rxErrors(last[RX_ERRORS])
+                    .txErrors(last[TX_ERRORS])
+                    .rxDropped(last[RX_DROPPED])
+                    .txDropped(last[TX_DROPPED]);
+            if (size > 0) {
+                int base = ((next - 1 + timestamps.length) % timestamps.length) * RATE_COUNTERS.length;
+                stats.rxBytesPerSecond(rates[base])
+                        .txBytesPerSecond(rates[base + 1])
+                        .rxPacketsPerSecond(rates[base + 2])
+                        .txPacketsPerSecond(rates[base + 3]);
+            }
+            return stats.build();
+        }
+
+        private synchronized List<InterfaceRateSample> samples(int limit) {
+            int count = Math.min(limit, size);
+            List<InterfaceRateSample> samples = new ArrayList<>(count);
+            for (int i = count; i > 0; i--) {
+                int slot = (next - i + timestamps.length) % timestamps.length;
+                int base = slot * RATE_COUNTERS.length;
+                samples.add(InterfaceRateSample.builder()
+                        .timestamp(timestamps[slot])
+                        .durationMillis(durations[slot] / 1e6)
+                        .rxBytesPerSecond(rates[base])
+                        .txBytesPerSecond(rates[base + 1])
+                        .rxPacketsPerSecond(rates[base + 2])
+                        .txPacketsPerSecond(rates[base + 3])
+                        .rxErrorsPerSecond(rates[base + 4])
+                        .txErrorsPerSecond(rates[base + 5])
+                        .rxDroppedPerSecond(rates[base + 6])
+                        .txDroppedPerSecond(rates[base + 7])
+                        .build());
+            }
+            return samples;
+        }
+    }
+}
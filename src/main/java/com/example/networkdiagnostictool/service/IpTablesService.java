@@ -1,38 +1,80 @@
 package com.example.networkdiagnostictool.service;
 
+import com.example.networkdiagnostictool.model.IptablesBatchOperation;
+import com.example.networkdiagnostictool.model.IptablesBatchResult;
 import com.example.networkdiagnostictool.model.IptablesRule;
+import com.example.networkdiagnostictool.model.IptablesRuleStats;
+import com.example.networkdiagnostictool.util.NamedThreadFactory;
+import com.example.networkdiagnostictool.util.OperatingSystem;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
 public class IpTablesService {
 
+    // Rules parsed ahead of a streaming client before the parser waits for it
+    private static final int STREAM_BUFFER_RULES = 256;
+    private static final long STREAM_POLL_MILLIS = 100;
+
+    private final CommandExecutor commandExecutor;
+    private final Duration streamTimeout;
+    private final List<String> saveCommand;
+    private final ExecutorService streamListings = Executors.newCachedThreadPool(new NamedThreadFactory("iptables-stream"));
+
+    /**
+     * Constructor for dependency injection of the shared command executor.
+     *
+     * @param commandExecutor     The executor used to run iptables.
+     * @param streamTimeoutMillis Longest a streamed listing may run, and so hold an executor slot, at a slow client's pace.
+     */
+    @Autowired
+    public IpTablesService(CommandExecutor commandExecutor,
+                           @Value("${iptables.stream-timeout-ms:60000}") long streamTimeoutMillis) {
+        // -n: fail instead of prompting when sudo needs a password
+        this(commandExecutor, streamTimeoutMillis, List.of("sudo", "-n", "iptables-save", "-c"));
+    }
+
+    IpTablesService(CommandExecutor commandExecutor, long streamTimeoutMillis, List<String> saveCommand) {
+        this.commandExecutor = commandExecutor;
+        this.streamTimeout = Duration.ofMillis(streamTimeoutMillis);
+        this.saveCommand = saveCommand;
+    }
+
     /**
      * Checks if the system is Linux and IP tables is available.
      *
      * @return true if the system is Linux and IP tables is available, false otherwise.
      */
     public boolean isIpTablesAvailable() {
-        String osName = System.getProperty("os.name").toLowerCase();
-        if (!osName.contains("linux")) {
+        if (OperatingSystem.current() != OperatingSystem.LINUX) {
             log.warn("IP tables is only available on Linux systems");
             return false;
         }
 
         try {
-            // create a Process object that represents the execution of the which iptables command
             // If iptables is not found, which will not output anything and will exit with a non-zero status
-            Process process = Runtime.getRuntime().exec("which iptables");
-            // In Unix-like systems, a process typically
-            // exits with 0 if it was successful,
-            // and a non-zero value if there was an error.
-            return process.waitFor() == 0;
+            return commandExecutor.execute("which", "iptables").isSuccess();
         } catch (Exception e) {
             log.error("Error checking for iptables availability", e);
             return false;
@@ -52,12 +94,10 @@ public class IpTablesService {
         List<String> rules = new ArrayList<>();
         try {
             // -L: List   -v: verbose   -n: numeric, display IP addresses and port numbers in numeric form
-            Process process = Runtime.getRuntime().exec("sudo iptables -L -v -n");
-
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                rules.add(line);
+            CommandResult result = commandExecutor.execute("sudo", "iptables", "-L", "-v", "-n");
+            rules.addAll(result.getStdout());
+            if (result.isTimedOut()) {
+                rules.add("Error: listing rules timed out");
             }
         } catch (Exception e) {
             log.error("Error listing IP tables rules", e);
@@ -66,6 +106,76 @@ public class IpTablesService {
         return rules;
     }
 
+    /**
+     * Lists the rules of every table, parsing {@code iptables-save -c} as it prints them and handing
+     * each rule to the sink once parsed. Rules pass through a small bounded buffer: while the sink
+     * falls behind the parser waits, and with it iptables-save, so memory use does not depend on
+     * the size of the ruleset. The stream timeout bounds how long a slow sink keeps the listing,
+     * and its executor slot, running.
+     *
+     * @param sink Receives the rules on the calling thread; it may block, and stops the listing by throwing.
+     * @throws IllegalStateException      if iptables-save cannot be run, fails or times out.
+     * @throws RejectedExecutionException if too many commands are running.
+     * @throws InterruptedException       if the calling thread is interrupted.
+     */
+    public void streamRules(Consumer<IptablesRuleStats> sink) throws InterruptedException {
+        BlockingQueue<IptablesRuleStats> handoff = new ArrayBlockingQueue<>(STREAM_BUFFER_RULES);
+        AtomicBoolean abandoned = new AtomicBoolean();
+        IptablesSaveParser parser = new IptablesSaveParser(rule -> {
+            try {
+                while (!handoff.offer(rule, STREAM_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (abandoned.get()) {
+                        // Stop reading; the process is destroyed by the cancelled listing
+                        throw new CancellationException("Rule listing abandoned");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Rule listing abandoned");
+            }
+        });
+        Future<CommandResult> listing = streamListings.submit(() -> commandExecutor.execute(
+                CommandExecutor.command(saveCommand).timeout(streamTimeout).onStdout(parser)));
+        try {
+            // The parser runs before execute returns, so once the listing is done every rule is queued
+            while (!listing.isDone() || !handoff.isEmpty()) {
+                IptablesRuleStats rule = handoff.poll(STREAM_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (rule != null) {
+                    sink.accept(rule);
+                }
+            }
+            CommandResult result = awaitListing(listing);
+            if (result.isTimedOut()) {
+                throw new IllegalStateException("Listing rules timed out");
+            }
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("iptables-save failed: " + String.join(" ", result.getStderr()));
+            }
+        } finally {
+            abandoned.set(true);
+            if (!listing.isDone()) {
+                // Interrupting execute destroys the process; the parser stops with it
+                listing.cancel(true);
+            }
+        }
+    }
+
+    private static CommandResult awaitListing(Future<CommandResult> listing) throws InterruptedException {
+        try {
+            return listing.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                throw (RejectedExecutionException) e.getCause();
+            }
+            throw new IllegalStateException("IP tables is not available on this system", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streamListings.shutdownNow();
+    }
+
     /**
      * Adds a new IP tables rule.
      *
@@ -78,9 +188,8 @@ public class IpTablesService {
         }
 
         try {
-            Process process = Runtime.getRuntime().exec("sudo iptables " + rule);
-            int exitCode = process.waitFor();
-            return exitCode == 0 ? "Rule added successfully" : "Failed to add rule";
+            CommandResult result = commandExecutor.execute(iptables(splitArguments(rule)));
+            return result.isSuccess() ? "Rule added successfully" : "Failed to add rule";
         } catch (Exception e) {
             log.error("Error adding IP tables rule", e);
             return "Error: " + e.getMessage();
@@ -99,9 +208,11 @@ public class IpTablesService {
         }
 
         try {
-            Process process = Runtime.getRuntime().exec("sudo iptables -D " + rule);
-            int exitCode = process.waitFor();
-            return exitCode == 0 ? "Rule deleted successfully" : "Failed to delete rule";
+            List<String> arguments = new ArrayList<>();
+            arguments.add("-D");
+            arguments.addAll(splitArguments(rule));
+            CommandResult result = commandExecutor.execute(iptables(arguments));
+            return result.isSuccess() ? "Rule deleted successfully" : "Failed to delete rule";
         } catch (Exception e) {
             log.error("Error deleting IP tables rule", e);
             return "Error: " + e.getMessage();
@@ -120,10 +231,8 @@ public class IpTablesService {
         }
 
         try {
-            String command = "sudo iptables " + rule.toIptablesCommand();
-            Process process = Runtime.getRuntime().exec(command);
-            int exitCode = process.waitFor();
-            return exitCode == 0 ? "Rule added successfully" : "Failed to add rule";
+            CommandResult result = commandExecutor.execute(iptables(rule.toArguments("-A")));
+            return result.isSuccess() ? "Rule added successfully" : "Failed to add rule";
         } catch (Exception e) {
             log.error("Error adding IP tables rule", e);
             return "Error: " + e.getMessage();
@@ -142,13 +251,102 @@ public class IpTablesService {
         }
 
         try {
-            String command = "sudo iptables -D " + rule.toIptablesCommand().substring(3); // remove "-A " prefix
-            Process process = Runtime.getRuntime().exec(command);
-            int exitCode = process.waitFor();
-            return exitCode == 0 ? "Rule deleted successfully" : "Failed to delete rule";
+            CommandResult result = commandExecutor.execute(iptables(rule.toArguments("-D")));
+            return result.isSuccess() ? "Rule deleted successfully" : "Failed to delete rule";
         } catch (Exception e) {
             log.error("Error deleting IP tables rule", e);
             return "Error: " + e.getMessage();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Applies a batch of rule additions and deletions as a single iptables-restore transaction.
+     * Every operation is validated first; if any is invalid nothing is applied. Otherwise the
+     * batch is committed atomically with {@code iptables-restore --noflush}, so it either takes
+     * effect completely or not at all, at the cost of a single process spawn.
+     *
+     * @param operations The operations, applied in order.
+     * @return The outcome, including per-operation validation errors.
+     */
+    public IptablesBatchResult applyBatch(List<IptablesBatchOperation> operations) {
+        List<IptablesBatchResult.RuleError> errors = validateBatch(operations);
+        IptablesBatchResult.IptablesBatchResultBuilder result = IptablesBatchResult.builder()
+                .operationCount(operations.size())
+                .errors(errors);
+        if (!errors.isEmpty()) {
+            return result.message("Batch rejected: " + errors.size() + " invalid operations, nothing applied").build();
+        }
+        if (!isIpTablesAvailable()) {
+            return result.message("IP tables is not available on this system").build();
+        }
+
+        try {
+            CommandResult restore = commandExecutor.execute(
+                    CommandExecutor.command("sudo", "iptables-restore", "--noflush")
+                            .input(renderRestoreInput(operations).getBytes(StandardCharsets.UTF_8)));
+            result.durationMillis(restore.getDurationMillis()).applied(restore.isSuccess());
+            if (restore.isSuccess()) {
+                return result.message("Applied " + operations.size() + " operations").build();
+            }
+            String reason = restore.isTimedOut() ? "timed out" : String.join("; ", restore.getStderr());
+            return result.message("Batch failed, nothing applied: " + reason).build();
+        } catch (Exception e) {
+            log.error("Error applying IP tables batch", e);
+            return result.message("Error: " + e.getMessage()).build();
+        }
+    }
+
+    /**
+     * Validates every operation of a batch.
+     *
+     * @return One error per problem found, with the index of the offending operation.
+     */
+    static List<IptablesBatchResult.RuleError> validateBatch(List<IptablesBatchOperation> operations) {
+        List<IptablesBatchResult.RuleError> errors = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            IptablesBatchOperation operation = operations.get(i);
+            if (operation == null || operation.getOperation() == null) {
+                errors.add(new IptablesBatchResult.RuleError(i, "operation must be ADD or DELETE"));
+            }
+            if (operation == null || operation.getRule() == null) {
+                errors.add(new IptablesBatchResult.RuleError(i, "rule is required"));
+                continue;
+            }
+            for (String message : operation.getRule().validate()) {
+                errors.add(new IptablesBatchResult.RuleError(i, message));
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Renders validated operations into the iptables-restore input format for the filter table.
+     */
+    static String renderRestoreInput(List<IptablesBatchOperation> operations) {
+        StringBuilder input = new StringBuilder(64 + operations.size() * 48);
+        input.append("*filter\n");
+        for (IptablesBatchOperation operation : operations) {
+            input.append(String.join(" ", operation.getRule().toArguments(operation.getOperation().getFlag())))
+                    .append('\n');
+        }
+        input.append("COMMIT\n");
+        return input.toString();
+    }
+
+    private static CommandExecutor.Command iptables(List<String> arguments) {
+        List<String> command = new ArrayList<>(arguments.size() + 2);
+        command.add("sudo");
+        command.add("iptables");
+        command.addAll(arguments);
+        return CommandExecutor.command(command);
+    }
+
+    /**
+     * Splits a raw rule string into arguments on whitespace, as {@code Runtime.exec(String)} did,
+     * so each token reaches iptables verbatim and nothing is interpreted by a shell.
+     */
+    private static List<String> splitArguments(String rule) {
+        String trimmed = rule.trim();
+        return trimmed.isEmpty() ? List.of() : Arrays.asList(trimmed.split("\\s+"));
+    }
+}
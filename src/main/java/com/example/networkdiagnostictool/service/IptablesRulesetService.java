@@ -0,0 +1,217 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.IptablesChain;
+import com.example.networkdiagnostictool.model.IptablesRuleStats;
+import com.example.networkdiagnostictool.model.IptablesRuleset;
+import com.example.networkdiagnostictool.util.OperatingSystem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a structured snapshot of the complete iptables ruleset in memory. The snapshot is taken
+ * with a single {@code iptables-save -c} on a fixed interval, parsed into chains and rules, and
+ * annotated with per-rule packet and byte rates computed from the counter deltas between the
+ * last two snapshots. Requests are answered from the snapshot and never reach the kernel.
+ * The packet rate of every chain is recorded to the {@link HistoryStore} as series
+ * {@code iptables/<table>/<chain>/packets}.
+ */
+@Slf4j
+@Service
+public class IptablesRulesetService {
+
+    private final CommandExecutor commandExecutor;
+    private final HistoryStore historyStore;
+
+    // Last parsed snapshot and when it was taken, replaced together on every refresh
+    private volatile Snapshot snapshot;
+    private volatile boolean attempted;
+    private boolean failing;
+
+    /**
+     * Constructor for dependency injection of the shared command executor and the history store.
+     *
+     * @param commandExecutor The executor used to run iptables-save.
+     * @param historyStore    The store recording chain packet rates.
+     */
+    @Autowired
+    public IptablesRulesetService(CommandExecutor commandExecutor, HistoryStore historyStore) {
+        this.commandExecutor = commandExecutor;
+        this.historyStore = historyStore;
+    }
+
+    /**
+     * Takes a new snapshot of the ruleset and computes counter rates against the previous one.
+     * Runs on the scheduler at the configured interval.
+     */
+    @Scheduled(fixedDelayString = "${iptables.refresh-interval-ms:10000}")
+    public synchronized void refresh() {
+        attempted = true;
+        if (OperatingSystem.current() != OperatingSystem.LINUX) {
+            return;
+        }
+
+        IptablesSaveParser parser = new IptablesSaveParser();
+        try {
+            // -n: fail instead of prompting when sudo needs a password
+            CommandResult result = commandExecutor.execute(
+                    CommandExecutor.command("sudo", "-n", "iptables-save", "-c").onStdout(parser));
+            if (!result.isSuccess()) {
+                refreshFailed(result.isTimedOut() ? "timed out" : String.join("; ", result.getStderr()), null);
+                return;
+            }
+        } catch (Exception e) {
+            refreshFailed(e.getMessage(), e);
+            return;
+        }
+        if (parser.getMalformedLines() > 0) {
+            log.debug("Skipped {} malformed iptables-save lines", parser.getMalformedLines());
+        }
+
+        long now = System.nanoTime();
+        Snapshot previous = snapshot;
+        List<IptablesChain> chains = parser.chains();
+        long intervalNanos = 0;
+        long timestamp = System.currentTimeMillis();
+        if (previous != null) {
+            intervalNanos = now - previous.takenNanos;
+            applyRates(previous.ruleset.getChains(), chains, intervalNanos);
+            recordHistory(chains, timestamp);
+        }
+        snapshot = new Snapshot(now, new IptablesRuleset(timestamp,
+                TimeUnit.NANOSECONDS.toMillis(intervalNanos), chains));
+        if (failing) {
+            log.info("iptables ruleset snapshot recovered");
+            failing = false;
+        }
+    }
+
+    private void recordHistory(List<IptablesChain> chains, long timestamp) {
+        for (IptablesChain chain : chains) {
+            double packetsPerSecond = 0;
+            for (IptablesRuleStats rule : chain.getRules()) {
+                packetsPerSecond += rule.getPacketsPerSecond();
+            }
+            int series = historyStore.seriesId("iptables/" + chain.getTable() + "/" + chain.getName() + "/packets");
+            historyStore.record(series, timestamp, packetsPerSecond, false);
+        }
+    }
+
+    /**
+     * Returns the last snapshot of the ruleset, taking the first one if no refresh has run yet.
+     *
+     * @return The snapshot, or null if the ruleset cannot be read on this system.
+     */
+    public IptablesRuleset getRuleset() {
+        if (!attempted) {
+            refresh();
+        }
+        Snapshot current = snapshot;
+        return current == null ? null : current.ruleset;
+    }
+
+    /**
+     * Returns the rules with the highest traffic rates in the last snapshot.
+     *
+     * @param limit  Maximum number of rules to return.
+     * @param sortBy {@code packets} or {@code bytes}.
+     * @return The rules in descending order of rate, or an empty list if the ruleset cannot be read.
+     * @throws IllegalArgumentException if sortBy is not a known rate.
+     */
+    public List<IptablesRuleStats> getHotRules(int limit, String sortBy) {
+        Comparator<IptablesRuleStats> order;
+        if ("packets".equals(sortBy)) {
+            order = Comparator.comparingDouble(IptablesRuleStats::getPacketsPerSecond);
+        } else if ("bytes".equals(sortBy)) {
+            order = Comparator.comparingDouble(IptablesRuleStats::getBytesPerSecond);
+        } else {
+            throw new IllegalArgumentException("sortBy must be packets or bytes");
+        }
+
+        IptablesRuleset ruleset = getRuleset();
+        if (ruleset == null) {
+            return List.of();
+        }
+        return ruleset.getChains().stream()
+                .flatMap(chain -> chain.getRules().stream())
+                .sorted(order.reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Sets the packet and byte rates of every rule from its counter delta against the same rule in
+     * the previous snapshot. Rules are matched by table, chain and specification, and duplicates of
+     * a specification by their order, so rates survive rules being inserted or removed around them.
+     * Counters that went backwards were zeroed in between and count from zero.
+     */
+    static void applyRates(List<IptablesChain> previous, List<IptablesChain> current, long intervalNanos) {
+        if (intervalNanos <= 0) {
+            return;
+        }
+        Map<String, IptablesRuleStats> before = new HashMap<>();
+        for (IptablesChain chain : previous) {
+            for (IptablesRuleStats rule : chain.getRules()) {
+                before.put(ruleKey(rule, before), rule);
+            }
+        }
+
+        double seconds = intervalNanos / 1e9;
+        Map<String, IptablesRuleStats> seen = new HashMap<>();
+        for (IptablesChain chain : current) {
+            for (IptablesRuleStats rule : chain.getRules()) {
+                String key = ruleKey(rule, seen);
+                seen.put(key, rule);
+                IptablesRuleStats old = before.get(key);
+                if (old == null) {
+                    continue;
+                }
+                long packets = rule.getPackets() >= old.getPackets() ? rule.getPackets() - old.getPackets() : rule.getPackets();
+                long bytes = rule.getBytes() >= old.getBytes() ? rule.getBytes() - old.getBytes() : rule.getBytes();
+                rule.setPacketsPerSecond(packets / seconds);
+                rule.setBytesPerSecond(bytes / seconds);
+            }
+        }
+    }
+
+    /**
+     * Builds the identity of a rule, numbering repeated specifications already present in the map.
+     */
+    private static String ruleKey(IptablesRuleStats rule, Map<String, IptablesRuleStats> keys) {
+        String base = rule.getTable() + ' ' + rule.getChain() + ' ' + rule.getSpec();
+        String key = base;
+        for (int occurrence = 1; keys.containsKey(key); occurrence++) {
+            key = base + '#' + occurrence;
+        }
+        return key;
+    }
+
+    private void refreshFailed(String reason, Exception e) {
+        // Warn once per outage rather than on every interval
+        if (!failing) {
+            log.warn("Cannot snapshot the iptables ruleset: {}", reason, e);
+            failing = true;
+        } else {
+            log.debug("Cannot snapshot the iptables ruleset: {}", reason);
+        }
+    }
+
+    private static final class Snapshot {
+        private final long takenNanos;
+        private final IptablesRuleset ruleset;
+
+        private Snapshot(long takenNanos, IptablesRuleset ruleset) {
+            this.takenNanos = takenNanos;
+            this.ruleset = ruleset;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.IptablesChain;
+import com.example.networkdiagnostictool.model.IptablesRule;
+import com.example.networkdiagnostictool.model.IptablesRuleStats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Parses the output of {@code iptables-save -c} line by line into chains and rules with counters.
+ * Lines are fed through {@link #accept(String)}, so the parser can consume the command's output
+ * as it is streamed. Chains are returned in the order they are declared, grouped by table.
+ * Given a rule sink, the parser hands every rule to it as soon as its line is parsed and keeps
+ * only the chains, so memory use does not grow with the number of rules.
+ * <p>
+ * Not thread-safe; use one parser per invocation.
+ */
+class IptablesSaveParser implements Consumer<String> {
+
+    private final Map<String, IptablesChain> chains = new LinkedHashMap<>();
+    private final Consumer<IptablesRuleStats> ruleSink;
+    // Rules seen per chain when they are handed to the sink rather than kept
+    private final Map<String, Integer> ruleCounts = new HashMap<>();
+    private String table;
+    private int malformedLines;
+
+    IptablesSaveParser() {
+        this(null);
+    }
+
+    /**
+     * @param ruleSink Receives every rule as it is parsed instead of the rule being added to its chain;
+     *                 it runs on the thread feeding the lines.
+     */
+    IptablesSaveParser(Consumer<IptablesRuleStats> ruleSink) {
+        this.ruleSink = ruleSink;
+    }
+
+    @Override
+    public void accept(String line) {
+        if (line.isEmpty() || line.charAt(0) == '#') {
+            return;
+        }
+        char first = line.charAt(0);
+        if (first == '*') {
+            table = line.substring(1).trim();
+        } else if (first == ':') {
+            parseChain(line);
+        } else if (first == '[' || line.startsWith("-A ")) {
+            parseRule(line);
+        } else if (!line.equals("COMMIT")) {
+            malformedLines++;
+        }
+    }
+
+    /**
+     * @return The parsed chains in declaration order.
+     */
+    List<IptablesChain> chains() {
+        return new ArrayList<>(chains.values());
+    }
+
+    /**
+     * @return The number of lines that could not be parsed and were skipped.
+     */
+    int getMalformedLines() {
+        return malformedLines;
+    }
+
+    /**
+     * Parses {@code :INPUT ACCEPT [12:3456]}; user-defined chains have the policy {@code -}.
+     */
+    private void parseChain(String line) {
+        List<String> tokens = tokenize(line.substring(1));
+        if (table == null || tokens.size() < 2) {
+            malformedLines++;
+            return;
+        }
+        String policy = tokens.get(1).equals("-") ? null : tokens.get(1);
+        long[] counters = tokens.size() > 2 ? parseCounters(tokens.get(2)) : null;
+        IptablesChain chain = new IptablesChain(table, tokens.get(0), policy,
+                counters != null ? counters[0] : 0, counters != null ? counters[1] : 0, new ArrayList<>());
+        chains.put(key(table, chain.getName()), chain);
+    }
+
+    /**
+     * Parses {@code [12:3456] -A INPUT -s 10.0.0.0/8 -p tcp -m tcp --dport 22 -j ACCEPT}.
+     */
+    private void parseRule(String line) {
+        List<String> tokens = tokenize(line);
+        long[] counters = null;
+        int i = 0;
+        if (!tokens.isEmpty() && tokens.get(0).startsWith("[")) {
+            counters = parseCounters(tokens.get(0));
+            i = 1;
+        }
+        if (table == null || tokens.size() < i + 2 || !tokens.get(i).equals("-A")) {
+            malformedLines++;
+            return;
+        }
+        String chainKey = key(table, tokens.get(i + 1));
+        IptablesChain chain = chains.get(chainKey);
+        if (chain == null) {
+            malformedLines++;
+            return;
+        }
+        int position = ruleSink == null ? chain.getRules().size() + 1 : ruleCounts.merge(chainKey, 1, Integer::sum);
+
+        IptablesRuleStats.IptablesRuleStatsBuilder rule = IptablesRuleStats.builder()
+                .table(table)
+                .chain(chain.getName())
+                .position(position)
+                .spec(specAfterChain(line, tokens.get(i + 1)))
+                .packets(counters != null ? counters[0] : 0)
+                .bytes(counters != null ? counters[1] : 0);
+        boolean fullyParsed = true;
+        for (i += 2; i < tokens.size(); i++) {
+            String option = tokens.get(i);
+            String value = i + 1 < tokens.size() ? tokens.get(i + 1) : null;
+            if (option.equals("!")) {
+                // Negated matches are kept only in the spec; skip the option and its argument
+                fullyParsed = false;
+                i += isArgument(tokens, i + 2) ? 2 : 1;
+                continue;
+            }
+            if (!option.startsWith("-") || !isArgument(tokens, i + 1)) {
+                // Flags such as --syn, or further arguments of an unknown option
+                fullyParsed = false;
+                continue;
+            }
+            i++;
+            switch (option) {
+                case "-s":
+                    rule.sourceIp(value);
+                    break;
+                case "-d":
+                    rule.destinationIp(value);
+                    break;
+                case "-p":
+                    rule.protocolName(value).protocol(parseEnum(IptablesRule.Protocol.class, value));
+                    break;
+                case "-i":
+                    rule.inInterface(value);
+                    break;
+                case "-o":
+                    rule.outInterface(value);
+                    break;
+                case "--sport":
+                    rule.sourcePort(value);
+                    break;
+                case "--dport":
+                    rule.destinationPort(value);
+                    break;
+                case "-j":
+                case "-g":
+                    rule.target(value).gotoTarget(option.equals("-g"))
+                            .action(parseEnum(IptablesRule.Action.class, value));
+                    // Target options such as --reject-with only tune the verdict
+                    i = tokens.size();
+                    break;
+                case "-m":
+                    // The implicit protocol modules add no matching of their own
+                    fullyParsed &= value.equals("tcp") || value.equals("udp") || value.equals("comment");
+                    break;
+                case "--comment":
+                    break;
+                default:
+                    fullyParsed = false;
+                    break;
+            }
+        }
+        if (ruleSink != null) {
+            ruleSink.accept(rule.fullyParsed(fullyParsed).build());
+        } else {
+            chain.getRules().add(rule.fullyParsed(fullyParsed).build());
+        }
+    }
+
+    /**
+     * Returns the rule text following {@code -A <chain>}, preserving its original quoting.
+     */
+    private static String specAfterChain(String line, String chain) {
+        int start = line.indexOf("-A " + chain);
+        return start < 0 ? line : line.substring(start + 3 + chain.length()).trim();
+    }
+
+    /**
+     * Parses {@code [packets:bytes]}.
+     *
+     * @return The packet and byte counts, or null if malformed.
+     */
+    static long[] parseCounters(String token) {
+        int colon = token.indexOf(':');
+        if (!token.startsWith("[") || !token.endsWith("]") || colon < 0) {
+            return null;
+        }
+        try {
+            return new long[]{
+                    Long.parseLong(token.substring(1, colon)),
+                    Long.parseLong(token.substring(colon + 1, token.length() - 1))};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Splits a line on whitespace, keeping double-quoted arguments such as comments together.
+     */
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        boolean inToken = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && quoted && i + 1 < line.length()) {
+                token.append(line.charAt(++i));
+            } else if (c == '"') {
+                quoted = !quoted;
+                inToken = true;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                token.append(c);
+                inToken = true;
+            }
+        }
+        if (inToken) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static boolean isArgument(List<String> tokens, int index) {
+        return index < tokens.size() && !tokens.get(index).startsWith("-") && !tokens.get(index).equals("!");
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String key(String table, String chain) {
+        return table + ' ' + chain;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.IptablesChain;
+import com.example.networkdiagnostictool.model.IptablesRule;
+import com.example.networkdiagnostictool.model.IptablesRuleStats;
+import com.example.networkdiagnostictool.model.IptablesRuleset;
+import com.example.networkdiagnostictool.model.PacketTuple;
+import com.example.networkdiagnostictool.model.PacketVerdict;
+import com.example.networkdiagnostictool.model.SimulationRequest;
+import com.example.networkdiagnostictool.model.SimulationResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers "what would the firewall do with this packet" without touching iptables.
+ * Packets are evaluated against a {@link CompiledRuleset} built from the cached ruleset
+ * snapshot of the {@link IptablesRulesetService}; the compiled form is reused until the
+ * snapshot is replaced. Proposed rules are compiled on their own per request and overlaid
+ * on the compiled snapshot, so a change can be tried out before it is applied without
+ * recompiling the ruleset.
+ */
+@Slf4j
+@Service
+public class IptablesSimulator {
+
+    private final IptablesRulesetService rulesetService;
+    private final int maxPackets;
+
+    // Compiled form of the last snapshot seen, replaced when the snapshot changes
+    private volatile Compiled compiled;
+
+    /**
+     * Constructor for injecting the ruleset snapshot and the batch limit.
+     *
+     * @param rulesetService The source of ruleset snapshots.
+     * @param maxPackets     Maximum number of packets evaluated per request.
+     */
+    @Autowired
+    public IptablesSimulator(IptablesRulesetService rulesetService,
+                             @Value("${iptables.simulate.max-packets:100000}") int maxPackets) {
+        this.rulesetService = rulesetService;
+        this.maxPackets = maxPackets;
+    }
+
+    /**
+     * Evaluates a batch of packets with first-match semantics.
+     *
+     * @param request The chain, the packets and any proposed rules.
+     * @return One verdict per packet, in request order.
+     * @throws IllegalArgumentException if the request, a packet or a proposed rule is invalid.
+     * @throws IllegalStateException    if the ruleset cannot be read on this system.
+     */
+    public SimulationResult simulate(SimulationRequest request) {
+        List<PacketTuple> packets = request.getPackets();
+        if (request.getChain() == null) {
+            throw new IllegalArgumentException("chain is required");
+        }
+        if (packets == null || packets.isEmpty()) {
+            throw new IllegalArgumentException("packets must not be empty");
+        }
+        if (packets.size() > maxPackets) {
+            throw new IllegalArgumentException("At most " + maxPackets + " packets can be simulated per request");
+        }
+        List<IptablesRule> proposed = request.getProposedRules() == null ? List.of() : request.getProposedRules();
+        for (int i = 0; i < proposed.size(); i++) {
+            List<String> errors = proposed.get(i) == null ? List.of("rule is required") : proposed.get(i).validate();
+            if (!errors.isEmpty()) {
+                throw new IllegalArgumentException("proposedRules[" + i + "]: " + String.join(", ", errors));
+            }
+        }
+        CompiledRuleset.Packet[] parsed = new CompiledRuleset.Packet[packets.size()];
+        for (int i = 0; i < parsed.length; i++) {
+            parsed[i] = toPacket(packets.get(i), i);
+        }
+
+        IptablesRuleset ruleset = rulesetService.getRuleset();
+        if (ruleset == null) {
+            throw new IllegalStateException("IP tables ruleset is not available");
+        }
+        CompiledRuleset rules = compiledSnapshot(ruleset);
+        if (!proposed.isEmpty()) {
+            rules = rules.append(proposedByChain(ruleset.getChains(), proposed));
+        }
+        String chain = request.getChain().name();
+
+        long start = System.nanoTime();
+        List<PacketVerdict> verdicts = new ArrayList<>(parsed.length);
+        for (CompiledRuleset.Packet packet : parsed) {
+            verdicts.add(rules.evaluate(chain, packet));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return SimulationResult.builder()
+                .chain(chain)
+                .rulesetTimestamp(ruleset.getTimestamp())
+                .ruleCount(rules.getRuleCount())
+                .unsupportedRuleCount(rules.getUnsupportedRuleCount())
+                .evaluationMicros(TimeUnit.NANOSECONDS.toMicros(elapsed))
+                .verdicts(verdicts)
+                .build();
+    }
+
+    private CompiledRuleset compiledSnapshot(IptablesRuleset ruleset) {
+        Compiled current = compiled;
+        if (current == null || current.source != ruleset) {
+            long start = System.nanoTime();
+            current = new Compiled(ruleset, CompiledRuleset.compile(ruleset.getChains()));
+            compiled = current;
+            log.debug("Compiled {} iptables rules in {} µs", current.rules.getRuleCount(),
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+        return current.rules;
+    }
+
+    /**
+     * Groups the proposed rules by the filter chain they are appended to, numbered after the
+     * chain's existing rules.
+     */
+    static Map<String, List<IptablesRuleStats>> proposedByChain(List<IptablesChain> chains, List<IptablesRule> proposed) {
+        Map<String, List<IptablesRuleStats>> result = new HashMap<>();
+        for (IptablesRule rule : proposed) {
+            String name = rule.getChain().name();
+            int existing = 0;
+            for (IptablesChain chain : chains) {
+                if ("filter".equals(chain.getTable()) && chain.getName().equals(name)) {
+                    existing = chain.getRules().size();
+                }
+            }
+            List<IptablesRuleStats> rules = result.computeIfAbsent(name, chain -> new ArrayList<>());
+            rules.add(toRuleStats(rule, existing + rules.size() + 1));
+        }
+        return result;
+    }
+
+    private static IptablesRuleStats toRuleStats(IptablesRule rule, int position) {
+        List<String> arguments = rule.toArguments("-A");
+        return IptablesRuleStats.builder()
+                .table("filter")
+                .chain(rule.getChain().name())
+                .position(position)
+                .spec(String.join(" ", arguments.subList(2, arguments.size())))
+                .sourceIp(rule.getSourceIp())
+                .destinationIp(rule.getDestinationIp())
+                .protocol(rule.getProtocol())
+                .protocolName(rule.getProtocol() == null ? null : rule.getProtocol().name().toLowerCase(Locale.ROOT))
+                .sourcePort(rule.getSourcePort() == null ? null : rule.getSourcePort().toString())
+                .destinationPort(rule.getDestinationPort() == null ? null : rule.getDestinationPort().toString())
+                .target(rule.getAction().name())
+                .action(rule.getAction())
+                .fullyParsed(true)
+                .build();
+    }
+
+    private static CompiledRuleset.Packet toPacket(PacketTuple tuple, int index) {
+        if (tuple == null || tuple.getProtocol() == null) {
+            throw new IllegalArgumentException("packets[" + index + "]: protocol is required");
+        }
+        long source = tuple.getSourceIp() == null ? -1 : ArpTable.parseIpv4(tuple.getSourceIp());
+        long destination = tuple.getDestinationIp() == null ? -1 : ArpTable.parseIpv4(tuple.getDestinationIp());
+        if (source < 0 || destination < 0) {
+            throw new IllegalArgumentException("packets[" + index + "]: sourceIp and destinationIp must be IPv4 addresses");
+        }
+        boolean hasPorts = tuple.getProtocol() != IptablesRule.Protocol.ICMP;
+        int sourcePort = hasPorts ? port(tuple.getSourcePort(), index) : -1;
+        int destinationPort = hasPorts ? port(tuple.getDestinationPort(), index) : -1;
+        return new CompiledRuleset.Packet()
+                .set(tuple.getProtocol(), (int) source, sourcePort, (int) destination, destinationPort)
+                .interfaces(tuple.getInInterface(), tuple.getOutInterface());
+    }
+
+    private static int port(Integer port, int index) {
+        if (port == null || port < 0 || port > 65535) {
+            throw new IllegalArgumentException("packets[" + index + "]: TCP and UDP packets need ports between 0 and 65535");
+        }
+        return port;
+    }
+
+    private static final class Compiled {
+        private final IptablesRuleset source;
+        private final CompiledRuleset rules;
+
+        private Compiled(IptablesRuleset source, CompiledRuleset rules) {
+            this.source = source;
+            this.rules = rules;
+        }
+    }
+}
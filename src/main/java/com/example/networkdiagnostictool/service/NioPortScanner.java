@@ -0,0 +1,263 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.PortScanResult;
+import com.example.networkdiagnostictool.model.PortStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Scans many TCP ports on one host concurrently using non-blocking connects.
+ * All connects of a scan are driven by a single {@link Selector} on the calling thread,
+ * so a scan costs one thread regardless of how many ports are probed.
+ */
+@Slf4j
+@Component
+public class NioPortScanner {
+
+    private static final byte PENDING = 0;
+    private static final byte OPEN = 1;
+    private static final byte CLOSED = 2;
+    private static final byte FILTERED = 3;
+
+    /**
+     * Parses a port specification such as {@code "22,80,8000-8100"} into a sorted array of unique ports.
+     *
+     * @param spec Comma-separated list of ports and inclusive port ranges.
+     * @return The ports in ascending order.
+     * @throws IllegalArgumentException if the specification is malformed or contains ports outside 1-65535.
+     */
+    public static int[] parsePortSpec(String spec) {
+        if (spec == null || spec.trim().isEmpty()) {
+            throw new IllegalArgumentException("Port specification must not be empty");
+        }
+        BitSet ports = new BitSet(65536);
+        for (String part : spec.split(",")) {
+            String token = part.trim();
+            int dash = token.indexOf('-');
+            int from;
+            int to;
+            try {
+                if (dash < 0) {
+                    from = to = Integer.parseInt(token);
+                } else {
+                    from = Integer.parseInt(token.substring(0, dash).trim());
+                    to = Integer.parseInt(token.substring(dash + 1).trim());
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid port specification: " + token);
+            }
+            if (from < 1 || to > 65535 || from > to) {
+                throw new IllegalArgumentException("Invalid port range: " + token + ". Ports must be between 1 and 65535");
+            }
+            ports.set(from, to + 1);
+        }
+        return ports.stream().toArray();
+    }
+
+    /**
+     * Scans the given ports on the given address.
+     *
+     * @param host          The host name as requested, reported back in the result.
+     * @param address       The already resolved address to scan.
+     * @param ports         The ports to probe.
+     * @param timeoutMillis Per-port connect deadline in milliseconds.
+     * @param maxInFlight   Maximum number of connects outstanding at any time.
+     * @return The per-port scan result.
+     * @throws IOException if the selector cannot be opened or a socket cannot be created.
+     */
+    public PortScanResult scan(String host, InetAddress address, int[] ports, long timeoutMillis, int maxInFlight)
+            throws IOException {
+        long startNanos = System.nanoTime();
+        long timeoutNanos = timeoutMillis * 1_000_000L;
+        byte[] states = new byte[ports.length];
+        long[] connectNanos = new long[ports.length];
+
+        // Every probe gets the same timeout, so probes expire in the order they were started
+        // and the oldest outstanding probe always carries the earliest deadline.
+        ArrayDeque<Probe> started = new ArrayDeque<>();
+        int inFlight = 0;
+        int next = 0;
+
+        try (Selector selector = Selector.open()) {
+            try {
+                while (next < ports.length || inFlight > 0) {
+                    while (next < ports.length && inFlight < maxInFlight) {
+                        Probe probe = start(selector, address, ports, next++, timeoutNanos, states, connectNanos);
+                        if (probe != null) {
+                            started.addLast(probe);
+                            inFlight++;
+                        }
+                    }
+
+                    long now = System.nanoTime();
+                    Probe oldest;
+                    while ((oldest = started.peekFirst()) != null && (oldest.done || oldest.deadline <= now)) {
+                        started.pollFirst();
+                        if (!oldest.done && complete(oldest, FILTERED, states, connectNanos)) {
+                            inFlight--;
+                        }
+                    }
+                    if (oldest == null) {
+                        continue;
+                    }
+
+                    long waitMillis = Math.max(1, (oldest.deadline - now + 999_999) / 1_000_000);
+                    if (selector.select(waitMillis) == 0) {
+                        continue;
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Probe probe = (Probe) key.attachment();
+                        if (probe.done) {
+                            continue;
+                        }
+                        if (complete(probe, finishConnect(probe.channel), states, connectNanos)) {
+                            inFlight--;
+                        }
+                    }
+                }
+            } finally {
+                for (Probe probe : started) {
+                    closeQuietly(probe.channel);
+                }
+            }
+        }
+
+        return buildResult(host, address, ports, states, connectNanos, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Starts a non-blocking connect for the port at the given index.
+     *
+     * @return The outstanding probe, or null if the connect completed or failed immediately.
+     */
+    private Probe start(Selector selector, InetAddress address, int[] ports, int index, long timeoutNanos,
+                        byte[] states, long[] connectNanos) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        Probe probe = new Probe(index, channel, System.nanoTime(), timeoutNanos);
+        try {
+            channel.configureBlocking(false);
+            if (channel.connect(new InetSocketAddress(address, ports[index]))) {
+                complete(probe, OPEN, states, connectNanos);
+                return null;
+            }
+            channel.register(selector, SelectionKey.OP_CONNECT, probe);
+            return probe;
+        } catch (ConnectException e) {
+            complete(probe, CLOSED, states, connectNanos);
+        } catch (IOException e) {
+            complete(probe, FILTERED, states, connectNanos);
+        }
+        return null;
+    }
+
+    private byte finishConnect(SocketChannel channel) {
+        try {
+            return channel.finishConnect() ? OPEN : PENDING;
+        } catch (ConnectException e) {
+            // Connection refused: the host answered with a RST
+            return CLOSED;
+        } catch (IOException e) {
+            // No route to host, network unreachable and similar ICMP errors
+            return FILTERED;
+        }
+    }
+
+    /**
+     * Records the outcome of a probe and closes its channel.
+     *
+     * @return true if the probe finished, false if its connect is still pending.
+     */
+    private boolean complete(Probe probe, byte state, byte[] states, long[] connectNanos) {
+        if (state == PENDING) {
+            // Spurious wake-up; leave the probe registered until it finishes or expires
+            return false;
+        }
+        probe.done = true;
+        states[probe.index] = state;
+        connectNanos[probe.index] = state == OPEN ? System.nanoTime() - probe.startNanos : -1;
+        closeQuietly(probe.channel);
+        return true;
+    }
+
+    private PortScanResult buildResult(String host, InetAddress address, int[] ports, byte[] states,
+                                       long[] connectNanos, long elapsedNanos) {
+        List<PortStatus> statuses = new ArrayList<>(ports.length);
+        int open = 0;
+        int closed = 0;
+        int filtered = 0;
+        for (int i = 0; i < ports.length; i++) {
+            PortStatus.State state;
+            switch (states[i]) {
+                case OPEN:
+                    state = PortStatus.State.OPEN;
+                    open++;
+                    break;
+                case CLOSED:
+                    state = PortStatus.State.CLOSED;
+                    closed++;
+                    break;
+                default:
+                    state = PortStatus.State.FILTERED;
+                    filtered++;
+                    break;
+            }
+            long micros = connectNanos[i] < 0 ? -1 : connectNanos[i] / 1_000;
+            statuses.add(new PortStatus(ports[i], state, micros));
+        }
+
+        log.debug("Scanned {} ports on {} in {} ms: {} open, {} closed, {} filtered",
+                ports.length, host, elapsedNanos / 1_000_000, open, closed, filtered);
+        return PortScanResult.builder()
+                .host(host)
+                .address(address.getHostAddress())
+                .scannedPorts(ports.length)
+                .openPorts(open)
+                .closedPorts(closed)
+                .filteredPorts(filtered)
+                .durationMillis(elapsedNanos / 1_000_000)
+                .ports(statuses)
+                .build();
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Error closing scan channel", e);
+        }
+    }
+
+    /**
+     * An outstanding connect attempt.
+     */
+    private static final class Probe {
+        final int index;
+        final SocketChannel channel;
+        final long startNanos;
+        final long deadline;
+        boolean done;
+
+        Probe(int index, SocketChannel channel, long startNanos, long timeoutNanos) {
+            this.index = index;
+            this.channel = channel;
+            this.startNanos = startNanos;
+            this.deadline = startNanos + timeoutNanos;
+        }
+    }
+}
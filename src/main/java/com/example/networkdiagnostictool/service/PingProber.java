@@ -0,0 +1,435 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.PingStats;
+import com.example.networkdiagnostictool.util.OperatingSystem;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends a series of ping probes at a fixed interval without waiting for earlier replies, so a slow
+ * reply neither delays the following probes nor hides loss behind the timeout. ICMP probes are sent
+ * by the system {@code ping} command, which tags every echo with its sequence number; its output is
+ * read as replies arrive, so loss, round trips and reordering belong to the right probe. Where no
+ * {@code ping} command is available, probes are TCP connects driven by the shared {@link AsyncConnector},
+ * where both an accepted and a refused connection count as a reply. A ping series keeps its command
+ * running for the whole series, so ping commands run on a command runner of their own with a small
+ * limit, and pings beyond it are rejected at once instead of holding the slots of other commands.
+ */
+@Slf4j
+@Component
+public class PingProber {
+
+    public static final String METHOD_ICMP = "icmp";
+    public static final String METHOD_TCP = "tcp";
+
+    // Time for ping to start and exit on top of its own deadline
+    private static final long COMMAND_MARGIN_MILLIS = 2000;
+
+    private final HostResolver hostResolver;
+    private final AsyncConnector asyncConnector;
+    private final CommandExecutor commandExecutor;
+    private final String pingCommand;
+
+    /**
+     * Constructor for dependency injection of the resolver, the connector and the ping settings.
+     *
+     * @param hostResolver   The shared resolver for host names.
+     * @param asyncConnector The shared selector driving TCP probes.
+     * @param pingCommand    The ping command, looked up on the PATH unless it is a path.
+     * @param maxConcurrent  Maximum number of ping commands running at once.
+     */
+    @Autowired
+    public PingProber(HostResolver hostResolver, AsyncConnector asyncConnector,
+                      @Value("${ping.command:ping}") String pingCommand,
+                      @Value("${ping.max-concurrent:2}") int maxConcurrent) {
+        this.hostResolver = hostResolver;
+        this.asyncConnector = asyncConnector;
+        // Every ping sets its own timeout; a ping finding no free slot is rejected without waiting
+        this.commandExecutor = new CommandExecutor(maxConcurrent, COMMAND_MARGIN_MILLIS, 0);
+        // The options passed below are those of the Linux ping
+        this.pingCommand = OperatingSystem.current() == OperatingSystem.LINUX
+                ? findExecutable(pingCommand, System.getenv("PATH")) : null;
+        log.info("Ping probes use {}", this.pingCommand != null ? "ICMP echo via " + this.pingCommand
+                : "TCP connects, no ping command is available");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        commandExecutor.shutdown();
+    }
+
+    /**
+     * @return true if ping probes can be ICMP echo requests.
+     */
+    public boolean isIcmpAvailable() {
+        return pingCommand != null;
+    }
+
+    /**
+     * Pings a host with a series of probes. Blocks until the last probe answered or timed out.
+     *
+     * @param host           The hostname or IP address to ping.
+     * @param method         {@link #METHOD_ICMP}, {@link #METHOD_TCP}, or null for ICMP where available.
+     * @param port           The port TCP probes connect to.
+     * @param count          The number of probes.
+     * @param intervalMillis The spacing between consecutive probes.
+     * @param timeoutMillis  How long each probe waits for its reply.
+     * @return Loss, round-trip statistics and reordering over all probes.
+     * @throws IllegalArgumentException   if the host cannot be resolved, or ICMP was requested without a ping command.
+     * @throws IllegalStateException      if the ping command failed.
+     * @throws RejectedExecutionException if the maximum number of ping commands is already running.
+     */
+    public PingStats ping(String host, String method, int port, int count, long intervalMillis, int timeoutMillis) {
+        boolean icmp;
+        if (method == null) {
+            icmp = isIcmpAvailable();
+        } else if (METHOD_ICMP.equals(method)) {
+            if (!isIcmpAvailable()) {
+                throw new IllegalArgumentException("ICMP probes need the ping command");
+            }
+            icmp = true;
+        } else if (METHOD_TCP.equals(method)) {
+            icmp = false;
+        } else {
+            throw new IllegalArgumentException("Invalid method. Must be icmp or tcp");
+        }
+        InetAddress address;
+        try {
+            address = hostResolver.resolve(host);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Unable to resolve host: " + host);
+        }
+
+        PingStats.PingStatsBuilder stats = PingStats.builder()
+                .host(host)
+                .address(address.getHostAddress())
+                .method(icmp ? METHOD_ICMP : METHOD_TCP)
+                .port(icmp ? null : port);
+        long start = System.nanoTime();
+        if (icmp) {
+            pingEcho(stats, address, count, intervalMillis, timeoutMillis);
+        } else {
+            pingConnect(stats, new InetSocketAddress(address, port), count, intervalMillis, timeoutMillis);
+        }
+        return stats.elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).build();
+    }
+
+    /**
+     * Runs {@code ping} for the whole series and records the replies in the order it prints them.
+     */
+    private void pingEcho(PingStats.PingStatsBuilder stats, InetAddress address, int count, long intervalMillis,
+                          int timeoutMillis) {
+        // ping takes whole seconds for the reply timeout
+        long timeoutSeconds = Math.max(1, (timeoutMillis + 999) / 1000);
+        long deadlineSeconds = ((count - 1) * intervalMillis + 999) / 1000 + timeoutSeconds;
+        List<String> arguments = Arrays.asList(pingCommand, address instanceof Inet6Address ? "-6" : "-4", "-n",
+                "-c", String.valueOf(count),
+                "-i", String.format(Locale.ROOT, "%.3f", intervalMillis / 1000.0),
+                "-W", String.valueOf(timeoutSeconds),
+                "-w", String.valueOf(deadlineSeconds),
+                address.getHostAddress());
+        EchoReplies replies = new EchoReplies(count);
+        CommandResult result;
+        try {
+            result = commandExecutor.execute(CommandExecutor.command(arguments)
+                    .timeout(Duration.ofMillis(deadlineSeconds * 1000 + COMMAND_MARGIN_MILLIS))
+                    .onStdout(replies::accept));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to run ping: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while pinging");
+        }
+        // Exit status 1 only means some probes got no reply
+        if (result.isTimedOut() || (result.getExitCode() > 1 && replies.received == 0)) {
+            throw new IllegalStateException("ping failed: " + (result.getStderr().isEmpty()
+                    ? "exit status " + result.getExitCode() : result.getStderr().get(0)));
+        }
+        summarize(stats, replies.transmitted >= 0 ? replies.transmitted : count,
+                replies.rttNanos, replies.arrivals, replies.received);
+    }
+
+    /**
+     * Starts a TCP connect per interval and waits for all of them, then reads the results through
+     * {@link ConnectProbes#close()}, after which late completions are ignored.
+     */
+    private void pingConnect(PingStats.PingStatsBuilder stats, InetSocketAddress target, int count,
+                             long intervalMillis, int timeoutMillis) {
+        ConnectProbes probes = new ConnectProbes(count);
+        CompletableFuture<?>[] replies = new CompletableFuture<?>[count];
+        long start = System.nanoTime();
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        int sent = 0;
+        for (int seq = 0; seq < count; seq++) {
+            if (!sleepUntil(start + seq * intervalNanos)) {
+                break;
+            }
+            int probe = seq;
+            long sentAt = System.nanoTime();
+            probes.sent(probe, sentAt);
+            replies[seq] = asyncConnector.connect(target, timeoutMillis).handle((nanos, error) -> {
+                if (error == null) {
+                    probes.answered(probe, nanos);
+                } else if (error instanceof ConnectException) {
+                    // A reset is as much a reply as an accepted connection
+                    probes.answered(probe, System.nanoTime() - sentAt);
+                }
+                return null;
+            });
+            sent++;
+        }
+        awaitReplies(replies, sent, timeoutMillis);
+        probes.close();
+
+        // Each connect is timed on its own, so arrival order follows from send time plus round trip
+        long[] sentAt = probes.sentAt;
+        long[] rtt = probes.rttNanos;
+        Integer[] order = new Integer[sent];
+        int received = 0;
+        for (int seq = 0; seq < sent; seq++) {
+            if (rtt[seq] >= 0) {
+                order[received++] = seq;
+            }
+        }
+        Arrays.sort(order, 0, received, (a, b) -> Long.compare(sentAt[a] + rtt[a], sentAt[b] + rtt[b]));
+        int[] arrivals = new int[received];
+        for (int i = 0; i < received; i++) {
+            arrivals[i] = order[i];
+        }
+        summarize(stats, sent, rtt, arrivals, received);
+    }
+
+    /**
+     * Waits for every outstanding connect. Each has its own timeout, so the last one sent bounds the wait.
+     */
+    private static void awaitReplies(CompletableFuture<?>[] replies, int sent, int timeoutMillis) {
+        if (sent == 0) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(Arrays.copyOf(replies, sent)).get(timeoutMillis * 2L + 1000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Probes without a recorded round trip are reported as lost
+        }
+    }
+
+    /**
+     * Computes loss, round-trip statistics and reordering.
+     *
+     * @param sent     The number of probes sent.
+     * @param rttNanos Round trip per probe sequence number, negative for a lost probe.
+     * @param arrivals Sequence numbers of the answered probes in the order their replies arrived;
+     *                 a reply is out of order when a probe sent after it was answered first.
+     * @param received The number of arrivals.
+     */
+    static PingStats.PingStatsBuilder summarize(PingStats.PingStatsBuilder stats, int sent, long[] rttNanos,
+                                                int[] arrivals, int received) {
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        double sum = 0;
+        double sumSquares = 0;
+        int outOfOrder = 0;
+        int highest = -1;
+        for (int i = 0; i < received; i++) {
+            int seq = arrivals[i];
+            long micros = rttNanos[seq] / 1000;
+            min = Math.min(min, micros);
+            max = Math.max(max, micros);
+            sum += micros;
+            sumSquares += (double) micros * micros;
+            if (seq < highest) {
+                outOfOrder++;
+            }
+            highest = Math.max(highest, seq);
+        }
+
+        stats.sent(sent)
+                .received(received)
+                .lossPercent(sent == 0 ? 0 : 100.0 * Math.max(0, sent - received) / sent)
+                .outOfOrder(outOfOrder);
+        if (received > 0) {
+            double avg = sum / received;
+            stats.minMicros(min)
+                    .avgMicros(avg)
+                    .maxMicros(max)
+                    .mdevMicros(Math.sqrt(Math.max(0, sumSquares / received - avg * avg)));
+        }
+        return stats;
+    }
+
+    /**
+     * Finds an executable command: a path as given, or else the first match in the PATH directories.
+     *
+     * @return The path of the executable, or null if there is none.
+     */
+    static String findExecutable(String command, String searchPath) {
+        if (command.indexOf(File.separatorChar) >= 0) {
+            return Files.isExecutable(Paths.get(command)) ? command : null;
+        }
+        if (searchPath == null) {
+            return null;
+        }
+        for (String directory : searchPath.split(File.pathSeparator)) {
+            if (directory.isEmpty()) {
+                continue;
+            }
+            Path candidate = Paths.get(directory, command);
+            if (Files.isExecutable(candidate)) {
+                return candidate.toString();
+            }
+        }
+        return null;
+    }
+
+    private static boolean sleepUntil(long deadlineNanos) {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Collects echo replies from ping's output, e.g. {@code 64 bytes from 10.0.0.1: icmp_seq=3 ttl=64 time=0.412 ms}.
+     * Sequence numbers start at 1 with iputils ({@code icmp_seq=}) and at 0 with BusyBox ({@code seq=}).
+     * Duplicate replies are ignored.
+     */
+    static final class EchoReplies {
+        final long[] rttNanos;
+        final int[] arrivals;
+        int received;
+        int transmitted = -1;
+        private final BitSet seen;
+        private int firstSeq = -1;
+
+        EchoReplies(int count) {
+            this.rttNanos = new long[count];
+            this.arrivals = new int[count];
+            this.seen = new BitSet(count);
+            Arrays.fill(rttNanos, -1);
+        }
+
+        void accept(String line) {
+            int transmittedAt = line.indexOf(" packets transmitted");
+            if (transmittedAt > 0) {
+                transmitted = parseInt(line, 0, transmittedAt);
+                return;
+            }
+            int seqAt = line.indexOf("seq=");
+            int timeAt = line.indexOf("time=");
+            if (!line.contains(" bytes from ") || seqAt < 0 || timeAt < 0 || line.contains("DUP!")) {
+                return;
+            }
+            int seq = parseInt(line, seqAt + 4, line.indexOf(' ', seqAt));
+            long rtt = parseMillisAsNanos(line, timeAt + 5);
+            if (seq < 0 || rtt < 0) {
+                return;
+            }
+            if (firstSeq < 0) {
+                firstSeq = line.contains("icmp_seq=") ? 1 : 0;
+            }
+            int probe = seq - firstSeq;
+            if (probe < 0 || probe >= rttNanos.length || seen.get(probe)) {
+                return;
+            }
+            seen.set(probe);
+            rttNanos[probe] = rtt;
+            arrivals[received++] = probe;
+        }
+
+        private static int parseInt(String text, int start, int end) {
+            while (start < end && text.charAt(start) == ' ') {
+                start++;
+            }
+            if (end < 0 || start >= end) {
+                return -1;
+            }
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9' || value > 100_000_000) {
+                    return -1;
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+
+        private static long parseMillisAsNanos(String text, int start) {
+            int end = start;
+            while (end < text.length() && (Character.isDigit(text.charAt(end)) || text.charAt(end) == '.')) {
+                end++;
+            }
+            if (end == start) {
+                return -1;
+            }
+            try {
+                return Math.round(Double.parseDouble(text.substring(start, end)) * 1_000_000);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Send times and round trips of TCP probes, written by connect completions until closed. Closing
+     * hands the arrays to the caller; completions arriving after that are dropped rather than racing its reads.
+     */
+    private static final class ConnectProbes {
+        final long[] sentAt;
+        final long[] rttNanos;
+        private boolean closed;
+
+        ConnectProbes(int count) {
+            this.sentAt = new long[count];
+            this.rttNanos = new long[count];
+            Arrays.fill(rttNanos, -1);
+        }
+
+        synchronized void sent(int seq, long nanos) {
+            sentAt[seq] = nanos;
+        }
+
+        synchronized void answered(int seq, long nanos) {
+            if (!closed) {
+                rttNanos[seq] = nanos;
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+        }
+    }
+}
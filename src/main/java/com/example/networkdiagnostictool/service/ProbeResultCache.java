@@ -0,0 +1,216 @@
+package com.example.networkdiagnostictool.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Shares the results of identical on-demand probes (same operation, host and port), so a burst of
+ * callers asking the same question while a target is struggling sends it a single probe.
+ * Concurrent callers join the probe already running; callers arriving shortly after it finished
+ * are served its result for a short TTL, up to a bounded number of keys, least recently used evicted.
+ * A caller asking for a fresh result skips the TTL cache but still joins a running probe, as that
+ * probe finishes after the request arrived.
+ */
+@Component
+public class ProbeResultCache {
+
+    /**
+     * How a result was obtained.
+     */
+    public enum Source {
+        /** Served from the cache. */
+        HIT,
+        /** Probed for this caller. */
+        MISS,
+        /** Shared from a probe another caller started. */
+        COALESCED
+    }
+
+    private final LongSupplier clock;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    // Access-ordered for LRU eviction; guarded by its own monitor
+    private final LinkedHashMap<String, Entry> cache;
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    /**
+     * Constructor for injecting the cache limits.
+     *
+     * @param meterRegistry The registry receiving the hit, miss and coalesced counters.
+     * @param ttlMillis     How long a result is served to later callers; 0 only coalesces concurrent probes.
+     * @param maxEntries    Maximum number of cached results.
+     */
+    @Autowired
+    public ProbeResultCache(MeterRegistry meterRegistry,
+                            @Value("${tcpip.cache.ttl-ms:1000}") long ttlMillis,
+                            @Value("${tcpip.cache.max-entries:10000}") int maxEntries) {
+        this(meterRegistry, System::nanoTime, ttlMillis, maxEntries);
+    }
+
+    ProbeResultCache(MeterRegistry meterRegistry, LongSupplier clock, long ttlMillis, int maxEntries) {
+        this.clock = clock;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxEntries = maxEntries;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ProbeResultCache.this.maxEntries;
+            }
+        };
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.coalesced = counter(meterRegistry, "coalesced");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("tcpip.probe.cache")
+                .description("On-demand probe requests by how their result was obtained")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the result of a probe, starting it only if no identical probe is running or recently finished.
+     *
+     * @param operation Name of the probe, e.g. {@code ping}.
+     * @param host      The probed host.
+     * @param port      The probed port, 0 if the probe has none.
+     * @param fresh     Whether to ignore cached results.
+     * @param probe     Starts the probe.
+     * @return The result, with its age and how it was obtained, once available.
+     */
+    public <T> CompletableFuture<Result<T>> get(String operation, String host, int port, boolean fresh,
+                                                Supplier<CompletableFuture<T>> probe) {
+        String key = operation + ' ' + host.toLowerCase(Locale.ROOT) + ':' + port;
+        if (!fresh) {
+            Result<T> cached = cached(key);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+
+        CompletableFuture<Entry> pending = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.thenApply(entry -> result(entry, Source.COALESCED));
+        }
+        if (!fresh) {
+            // A probe may have finished between the lookup above and claiming the key
+            Result<T> cached = cached(key);
+            if (cached != null) {
+                inFlight.remove(key, pending);
+                pending.complete(cached.entry);
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+
+        misses.increment();
+        CompletableFuture<T> started;
+        try {
+            started = probe.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, failure) -> {
+            if (failure == null) {
+                Entry entry = new Entry(value, clock.getAsLong());
+                if (ttlNanos > 0) {
+                    synchronized (cache) {
+                        cache.put(key, entry);
+                    }
+                }
+                pending.complete(entry);
+            } else {
+                pending.completeExceptionally(failure);
+            }
+            inFlight.remove(key, pending);
+        });
+        return pending.thenApply(entry -> result(entry, Source.MISS));
+    }
+
+    private <T> Result<T> cached(String key) {
+        if (ttlNanos <= 0) {
+            return null;
+        }
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(key);
+        }
+        if (entry == null || clock.getAsLong() - entry.completedAt >= ttlNanos) {
+            return null;
+        }
+        hits.increment();
+        return result(entry, Source.HIT);
+    }
+
+    private <T> Result<T> result(Entry entry, Source source) {
+        long age = Math.max(0, clock.getAsLong() - entry.completedAt);
+        return new Result<>(entry, TimeUnit.NANOSECONDS.toMillis(age), source);
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long completedAt;
+
+        private Entry(Object value, long completedAt) {
+            this.value = value;
+            this.completedAt = completedAt;
+        }
+    }
+
+    /**
+     * A probe result as seen by one caller.
+     */
+    public static final class Result<T> {
+        private final Entry entry;
+        private final long ageMillis;
+        private final Source source;
+
+        private Result(Entry entry, long ageMillis, Source source) {
+            this.entry = entry;
+            this.ageMillis = ageMillis;
+            this.source = source;
+        }
+
+        /**
+         * @return The probe result.
+         */
+        @SuppressWarnings("unchecked")
+        public T getValue() {
+            // Keys include the operation, so every entry under a key holds the same type
+            return (T) entry.value;
+        }
+
+        /**
+         * @return Time since the probe finished, in milliseconds.
+         */
+        public long getAgeMillis() {
+            return ageMillis;
+        }
+
+        /**
+         * @return Whether the result was cached, probed for this caller or shared with another.
+         */
+        public Source getSource() {
+            return source;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ProbeStatus;
+import com.example.networkdiagnostictool.model.ProbeTarget;
+import com.example.networkdiagnostictool.util.HashedTimingWheel;
+import com.example.networkdiagnostictool.util.NamedThreadFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Probes registered targets continuously and keeps their latest results in memory, so monitoring
+ * systems read results instead of triggering a probe per request.
+ * Due probes are fired by a hashed timing wheel and started on a small worker pool. TCP probes use
+ * {@link TcpIpDiagnosticService#connectAsync}, so outstanding handshakes hold no thread and tens of
+ * thousands of targets can be probed every second; pings block and run on a separate bounded pool.
+ * Each target's first probe is placed at a random point of its interval, and every later one is
+ * shifted by a small random jitter, so targets registered together do not fire together.
+ * Every result is also recorded to the {@link HistoryStore}, with the latency in microseconds, as series
+ * {@code probe/tcp/<host>:<port>} or {@code probe/ping/<host>}. Series are keyed by what is probed rather
+ * than by the registration id, so a target registered again continues its history and reuses its series id
+ * instead of adding a new series on every registration.
+ */
+@Slf4j
+@Service
+public class ProbeScheduler {
+
+    static final long MIN_INTERVAL_MILLIS = 100;
+    static final long MAX_INTERVAL_MILLIS = 3_600_000;
+    static final int MAX_TIMEOUT_MILLIS = 30_000;
+    static final int MAX_CONCURRENT = 16;
+
+    private final TcpIpDiagnosticService tcpIpDiagnosticService;
+    private final HistoryStore historyStore;
+    private final int maxTargets;
+    private final double jitter;
+    private final HashedTimingWheel wheel;
+    private final ExecutorService workers;
+    private final ExecutorService pingers;
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+    // Registered targets plus registrations in progress; a slot is reserved before the target is added
+    private final AtomicInteger targetCount = new AtomicInteger();
+
+    /**
+     * Constructor for dependency injection of the diagnostic service, the history store and the scheduler limits.
+     *
+     * @param tcpIpDiagnosticService The service performing the probes.
+     * @param historyStore           The store recording every probe result.
+     * @param maxTargets             Maximum number of registered targets.
+     * @param workerThreads          Threads starting TCP probes.
+     * @param pingThreads            Threads running blocking pings.
+     * @param queueCapacity          Due probes queued per pool before further probes are skipped.
+     * @param jitter                 Random shift of each probe as a fraction of the target's interval.
+     * @param tickMillis             Resolution of the timing wheel.
+     */
+    @Autowired
+    public ProbeScheduler(TcpIpDiagnosticService tcpIpDiagnosticService, HistoryStore historyStore,
+                          @Value("${probe.max-targets:50000}") int maxTargets,
+                          @Value("${probe.worker-threads:4}") int workerThreads,
+                          @Value("${probe.ping-threads:16}") int pingThreads,
+                          @Value("${probe.queue-capacity:65536}") int queueCapacity,
+                          @Value("${probe.jitter:0.1}") double jitter,
+                          @Value("${probe.tick-ms:10}") long tickMillis) {
+        this.tcpIpDiagnosticService = tcpIpDiagnosticService;
+        this.historyStore = historyStore;
+        this.maxTargets = maxTargets;
+        this.jitter = jitter;
+        // 512 ticks of 10 ms cover intervals of up to about 5 seconds in a single revolution
+        this.wheel = new HashedTimingWheel("probe-wheel", tickMillis, 512);
+        this.workers = pool("probe-worker", workerThreads, queueCapacity);
+        this.pingers = pool("probe-ping", pingThreads, queueCapacity);
+    }
+
+    /**
+     * Registers a target and schedules its first probe.
+     *
+     * @param request The target to probe; its id is ignored.
+     * @return The registered target, including its assigned id and applied defaults.
+     * @throws IllegalArgumentException if the target is invalid.
+     * @throws IllegalStateException    if the maximum number of targets is registered already.
+     */
+    public ProbeTarget register(ProbeTarget request) {
+        ProbeTarget target = withDefaults(request);
+        if (targetCount.incrementAndGet() > maxTargets) {
+            targetCount.decrementAndGet();
+            throw new IllegalStateException("Maximum of " + maxTargets + " probe targets reached");
+        }
+
+        try {
+            Registration registration = new Registration(target, historyStore.seriesId(seriesName(target)));
+            long intervalNanos = TimeUnit.MILLISECONDS.toNanos(target.getIntervalMillis());
+            registration.nextNanos = System.nanoTime() + (long) (ThreadLocalRandom.current().nextDouble() * intervalNanos);
+            registration.timeout = wheel.scheduleAt(() -> fire(registration), registration.nextNanos);
+            registrations.put(target.getId(), registration);
+        } catch (RuntimeException e) {
+            targetCount.decrementAndGet();
+            throw e;
+        }
+        log.debug("Registered probe target {}", target);
+        return target;
+    }
+
+    /**
+     * Stops probing a target and drops its latest results; its history is kept until it expires.
+     *
+     * @return The final status of the target, or null if no target has this id.
+     */
+    public ProbeStatus unregister(String id) {
+        Registration registration = registrations.remove(id);
+        if (registration == null) {
+            return null;
+        }
+        registration.removed = true;
+        registration.timeout.cancel();
+        targetCount.decrementAndGet();
+        return registration.status();
+    }
+
+    /**
+     * @return The latest result of a target, or null if no target has this id.
+     */
+    public ProbeStatus getStatus(String id) {
+        Registration registration = registrations.get(id);
+        return registration == null ? null : registration.status();
+    }
+
+    /**
+     * @return The latest results of all targets, ordered by host.
+     */
+    public List<ProbeStatus> getStatuses() {
+        List<ProbeStatus> statuses = registrations.values().stream()
+                .map(Registration::status)
+                .collect(Collectors.toCollection(ArrayList::new));
+        statuses.sort(Comparator.comparing((ProbeStatus status) -> status.getTarget().getHost())
+                .thenComparing(status -> status.getTarget().getId()));
+        return statuses;
+    }
+
+    /**
+     * @return The number of registered targets.
+     */
+    public int getTargetCount() {
+        return targetCount.get();
+    }
+
+    /**
+     * Validates a registration request and fills in the defaults.
+     */
+    ProbeTarget withDefaults(ProbeTarget request) {
+        if (request.getHost() == null || request.getHost().isEmpty()) {
+            throw new IllegalArgumentException("Host is required");
+        }
+        if (request.getType() == null) {
+            throw new IllegalArgumentException("Probe type must be TCP or PING");
+        }
+        if (request.getType() == ProbeTarget.Type.TCP
+                && (request.getPort() == null || request.getPort() < 1 || request.getPort() > 65535)) {
+            throw new IllegalArgumentException("Invalid port number. Must be between 1 and 65535");
+        }
+        if (request.getIntervalMillis() < MIN_INTERVAL_MILLIS || request.getIntervalMillis() > MAX_INTERVAL_MILLIS) {
+            throw new IllegalArgumentException("Invalid interval. Must be between " + MIN_INTERVAL_MILLIS
+                    + " and " + MAX_INTERVAL_MILLIS + " milliseconds");
+        }
+        if (request.getTimeoutMillis() != null
+                && (request.getTimeoutMillis() < 1 || request.getTimeoutMillis() > MAX_TIMEOUT_MILLIS)) {
+            throw new IllegalArgumentException("Invalid timeout. Must be between 1 and " + MAX_TIMEOUT_MILLIS
+                    + " milliseconds");
+        }
+        if (request.getMaxConcurrent() != null
+                && (request.getMaxConcurrent() < 1 || request.getMaxConcurrent() > MAX_CONCURRENT)) {
+            throw new IllegalArgumentException("Invalid concurrency. Must be between 1 and " + MAX_CONCURRENT);
+        }
+        return request.toBuilder()
+                .id(UUID.randomUUID().toString())
+                .port(request.getType() == ProbeTarget.Type.TCP ? request.getPort() : null)
+                .timeoutMillis(request.getTimeoutMillis() != null ? request.getTimeoutMillis()
+                        : (int) Math.min(request.getIntervalMillis(), 5000))
+                .maxConcurrent(request.getMaxConcurrent() != null ? request.getMaxConcurrent() : 1)
+                .build();
+    }
+
+    /**
+     * The history series of a target: its type, host and, for TCP, port. IPv6 hosts are bracketed
+     * so the port stays unambiguous.
+     */
+    static String seriesName(ProbeTarget target) {
+        String host = target.getHost().toLowerCase(Locale.ROOT);
+        if (host.indexOf(':') >= 0 && !host.startsWith("[")) {
+            host = "[" + host + "]";
+        }
+        return target.getType() == ProbeTarget.Type.TCP
+                ? "probe/tcp/" + host + ":" + target.getPort()
+                : "probe/ping/" + host;
+    }
+
+    /**
+     * Runs on the wheel thread when a probe is due: schedules the next probe and hands this one to a pool.
+     */
+    private void fire(Registration registration) {
+        if (registration.removed) {
+            return;
+        }
+        ProbeTarget target = registration.target;
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(target.getIntervalMillis());
+        long shift = (long) ((ThreadLocalRandom.current().nextDouble() * 2 - 1) * jitter * intervalNanos);
+        // Advance from the previous due time rather than from now, so wheel resolution does not accumulate as drift
+        registration.nextNanos += intervalNanos;
+        registration.timeout = wheel.scheduleAt(() -> fire(registration), registration.nextNanos + shift);
+
+        if (registration.inFlight.incrementAndGet() > target.getMaxConcurrent()) {
+            registration.inFlight.decrementAndGet();
+            registration.skipped.incrementAndGet();
+            return;
+        }
+        try {
+            if (target.getType() == ProbeTarget.Type.PING) {
+                pingers.execute(() -> ping(registration));
+            } else {
+                workers.execute(() -> connect(registration));
+            }
+        } catch (RejectedExecutionException e) {
+            registration.inFlight.decrementAndGet();
+            registration.skipped.incrementAndGet();
+        }
+    }
+
+    private void connect(Registration registration) {
+        ProbeTarget target = registration.target;
+        try {
+            tcpIpDiagnosticService.connectAsync(target.getHost(), target.getPort(), target.getTimeoutMillis())
+                    .whenComplete((nanos, error) -> record(registration, error == null ? nanos : -1));
+        } catch (RuntimeException e) {
+            log.debug("Probe of {} failed", target.getHost(), e);
+            record(registration, -1);
+        }
+    }
+
+    private void ping(Registration registration) {
+        ProbeTarget target = registration.target;
+        long start = System.nanoTime();
+        boolean reachable = tcpIpDiagnosticService.pingHost(target.getHost(), target.getTimeoutMillis());
+        record(registration, reachable ? System.nanoTime() - start : -1);
+    }
+
+    private void record(Registration registration, long nanos) {
+        long now = System.currentTimeMillis();
+        registration.record(now, nanos);
+        historyStore.record(registration.seriesId, now, nanos / 1_000.0, nanos < 0);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        wheel.stop();
+        workers.shutdownNow();
+        pingers.shutdownNow();
+    }
+
+    private static ExecutorService pool(String name, int threads, int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory(name), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * A registered target and its results.
+     */
+    private static final class Registration {
+        final ProbeTarget target;
+        final int seriesId;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicLong probes = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong consecutiveFailures = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        volatile Result latest;
+        volatile boolean removed;
+        volatile HashedTimingWheel.Timeout timeout;
+
+        // Wheel thread only, apart from the initial value
+        long nextNanos;
+
+        Registration(ProbeTarget target, int seriesId) {
+            this.target = target;
+            this.seriesId = seriesId;
+        }
+
+        void record(long time, long nanos) {
+            inFlight.decrementAndGet();
+            probes.incrementAndGet();
+            if (nanos < 0) {
+                failures.incrementAndGet();
+                consecutiveFailures.incrementAndGet();
+            } else {
+                consecutiveFailures.set(0);
+            }
+            latest = new Result(time, nanos);
+        }
+
+        ProbeStatus status() {
+            Result result = latest;
+            return ProbeStatus.builder()
+                    .target(target)
+                    .lastProbeTime(result == null ? null : result.time)
+                    .lastSuccess(result == null ? null : result.nanos >= 0)
+                    .lastLatencyMicros(result == null || result.nanos < 0 ? -1 : result.nanos / 1_000)
+                    .probes(probes.get())
+                    .failures(failures.get())
+                    .consecutiveFailures(consecutiveFailures.get())
+                    .skipped(skipped.get())
+                    .build();
+        }
+    }
+
+    /**
+     * The outcome of one probe.
+     */
+    private static final class Result {
+        final long time;
+        final long nanos;
+
+        Result(long time, long nanos) {
+            this.time = time;
+            this.nanos = nanos;
+        }
+    }
+}
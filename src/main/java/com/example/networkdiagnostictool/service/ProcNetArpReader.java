@@ -0,0 +1,242 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ArpEntry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Reads the Linux kernel neighbour table from {@code /proc/net/arp} without forking a process.
+ * The file is parsed in a single pass over a reused byte buffer: fields are located by offset
+ * and the numeric columns are decoded in place, so the only objects created per line are the
+ * {@link ArpEntry} and its address strings. Interface names are shared across entries.
+ * The {@link RecordVisitor} variant decodes addresses straight into primitives and creates
+ * no per-line objects at all.
+ * Instances are thread-safe; concurrent reads are serialised on the shared buffer.
+ */
+public class ProcNetArpReader {
+
+    // IP address, HW type, Flags, HW address, Mask, Device
+    private static final int FIELD_COUNT = 6;
+    private static final int FIELD_IP = 0;
+    private static final int FIELD_HW_TYPE = 1;
+    private static final int FIELD_FLAGS = 2;
+    private static final int FIELD_HW_ADDRESS = 3;
+    private static final int FIELD_DEVICE = 5;
+    private static final int MAX_SHARED_INTERFACE_NAMES = 256;
+
+    private byte[] buffer = new byte[64 * 1024];
+    private ByteBuffer view = ByteBuffer.wrap(buffer);
+    private final int[] fieldStart = new int[FIELD_COUNT];
+    private final int[] fieldEnd = new int[FIELD_COUNT];
+    private byte[][] interfaceBytes = new byte[8][];
+    private String[] interfaceNames = new String[8];
+    private int interfaceCount;
+
+    /**
+     * Reads every entry of the given ARP table file.
+     *
+     * @param path     The file in {@code /proc/net/arp} format.
+     * @param consumer Receives each parsed entry in file order.
+     * @return The number of entries passed to the consumer.
+     * @throws IOException if the file cannot be read.
+     */
+    public synchronized int read(Path path, Consumer<ArpEntry> consumer) throws IOException {
+        return readLines(path, () -> {
+            consumer.accept(new ArpEntry(
+                    latin1(FIELD_IP),
+                    latin1(FIELD_HW_ADDRESS),
+                    interfaceName(fieldStart[FIELD_DEVICE], fieldEnd[FIELD_DEVICE]),
+                    parseHex(FIELD_HW_TYPE),
+                    parseHex(FIELD_FLAGS)));
+            return true;
+        });
+    }
+
+    /**
+     * Reads every IPv4 entry of the given ARP table file as primitive values.
+     *
+     * @param path    The file in {@code /proc/net/arp} format.
+     * @param visitor Receives each parsed entry in file order.
+     * @return The number of entries passed to the visitor.
+     * @throws IOException if the file cannot be read.
+     */
+    public synchronized int read(Path path, RecordVisitor visitor) throws IOException {
+        return readLines(path, () -> {
+            long ip = parseIpv4(FIELD_IP);
+            long mac = parseMac(FIELD_HW_ADDRESS);
+            if (ip < 0 || mac < 0) {
+                return false;
+            }
+            visitor.visit((int) ip, mac, interfaceName(fieldStart[FIELD_DEVICE], fieldEnd[FIELD_DEVICE]),
+                    parseHex(FIELD_HW_TYPE), parseHex(FIELD_FLAGS));
+            return true;
+        });
+    }
+
+    private int readLines(Path path, BooleanSupplier lineHandler) throws IOException {
+        int entries = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            boolean header = true;
+            int filled = 0;
+            while (true) {
+                if (filled == buffer.length) {
+                    // A single line longer than the buffer; grow rather than fail
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    view = ByteBuffer.wrap(buffer);
+                }
+                view.limit(buffer.length).position(filled);
+                int read = channel.read(view);
+                if (read < 0) {
+                    if (filled > 0 && !header && parseLineAt(0, filled, lineHandler)) {
+                        entries++;
+                    }
+                    return entries;
+                }
+                int scanFrom = filled;
+                filled += read;
+
+                int lineStart = 0;
+                for (int i = scanFrom; i < filled; i++) {
+                    if (buffer[i] != '\n') {
+                        continue;
+                    }
+                    if (header) {
+                        header = false;
+                    } else if (parseLineAt(lineStart, i, lineHandler)) {
+                        entries++;
+                    }
+                    lineStart = i + 1;
+                }
+                // Carry the incomplete trailing line over to the start of the buffer
+                filled -= lineStart;
+                System.arraycopy(buffer, lineStart, buffer, 0, filled);
+            }
+        }
+    }
+
+    private boolean parseLineAt(int start, int end, BooleanSupplier lineHandler) {
+        int fields = 0;
+        int i = start;
+        while (fields < FIELD_COUNT) {
+            while (i < end && isBlank(buffer[i])) {
+                i++;
+            }
+            if (i >= end) {
+                break;
+            }
+            fieldStart[fields] = i;
+            while (i < end && !isBlank(buffer[i])) {
+                i++;
+            }
+            fieldEnd[fields++] = i;
+        }
+        return fields == FIELD_COUNT && lineHandler.getAsBoolean();
+    }
+
+    private String latin1(int field) {
+        return new String(buffer, fieldStart[field], fieldEnd[field] - fieldStart[field], StandardCharsets.ISO_8859_1);
+    }
+
+    private int parseHex(int field) {
+        int i = fieldStart[field];
+        int end = fieldEnd[field];
+        if (end - i > 2 && buffer[i] == '0' && (buffer[i + 1] == 'x' || buffer[i + 1] == 'X')) {
+            i += 2;
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            value = (value << 4) | Character.digit(buffer[i], 16);
+        }
+        return value;
+    }
+
+    private long parseIpv4(int field) {
+        long address = 0;
+        int octets = 0;
+        int value = -1;
+        for (int i = fieldStart[field]; i < fieldEnd[field]; i++) {
+            byte b = buffer[i];
+            if (b >= '0' && b <= '9') {
+                value = value < 0 ? b - '0' : value * 10 + (b - '0');
+                if (value > 255) {
+                    return -1;
+                }
+            } else if (b == '.' && value >= 0 && octets < 3) {
+                address = (address << 8) | value;
+                octets++;
+                value = -1;
+            } else {
+                return -1;
+            }
+        }
+        return value < 0 || octets != 3 ? -1 : (address << 8) | value;
+    }
+
+    private long parseMac(int field) {
+        int start = fieldStart[field];
+        if (fieldEnd[field] - start != 17) {
+            return -1;
+        }
+        long mac = 0;
+        for (int octet = 0; octet < 6; octet++) {
+            int high = Character.digit(buffer[start + octet * 3], 16);
+            int low = Character.digit(buffer[start + octet * 3 + 1], 16);
+            if (high < 0 || low < 0) {
+                return -1;
+            }
+            mac = (mac << 8) | (high << 4) | low;
+        }
+        return mac;
+    }
+
+    /**
+     * Returns a shared String for the device name at the given offsets.
+     * Neighbour tables have many entries but few interfaces, so names are looked up
+     * by their bytes instead of allocating a new String for every line.
+     */
+    private String interfaceName(int start, int end) {
+        int length = end - start;
+        for (int n = 0; n < interfaceCount; n++) {
+            byte[] candidate = interfaceBytes[n];
+            if (Arrays.equals(candidate, 0, candidate.length, buffer, start, end)) {
+                return interfaceNames[n];
+            }
+        }
+        String name = new String(buffer, start, length, StandardCharsets.ISO_8859_1);
+        if (interfaceCount < MAX_SHARED_INTERFACE_NAMES) {
+            if (interfaceCount == interfaceNames.length) {
+                interfaceBytes = Arrays.copyOf(interfaceBytes, interfaceCount * 2);
+                interfaceNames = Arrays.copyOf(interfaceNames, interfaceCount * 2);
+            }
+            interfaceBytes[interfaceCount] = Arrays.copyOfRange(buffer, start, end);
+            interfaceNames[interfaceCount++] = name;
+        }
+        return name;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Receives one ARP entry decoded into primitives.
+     */
+    public interface RecordVisitor {
+        /**
+         * @param ip            The IPv4 address as an unsigned 32-bit value.
+         * @param mac           The hardware address as a 48-bit value.
+         * @param interfaceName The shared name of the interface.
+         * @param hwType        The ARP hardware type.
+         * @param flags         The ARP flags.
+         */
+        void visit(int ip, long mac, String interfaceName, int hwType, int flags);
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.networkdiagnostictool.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads the per-interface counters of {@code /proc/net/dev}, which holds every interface in one
+ * file, so one read covers hosts with hundreds of interfaces. The file is parsed in a single pass
+ * over a reused byte buffer, counters are decoded into a reused array, and interface names are
+ * looked up by their bytes in a hash table, so a read of an unchanged set of interfaces allocates
+ * nothing. Instances are thread-safe; concurrent reads are serialised on the shared buffer.
+ */
+public class ProcNetDevReader {
+
+    /** Number of counters per interface, in file order. */
+    public static final int COUNTERS = 16;
+    public static final int RX_BYTES = 0;
+    public static final int RX_PACKETS = 1;
+    public static final int RX_ERRORS = 2;
+    public static final int RX_DROPPED = 3;
+    public static final int TX_BYTES = 8;
+    public static final int TX_PACKETS = 9;
+    public static final int TX_ERRORS = 10;
+    public static final int TX_DROPPED = 11;
+
+    private static final int HEADER_LINES = 2;
+    private static final int MAX_SHARED_NAMES = 16_384;
+
+    private byte[] buffer = new byte[64 * 1024];
+    private ByteBuffer view = ByteBuffer.wrap(buffer);
+    private final long[] counters = new long[COUNTERS];
+
+    // Open-addressing table of interface names keyed by their bytes
+    private byte[][] nameBytes = new byte[64][];
+    private String[] names = new String[64];
+    private int nameCount;
+
+    /**
+     * Reads the counters of every interface.
+     *
+     * @param path    The file in {@code /proc/net/dev} format.
+     * @param visitor Receives each interface in file order.
+     * @return The number of interfaces passed to the visitor.
+     * @throws IOException if the file cannot be read.
+     */
+    public synchronized int read(Path path, CounterVisitor visitor) throws IOException {
+        int interfaces = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            int headers = HEADER_LINES;
+            int filled = 0;
+            while (true) {
+                if (filled == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    view = ByteBuffer.wrap(buffer);
+                }
+                view.limit(buffer.length).position(filled);
+                int read = channel.read(view);
+                if (read < 0) {
+                    if (filled > 0 && headers == 0 && parseLine(0, filled, visitor)) {
+                        interfaces++;
+                    }
+                    return interfaces;
+                }
+                int scanFrom = filled;
+                filled += read;
+
+                int lineStart = 0;
+                for (int i = scanFrom; i < filled; i++) {
+                    if (buffer[i] != '\n') {
+                        continue;
+                    }
+                    if (headers > 0) {
+                        headers--;
+                    } else if (parseLine(lineStart, i, visitor)) {
+                        interfaces++;
+                    }
+                    lineStart = i + 1;
+                }
+                filled -= lineStart;
+                System.arraycopy(buffer, lineStart, buffer, 0, filled);
+            }
+        }
+    }
+
+    /**
+     * Parses {@code <name>: <16 counters>}; older kernels put no blank between the colon and the first counter.
+     */
+    private boolean parseLine(int start, int end, CounterVisitor visitor) {
+        int i = start;
+        while (i < end && buffer[i] == ' ') {
+            i++;
+        }
+        int nameStart = i;
+        while (i < end && buffer[i] != ':') {
+            i++;
+        }
+        if (i >= end || i == nameStart) {
+            return false;
+        }
+        int nameEnd = i++;
+        for (int counter = 0; counter < COUNTERS; counter++) {
+            while (i < end && isBlank(buffer[i])) {
+                i++;
+            }
+            if (i >= end) {
+                return false;
+            }
+            long value = 0;
+            while (i < end && !isBlank(buffer[i])) {
+                int digit = buffer[i++] - '0';
+                if (digit < 0 || digit > 9) {
+                    return false;
+                }
+                value = value * 10 + digit;
+            }
+            counters[counter] = value;
+        }
+        visitor.visit(name(nameStart, nameEnd), counters);
+        return true;
+    }
+
+    /**
+     * Returns a shared String for the interface name at the given offsets.
+     */
+    private String name(int start, int end) {
+        int mask = names.length - 1;
+        int slot = hash(start, end) & mask;
+        while (nameBytes[slot] != null) {
+            byte[] candidate = nameBytes[slot];
+            if (Arrays.equals(candidate, 0, candidate.length, buffer, start, end)) {
+                return names[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        String name = new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+        if (nameCount >= MAX_SHARED_NAMES) {
+            // Interfaces churned far beyond any live set; stop remembering rather than grow without bound
+            return name;
+        }
+        nameBytes[slot] = Arrays.copyOfRange(buffer, start, end);
+        names[slot] = name;
+        if (++nameCount * 2 > names.length) {
+            rehash();
+        }
+        return name;
+    }
+
+    private void rehash() {
+        byte[][] oldBytes = nameBytes;
+        String[] oldNames = names;
+        nameBytes = new byte[oldBytes.length * 2][];
+        names = new String[oldNames.length * 2];
+        int mask = names.length - 1;
+        for (int n = 0; n < oldBytes.length; n++) {
+            if (oldBytes[n] == null) {
+                continue;
+            }
+            int slot = hash(oldBytes[n], 0, oldBytes[n].length) & mask;
+            while (nameBytes[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            nameBytes[slot] = oldBytes[n];
+            names[slot] = oldNames[n];
+        }
+    }
+
+    private int hash(int start, int end) {
+        return hash(buffer, start, end);
+    }
+
+    private static int hash(byte[] bytes, int start, int end) {
+        int h = 1;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + bytes[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Receives the counters of one interface.
+     */
+    public interface CounterVisitor {
+        /**
+         * @param name     The shared name of the interface.
+         * @param counters The counters in file order, indexed by the constants of {@link ProcNetDevReader};
+         *                 the array is reused for the next interface.
+         */
+        void visit(String name, long[] counters);
+    }
+}
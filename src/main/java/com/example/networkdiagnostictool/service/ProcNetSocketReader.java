@@ -0,0 +1,283 @@
+package com.example.networkdiagnostictool.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads the kernel socket tables {@code /proc/net/tcp}, {@code tcp6}, {@code udp} and {@code udp6}
+ * in a single pass over a reused byte buffer. Each line is decoded from hex straight into the
+ * primitive fields of one reused {@link SocketRecord}, so reading a table allocates nothing per
+ * socket, however many there are. Addresses are held as 128-bit values, IPv4 in its IPv4-mapped
+ * IPv6 form, so sockets of both families can be counted under a single key type.
+ * Instances are not thread-safe.
+ */
+public class ProcNetSocketReader {
+
+    public static final int PROTOCOL_TCP = 0;
+    public static final int PROTOCOL_UDP = 1;
+
+    // sl, local_address, rem_address, st, tx_queue:rx_queue, tr:tm->when, retrnsmt, uid, timeout, inode
+    private static final int FIELD_COUNT = 10;
+    private static final int FIELD_LOCAL = 1;
+    private static final int FIELD_REMOTE = 2;
+    private static final int FIELD_STATE = 3;
+    private static final int FIELD_QUEUES = 4;
+    private static final int FIELD_UID = 7;
+    private static final int FIELD_INODE = 9;
+
+    // The kernel prints each 32-bit address word as a native integer
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+    private static final long IPV4_MAPPED = 0xFFFFL << 32;
+
+    private byte[] buffer = new byte[256 * 1024];
+    private ByteBuffer view = ByteBuffer.wrap(buffer);
+    private final int[] fieldStart = new int[FIELD_COUNT];
+    private final int[] fieldEnd = new int[FIELD_COUNT];
+    private final SocketRecord record = new SocketRecord();
+
+    /**
+     * Reads every socket of one table.
+     *
+     * @param path     The table, e.g. {@code /proc/net/tcp6}.
+     * @param protocol {@link #PROTOCOL_TCP} or {@link #PROTOCOL_UDP}.
+     * @param visitor  Receives each socket in file order, as the same record instance.
+     * @return The number of sockets passed to the visitor.
+     * @throws IOException if the table cannot be read.
+     */
+    public int read(Path path, int protocol, SocketVisitor visitor) throws IOException {
+        record.protocol = protocol;
+        int sockets = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            boolean header = true;
+            int filled = 0;
+            while (true) {
+                if (filled == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    view = ByteBuffer.wrap(buffer);
+                }
+                view.limit(buffer.length).position(filled);
+                int read = channel.read(view);
+                if (read < 0) {
+                    if (filled > 0 && !header && parseLine(0, filled, visitor)) {
+                        sockets++;
+                    }
+                    return sockets;
+                }
+                int scanFrom = filled;
+                filled += read;
+
+                int lineStart = 0;
+                for (int i = scanFrom; i < filled; i++) {
+                    if (buffer[i] != '\n') {
+                        continue;
+                    }
+                    if (header) {
+                        header = false;
+                    } else if (parseLine(lineStart, i, visitor)) {
+                        sockets++;
+                    }
+                    lineStart = i + 1;
+                }
+                filled -= lineStart;
+                System.arraycopy(buffer, lineStart, buffer, 0, filled);
+            }
+        }
+    }
+
+    private boolean parseLine(int start, int end, SocketVisitor visitor) {
+        int fields = 0;
+        int i = start;
+        while (fields < FIELD_COUNT) {
+            while (i < end && isBlank(buffer[i])) {
+                i++;
+            }
+            if (i >= end) {
+                return false;
+            }
+            fieldStart[fields] = i;
+            while (i < end && !isBlank(buffer[i])) {
+                i++;
+            }
+            fieldEnd[fields++] = i;
+        }
+        if (!parseEndpoint(FIELD_LOCAL, false) || !parseEndpoint(FIELD_REMOTE, true)) {
+            return false;
+        }
+        record.state = (int) hex(fieldStart[FIELD_STATE], fieldEnd[FIELD_STATE]);
+        int colon = indexOf(':', fieldStart[FIELD_QUEUES], fieldEnd[FIELD_QUEUES]);
+        if (colon < 0) {
+            return false;
+        }
+        record.txQueue = hex(fieldStart[FIELD_QUEUES], colon);
+        record.rxQueue = hex(colon + 1, fieldEnd[FIELD_QUEUES]);
+        record.uid = (int) decimal(fieldStart[FIELD_UID], fieldEnd[FIELD_UID]);
+        record.inode = decimal(fieldStart[FIELD_INODE], fieldEnd[FIELD_INODE]);
+        visitor.visit(record);
+        return true;
+    }
+
+    /**
+     * Decodes {@code <address>:<port>}, with an 8-digit IPv4 or 32-digit IPv6 address.
+     */
+    private boolean parseEndpoint(int field, boolean remote) {
+        int start = fieldStart[field];
+        int colon = indexOf(':', start, fieldEnd[field]);
+        long high;
+        long low;
+        if (colon - start == 8) {
+            high = 0;
+            low = IPV4_MAPPED | (word(start) & 0xFFFFFFFFL);
+        } else if (colon - start == 32) {
+            high = (word(start) << 32) | (word(start + 8) & 0xFFFFFFFFL);
+            low = (word(start + 16) << 32) | (word(start + 24) & 0xFFFFFFFFL);
+        } else {
+            return false;
+        }
+        int port = (int) hex(colon + 1, fieldEnd[field]);
+        if (remote) {
+            record.remoteHigh = high;
+            record.remoteLow = low;
+            record.remotePort = port;
+        } else {
+            record.localHigh = high;
+            record.localLow = low;
+            record.localPort = port;
+        }
+        return true;
+    }
+
+    /**
+     * Decodes one 8-digit address word into network byte order.
+     */
+    private long word(int start) {
+        int value = (int) hex(start, start + 8);
+        return LITTLE_ENDIAN ? Integer.reverseBytes(value) : value;
+    }
+
+    private long hex(int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = (value << 4) | Character.digit(buffer[i], 16);
+        }
+        return value;
+    }
+
+    private long decimal(int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (buffer[i] - '0');
+        }
+        return value;
+    }
+
+    private int indexOf(char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Whether an address is an IPv4 address held in its IPv4-mapped form.
+     */
+    public static boolean isIpv4(long high, long low) {
+        return high == 0 && (low & 0xFFFFFFFF00000000L) == IPV4_MAPPED;
+    }
+
+    /**
+     * Converts an IPv4 address to the 128-bit form used by the records.
+     */
+    public static long ipv4Low(int address) {
+        return IPV4_MAPPED | (address & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Receives one socket.
+     */
+    public interface SocketVisitor {
+        /**
+         * @param record The socket; the instance is reused for the next socket.
+         */
+        void visit(SocketRecord record);
+    }
+
+    /**
+     * One line of a socket table, decoded into primitives.
+     */
+    public static final class SocketRecord {
+        int protocol;
+        long localHigh;
+        long localLow;
+        int localPort;
+        long remoteHigh;
+        long remoteLow;
+        int remotePort;
+        int state;
+        long txQueue;
+        long rxQueue;
+        int uid;
+        long inode;
+
+        public int getProtocol() {
+            return protocol;
+        }
+
+        public long getLocalHigh() {
+            return localHigh;
+        }
+
+        public long getLocalLow() {
+            return localLow;
+        }
+
+        public int getLocalPort() {
+            return localPort;
+        }
+
+        public long getRemoteHigh() {
+            return remoteHigh;
+        }
+
+        public long getRemoteLow() {
+            return remoteLow;
+        }
+
+        public int getRemotePort() {
+            return remotePort;
+        }
+
+        /**
+         * @return The kernel socket state, e.g. 1 for ESTABLISHED or 10 for LISTEN.
+         */
+        public int getState() {
+            return state;
+        }
+
+        public long getTxQueue() {
+            return txQueue;
+        }
+
+        public long getRxQueue() {
+            return rxQueue;
+        }
+
+        public int getUid() {
+            return uid;
+        }
+
+        public long getInode() {
+            return inode;
+        }
+    }
+}
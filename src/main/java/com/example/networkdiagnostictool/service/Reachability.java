@@ -0,0 +1,13 @@
+package com.example.networkdiagnostictool.service;
+
+import java.io.IOException;
+import java.net.InetAddress;
+
+/**
+ * Tells whether an address answers within a timeout; {@link InetAddress#isReachable(int)} in production,
+ * which sends ICMP echo requests when the process may open raw sockets and tries a TCP connect to the
+ * echo port otherwise.
+ */
+interface Reachability {
+    boolean isReachable(InetAddress address, int timeoutMillis) throws IOException;
+}
@@ -1,8 +1,17 @@
 package com.example.networkdiagnostictool.service;
 
+import com.example.networkdiagnostictool.model.LatencyStats;
+import com.example.networkdiagnostictool.model.PortScanResult;
+import com.example.networkdiagnostictool.util.LatencyHistogram;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service class for performing TCP/IP related diagnostic operations.
@@ -12,6 +21,38 @@ import java.net.*;
 @Service
 public class TcpIpDiagnosticService {
 
+    private final NioPortScanner portScanner;
+    private final AsyncConnector asyncConnector;
+    private final HostResolver hostResolver;
+    private final Counter pingTimeouts;
+    private final Counter connectTimeouts;
+    private final int scanTimeoutMillis;
+    private final int scanMaxInFlight;
+
+    /**
+     * Constructor for dependency injection of the port scanner, the connector, the resolver and the scan limits.
+     *
+     * @param portScanner       The non-blocking scanner used for multi-port scans.
+     * @param asyncConnector    The shared selector driving asynchronous connect probes.
+     * @param hostResolver      The shared resolver for host names.
+     * @param meterRegistry     The registry receiving the timeout counters.
+     * @param scanTimeoutMillis Default per-port connect deadline for scans.
+     * @param scanMaxInFlight   Upper bound on concurrently outstanding connects per scan.
+     */
+    @Autowired
+    public TcpIpDiagnosticService(NioPortScanner portScanner, AsyncConnector asyncConnector, HostResolver hostResolver,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${tcpip.scan.timeout-ms:2000}") int scanTimeoutMillis,
+                                  @Value("${tcpip.scan.max-in-flight:256}") int scanMaxInFlight) {
+        this.portScanner = portScanner;
+        this.asyncConnector = asyncConnector;
+        this.hostResolver = hostResolver;
+        this.pingTimeouts = timeoutCounter(meterRegistry, "ping");
+        this.connectTimeouts = timeoutCounter(meterRegistry, "connect");
+        this.scanTimeoutMillis = scanTimeoutMillis;
+        this.scanMaxInFlight = scanMaxInFlight;
+    }
+
     /**
      * Attempts to ping the specified host.
      *
@@ -19,12 +60,26 @@ public class TcpIpDiagnosticService {
      * @return true if the host is reachable, false otherwise.
      */
     public boolean pingHost(String host) {
+        return pingHost(host, 5000); // 5 seconds timeout
+    }
+
+    /**
+     * Attempts to ping the specified host within the given timeout.
+     *
+     * @param host          The hostname or IP address to ping.
+     * @param timeoutMillis How long to wait for an answer.
+     * @return true if the host is reachable, false otherwise.
+     */
+    public boolean pingHost(String host, int timeoutMillis) {
         try {
             // Resolve the host to an IP address
-            InetAddress address = InetAddress.getByName(host);
+            InetAddress address = hostResolver.resolve(host);
 
-            // Attempt to reach the host with a 5-second timeout
-            return address.isReachable(5000); // 5 seconds timeout
+            boolean reachable = address.isReachable(timeoutMillis);
+            if (!reachable) {
+                pingTimeouts.increment();
+            }
+            return reachable;
         } catch (IOException e) {
             // If an exception occurs (e.g., unknown host), consider it unreachable
             return false;
@@ -41,10 +96,13 @@ public class TcpIpDiagnosticService {
     public int checkPort(String host, int port) {
         try (Socket socket = new Socket()) {
             // Attempt to connect to the specified host and port
-            socket.connect(new InetSocketAddress(host, port), 5000); // 5 seconds timeout
+            socket.connect(new InetSocketAddress(hostResolver.resolve(host), port), 5000); // 5 seconds timeout
 
             // If connection is successful, return the port number
             return socket.getPort();
+        } catch (SocketTimeoutException e) {
+            connectTimeouts.increment();
+            return -1;
         } catch (IOException e) {
             // If an exception occurs (e.g., connection refused), consider the port closed
             return -1; // Port is not open
@@ -66,4 +124,161 @@ public class TcpIpDiagnosticService {
         }
         return -1; // Unable to connect
     }
-}
\ No newline at end of file
+
+    /**
+     * Measures TCP connect latency to a host and port over a series of probes.
+     * The host is resolved once up front and only the handshake itself is timed.
+     *
+     * @param host           The hostname or IP address to measure latency to.
+     * @param port           The port number to connect to.
+     * @param samples        The number of probes to send.
+     * @param intervalMillis The spacing between the start of consecutive probes.
+     * @return Latency percentiles, jitter and failure count over all probes.
+     * @throws IllegalArgumentException if the host cannot be resolved.
+     */
+    public LatencyStats measureLatency(String host, int port, int samples, long intervalMillis) {
+        InetSocketAddress target;
+        try {
+            target = new InetSocketAddress(hostResolver.resolve(host), port);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Unable to resolve host: " + host);
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        int failures = 0;
+        long previous = -1;
+        long jitterSum = 0;
+        long intervalNanos = intervalMillis * 1_000_000L;
+        long nextProbe = System.nanoTime();
+
+        for (int i = 0; i < samples; i++) {
+            long sample = connectNanos(target);
+            if (sample < 0) {
+                failures++;
+            } else {
+                histogram.record(sample);
+                if (previous >= 0) {
+                    jitterSum += Math.abs(sample - previous);
+                }
+                previous = sample;
+            }
+
+            nextProbe += intervalNanos;
+            if (i + 1 < samples && !sleepUntil(nextProbe)) {
+                // Interrupted: report what has been collected so far
+                samples = i + 1;
+                break;
+            }
+        }
+
+        long successes = histogram.getTotalCount();
+        return LatencyStats.builder()
+                .host(host)
+                .address(target.getAddress().getHostAddress())
+                .port(port)
+                .samples(samples)
+                .failures(failures)
+                .minMicros(histogram.getMin() / 1_000)
+                .p50Micros(histogram.getValueAtPercentile(50) / 1_000)
+                .p90Micros(histogram.getValueAtPercentile(90) / 1_000)
+                .p99Micros(histogram.getValueAtPercentile(99) / 1_000)
+                .maxMicros(histogram.getMax() / 1_000)
+                .meanMicros(histogram.getMean() / 1_000.0)
+                .jitterMicros(successes > 1 ? jitterSum / (successes - 1) / 1_000.0 : 0)
+                .build();
+    }
+
+    /**
+     * Times a single TCP handshake to an already resolved address.
+     *
+     * @return The handshake duration in nanoseconds, or -1 if the connection failed.
+     */
+    private long connectNanos(InetSocketAddress target) {
+        try (Socket socket = new Socket()) {
+            long start = System.nanoTime();
+            socket.connect(target, 5000); // 5 seconds timeout
+            return System.nanoTime() - start;
+        } catch (SocketTimeoutException e) {
+            connectTimeouts.increment();
+            return -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Times a single TCP handshake without blocking the calling thread. The connect is driven by the
+     * shared {@link AsyncConnector}, so callers can keep any number of probes outstanding.
+     *
+     * @param host          The hostname or IP address to connect to.
+     * @param port          The port number to connect to.
+     * @param timeoutMillis The handshake deadline.
+     * @return The handshake duration in nanoseconds, or -1 if the host did not resolve or the connection failed.
+     * The future completes on the connector's selector thread; dependent stages must not block.
+     */
+    public CompletableFuture<Long> connectAsync(String host, int port, int timeoutMillis) {
+        InetSocketAddress target;
+        try {
+            target = new InetSocketAddress(hostResolver.resolve(host), port);
+        } catch (UnknownHostException e) {
+            return CompletableFuture.completedFuture(-1L);
+        }
+        return asyncConnector.connect(target, timeoutMillis).handle((nanos, error) -> {
+            if (error == null) {
+                return nanos;
+            }
+            if (error instanceof SocketTimeoutException) {
+                connectTimeouts.increment();
+            }
+            return -1L;
+        });
+    }
+
+    private static Counter timeoutCounter(MeterRegistry registry, String operation) {
+        return Counter.builder("tcpip.timeouts")
+                .description("Probes that got no answer within their timeout")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private static boolean sleepUntil(long deadlineNanos) {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Scans a set of ports on the given host, driving all connects concurrently.
+     *
+     * @param host          The hostname or IP address to scan.
+     * @param ports         The ports to probe.
+     * @param timeoutMillis Per-port connect deadline, or null for the configured default.
+     * @param concurrency   Maximum number of in-flight connects, or null for the configured maximum.
+     * @return The open/closed/filtered state of every requested port.
+     * @throws IllegalArgumentException if the host cannot be resolved.
+     */
+    public PortScanResult scanPorts(String host, int[] ports, Integer timeoutMillis, Integer concurrency) {
+        InetAddress address;
+        try {
+            address = hostResolver.resolve(host);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Unable to resolve host: " + host);
+        }
+
+        long timeout = timeoutMillis != null ? timeoutMillis : scanTimeoutMillis;
+        int inFlight = concurrency != null ? Math.min(concurrency, scanMaxInFlight) : scanMaxInFlight;
+        try {
+            return portScanner.scan(host, address, ports, timeout, inFlight);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Port scan of " + host + " failed", e);
+        }
+    }
+}
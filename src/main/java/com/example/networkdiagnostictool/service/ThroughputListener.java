@@ -0,0 +1,172 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.util.NamedThreadFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The remote end of throughput tests: a TCP listener that, depending on the request a client sends
+ * when it connects, either discards everything it receives (sink) or sends payload data until the
+ * client disconnects (source). When a sink's client finishes sending, the sink answers with the
+ * number of bytes it received, which the client reports as goodput.
+ * <p>
+ * The listener only runs when {@code throughput.listener.enabled} is set, and serves a bounded
+ * number of streams at once; further connections are closed right away.
+ */
+@Slf4j
+@Component
+public class ThroughputListener {
+
+    private final ThroughputPayload payload;
+    private final long maxStreamNanos;
+    private ServerSocketChannel server;
+    private ExecutorService handlers;
+    private Thread acceptor;
+
+    /**
+     * Constructor for injecting the listener settings.
+     *
+     * @param payload             The data sent by source streams.
+     * @param enabled             Whether to listen at all.
+     * @param port                The port to listen on; 0 picks a free port.
+     * @param maxStreams          Streams served at once.
+     * @param maxStreamMillis     Upper bound on the length of a single stream.
+     */
+    @Autowired
+    public ThroughputListener(ThroughputPayload payload,
+                              @Value("${throughput.listener.enabled:false}") boolean enabled,
+                              @Value("${throughput.listener.port:5201}") int port,
+                              @Value("${throughput.listener.max-streams:16}") int maxStreams,
+                              @Value("${throughput.listener.max-stream-ms:120000}") long maxStreamMillis) {
+        this.payload = payload;
+        this.maxStreamNanos = TimeUnit.MILLISECONDS.toNanos(maxStreamMillis);
+        if (!enabled) {
+            return;
+        }
+        try {
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(port), 64);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open throughput listener on port " + port, e);
+        }
+        handlers = new ThreadPoolExecutor(0, maxStreams, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                new NamedThreadFactory("throughput-stream"));
+        acceptor = new NamedThreadFactory("throughput-listener").newThread(this::accept);
+        acceptor.start();
+        log.info("Throughput listener on port {}", getPort());
+    }
+
+    /**
+     * @return The port the listener is bound to, or -1 if it is disabled.
+     */
+    public int getPort() {
+        if (server == null) {
+            return -1;
+        }
+        try {
+            return ((InetSocketAddress) server.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private void accept() {
+        while (server.isOpen()) {
+            SocketChannel client;
+            try {
+                client = server.accept();
+            } catch (AsynchronousCloseException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("Throughput listener failed to accept", e);
+                continue;
+            }
+            try {
+                handlers.execute(() -> serve(client));
+            } catch (RejectedExecutionException e) {
+                log.debug("Throughput listener busy, closing {}", client);
+                closeQuietly(client);
+            }
+        }
+    }
+
+    private void serve(SocketChannel client) {
+        try (client) {
+            ByteBuffer header = ByteBuffer.allocate(ThroughputPayload.HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (client.read(header) < 0) {
+                    return;
+                }
+            }
+            if (header.getInt(0) != ThroughputPayload.PROTOCOL_MAGIC) {
+                return;
+            }
+            if (header.get(4) == ThroughputPayload.MODE_SOURCE) {
+                source(client);
+            } else {
+                sink(client);
+            }
+        } catch (IOException e) {
+            // The client disconnecting ends a source stream
+            log.debug("Throughput stream ended: {}", e.getMessage());
+        }
+    }
+
+    private void sink(SocketChannel client) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+        long received = 0;
+        long deadline = System.nanoTime() + maxStreamNanos;
+        int read;
+        while ((read = client.read(buffer)) >= 0 && System.nanoTime() < deadline) {
+            received += read;
+            buffer.clear();
+        }
+        ByteBuffer total = ByteBuffer.allocate(8);
+        total.putLong(received).flip();
+        while (total.hasRemaining()) {
+            client.write(total);
+        }
+    }
+
+    private void source(SocketChannel client) throws IOException {
+        long sent = 0;
+        long deadline = System.nanoTime() + maxStreamNanos;
+        while (System.nanoTime() < deadline) {
+            sent += payload.transferTo(client, sent, Long.MAX_VALUE);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (server == null) {
+            return;
+        }
+        closeQuietly(server);
+        handlers.shutdownNow();
+    }
+
+    private static void closeQuietly(Channel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Error closing throughput channel", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.networkdiagnostictool.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * The data sent by throughput tests: a temporary file of random bytes, streamed to sockets with
+ * {@link FileChannel#transferTo}, so the kernel copies it from the page cache to the socket without
+ * passing through the JVM heap. Random content keeps compressing links from inflating the result.
+ * Positional transfers do not share state, so one payload serves any number of streams.
+ */
+@Slf4j
+@Component
+public class ThroughputPayload {
+
+    static final int PROTOCOL_MAGIC = 0x4E445450; // "NDTP"
+    static final byte MODE_SINK = 0;
+    static final byte MODE_SOURCE = 1;
+    static final int HEADER_SIZE = 8;
+
+    private static final int SIZE = 8 * 1024 * 1024;
+    private static final long MAX_TRANSFER = 1024 * 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+
+    public ThroughputPayload() {
+        try {
+            this.file = Files.createTempFile("throughput", ".dat");
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            byte[] chunk = new byte[64 * 1024];
+            Random random = new Random();
+            for (int written = 0; written < SIZE; written += chunk.length) {
+                random.nextBytes(chunk);
+                ByteBuffer buffer = ByteBuffer.wrap(chunk);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create throughput payload", e);
+        }
+    }
+
+    /**
+     * Sends up to one transfer of payload data, wrapping around the end of the file.
+     *
+     * @param target    The socket to send to.
+     * @param position  Running count of bytes sent on this socket, used as the file offset.
+     * @param remaining Upper bound on the bytes to send.
+     * @return The number of bytes sent.
+     */
+    long transferTo(WritableByteChannel target, long position, long remaining) throws IOException {
+        long offset = position % SIZE;
+        long count = Math.min(Math.min(MAX_TRANSFER, SIZE - offset), remaining);
+        return channel.transferTo(offset, count, target);
+    }
+
+    /**
+     * Encodes the request a client sends when it connects to the listener.
+     */
+    static ByteBuffer header(byte mode) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(PROTOCOL_MAGIC).put(mode).put((byte) 0).putShort((short) 0).flip();
+        return header;
+    }
+
+    @PreDestroy
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Error deleting throughput payload {}", file, e);
+        }
+    }
+}
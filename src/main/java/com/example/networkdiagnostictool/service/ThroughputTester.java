@@ -0,0 +1,368 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ThroughputResult;
+import com.example.networkdiagnostictool.model.ThroughputSample;
+import com.example.networkdiagnostictool.util.NamedThreadFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures TCP throughput to a {@link ThroughputListener}, usually on another instance of this tool.
+ * Uploads send payload data with {@link java.nio.channels.FileChannel#transferTo}, downloads read into a direct buffer,
+ * so no data is copied through the heap. Each stream runs on its own thread over its own connection;
+ * the calling thread samples the combined byte count at a fixed interval and ends the test once the
+ * duration or byte limit is reached. Uploaded data still buffered in the sockets when the test ends
+ * is only confirmed once the listener has read it, so streams get as long as that takes at the
+ * measured rate; a stream stuck in a blocking call past that is closed. Goodput is rated over the
+ * time until the last stream's bytes were confirmed.
+ */
+@Slf4j
+@Service
+public class ThroughputTester {
+
+    private final ThroughputPayload payload;
+    private final HostResolver hostResolver;
+    private final Semaphore tests;
+    private final long minCloseGraceMillis;
+    private final long maxCloseGraceMillis;
+    private final ExecutorService streams = Executors.newCachedThreadPool(new NamedThreadFactory("throughput-client"));
+
+    /**
+     * Constructor for dependency injection of the payload, the resolver and the test limits.
+     *
+     * @param payload             The data sent by uploads.
+     * @param hostResolver        The shared resolver for host names.
+     * @param maxConcurrent       Tests allowed to run at once; each saturates a path, so this is kept small.
+     * @param minCloseGraceMillis Time streams get to finish after the test on top of draining their buffers.
+     * @param maxCloseGraceMillis Longest time streams get to finish after the test, however slow the path.
+     */
+    @Autowired
+    public ThroughputTester(ThroughputPayload payload, HostResolver hostResolver,
+                            @Value("${throughput.max-concurrent-tests:1}") int maxConcurrent,
+                            @Value("${throughput.close-grace-ms:2000}") long minCloseGraceMillis,
+                            @Value("${throughput.max-close-grace-ms:50000}") long maxCloseGraceMillis) {
+        this.payload = payload;
+        this.hostResolver = hostResolver;
+        this.tests = new Semaphore(maxConcurrent);
+        this.minCloseGraceMillis = minCloseGraceMillis;
+        this.maxCloseGraceMillis = maxCloseGraceMillis;
+    }
+
+    /**
+     * Runs a throughput test.
+     *
+     * @param host           The host running the throughput listener.
+     * @param port           The listener port.
+     * @param direction      Whether to send to or receive from the listener.
+     * @param durationMillis How long to transfer.
+     * @param maxBytes       Optional total number of bytes after which the test ends early.
+     * @param streamCount    Number of parallel connections.
+     * @param intervalMillis Sampling interval.
+     * @return The goodput over the whole test and per interval.
+     * @throws IllegalArgumentException if the host cannot be resolved.
+     * @throws IllegalStateException    if the maximum number of tests is already running.
+     */
+    public ThroughputResult run(String host, int port, ThroughputResult.Direction direction, long durationMillis,
+                                Long maxBytes, int streamCount, long intervalMillis) {
+        InetSocketAddress target;
+        try {
+            target = new InetSocketAddress(hostResolver.resolve(host), port);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Unable to resolve host: " + host);
+        }
+        if (!tests.tryAcquire()) {
+            throw new IllegalStateException("Another throughput test is running");
+        }
+        try {
+            return measure(host, target, direction, durationMillis, maxBytes, streamCount, intervalMillis);
+        } finally {
+            tests.release();
+        }
+    }
+
+    private ThroughputResult measure(String host, InetSocketAddress target, ThroughputResult.Direction direction,
+                                     long durationMillis, Long maxBytes, int streamCount, long intervalMillis) {
+        long limit = maxBytes != null ? maxBytes : Long.MAX_VALUE;
+        Test test = new Test(limit);
+        List<Stream> started = new ArrayList<>(streamCount);
+        List<Future<Long>> results = new ArrayList<>(streamCount);
+        long start = System.nanoTime();
+        test.deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        for (int i = 0; i < streamCount; i++) {
+            Stream stream = new Stream(test, target, direction);
+            started.add(stream);
+            results.add(streams.submit(stream));
+        }
+
+        List<ThroughputSample> samples = sample(test, start, intervalMillis);
+        long elapsedNanos = System.nanoTime() - start;
+
+        long unconfirmed = 0;
+        for (Stream stream : started) {
+            unconfirmed += stream.buffered;
+        }
+        long graceMillis = closeGraceMillis(Math.min(unconfirmed, test.transferred.get()), test.transferred.get(),
+                elapsedNanos, minCloseGraceMillis, maxCloseGraceMillis);
+
+        long goodput = 0;
+        long confirmedNanos = 0;
+        List<String> errors = new ArrayList<>();
+        long graceDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(graceMillis);
+        for (int i = 0; i < streamCount; i++) {
+            try {
+                goodput += results.get(i).get(Math.max(0, graceDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                confirmedNanos = Math.max(confirmedNanos, started.get(i).confirmedAt - start);
+            } catch (TimeoutException e) {
+                started.get(i).abort();
+                errors.add("Stream " + i + ": no confirmation within " + graceMillis + " ms after the test");
+            } catch (ExecutionException e) {
+                errors.add("Stream " + i + ": " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                started.forEach(Stream::abort);
+                errors.add("Interrupted");
+                break;
+            }
+        }
+
+        return ThroughputResult.builder()
+                .host(host)
+                .port(target.getPort())
+                .direction(direction)
+                .streams(streamCount)
+                .durationMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .bytes(test.transferred.get())
+                .goodputBytes(goodput)
+                .confirmedMillis(TimeUnit.NANOSECONDS.toMillis(confirmedNanos))
+                .mbps(mbps(goodput, confirmedNanos))
+                .samples(samples)
+                .errors(errors)
+                .build();
+    }
+
+    /**
+     * Records the bytes moved in every interval until the test ends, either at its deadline, at its
+     * byte limit, or when every stream has stopped.
+     */
+    private List<ThroughputSample> sample(Test test, long start, long intervalMillis) {
+        List<ThroughputSample> samples = new ArrayList<>();
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        long previousBytes = 0;
+        long previousNanos = start;
+        long next = start + intervalNanos;
+        while (true) {
+            long now = System.nanoTime();
+            boolean ended = now >= test.deadline || test.transferred.get() >= test.limit || test.active.get() == 0;
+            if (now >= next || ended) {
+                long bytes = test.transferred.get();
+                if (now > previousNanos) {
+                    samples.add(new ThroughputSample(TimeUnit.NANOSECONDS.toMillis(now - start),
+                            bytes - previousBytes, mbps(bytes - previousBytes, now - previousNanos)));
+                }
+                previousBytes = bytes;
+                previousNanos = now;
+                next += intervalNanos;
+            }
+            if (ended) {
+                test.stopped = true;
+                return samples;
+            }
+            try {
+                // Short sleeps, so a byte limit ends the test promptly
+                TimeUnit.MILLISECONDS.sleep(Math.min(10, Math.max(1, TimeUnit.NANOSECONDS.toMillis(next - now))));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                test.stopped = true;
+                return samples;
+            }
+        }
+    }
+
+    /**
+     * Computes how long streams get to finish after the test: the time to deliver the data that may
+     * still be buffered at the rate measured during the test, plus a fixed margin.
+     *
+     * @param unconfirmedBytes Bytes that may not have reached the receiving application yet.
+     * @param bytes            Bytes moved during the test.
+     * @param elapsedNanos     Length of the test.
+     */
+    static long closeGraceMillis(long unconfirmedBytes, long bytes, long elapsedNanos, long minMillis,
+                                 long maxMillis) {
+        if (unconfirmedBytes <= 0) {
+            return minMillis;
+        }
+        if (bytes <= 0 || elapsedNanos <= 0) {
+            return maxMillis;
+        }
+        double drainMillis = unconfirmedBytes * (double) elapsedNanos / bytes / 1_000_000;
+        return (long) Math.min(maxMillis, minMillis + Math.ceil(drainMillis));
+    }
+
+    private static double mbps(long bytes, long nanos) {
+        return nanos <= 0 ? 0 : bytes * 8 * 1_000.0 / nanos;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streams.shutdownNow();
+    }
+
+    /**
+     * State shared by the streams of one test.
+     */
+    private static final class Test {
+        final long limit;
+        final AtomicLong transferred = new AtomicLong();
+        final AtomicLong reserved = new AtomicLong();
+        final AtomicLong active = new AtomicLong();
+        volatile long deadline;
+        volatile boolean stopped;
+
+        Test(long limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * Reserves up to the given number of bytes of the test's byte limit.
+         *
+         * @return The bytes reserved, 0 once the limit is used up.
+         */
+        long reserve(long wanted) {
+            while (true) {
+                long current = reserved.get();
+                long granted = Math.min(wanted, limit - current);
+                if (granted <= 0) {
+                    return 0;
+                }
+                if (reserved.compareAndSet(current, current + granted)) {
+                    return granted;
+                }
+            }
+        }
+    }
+
+    /**
+     * One connection of a test, returning the bytes delivered to the receiving application.
+     */
+    private final class Stream implements Callable<Long> {
+        private static final long CHUNK = 1024 * 1024;
+
+        private final Test test;
+        private final InetSocketAddress target;
+        private final ThroughputResult.Direction direction;
+        private volatile SocketChannel channel;
+        // Upper bound of the sent bytes the listener may not have read yet: both ends' socket buffers
+        volatile long buffered;
+        volatile long confirmedAt;
+
+        Stream(Test test, InetSocketAddress target, ThroughputResult.Direction direction) {
+            this.test = test;
+            this.target = target;
+            this.direction = direction;
+            test.active.incrementAndGet();
+        }
+
+        @Override
+        public Long call() throws IOException {
+            try (SocketChannel socket = SocketChannel.open()) {
+                channel = socket;
+                socket.connect(target);
+                boolean upload = direction == ThroughputResult.Direction.UPLOAD;
+                ByteBuffer header = ThroughputPayload.header(upload ? ThroughputPayload.MODE_SINK
+                        : ThroughputPayload.MODE_SOURCE);
+                while (header.hasRemaining()) {
+                    socket.write(header);
+                }
+                long delivered;
+                if (upload) {
+                    // The listener's receive buffer is assumed to be sized like this end's
+                    buffered = socket.getOption(StandardSocketOptions.SO_SNDBUF)
+                            + (long) socket.getOption(StandardSocketOptions.SO_RCVBUF);
+                    delivered = upload(socket);
+                } else {
+                    delivered = download(socket);
+                }
+                confirmedAt = System.nanoTime();
+                return delivered;
+            } finally {
+                test.active.decrementAndGet();
+            }
+        }
+
+        private long upload(SocketChannel socket) throws IOException {
+            long sent = 0;
+            long granted;
+            while (!test.stopped && (granted = test.reserve(CHUNK)) > 0) {
+                long chunkSent = 0;
+                while (chunkSent < granted) {
+                    long count = payload.transferTo(socket, sent, granted - chunkSent);
+                    chunkSent += count;
+                    sent += count;
+                    test.transferred.addAndGet(count);
+                }
+            }
+            // The sink answers with its byte count once it has read everything sent
+            socket.shutdownOutput();
+            ByteBuffer total = ByteBuffer.allocate(8);
+            while (total.hasRemaining()) {
+                if (socket.read(total) < 0) {
+                    throw new IOException("Listener closed the connection without confirming the received bytes");
+                }
+            }
+            return total.getLong(0);
+        }
+
+        private long download(SocketChannel socket) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) CHUNK);
+            long received = 0;
+            long granted;
+            while (!test.stopped && (granted = test.reserve(CHUNK)) > 0) {
+                buffer.clear().limit((int) granted);
+                while (buffer.hasRemaining()) {
+                    int read = socket.read(buffer);
+                    if (read < 0) {
+                        throw new IOException("Listener closed the connection");
+                    }
+                    received += read;
+                    test.transferred.addAndGet(read);
+                }
+            }
+            return received;
+        }
+
+        /**
+         * Unblocks a stream that did not finish in time by closing its connection.
+         */
+        void abort() {
+            SocketChannel socket = channel;
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    log.debug("Error closing throughput stream", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.networkdiagnostictool.util;
+
+import java.util.Arrays;
+
+/**
+ * Counts occurrences of 128-bit keys, such as IPv6 or IPv4-mapped addresses, in open-addressing
+ * primitive arrays, so counting does not allocate per key. Slots are exposed for iteration:
+ * a slot is in use when its count is positive. {@link #clear()} keeps the grown arrays for reuse.
+ * Instances are not thread-safe.
+ */
+public class AddressCountMap {
+
+    private long[] highs;
+    private long[] lows;
+    private int[] counts;
+    private int mask;
+    private int size;
+
+    /**
+     * @param expectedKeys Number of distinct keys to hold before growing.
+     */
+    public AddressCountMap(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedKeys * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        highs = new long[capacity];
+        lows = new long[capacity];
+        counts = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds one occurrence of a key.
+     */
+    public void increment(long high, long low) {
+        int slot = slot(high, low);
+        if (counts[slot] == 0) {
+            highs[slot] = high;
+            lows[slot] = low;
+            if (++size * 2 > counts.length) {
+                counts[slot] = 1;
+                grow();
+                return;
+            }
+        }
+        counts[slot]++;
+    }
+
+    /**
+     * @return The number of occurrences of a key, 0 if it was never added.
+     */
+    public int get(long high, long low) {
+        return counts[slot(high, low)];
+    }
+
+    private int slot(long high, long low) {
+        int slot = hash(high, low) & mask;
+        while (counts[slot] != 0 && (highs[slot] != high || lows[slot] != low)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldHighs = highs;
+        long[] oldLows = lows;
+        int[] oldCounts = counts;
+        allocate(oldCounts.length * 2);
+        for (int i = 0; i < oldCounts.length; i++) {
+            if (oldCounts[i] != 0) {
+                int slot = slot(oldHighs[i], oldLows[i]);
+                highs[slot] = oldHighs[i];
+                lows[slot] = oldLows[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private static int hash(long high, long low) {
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * Removes every key, keeping the capacity.
+     */
+    public void clear() {
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    /**
+     * @return The number of distinct keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of slots, the bound for iterating with {@link #count(int)}.
+     */
+    public int capacity() {
+        return counts.length;
+    }
+
+    /**
+     * @return The count held in a slot, 0 for an unused slot.
+     */
+    public int count(int slot) {
+        return counts[slot];
+    }
+
+    public long high(int slot) {
+        return highs[slot];
+    }
+
+    public long low(int slot) {
+        return lows[slot];
+    }
+}
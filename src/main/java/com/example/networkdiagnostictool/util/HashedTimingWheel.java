@@ -0,0 +1,174 @@
+package com.example.networkdiagnostictool.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs delayed tasks from a hashed timing wheel. Tasks are hashed into one of a fixed number of
+ * buckets by their deadline, so scheduling and expiring a task costs O(1) regardless of how many
+ * are pending; deadlines further out than one revolution wait in their bucket for the remaining rounds.
+ * A single ticker thread advances the wheel and runs expired tasks, at a resolution of one tick.
+ * Tasks therefore must be short: anything that blocks should be handed to an executor.
+ */
+@Slf4j
+public final class HashedTimingWheel {
+
+    // Upper bound on newly scheduled tasks moved into the wheel per tick, to keep ticks on time
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Timeout[] buckets;
+    private final int mask;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Thread ticker;
+    private final long startNanos;
+    private volatile boolean running = true;
+
+    // Ticker thread only
+    private long tick;
+
+    /**
+     * Creates the wheel and starts its ticker thread.
+     *
+     * @param name       Name of the ticker thread.
+     * @param tickMillis Resolution of the wheel.
+     * @param wheelSize  Number of buckets, rounded up to a power of two.
+     */
+    public HashedTimingWheel(String name, long tickMillis, int wheelSize) {
+        if (tickMillis < 1 || wheelSize < 1) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        int size = Integer.highestOneBit(wheelSize);
+        this.buckets = new Timeout[size < wheelSize ? size << 1 : size];
+        this.mask = buckets.length - 1;
+        this.startNanos = System.nanoTime();
+        this.ticker = new NamedThreadFactory(name).newThread(this::run);
+        ticker.start();
+    }
+
+    /**
+     * Schedules a task to run once after the given delay.
+     *
+     * @return A handle for cancelling the task.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return scheduleAt(task, System.nanoTime() + unit.toNanos(delay));
+    }
+
+    /**
+     * Schedules a task to run once at the given {@link System#nanoTime()} deadline.
+     *
+     * @return A handle for cancelling the task.
+     */
+    public Timeout scheduleAt(Runnable task, long deadlineNanos) {
+        if (!running) {
+            throw new IllegalStateException("Timing wheel has been stopped");
+        }
+        Timeout timeout = new Timeout(task, deadlineNanos);
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stops the ticker thread. Pending tasks are dropped.
+     */
+    public void stop() {
+        running = false;
+        ticker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = startNanos + (tick + 1) * tickNanos;
+            long sleepNanos = deadline - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+            }
+            transferScheduled();
+            expire(tick & mask);
+            tick++;
+        }
+    }
+
+    private void transferScheduled() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = scheduled.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.cancelled) {
+                continue;
+            }
+            // Deadlines already passed go into the current bucket and run in this tick
+            long ticks = Math.max((timeout.deadlineNanos - startNanos) / tickNanos, tick);
+            timeout.remainingRounds = (ticks - tick) / buckets.length;
+            int index = (int) (ticks & mask);
+            timeout.next = buckets[index];
+            buckets[index] = timeout;
+        }
+    }
+
+    private void expire(long index) {
+        int bucket = (int) index;
+        Timeout kept = null;
+        Timeout timeout = buckets[bucket];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.next = null;
+            if (timeout.cancelled) {
+                // Dropped
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                timeout.next = kept;
+                kept = timeout;
+            } else {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    log.warn("Timer task failed", e);
+                }
+            }
+            timeout = next;
+        }
+        buckets[bucket] = kept;
+    }
+
+    /**
+     * A scheduled task.
+     */
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private volatile boolean cancelled;
+
+        // Ticker thread only
+        private long remainingRounds;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Prevents the task from running if it has not run yet.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
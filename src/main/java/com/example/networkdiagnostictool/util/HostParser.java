@@ -0,0 +1,399 @@
+package com.example.networkdiagnostictool.util;
+
+/**
+ * Hand-written parser for host arguments: IPv4 and IPv6 literals, IPv4 CIDR blocks and host names.
+ * It never resolves names and the static methods allocate nothing, so they are cheap enough to run
+ * on every request.
+ * <p>
+ * Addresses are produced in a compact binary form: IPv4 as an unsigned 32-bit value, and any address
+ * as 128 bits in two longs, IPv4 in its IPv4-mapped form {@code ::ffff:a.b.c.d}, the same form in which
+ * the socket tables hold them. An instance keeps the 128 bits of the last address it parsed and can be
+ * reused, but is not thread-safe.
+ */
+public final class HostParser {
+
+    public static final int INVALID = 0;
+    public static final int IPV4 = 1;
+    public static final int IPV6 = 2;
+    public static final int HOSTNAME = 3;
+
+    private static final long IPV4_MAPPED = 0x0000FFFF00000000L;
+    private static final int MAX_HOSTNAME_LENGTH = 253;
+    private static final int MAX_LABEL_LENGTH = 63;
+
+    private long high;
+    private long low;
+    private boolean zone;
+
+    /**
+     * Classifies a host argument without resolving it. An IPv6 literal may carry a zone id
+     * ({@code fe80::1%eth0}) and be enclosed in brackets.
+     *
+     * @return {@link #IPV4}, {@link #IPV6}, {@link #HOSTNAME} for a syntactically valid host name,
+     * or {@link #INVALID}.
+     */
+    public static int classify(CharSequence text) {
+        int length = text.length();
+        if (length == 0) {
+            return INVALID;
+        }
+        if (parseIpv4(text, 0, length) >= 0) {
+            return IPV4;
+        }
+        if (parseIpv6Literal(text, null)) {
+            return IPV6;
+        }
+        return isHostname(text, 0, length) ? HOSTNAME : INVALID;
+    }
+
+    /**
+     * Whether the text is an IPv4 or IPv6 literal, which needs no name service to turn into an address.
+     */
+    public static boolean isIpLiteral(CharSequence text) {
+        return parseIpv4(text, 0, text.length()) >= 0 || parseIpv6Literal(text, null);
+    }
+
+    /**
+     * Parses a dotted-quad IPv4 address.
+     *
+     * @return The address as an unsigned 32-bit value, or -1 if the text is not a valid IPv4 address.
+     */
+    public static long parseIpv4(CharSequence text) {
+        return parseIpv4(text, 0, text.length());
+    }
+
+    /**
+     * Parses a dotted-quad IPv4 address from {@code text[start, end)}. Octets have one to three digits.
+     *
+     * @return The address as an unsigned 32-bit value, or -1 if the range is not a valid IPv4 address.
+     */
+    public static long parseIpv4(CharSequence text, int start, int end) {
+        long address = 0;
+        int octets = 0;
+        int value = 0;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (++digits > 3 || value > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && digits > 0 && octets < 3) {
+                address = (address << 8) | value;
+                octets++;
+                value = 0;
+                digits = 0;
+            } else {
+                return -1;
+            }
+        }
+        if (digits == 0 || octets != 3) {
+            return -1;
+        }
+        return (address << 8) | value;
+    }
+
+    /**
+     * Parses an IPv4 CIDR block {@code a.b.c.d/n}, or a single address as a /32. Host bits below the
+     * prefix are kept.
+     *
+     * @return The address in bits 8 to 39 and the prefix length in bits 0 to 7, or -1 if the text is
+     * not an IPv4 CIDR block.
+     */
+    public static long parseIpv4Cidr(CharSequence text) {
+        int length = text.length();
+        int slash = indexOf(text, '/', 0, length);
+        long address = parseIpv4(text, 0, slash < 0 ? length : slash);
+        if (address < 0) {
+            return -1;
+        }
+        int prefix = 32;
+        if (slash >= 0) {
+            prefix = parsePrefix(text, slash + 1, length, 32);
+            if (prefix < 0) {
+                return -1;
+            }
+        }
+        return (address << 8) | prefix;
+    }
+
+    /**
+     * The address of a block returned by {@link #parseIpv4Cidr(CharSequence)}.
+     */
+    public static int cidrAddress(long cidr) {
+        return (int) (cidr >>> 8);
+    }
+
+    /**
+     * The prefix length of a block returned by {@link #parseIpv4Cidr(CharSequence)}.
+     */
+    public static int cidrPrefix(long cidr) {
+        return (int) (cidr & 0xFF);
+    }
+
+    /**
+     * Whether {@code text[start, end)} is a syntactically valid host name: dot-separated labels of
+     * 1 to 63 letters, digits, hyphens and underscores, not starting or ending with a hyphen, at most
+     * 253 characters, optionally with a trailing dot. The last label must not be all digits, so that
+     * malformed IPv4 addresses such as {@code 999.1.1.1} are not taken for names.
+     */
+    public static boolean isHostname(CharSequence text, int start, int end) {
+        if (end > start && text.charAt(end - 1) == '.') {
+            end--;
+        }
+        if (end <= start || end - start > MAX_HOSTNAME_LENGTH) {
+            return false;
+        }
+        int labelLength = 0;
+        boolean labelNumeric = true;
+        char previous = '.';
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                if (labelLength == 0 || previous == '-') {
+                    return false;
+                }
+                labelLength = 0;
+                labelNumeric = true;
+            } else {
+                boolean digit = c >= '0' && c <= '9';
+                if (!(digit || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_'
+                        || (c == '-' && labelLength > 0))) {
+                    return false;
+                }
+                if (++labelLength > MAX_LABEL_LENGTH) {
+                    return false;
+                }
+                labelNumeric &= digit;
+            }
+            previous = c;
+        }
+        return previous != '-' && !labelNumeric;
+    }
+
+    /**
+     * Parses an IPv4 or IPv6 literal into this parser's 128-bit address. IPv6 literals may be
+     * compressed, end in an embedded IPv4 address, carry a zone id and be enclosed in brackets.
+     *
+     * @return false if the text is not an IP literal; the address is then undefined.
+     */
+    public boolean parseAddress(CharSequence text) {
+        long ipv4 = parseIpv4(text, 0, text.length());
+        if (ipv4 >= 0) {
+            high = 0;
+            low = IPV4_MAPPED | ipv4;
+            zone = false;
+            return true;
+        }
+        return parseIpv6Literal(text, this);
+    }
+
+    /**
+     * The upper 64 bits of the last parsed address.
+     */
+    public long getHigh() {
+        return high;
+    }
+
+    /**
+     * The lower 64 bits of the last parsed address.
+     */
+    public long getLow() {
+        return low;
+    }
+
+    /**
+     * Whether the last parsed address is an IPv4 address, written as such or in IPv4-mapped form.
+     */
+    public boolean isIpv4() {
+        return high == 0 && (low & 0xFFFFFFFF00000000L) == IPV4_MAPPED;
+    }
+
+    /**
+     * Whether the last parsed address carried a zone id, which the binary form does not hold.
+     */
+    public boolean hasZone() {
+        return zone;
+    }
+
+    /**
+     * The last parsed address in network byte order: 4 bytes for IPv4, 16 otherwise.
+     */
+    public byte[] toBytes() {
+        if (isIpv4()) {
+            int ipv4 = (int) low;
+            return new byte[]{(byte) (ipv4 >>> 24), (byte) (ipv4 >>> 16), (byte) (ipv4 >>> 8), (byte) ipv4};
+        }
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (high >>> (56 - 8 * i));
+            bytes[i + 8] = (byte) (low >>> (56 - 8 * i));
+        }
+        return bytes;
+    }
+
+    /**
+     * Parses an IPv6 literal, with optional brackets and zone id, into the given parser if it is not null.
+     */
+    private static boolean parseIpv6Literal(CharSequence text, HostParser into) {
+        int start = 0;
+        int end = text.length();
+        if (end > 1 && text.charAt(0) == '[') {
+            if (text.charAt(end - 1) != ']') {
+                return false;
+            }
+            start = 1;
+            end--;
+        }
+        int percent = indexOf(text, '%', start, end);
+        if (percent >= 0) {
+            // A zone id is an interface name or index
+            if (percent == end - 1) {
+                return false;
+            }
+            for (int i = percent + 1; i < end; i++) {
+                char c = text.charAt(i);
+                if (c <= ' ' || c == '%' || c == '/' || c == '[' || c == ']') {
+                    return false;
+                }
+            }
+        }
+        return parseIpv6(text, start, percent < 0 ? end : percent, percent >= 0, into);
+    }
+
+    /**
+     * Parses the eight groups of an IPv6 address. Groups before a {@code ::} are shifted into one 128-bit
+     * register and groups after it into another; the first is moved up past the elided zero groups at the end.
+     */
+    private static boolean parseIpv6(CharSequence text, int start, int end, boolean zone, HostParser into) {
+        if (end - start < 2) {
+            return false;
+        }
+        long headHigh = 0;
+        long headLow = 0;
+        long tailHigh = 0;
+        long tailLow = 0;
+        int groups = 0;
+        int compressAt = -1;
+        int i = start;
+        if (text.charAt(i) == ':') {
+            if (text.charAt(i + 1) != ':') {
+                return false;
+            }
+            compressAt = 0;
+            i += 2;
+        }
+        while (i < end) {
+            int groupStart = i;
+            int value = 0;
+            while (i < end) {
+                int digit = hexValue(text.charAt(i));
+                if (digit < 0) {
+                    break;
+                }
+                if (i - groupStart == 4) {
+                    return false;
+                }
+                value = (value << 4) | digit;
+                i++;
+            }
+            int count;
+            long group;
+            if (i < end && text.charAt(i) == '.') {
+                // An embedded IPv4 address ends the literal and fills the last two groups
+                long ipv4 = parseIpv4(text, groupStart, end);
+                if (ipv4 < 0) {
+                    return false;
+                }
+                count = 2;
+                group = ipv4;
+                i = end;
+            } else {
+                if (i == groupStart) {
+                    return false;
+                }
+                count = 1;
+                group = value;
+            }
+            if (groups + count > 8) {
+                return false;
+            }
+            if (compressAt < 0) {
+                headHigh = (headHigh << (16 * count)) | (headLow >>> (64 - 16 * count));
+                headLow = (headLow << (16 * count)) | group;
+            } else {
+                tailHigh = (tailHigh << (16 * count)) | (tailLow >>> (64 - 16 * count));
+                tailLow = (tailLow << (16 * count)) | group;
+            }
+            groups += count;
+            if (i == end) {
+                break;
+            }
+            if (text.charAt(i) != ':' || ++i == end) {
+                return false;
+            }
+            if (text.charAt(i) == ':') {
+                if (compressAt >= 0) {
+                    return false;
+                }
+                compressAt = groups;
+                i++;
+            }
+        }
+        if (compressAt < 0 ? groups != 8 : groups > 7) {
+            return false;
+        }
+        if (into != null) {
+            int shift = compressAt <= 0 ? 0 : 16 * (8 - compressAt);
+            if (shift >= 64) {
+                headHigh = headLow << (shift - 64);
+                headLow = 0;
+            } else if (shift > 0) {
+                headHigh = (headHigh << shift) | (headLow >>> (64 - shift));
+                headLow <<= shift;
+            }
+            into.high = headHigh | tailHigh;
+            into.low = headLow | tailLow;
+            into.zone = zone;
+        }
+        return true;
+    }
+
+    private static int parsePrefix(CharSequence text, int start, int end, int max) {
+        if (end == start || end - start > 3) {
+            return -1;
+        }
+        int prefix = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            prefix = prefix * 10 + (c - '0');
+        }
+        return prefix <= max ? prefix : -1;
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static int indexOf(CharSequence text, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
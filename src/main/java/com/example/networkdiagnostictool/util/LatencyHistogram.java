@@ -0,0 +1,111 @@
+package com.example.networkdiagnostictool.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-memory histogram of latency samples in nanoseconds.
+ * Values are recorded into log-linear buckets: every power-of-two range is split into
+ * {@value #SUB_BUCKETS} equal sub-buckets, which bounds the relative error of any reported
+ * percentile to about 3% while using the same few kilobytes regardless of the sample count.
+ * Instances are not thread-safe.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values above 2^44 ns (about 4.9 hours) are clamped into the last bucket
+    private static final int MAX_EXPONENT = 44;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    /**
+     * Records one sample.
+     *
+     * @param valueNanos The sample in nanoseconds; negative values are recorded as zero.
+     */
+    public void record(long valueNanos) {
+        long value = Math.min(Math.max(valueNanos, 0), MAX_VALUE);
+        counts[bucketIndex(value)]++;
+        totalCount++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return totalCount == 0 ? 0 : max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * Returns the value at the given percentile.
+     *
+     * @param percentile The percentile between 0 and 100.
+     * @return The midpoint of the bucket holding the percentile, clamped to the recorded min/max, or 0 if empty.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long value = lowerBound(i) + (bucketWidth(i) - 1) / 2;
+                return Math.min(Math.max(value, min), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Clears all recorded samples so the histogram can be reused.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    }
+
+    private static long bucketWidth(int index) {
+        return index < SUB_BUCKETS ? 1 : 1L << (index / SUB_BUCKETS - 1);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.networkdiagnostictool.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes values as newline-delimited JSON, one value per line, straight to an output stream.
+ * Output goes through the generator's fixed-size buffer, so memory use does not depend on how
+ * many values are written; the first value is flushed immediately to get bytes to the client
+ * early. Writes block while the client is not reading, which slows the producer down to the
+ * client's pace.
+ * <p>
+ * Not thread-safe.
+ */
+public class NdjsonWriter implements Closeable {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+    private long count;
+
+    /**
+     * @param objectMapper The mapper whose configuration is used to serialize values.
+     * @param out          The stream to write to; it is flushed but not closed by {@link #close()}.
+     */
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are terminated explicitly; no separator between root values
+        this.generator.setRootValueSeparator(null);
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes one value as a line.
+     *
+     * @throws UncheckedIOException if the client went away, so a producer driven by callbacks stops.
+     */
+    public void write(Object value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+            if (++count == 1) {
+                generator.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The number of values written so far.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
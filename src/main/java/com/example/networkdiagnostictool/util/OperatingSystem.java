@@ -0,0 +1,40 @@
+package com.example.networkdiagnostictool.util;
+
+import java.util.Locale;
+
+/**
+ * The operating system family the application is running on, resolved once at class load.
+ */
+public enum OperatingSystem {
+    WINDOWS, LINUX, MAC, OTHER_UNIX, UNKNOWN;
+
+    private static final OperatingSystem CURRENT = detect(System.getProperty("os.name", ""));
+
+    /**
+     * @return The operating system family of the running JVM.
+     */
+    public static OperatingSystem current() {
+        return CURRENT;
+    }
+
+    /**
+     * @return true for Linux, macOS and other Unix-like systems.
+     */
+    public boolean isUnixLike() {
+        return this == LINUX || this == MAC || this == OTHER_UNIX;
+    }
+
+    static OperatingSystem detect(String osName) {
+        String name = osName.toLowerCase(Locale.ROOT);
+        if (name.contains("win")) {
+            return WINDOWS;
+        } else if (name.contains("linux")) {
+            return LINUX;
+        } else if (name.contains("mac")) {
+            return MAC;
+        } else if (name.contains("nix") || name.contains("nux") || name.contains("bsd") || name.contains("sunos")) {
+            return OTHER_UNIX;
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.networkdiagnostictool.util;
+
+/**
+ * Token bucket refilled at a fixed rate up to a burst size. Callers reserve a token and wait
+ * for the returned delay instead of polling, so a token taken ahead of time is paid back by
+ * the next caller. Time is passed in by the caller in nanoseconds, as from {@link System#nanoTime()}.
+ * Instances are thread-safe.
+ */
+public class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double burst;
+    private double tokens;
+    private long updated;
+
+    /**
+     * @param perSecond Tokens added per second.
+     * @param burst     Most tokens that accumulate while the bucket is idle.
+     * @param now       The current time; the bucket starts full.
+     */
+    public TokenBucket(double perSecond, double burst, long now) {
+        if (perSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.tokensPerNano = perSecond / 1e9;
+        this.burst = burst;
+        this.tokens = burst;
+        this.updated = now;
+    }
+
+    /**
+     * Takes one token, going into debt if the bucket is empty.
+     *
+     * @param now The current time.
+     * @return Nanoseconds to wait before acting on the token, 0 if it was available.
+     */
+    public synchronized long reserve(long now) {
+        refill(now);
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+
+    /**
+     * @return true if the bucket refilled completely, i.e. it has been idle long enough to be discarded.
+     */
+    public synchronized boolean isFull(long now) {
+        refill(now);
+        return tokens >= burst;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - updated;
+        if (elapsed > 0) {
+            tokens = Math.min(burst, tokens + elapsed * tokensPerNano);
+            updated = now;
+        }
+    }
+}
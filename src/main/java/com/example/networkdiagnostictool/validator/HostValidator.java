@@ -1,26 +1,38 @@
 package com.example.networkdiagnostictool.validator;
 
+import com.example.networkdiagnostictool.service.HostResolver;
+import com.example.networkdiagnostictool.util.HostParser;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.net.Inet6Address;
 import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
 import java.net.UnknownHostException;
-import java.util.regex.Pattern;
 
 /**
  * Validator class for hostnames and IP addresses.
  * This class provides methods to validate if a given string is a valid hostname or IP address.
+ * IP literals and malformed input are told apart by {@link HostParser} without a name lookup;
+ * only well-formed host names are resolved, and IPv6 literals with a zone id are checked for
+ * an interface of that name or index.
  */
 @Component
 public class HostValidator {
 
-    // Regular expression for validating IPv4 addresses
-    private static final String IPV4_REGEX =
-            "^(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\." +
-                    "(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\." +
-                    "(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\." +
-                    "(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)$";
+    private final HostResolver hostResolver;
 
-    private static final Pattern IPV4_PATTERN = Pattern.compile(IPV4_REGEX);
+    /**
+     * Constructor for dependency injection of the shared resolver, so a name resolved
+     * during validation is not looked up again by the diagnostic that follows.
+     *
+     * @param hostResolver The resolver used to check host names.
+     */
+    @Autowired
+    public HostValidator(HostResolver hostResolver) {
+        this.hostResolver = hostResolver;
+    }
 
     /**
      * Validates if the given string is a valid hostname or IP address.
@@ -33,17 +45,38 @@ public class HostValidator {
             return false;
         }
 
-        // Check if it's a valid IPv4 address
-        if (IPV4_PATTERN.matcher(host).matches()) {
-            return true;
+        // IPv4 and IPv6 literals are valid as written unless they name a zone; anything else must look like a hostname
+        int kind = HostParser.classify(host);
+        if (kind == HostParser.IPV6 && host.indexOf('%') >= 0) {
+            return hasKnownZone(host);
+        }
+        if (kind != HostParser.HOSTNAME) {
+            return kind != HostParser.INVALID;
         }
 
-        // If not an IP address, check if it's a valid hostname
+        // A well-formed hostname must also resolve
         try {
-            InetAddress.getByName(host);
+            hostResolver.resolve(host);
             return true;
         } catch (UnknownHostException e) {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Whether the zone id of an IPv6 literal names an existing interface. Resolving the literal
+     * rejects unknown interface names, but takes a numeric zone as a scope id without checking it.
+     */
+    private boolean hasKnownZone(String host) {
+        try {
+            InetAddress address = hostResolver.resolve(host);
+            if (!(address instanceof Inet6Address)) {
+                return true;
+            }
+            Inet6Address scoped = (Inet6Address) address;
+            return scoped.getScopedInterface() != null || NetworkInterface.getByIndex(scoped.getScopeId()) != null;
+        } catch (UnknownHostException | SocketException e) {
+            return false;
+        }
+    }
+}
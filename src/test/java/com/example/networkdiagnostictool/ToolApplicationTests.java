@@ -3,7 +3,7 @@ package com.example.networkdiagnostictool;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "history.dir=target/history")
 class ToolApplicationTests {
 
 	@Test
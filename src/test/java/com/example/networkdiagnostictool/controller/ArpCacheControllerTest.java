@@ -0,0 +1,67 @@
+package com.example.networkdiagnostictool.controller;
+
+import com.example.networkdiagnostictool.model.ArpEntry;
+import com.example.networkdiagnostictool.service.ArpCacheService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ArpCacheController.class)
+class ArpCacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ArpCacheService arpCacheService;
+
+    @Test
+    void returnsJsonArrayUnlessNdjsonIsRequested() throws Exception {
+        when(arpCacheService.getArpCache()).thenReturn(List.of(new ArpEntry("10.0.0.1", "aa:bb:cc:dd:ee:ff", "eth0")));
+
+        mockMvc.perform(get("/api/arp/cache"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].ipAddress").value("10.0.0.1"));
+        mockMvc.perform(get("/api/arp/cache").accept(MediaType.ALL))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamsOneEntryPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ArpEntry> sink = invocation.getArgument(0);
+            sink.accept(new ArpEntry("10.0.0.1", "aa:bb:cc:dd:ee:01", "eth0"));
+            sink.accept(new ArpEntry("10.0.0.2", "aa:bb:cc:dd:ee:02", "eth1"));
+            return null;
+        }).when(arpCacheService).streamArpCache(any(Consumer.class));
+
+        MvcResult started = mockMvc.perform(get("/api/arp/cache").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"ipAddress\":\"10.0.0.1\",\"macAddress\":\"aa:bb:cc:dd:ee:01\",\"interfaceName\":\"eth0\",\"hwType\":null,\"flags\":null}\n"
+                                + "{\"ipAddress\":\"10.0.0.2\",\"macAddress\":\"aa:bb:cc:dd:ee:02\",\"interfaceName\":\"eth1\",\"hwType\":null,\"flags\":null}\n"));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.networkdiagnostictool.controller;
+
+import com.example.networkdiagnostictool.NetworkDiagnosticToolApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs two instances of the tool on loopback and fans a port check out from one of them to both,
+ * to a port nobody listens on, and to a listener that accepts connections but never answers.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "history.dir=target/history")
+class FleetControllerTest {
+
+    private static ConfigurableApplicationContext peer;
+    private static int peerPort;
+    private static ServerSocket target;
+    private static ServerSocket silent;
+    private static int closedPort;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void startPeer() throws Exception {
+        peer = new SpringApplicationBuilder(NetworkDiagnosticToolApplication.class)
+                .properties("server.port=0", "history.dir=target/history-peer", "spring.jmx.enabled=false")
+                .run();
+        peerPort = ((ServletWebServerApplicationContext) peer).getWebServer().getPort();
+        target = new ServerSocket(0);
+        silent = new ServerSocket(0);
+        try (ServerSocket closed = new ServerSocket(0)) {
+            closedPort = closed.getLocalPort();
+        }
+    }
+
+    @AfterAll
+    static void stopPeer() throws Exception {
+        peer.close();
+        target.close();
+        silent.close();
+    }
+
+    @Test
+    void mergesAnswersAndReportsFailedPeers() throws Exception {
+        HttpResponse<String> response = get("/api/fleet/port?host=127.0.0.1&port=" + target.getLocalPort()
+                + "&timeoutMs=1000"
+                + "&peer=127.0.0.1:" + port
+                + "&peer=http://localhost:" + peerPort
+                + "&peer=127.0.0.1:" + closedPort
+                + "&peer=127.0.0.1:" + silent.getLocalPort());
+        assertEquals(200, response.statusCode(), response.body());
+
+        JsonNode result = objectMapper.readTree(response.body());
+        assertEquals(4, result.get("peers").asInt());
+        assertEquals(2, result.get("succeeded").asInt());
+        assertEquals(2, result.get("failed").asInt());
+        JsonNode results = result.get("results");
+        for (int i = 0; i < 2; i++) {
+            JsonNode answer = results.get(i);
+            assertEquals(200, answer.get("status").asInt(), answer.toString());
+            assertEquals("HTTP_2", answer.get("protocol").asText());
+            assertTrue(answer.get("error").isNull());
+            assertTrue(answer.get("body").asLong() >= 0, answer.toString());
+        }
+        assertEquals("http://127.0.0.1:" + closedPort, results.get(2).get("peer").asText());
+        assertTrue(results.get(2).get("status").isNull());
+        assertTrue(results.get(3).get("error").asText().startsWith("No answer within 1000 ms"),
+                results.get(3).toString());
+        // The silent peer must not hold back the result longer than its timeout
+        assertTrue(result.get("elapsedMillis").asLong() < 3000, result.toString());
+    }
+
+    @Test
+    void forwardsThePeersOwnValidationErrors() throws Exception {
+        HttpResponse<String> response = get("/api/fleet/arp?ip=not%20an%20ip&peer=127.0.0.1:" + peerPort);
+        assertEquals(200, response.statusCode());
+        JsonNode result = objectMapper.readTree(response.body());
+        assertEquals(0, result.get("succeeded").asInt());
+        assertEquals(1, result.get("failed").asInt());
+        JsonNode answer = result.get("results").get(0);
+        assertEquals(400, answer.get("status").asInt());
+        assertEquals("HTTP 400", answer.get("error").textValue());
+        assertEquals("Invalid IPv4 address: not an ip", answer.get("body").asText());
+    }
+
+    @Test
+    void rejectsMissingOrInvalidPeers() throws Exception {
+        assertEquals(400, get("/api/fleet/port?host=127.0.0.1&port=80").statusCode());
+        assertEquals(400, get("/api/fleet/port?host=127.0.0.1&port=80&peer=ftp://127.0.0.1:21").statusCode());
+        assertEquals(400, get("/api/fleet/port?host=127.0.0.1&port=0&peer=127.0.0.1:" + peerPort).statusCode());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                .timeout(Duration.ofSeconds(10)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.networkdiagnostictool.controller;
+
+import com.example.networkdiagnostictool.service.TcpIpDiagnosticService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Saturates the port check endpoint with probes against targets that take a second to answer,
+ * far more than there are servlet threads, and checks that the ARP cache endpoint keeps answering
+ * promptly meanwhile, and that probes beyond the per-host limits are shed rather than queued.
+ * It takes several seconds and depends on the machine's load, so it is left out of the default build.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=TcpIpDiagnosticControllerLoadTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "history.dir=target/history",
+        "server.tomcat.threads.max=20",
+        "diagnostic.executor.per-host-concurrency=4",
+        "diagnostic.executor.per-host-queue=16"})
+class TcpIpDiagnosticControllerLoadTest {
+
+    private static final int SLOW_HOSTS = 4;
+    private static final int SLOW_REQUESTS = 200;
+    private static final long SLOW_PROBE_MILLIS = 1000;
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private TcpIpDiagnosticService tcpIpDiagnosticService;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void fastEndpointsKeepTheirLatencyWhileSlowProbesSaturate() throws Exception {
+        when(tcpIpDiagnosticService.checkPort(anyString(), anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(SLOW_PROBE_MILLIS);
+            return -1;
+        });
+        long[] idle = measureFastEndpoint(20);
+
+        List<CompletableFuture<HttpResponse<String>>> slow = new ArrayList<>();
+        for (int i = 0; i < SLOW_REQUESTS; i++) {
+            // Distinct ports, so no two probes are shared
+            slow.add(client.sendAsync(request("/api/tcpip/port?host=10.255.0." + (i % SLOW_HOSTS + 1)
+                    + "&port=" + (1000 + i)), HttpResponse.BodyHandlers.ofString()));
+        }
+        List<Long> busy = new ArrayList<>();
+        while (!CompletableFuture.allOf(slow.toArray(new CompletableFuture[0])).isDone()) {
+            for (long latency : measureFastEndpoint(1)) {
+                busy.add(latency);
+            }
+        }
+
+        int completed = 0;
+        int shed = 0;
+        for (CompletableFuture<HttpResponse<String>> response : slow) {
+            HttpResponse<String> result = response.get(30, TimeUnit.SECONDS);
+            if (result.statusCode() == 200) {
+                completed++;
+            } else {
+                assertEquals(503, result.statusCode());
+                assertEquals("1", result.headers().firstValue("Retry-After").orElse(null));
+                shed++;
+            }
+        }
+        long[] busyLatencies = busy.stream().mapToLong(Long::longValue).sorted().toArray();
+        long idleP50 = idle[idle.length / 2];
+        long p50 = busyLatencies[busyLatencies.length / 2];
+        long p99 = busyLatencies[(int) (busyLatencies.length * 0.99)];
+        String latencies = String.format("ARP cache latency idle p50 %d us, under load p50 %d us, p99 %d us over %d requests",
+                idleP50 / 1000, p50 / 1000, p99 / 1000, busyLatencies.length);
+
+        assertTrue(busyLatencies.length >= 10, latencies);
+        // A servlet thread held by a probe would make fast requests wait for a whole probe
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(p99) < SLOW_PROBE_MILLIS / 2, latencies);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(p50) < SLOW_PROBE_MILLIS / 10, latencies);
+        assertTrue(completed >= SLOW_HOSTS * 4, completed + " slow probes completed, " + shed + " shed");
+        assertTrue(shed > 0, "no slow probe was shed");
+        assertEquals(SLOW_REQUESTS, completed + shed);
+    }
+
+    private long[] measureFastEndpoint(int requests) throws Exception {
+        long[] latencies = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(request("/api/arp/cache"), HttpResponse.BodyHandlers.ofString());
+            latencies[i] = System.nanoTime() - start;
+            assertEquals(200, response.statusCode());
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+    }
+}
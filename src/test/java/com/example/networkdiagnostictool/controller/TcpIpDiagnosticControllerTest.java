@@ -0,0 +1,96 @@
+package com.example.networkdiagnostictool.controller;
+
+import com.example.networkdiagnostictool.model.SweepHost;
+import com.example.networkdiagnostictool.model.SweepSummary;
+import com.example.networkdiagnostictool.service.ConnectionTimingProbe;
+import com.example.networkdiagnostictool.service.DiagnosticExecutor;
+import com.example.networkdiagnostictool.service.HostResolver;
+import com.example.networkdiagnostictool.service.HostSweeper;
+import com.example.networkdiagnostictool.service.PingProber;
+import com.example.networkdiagnostictool.service.ProbeResultCache;
+import com.example.networkdiagnostictool.service.TcpIpDiagnosticService;
+import com.example.networkdiagnostictool.service.ThroughputTester;
+import com.example.networkdiagnostictool.validator.HostValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@WebMvcTest(TcpIpDiagnosticController.class)
+class TcpIpDiagnosticControllerTest {
+
+    private static final String HOST_LINE =
+            "{\"address\":\"10.0.0.1\",\"alive\":true,\"source\":\"arp\",\"macAddress\":null,\"rttMicros\":null,\"openPorts\":null}\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TcpIpDiagnosticService tcpIpDiagnosticService;
+    @MockBean
+    private HostValidator hostValidator;
+    @MockBean
+    private HostResolver hostResolver;
+    @MockBean
+    private ThroughputTester throughputTester;
+    @MockBean
+    private ProbeResultCache probeResultCache;
+    @MockBean
+    private DiagnosticExecutor diagnosticExecutor;
+    @MockBean
+    private ConnectionTimingProbe connectionTimingProbe;
+    @MockBean
+    private HostSweeper hostSweeper;
+    @MockBean
+    private PingProber pingProber;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void endsTheSweepWithItsSummary() throws Exception {
+        when(hostSweeper.sweep(any(), any(), anyInt(), anyBoolean(), any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<SweepHost> sink = invocation.getArgument(4);
+            sink.accept(SweepHost.builder().address("10.0.0.1").alive(true).source("arp").build());
+            return CompletableFuture.completedFuture(SweepSummary.builder()
+                    .cidr("10.0.0.0/30").addresses(2).probed(1).alive(1).elapsedMillis(5).build());
+        });
+
+        MvcResult started = mockMvc.perform(get("/api/tcpip/sweep?cidr=10.0.0.0/30"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(HOST_LINE
+                        + "{\"summary\":{\"cidr\":\"10.0.0.0/30\",\"addresses\":2,\"probed\":1,\"alive\":1,\"elapsedMillis\":5}}\n"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tellsTheClientWhyASweepFailed() throws Exception {
+        when(hostSweeper.sweep(any(), any(), anyInt(), anyBoolean(), any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<SweepHost> sink = invocation.getArgument(4);
+            sink.accept(SweepHost.builder().address("10.0.0.1").alive(true).source("arp").build());
+            return CompletableFuture.failedFuture(new IllegalStateException("Probe pool shut down"));
+        });
+
+        MvcResult started = mockMvc.perform(get("/api/tcpip/sweep?cidr=10.0.0.0/30"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(HOST_LINE + "{\"error\":\"Probe pool shut down\"}\n", started.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.networkdiagnostictool.metrics;
+
+import com.example.networkdiagnostictool.service.AsyncConnector;
+import com.example.networkdiagnostictool.service.HostResolver;
+import com.example.networkdiagnostictool.service.NioPortScanner;
+import com.example.networkdiagnostictool.service.TcpIpDiagnosticService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiagnosticMetricsAspectTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final AsyncConnector connector = new AsyncConnector();
+
+    @Test
+    void timesCallsByOutcome() throws Exception {
+        TcpIpDiagnosticService service = instrumented(newService());
+        int closedPort;
+        try (ServerSocket closed = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            closedPort = closed.getLocalPort();
+        }
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            assertEquals(server.getLocalPort(), service.checkPort("127.0.0.1", server.getLocalPort()));
+            assertEquals(server.getLocalPort(), service.checkPort("127.0.0.1", server.getLocalPort()));
+        }
+        assertEquals(-1, service.checkPort("127.0.0.1", closedPort));
+
+        assertEquals(2, timer("checkPort", "success").count());
+        assertEquals(1, timer("checkPort", "failure").count());
+        assertTrue(timer("checkPort", "success").totalTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    void timesAsynchronousCallsUntilCompletion() throws Exception {
+        TcpIpDiagnosticService service = instrumented(newService());
+        int closedPort;
+        try (ServerSocket closed = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            closedPort = closed.getLocalPort();
+        }
+
+        assertEquals(-1L, service.connectAsync("127.0.0.1", closedPort, 2000).get(5, TimeUnit.SECONDS));
+
+        assertEquals(1, timer("connectAsync", "failure").count());
+    }
+
+    private TcpIpDiagnosticService newService() {
+        return new TcpIpDiagnosticService(new NioPortScanner(), connector, new HostResolver(10, 30_000, 5_000, 0.8, false),
+                registry, 2000, 256);
+    }
+
+    private TcpIpDiagnosticService instrumented(TcpIpDiagnosticService target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new DiagnosticMetricsAspect(registry));
+        return factory.getProxy();
+    }
+
+    private Timer timer(String method, String outcome) {
+        return registry.get(DiagnosticMetricsAspect.METRIC_NAME)
+                .tag("class", "TcpIpDiagnosticService").tag("method", method).tag("outcome", outcome).timer();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ArpChange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@EnabledOnOs(OS.LINUX)
+class ArpCacheServiceTest {
+
+    private static final String HEADER =
+            "IP address       HW type     Flags       HW address            Mask     Device\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void refreshPublishesOnlyDifferences() throws IOException {
+        Path table = tempDir.resolve("arp");
+        ArpChangeFeed feed = mock(ArpChangeFeed.class);
+        ArpCacheService service = new ArpCacheService(table.toString(), feed, mock(CommandExecutor.class));
+
+        write(table, "10.0.0.1 0x1 0x2 aa:aa:aa:aa:aa:01 * eth0",
+                "10.0.0.2 0x1 0x2 aa:aa:aa:aa:aa:02 * eth0");
+        service.refresh();
+        write(table, "10.0.0.1 0x1 0x2 aa:aa:aa:aa:aa:01 * eth0",
+                "10.0.0.2 0x1 0x2 bb:bb:bb:bb:bb:02 * eth0",
+                "10.0.0.3 0x1 0x2 aa:aa:aa:aa:aa:03 * eth0");
+        service.refresh();
+        write(table, "10.0.0.2 0x1 0x2 bb:bb:bb:bb:bb:02 * eth0",
+                "10.0.0.3 0x1 0x2 aa:aa:aa:aa:aa:03 * eth0");
+        service.refresh();
+        service.refresh();
+
+        ArgumentCaptor<List<ArpChange>> published = ArgumentCaptor.forClass(List.class);
+        // The last refresh found nothing new and publishes nothing
+        verify(feed, times(3)).publish(published.capture());
+        List<List<ArpChange>> batches = published.getAllValues();
+
+        assertEquals(2, batches.get(0).size());
+        List<ArpChange> second = batches.get(1);
+        assertEquals(2, second.size());
+        assertEquals(ArpChange.Type.CHANGED, second.get(0).getType());
+        assertEquals("aa:aa:aa:aa:aa:02", second.get(0).getPrevious().getMacAddress());
+        assertEquals(ArpChange.Type.ADDED, second.get(1).getType());
+        assertEquals(List.of(ArpChange.Type.REMOVED), batches.get(2).stream().map(ArpChange::getType).collect(Collectors.toList()));
+    }
+
+    private static void write(Path table, String... lines) throws IOException {
+        Files.write(table, (HEADER + String.join("\n", lines) + "\n").getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ArpEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArpTableTest {
+
+    @Test
+    void indexesByIpMacAndInterface() {
+        ArpTable.Builder builder = new ArpTable.Builder();
+        builder.add(new ArpEntry("10.0.0.1", "aa:bb:cc:00:00:01", "eth0", 1, 2));
+        builder.add(new ArpEntry("10.0.0.2", "aa:bb:cc:00:00:02", "eth0", 1, 2));
+        builder.add(new ArpEntry("10.0.0.3", "aa:bb:cc:00:00:02", "eth1", 1, 2));
+        builder.add(new ArpEntry("10.0.0.1", "aa:bb:cc:00:00:09", "eth1", 1, 0));
+        builder.add(new ArpEntry("fe80::1", "aa:bb:cc:00:00:01", "eth0"));
+        ArpTable table = builder.build();
+
+        assertEquals(4, table.size());
+        List<ArpEntry> byIp = table.findByIp((int) ArpTable.parseIpv4("10.0.0.1"));
+        assertEquals(2, byIp.size());
+        assertEquals("eth0", byIp.get(0).getInterfaceName());
+        assertEquals("eth1", byIp.get(1).getInterfaceName());
+
+        List<ArpEntry> byMac = table.findByMac(ArpTable.parseMac("AA-BB-CC-00-00-02"));
+        assertEquals(2, byMac.size());
+        assertEquals("10.0.0.2", byMac.get(0).getIpAddress());
+        assertEquals("10.0.0.3", byMac.get(1).getIpAddress());
+
+        assertEquals(2, table.findByInterface("eth1").size());
+        assertTrue(table.findByInterface("eth9").isEmpty());
+        assertTrue(table.findByIp((int) ArpTable.parseIpv4("10.0.0.4")).isEmpty());
+        assertEquals(1, table.findRow((int) ArpTable.parseIpv4("10.0.0.2"), "eth0"));
+        assertEquals(-1, table.findRow((int) ArpTable.parseIpv4("10.0.0.2"), "eth1"));
+    }
+
+    @Test
+    void parsesAndFormatsAddresses() {
+        assertEquals(0xC0A80101L, ArpTable.parseIpv4("192.168.1.1"));
+        assertEquals(0xFFFFFFFFL, ArpTable.parseIpv4("255.255.255.255"));
+        assertEquals(-1, ArpTable.parseIpv4("256.1.1.1"));
+        assertEquals(-1, ArpTable.parseIpv4("1.2.3"));
+        assertEquals(-1, ArpTable.parseIpv4("1..2.3"));
+        assertEquals("255.255.255.255", ArpTable.formatIpv4((int) ArpTable.parseIpv4("255.255.255.255")));
+
+        assertEquals(0xAABBCCDDEEFFL, ArpTable.parseMac("aa:bb:cc:dd:ee:ff"));
+        assertEquals(-1, ArpTable.parseMac("aa:bb:cc:dd:ee"));
+        assertEquals(-1, ArpTable.parseMac("aa:bb:cc:dd:ee:fg"));
+        assertEquals("0a:bb:cc:dd:ee:ff", ArpTable.formatMac(ArpTable.parseMac("0A:BB:CC:DD:EE:FF")));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.networkdiagnostictool.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EnabledOnOs({OS.LINUX, OS.MAC})
+class CommandExecutorTest {
+
+    private final CommandExecutor executor = new CommandExecutor(2, 5000, 100);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void passesArgumentsVerbatimAndCollectsOutput() throws Exception {
+        CommandResult result = executor.execute("printf", "%s\\n", "a b", "$HOME;ls");
+
+        assertTrue(result.isSuccess());
+        assertEquals(List.of("a b", "$HOME;ls"), result.getStdout());
+        assertEquals(1, executor.getForkCount());
+    }
+
+    @Test
+    void streamsStdoutAndFeedsStdin() throws Exception {
+        List<String> lines = new ArrayList<>();
+        CommandResult result = executor.execute(CommandExecutor.command("cat")
+                .input("one\ntwo\n".getBytes(StandardCharsets.UTF_8))
+                .onStdout(lines::add));
+
+        assertTrue(result.isSuccess());
+        assertEquals(List.of("one", "two"), lines);
+        assertTrue(result.getStdout().isEmpty());
+    }
+
+    @Test
+    void destroysCommandsThatExceedTheirTimeout() throws Exception {
+        long start = System.nanoTime();
+        CommandResult result = executor.execute(CommandExecutor.command("sleep", "30").timeout(Duration.ofMillis(200)));
+
+        assertTrue(result.isTimedOut());
+        assertFalse(result.isSuccess());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).getSeconds() < 5);
+        assertEquals(1, executor.getTimeoutCount());
+    }
+
+    @Test
+    void collectsStderrAndExitCode() throws Exception {
+        CommandResult result = executor.execute("sh", "-c", "echo failed >&2; exit 3");
+
+        assertEquals(3, result.getExitCode());
+        assertEquals(List.of("failed"), result.getStderr());
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.IptablesChain;
+import com.example.networkdiagnostictool.model.IptablesRule;
+import com.example.networkdiagnostictool.model.IptablesRuleStats;
+import com.example.networkdiagnostictool.model.PacketVerdict;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledRulesetTest {
+
+    private static final String RULESET = String.join("\n",
+            "*nat",
+            ":PREROUTING ACCEPT [0:0]",
+            "[0:0] -A PREROUTING -p tcp -j DNAT --to-destination 10.0.0.1",
+            "COMMIT",
+            "*filter",
+            ":INPUT DROP [0:0]",
+            ":FORWARD DROP [0:0]",
+            ":OUTPUT ACCEPT [0:0]",
+            ":web - [0:0]",
+            ":trusted - [0:0]",
+            "[0:0] -A INPUT -i lo -j ACCEPT",
+            "[0:0] -A INPUT -m state --state RELATED,ESTABLISHED -j ACCEPT",
+            "[0:0] -A INPUT -s 10.0.0.0/16 -j trusted",
+            "[0:0] -A INPUT -p tcp -m tcp --dport 440:450 -j web",
+            "[0:0] -A INPUT -p udp -m udp --dport 53 -j LOG",
+            "[0:0] -A INPUT -p udp -m udp --dport 53 -j ACCEPT",
+            "[0:0] -A web -s 192.168.0.0/16 -j RETURN",
+            "[0:0] -A web -p tcp -m tcp --dport 443 -j ACCEPT",
+            "[0:0] -A trusted -s 10.0.3.0/24 -p tcp -m tcp --sport 1024:65535 --dport 443 -j ACCEPT",
+            "[0:0] -A trusted -s 10.0.3.7/32 -j REJECT --reject-with icmp-port-unreachable",
+            "COMMIT");
+
+    private final CompiledRuleset rules = CompiledRuleset.compile(parse(RULESET));
+
+    @Test
+    void findsFirstMatchAcrossJumps() {
+        PacketVerdict verdict = evaluate("INPUT", IptablesRule.Protocol.TCP, "10.0.3.7", 51000, "10.0.9.1", 443, "eth0");
+        assertEquals("ACCEPT", verdict.getVerdict());
+        assertEquals("trusted", verdict.getChain());
+        assertEquals(1, verdict.getPosition());
+        // The state rule before the jump is not modelled
+        assertFalse(verdict.isExact());
+        assertEquals(1, rules.getUnsupportedRuleCount());
+        assertEquals(10, rules.getRuleCount());
+
+        verdict = evaluate("INPUT", IptablesRule.Protocol.TCP, "10.0.3.7", 80, "10.0.9.1", 443, "eth0");
+        assertEquals("REJECT", verdict.getVerdict());
+        assertEquals(2, verdict.getPosition());
+    }
+
+    @Test
+    void appliesReturnNonTerminatingTargetsAndPolicy() {
+        assertEquals("ACCEPT", evaluate("INPUT", IptablesRule.Protocol.TCP, "172.16.0.1", 5000, "10.0.9.1", 443, "eth0").getVerdict());
+
+        PacketVerdict returned = evaluate("INPUT", IptablesRule.Protocol.TCP, "192.168.1.1", 5000, "10.0.9.1", 443, "eth0");
+        assertEquals("DROP", returned.getVerdict());
+        assertEquals("INPUT", returned.getChain());
+        assertNull(returned.getPosition());
+
+        PacketVerdict dns = evaluate("INPUT", IptablesRule.Protocol.UDP, "8.8.8.8", 53, "10.0.9.1", 53, "eth0");
+        assertEquals("ACCEPT", dns.getVerdict());
+        assertEquals(6, dns.getPosition());
+
+        assertEquals(1, evaluate("INPUT", IptablesRule.Protocol.ICMP, "127.0.0.1", -1, "127.0.0.1", -1, "lo").getPosition());
+        assertEquals("ACCEPT", evaluate("OUTPUT", IptablesRule.Protocol.TCP, "1.1.1.1", 1, "2.2.2.2", 2, null).getVerdict());
+    }
+
+    @Test
+    void agreesWithLinearEvaluation() {
+        // Few port ranges are searched, many are looked up in a table of every port
+        agreesWithLinearEvaluation(30);
+        agreesWithLinearEvaluation(300);
+    }
+
+    private static void agreesWithLinearEvaluation(int ruleCount) {
+        Random random = new Random(42);
+        List<IptablesChain> chains = parse(randomRuleset(random, ruleCount));
+        CompiledRuleset compiled = CompiledRuleset.compile(chains);
+        List<IptablesRuleStats> input = chains.get(0).getRules();
+
+        CompiledRuleset.Packet packet = new CompiledRuleset.Packet();
+        for (int i = 0; i < 20_000; i++) {
+            IptablesRule.Protocol protocol = random.nextBoolean() ? IptablesRule.Protocol.TCP : IptablesRule.Protocol.UDP;
+            int source = 0x0a000000 | random.nextInt(1 << 12);
+            int destination = 0x0a000000 | random.nextInt(1 << 12);
+            int sourcePort = random.nextInt(2048);
+            int destinationPort = random.nextInt(2048);
+            PacketVerdict verdict = compiled.evaluate("INPUT", packet.set(protocol, source, sourcePort, destination, destinationPort));
+
+            Integer expected = null;
+            for (IptablesRuleStats rule : input) {
+                if (matches(rule, protocol, source, sourcePort, destination, destinationPort)) {
+                    expected = rule.getPosition();
+                    break;
+                }
+            }
+            assertEquals(expected, verdict.getPosition());
+            assertTrue(verdict.isExact());
+        }
+    }
+
+    @Test
+    void appendedRulesEvaluateAsIfCompiledTogether() {
+        Random random = new Random(11);
+        String base = randomRuleset(random, 300);
+        String extra = randomRuleset(random, 20);
+        List<IptablesRuleStats> extraRules = parse(extra).get(0).getRules();
+        CompiledRuleset appended = CompiledRuleset.compile(parse(base)).append(Map.of("INPUT", extraRules));
+        // Both rulesets end in COMMIT; splice the extra rules in before the base one's
+        String combinedText = base.substring(0, base.lastIndexOf("COMMIT"))
+                + extra.substring(extra.indexOf("-A INPUT"));
+        CompiledRuleset combined = CompiledRuleset.compile(parse(combinedText));
+        assertEquals(combined.getRuleCount(), appended.getRuleCount());
+
+        CompiledRuleset.Packet packet = new CompiledRuleset.Packet();
+        for (int i = 0; i < 20_000; i++) {
+            packet.set(random.nextBoolean() ? IptablesRule.Protocol.TCP : IptablesRule.Protocol.UDP,
+                    0x0a000000 | random.nextInt(1 << 12), random.nextInt(2048),
+                    0x0a000000 | random.nextInt(1 << 12), random.nextInt(2048));
+            PacketVerdict expected = combined.evaluate("INPUT", packet);
+            PacketVerdict actual = appended.evaluate("INPUT", packet);
+            assertEquals(expected.getVerdict(), actual.getVerdict());
+            assertEquals(expected.getPosition(), actual.getPosition());
+        }
+    }
+
+    @Test
+    void appendedRulesFollowReturnAndGoto() {
+        CompiledRuleset compiled = CompiledRuleset.compile(parse(String.join("\n",
+                "*filter",
+                ":INPUT DROP [0:0]",
+                ":OUTPUT DROP [0:0]",
+                ":web - [0:0]",
+                "[0:0] -A INPUT -p tcp -m tcp --dport 80 -j RETURN",
+                "[0:0] -A INPUT -p tcp -m tcp --dport 443 -g web",
+                "[0:0] -A INPUT -p tcp -m tcp --dport 22 -j web",
+                "[0:0] -A web -s 10.0.0.1/32 -j ACCEPT",
+                "COMMIT")));
+        CompiledRuleset appended = compiled.append(Map.of(
+                "INPUT", parse("*filter\n:INPUT DROP [0:0]\n-A INPUT -p tcp -j ACCEPT\nCOMMIT").get(0).getRules(),
+                "web", parse("*filter\n:INPUT DROP [0:0]\n-A INPUT -j DROP\nCOMMIT").get(0).getRules()));
+        assertEquals(5, appended.getRuleCount());
+
+        CompiledRuleset.Packet packet = new CompiledRuleset.Packet();
+        int source = (int) ArpTable.parseIpv4("10.0.0.2");
+        // RETURN in a built-in chain and the end of a chain gone to both apply the policy
+        assertEquals("DROP", appended.evaluate("INPUT", packet.set(IptablesRule.Protocol.TCP, source, 5000, source, 80)).getVerdict());
+        assertNull(appended.evaluate("INPUT", packet.set(IptablesRule.Protocol.TCP, source, 5000, source, 443)).getPosition());
+        // The end of a chain jumped to continues in the calling chain, reaching the appended rule
+        PacketVerdict ssh = appended.evaluate("INPUT", packet.set(IptablesRule.Protocol.TCP, source, 5000, source, 22));
+        assertEquals("ACCEPT", ssh.getVerdict());
+        assertEquals("INPUT", ssh.getChain());
+        assertEquals(4, ssh.getPosition());
+        // Only built-in chains take appended rules
+        assertEquals("DROP", compiled.evaluate("INPUT", packet).getVerdict());
+    }
+
+    /**
+     * Measures evaluation throughput against a large INPUT chain of random rules.
+     * Run with {@code mvn test -Dbenchmark=true -Dtest=CompiledRulesetTest}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkEvaluation() {
+        Random random = new Random(7);
+        int ruleCount = 5000;
+        long start = System.nanoTime();
+        CompiledRuleset compiled = CompiledRuleset.compile(parse(randomRuleset(random, ruleCount)));
+        double compileMillis = (System.nanoTime() - start) / 1e6;
+
+        int packets = 1 << 16;
+        int[] sources = new int[packets];
+        int[] destinations = new int[packets];
+        int[] ports = new int[packets];
+        for (int i = 0; i < packets; i++) {
+            sources[i] = 0x0a000000 | random.nextInt(1 << 12);
+            destinations[i] = 0x0a000000 | random.nextInt(1 << 12);
+            ports[i] = random.nextInt(2048);
+        }
+        CompiledRuleset.Packet packet = new CompiledRuleset.Packet();
+        long matched = 0;
+        for (int round = 0; round < 30; round++) {
+            start = System.nanoTime();
+            for (int i = 0; i < packets; i++) {
+                PacketVerdict verdict = compiled.evaluate("INPUT", packet.set(IptablesRule.Protocol.TCP,
+                        sources[i], ports[i], destinations[i], ports[(i + 1) & (packets - 1)]));
+                matched += verdict.getPosition() == null ? 0 : 1;
+            }
+            if (round == 29) {
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%d rules: compiled in %.1f ms, %.2f M packets/s (%d matched)%n",
+                        ruleCount, compileMillis, packets / seconds / 1e6, matched);
+            }
+        }
+    }
+
+    private PacketVerdict evaluate(String chain, IptablesRule.Protocol protocol, String source, int sourcePort,
+                                   String destination, int destinationPort, String inInterface) {
+        return rules.evaluate(chain, new CompiledRuleset.Packet()
+                .set(protocol, (int) ArpTable.parseIpv4(source), sourcePort, (int) ArpTable.parseIpv4(destination), destinationPort)
+                .interfaces(inInterface, null));
+    }
+
+    private static String randomRuleset(Random random, int ruleCount) {
+        List<String> lines = new ArrayList<>();
+        lines.add("*filter");
+        lines.add(":INPUT DROP [0:0]");
+        for (int i = 0; i < ruleCount; i++) {
+            StringBuilder rule = new StringBuilder("-A INPUT");
+            if (random.nextInt(3) > 0) {
+                int prefix = 20 + random.nextInt(13);
+                int address = (0x0a000000 | random.nextInt(1 << 12)) & (int) (0xffffffffL << (32 - prefix));
+                rule.append(" -s ").append(ArpTable.formatIpv4(address)).append('/').append(prefix);
+            }
+            if (random.nextInt(3) > 0) {
+                rule.append(" -d ").append(ArpTable.formatIpv4(0x0a000000 | random.nextInt(1 << 12))).append("/32");
+            }
+            String protocol = random.nextBoolean() ? "tcp" : "udp";
+            rule.append(" -p ").append(protocol).append(" -m ").append(protocol);
+            if (random.nextBoolean()) {
+                int low = random.nextInt(2048);
+                rule.append(" --dport ").append(low).append(':').append(low + random.nextInt(64));
+            }
+            if (random.nextInt(4) == 0) {
+                rule.append(" --sport ").append(random.nextInt(2048));
+            }
+            rule.append(" -j ACCEPT");
+            lines.add(rule.toString());
+        }
+        lines.add("COMMIT");
+        return String.join("\n", lines);
+    }
+
+    private static boolean matches(IptablesRuleStats rule, IptablesRule.Protocol protocol, int source, int sourcePort,
+                                   int destination, int destinationPort) {
+        return rule.getProtocol() == protocol
+                && inPrefix(rule.getSourceIp(), source) && inPrefix(rule.getDestinationIp(), destination)
+                && inRange(rule.getSourcePort(), sourcePort) && inRange(rule.getDestinationPort(), destinationPort);
+    }
+
+    private static boolean inPrefix(String cidr, int address) {
+        if (cidr == null) {
+            return true;
+        }
+        String[] parts = cidr.split("/");
+        int prefix = Integer.parseInt(parts[1]);
+        long mask = 0xffffffffL << (32 - prefix);
+        return ((address ^ ArpTable.parseIpv4(parts[0])) & mask) == 0;
+    }
+
+    private static boolean inRange(String range, int port) {
+        if (range == null) {
+            return true;
+        }
+        String[] parts = range.split(":");
+        return port >= Integer.parseInt(parts[0]) && port <= Integer.parseInt(parts[parts.length - 1]);
+    }
+
+    private static List<IptablesChain> parse(String ruleset) {
+        IptablesSaveParser parser = new IptablesSaveParser();
+        ruleset.lines().forEach(parser);
+        return parser.chains();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ConnectionCount;
+import com.example.networkdiagnostictool.model.ConnectionSummary;
+import com.example.networkdiagnostictool.model.SocketEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.networkdiagnostictool.service.ProcNetSocketReaderTest.HEADER;
+import static com.example.networkdiagnostictool.service.ProcNetSocketReaderTest.line;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionTableServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void summarizesStatesRemotesAndPorts() throws IOException {
+        write("tcp",
+                line(0, "0.0.0.0", 443, "0.0.0.0", 0, 10, 0, 0),
+                line(1, "10.0.0.1", 443, "10.0.0.5", 50000, 1, 0, 0),
+                line(2, "10.0.0.1", 443, "10.0.0.5", 50001, 1, 0, 0),
+                line(3, "10.0.0.1", 443, "10.0.0.6", 50002, 6, 0, 0),
+                line(4, "10.0.0.1", 40000, "10.0.0.5", 5432, 1, 0, 0));
+        write("tcp6",
+                line(0, "::", 22, "::", 0, 10, 0, 0),
+                line(1, "2001:db8::1", 22, "2001:db8::9", 60000, 1, 0, 0));
+        write("udp",
+                line(0, "0.0.0.0", 53, "0.0.0.0", 0, 7, 0, 0),
+                line(1, "10.0.0.1", 41000, "10.0.0.5", 53, 1, 0, 0));
+        // No udp6: tables missing from the kernel are skipped
+
+        ConnectionSummary summary = new ConnectionTableService(tempDir).summarize(2);
+
+        assertEquals(9, summary.getTotal());
+        assertEquals(7, summary.getTcp());
+        assertEquals(2, summary.getUdp());
+        assertEquals(Map.of("ESTABLISHED", 4, "TIME_WAIT", 1, "LISTEN", 2), summary.getTcpStates());
+        assertEquals(List.of("ESTABLISHED", "TIME_WAIT", "LISTEN"), List.copyOf(summary.getTcpStates().keySet()));
+        assertEquals(3, summary.getRemoteAddresses());
+        // 10.0.0.6 and 2001:db8::9 tie for second place
+        assertEquals(new ConnectionCount("10.0.0.5", 4), summary.getTopRemoteAddresses().get(0));
+        assertEquals(2, summary.getTopRemoteAddresses().size());
+        assertEquals(1, summary.getTopRemoteAddresses().get(1).getCount());
+        assertEquals(List.of(new ConnectionCount("443/tcp", 3), new ConnectionCount("22/tcp", 1)),
+                summary.getTopLocalPorts());
+    }
+
+    @Test
+    void listsSocketsMatchingEveryFilter() throws IOException {
+        write("tcp",
+                line(0, "10.0.0.1", 443, "10.0.0.5", 50000, 1, 0, 0),
+                line(1, "10.0.0.1", 443, "10.0.0.5", 50001, 6, 0, 0),
+                line(2, "10.0.0.1", 443, "10.0.0.6", 50002, 6, 0, 0));
+        write("tcp6", line(0, "2001:db8::1", 443, "2001:db8::9", 60000, 6, 0, 0));
+        write("udp", line(0, "0.0.0.0", 53, "0.0.0.0", 0, 7, 0, 0));
+        ConnectionTableService service = new ConnectionTableService(tempDir);
+
+        List<SocketEntry> waiting = service.list("tcp", "time_wait", 443, null, "10.0.0.5", 10);
+        assertEquals(1, waiting.size());
+        assertEquals(SocketEntry.builder().protocol("tcp").localAddress("10.0.0.1").localPort(443)
+                .remoteAddress("10.0.0.5").remotePort(50001).state("TIME_WAIT")
+                .uid(1000).inode(100001).build(), waiting.get(0));
+
+        List<SocketEntry> ipv6 = service.list(null, null, null, 60000, "2001:db8::9", 10);
+        assertEquals(1, ipv6.size());
+        assertEquals("2001:db8:0:0:0:0:0:1", ipv6.get(0).getLocalAddress());
+
+        assertEquals("UNCONN", service.list("udp", "UNCONN", null, null, null, 10).get(0).getState());
+        assertEquals(2, service.list(null, null, null, null, null, 2).size());
+        assertThrows(IllegalArgumentException.class, () -> service.list(null, "OPEN", null, null, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.list("sctp", null, null, null, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.list(null, null, null, null, "example.com", 10));
+        assertThrows(IllegalStateException.class, () -> new ConnectionTableService(tempDir.resolve("missing")).summarize(10));
+    }
+
+    @Test
+    void summaryAllocationDoesNotGrowWithSockets() throws IOException {
+        writeSockets(20_000, 500);
+        ConnectionTableService service = new ConnectionTableService(tempDir);
+        for (int warmup = 0; warmup < 20; warmup++) {
+            service.summarize(10);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        ConnectionSummary summary = service.summarize(10);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(20_000, summary.getTotal());
+        assertEquals(500, summary.getRemoteAddresses());
+        // Far below a single small object per socket; what remains is the result and the file channels
+        assertTrue(allocated < 64 * 1024, allocated + " bytes per summary");
+    }
+
+    private void write(String table, String... lines) throws IOException {
+        Files.write(tempDir.resolve(table), (HEADER + String.join("", lines)).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Writes established sockets to {@code tcp}, spread over the given number of remote addresses.
+     */
+    private void writeSockets(int sockets, int remotes) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(tempDir.resolve("tcp"), StandardCharsets.US_ASCII)) {
+            out.write(HEADER);
+            for (int i = 0; i < sockets; i++) {
+                int remote = i % remotes;
+                out.write(line(i, "10.0.0.1", 1024 + i % 60000, "10." + (remote >>> 16) + "." + ((remote >>> 8) & 0xff)
+                        + "." + (remote & 0xff), 443, 1, 0, 0));
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ConnectionTiming;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ServerSocketFactory;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionTimingProbeTest {
+
+    private static final long RESPONSE_DELAY_MILLIS = 50;
+
+    private final DiagnosticExecutor executor = new DiagnosticExecutor(new SimpleMeterRegistry(), 4, 100, 4, 16);
+    private final HostResolver resolver = new HostResolver(10, 60_000, 5_000, 0.8, false);
+    private SSLContext serverContext;
+    private ServerSocket http;
+    private ServerSocket https;
+
+    @BeforeEach
+    void startServers() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = getClass().getResourceAsStream("/timing-localhost.p12")) {
+            keyStore.load(in, "changeit".toCharArray());
+        }
+        KeyManagerFactory keys = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keys.init(keyStore, "changeit".toCharArray());
+        TrustManagerFactory trust = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trust.init(keyStore);
+        serverContext = SSLContext.getInstance("TLS");
+        serverContext.init(keys.getKeyManagers(), trust.getTrustManagers(), null);
+
+        http = serve(ServerSocketFactory.getDefault());
+        https = serve(serverContext.getServerSocketFactory());
+    }
+
+    @AfterEach
+    void stopServers() throws IOException {
+        http.close();
+        https.close();
+        executor.shutdown();
+        resolver.shutdown();
+    }
+
+    @Test
+    void timesEveryPhaseOfHttpAndHttpsRequests() {
+        // The client trusts the stand-in server's self-signed certificate, as it would a real CA
+        ConnectionTimingProbe probe = new ConnectionTimingProbe(executor, resolver, serverContext);
+
+        List<ConnectionTiming> timings = probe.probeAll(List.of(
+                ConnectionTimingProbe.parse("http://127.0.0.1:" + http.getLocalPort() + "/health?full=1"),
+                ConnectionTimingProbe.parse("https://localhost:" + https.getLocalPort() + "/")), true, 5000).join();
+
+        ConnectionTiming plain = timings.get(0);
+        assertNull(plain.getError(), plain.getError());
+        assertEquals("127.0.0.1", plain.getAddress());
+        // IP literals need no query
+        assertEquals(0L, plain.getDnsMicros());
+        assertNull(plain.getDnsError());
+        assertNotNull(plain.getConnectMicros());
+        assertNull(plain.getTlsMicros());
+        assertEquals(204, plain.getStatusCode());
+        assertTrue(plain.getFirstByteMicros() >= TimeUnit.MILLISECONDS.toMicros(RESPONSE_DELAY_MILLIS));
+
+        ConnectionTiming secure = timings.get(1);
+        assertNull(secure.getError(), secure.getError());
+        // Whether the name servers know localhost depends on the host; the connection works either way
+        assertTrue(secure.getDnsMicros() == null ^ secure.getDnsError() == null);
+        assertNotNull(secure.getAddress());
+        assertTrue(secure.getTlsMicros() > 0);
+        assertNotNull(secure.getTlsProtocol());
+        assertNotNull(secure.getCipherSuite());
+        assertEquals(204, secure.getStatusCode());
+        long dns = secure.getDnsMicros() == null ? 0 : secure.getDnsMicros();
+        assertEquals(dns + secure.getConnectMicros() + secure.getTlsMicros() + secure.getFirstByteMicros(),
+                secure.getTotalMicros());
+    }
+
+    @Test
+    void reportsThePhaseThatFailed() throws Exception {
+        ConnectionTimingProbe probe = new ConnectionTimingProbe(executor, resolver, SSLContext.getDefault());
+        int closedPort;
+        try (ServerSocket closed = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            closedPort = closed.getLocalPort();
+        }
+
+        // The default trust store does not know the self-signed certificate
+        ConnectionTiming untrusted = probe.probe(
+                ConnectionTimingProbe.parse("https://localhost:" + https.getLocalPort() + "/"), true, 5000);
+        assertEquals("tls", untrusted.getFailedPhase());
+        assertNotNull(untrusted.getConnectMicros());
+        assertNull(untrusted.getTlsMicros());
+
+        ConnectionTiming refused = probe.probe(
+                ConnectionTimingProbe.parse("http://127.0.0.1:" + closedPort + "/"), false, 5000);
+        assertEquals("connect", refused.getFailedPhase());
+        assertNotNull(refused.getDnsMicros());
+
+        ConnectionTiming connectOnly = probe.probe(
+                ConnectionTimingProbe.parse("http://127.0.0.1:" + http.getLocalPort()), false, 5000);
+        assertNull(connectOnly.getFailedPhase());
+        assertNull(connectOnly.getFirstByteMicros());
+        assertNull(connectOnly.getStatusCode());
+
+        assertThrows(IllegalArgumentException.class, () -> ConnectionTimingProbe.parse("ftp://example.com/"));
+        assertThrows(IllegalArgumentException.class, () -> ConnectionTimingProbe.parse("http:///path"));
+    }
+
+    /**
+     * Starts a server answering every request with 204 after a short delay, standing in for the application.
+     */
+    private static ServerSocket serve(ServerSocketFactory factory) throws IOException {
+        ServerSocket server = factory.createServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket client = server.accept();
+                    Thread handler = new Thread(() -> respond(client));
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return server;
+    }
+
+    private static void respond(Socket client) {
+        try (client) {
+            InputStream in = client.getInputStream();
+            int matched = 0;
+            int b;
+            byte[] end = "\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+            while (matched < end.length && (b = in.read()) >= 0) {
+                matched = b == end[matched] ? matched + 1 : b == end[0] ? 1 : 0;
+            }
+            if (matched < end.length) {
+                return;
+            }
+            Thread.sleep(RESPONSE_DELAY_MILLIS);
+            OutputStream out = client.getOutputStream();
+            out.write("HTTP/1.1 204 No Content\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        } catch (IOException | InterruptedException e) {
+            // The client went away
+        }
+    }
+}
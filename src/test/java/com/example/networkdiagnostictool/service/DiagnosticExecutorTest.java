@@ -0,0 +1,81 @@
+package com.example.networkdiagnostictool.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiagnosticExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DiagnosticExecutor executor = new DiagnosticExecutor(registry, 8, 100, 2, 3);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void limitsEachHostAndShedsBeyondItsQueue() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> slow = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            int id = i;
+            slow.add(executor.submit("Slow.example", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                await(release);
+                running.decrementAndGet();
+                return id;
+            }));
+        }
+
+        // Two running and three queued; the sixth is rejected without waiting
+        CompletionException shed = assertThrows(CompletionException.class, () -> slow.get(5).join());
+        assertInstanceOf(RejectedExecutionException.class, shed.getCause());
+        assertEquals(1, registry.counter("diagnostic.executor.rejections").count());
+
+        // Other hosts are unaffected by the saturated one
+        assertEquals("fast", executor.submit("fast.example", () -> "fast").get(5, TimeUnit.SECONDS));
+
+        release.countDown();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, slow.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    void failuresFreeTheirSlot() {
+        for (int i = 0; i < 10; i++) {
+            CompletableFuture<Object> failed = executor.submit("a", () -> {
+                throw new IllegalArgumentException("bad");
+            });
+            CompletionException e = assertThrows(CompletionException.class, failed::join);
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        assertEquals(1, executor.submit("a", () -> 1).join());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
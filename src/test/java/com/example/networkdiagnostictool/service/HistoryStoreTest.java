@@ -0,0 +1,114 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.HistoryPoint;
+import com.example.networkdiagnostictool.model.HistoryResolution;
+import com.example.networkdiagnostictool.model.HistorySeries;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void servesRangeQueriesAcrossSegmentsAndRestarts() throws Exception {
+        long base = minuteStart(System.currentTimeMillis()) - TimeUnit.MINUTES.toMillis(30);
+        HistoryStore store = open();
+        int a = store.seriesId("probe/a");
+        int b = store.seriesId("probe/b");
+        for (int i = 0; i < 100; i++) {
+            assertTrue(store.record(a, base + i * 1000L, i, false));
+            assertTrue(store.record(b, base + i * 1000L, -1, true));
+        }
+        awaitWritten(store, 200);
+
+        HistorySeries series = store.query("probe/a", HistoryResolution.RAW, base + 10_000, base + 19_000, 100);
+        assertEquals(10, series.getPoints().size());
+        assertEquals(base + 10_000, series.getPoints().get(0).getTimestamp());
+        assertEquals(19.0, series.getPoints().get(9).getMean());
+        assertNull(store.query("probe/unknown", HistoryResolution.RAW, base, base + 100_000, 100));
+        store.shutdown();
+
+        // 200 records in segments of 64: three sealed segments with index sidecars and one active segment
+        try (Stream<Path> files = Files.list(directory.resolve("raw"))) {
+            assertEquals(3, files.filter(file -> file.toString().endsWith(".idx")).count());
+        }
+
+        HistoryStore reopened = open();
+        assertEquals(List.of("probe/a", "probe/b"), reopened.getSeries("probe/"));
+        assertEquals(a, reopened.seriesId("probe/a"));
+        HistorySeries all = reopened.query("probe/a", HistoryResolution.RAW, base, base + 100_000, 1000);
+        assertEquals(100, all.getPoints().size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(base + i * 1000L, all.getPoints().get(i).getTimestamp());
+        }
+        HistorySeries truncated = reopened.query("probe/b", HistoryResolution.RAW, base, base + 100_000, 10);
+        assertTrue(truncated.isTruncated());
+        assertEquals(1, truncated.getPoints().get(0).getFailures());
+        assertNull(truncated.getPoints().get(0).getMean());
+        reopened.shutdown();
+    }
+
+    @Test
+    void rollsSamplesUpIntoMinutesAndHours() throws Exception {
+        long base = minuteStart(System.currentTimeMillis()) - TimeUnit.MINUTES.toMillis(10);
+        HistoryStore store = open();
+        int id = store.seriesId("probe/a");
+        // Three minutes of one sample per second with values 0..59, every tenth sample failed
+        for (int minute = 0; minute < 3; minute++) {
+            for (int second = 0; second < 60; second++) {
+                store.record(id, base + minute * 60_000L + second * 1000L, second, second % 10 == 0);
+            }
+        }
+        awaitWritten(store, 180);
+        store.shutdown();
+
+        HistoryStore reopened = open();
+        List<HistoryPoint> minutes = reopened.query("probe/a", HistoryResolution.MINUTE, base, base + 600_000, 100)
+                .getPoints();
+        assertEquals(3, minutes.size());
+        for (int minute = 0; minute < 3; minute++) {
+            HistoryPoint point = minutes.get(minute);
+            assertEquals(base + minute * 60_000L, point.getTimestamp());
+            assertEquals(60, point.getCount());
+            assertEquals(6, point.getFailures());
+            assertEquals(1.0, point.getMin());
+            assertEquals(59.0, point.getMax());
+            assertEquals(1620.0 / 54, point.getMean(), 1e-9);
+        }
+
+        // The minutes may straddle an hour boundary; together the hour buckets hold all samples
+        List<HistoryPoint> hours = reopened.query("probe/a", HistoryResolution.HOUR,
+                base - 3_600_000, base + 600_000, 100).getPoints();
+        assertEquals(180, hours.stream().mapToInt(HistoryPoint::getCount).sum());
+        assertEquals(18, hours.stream().mapToInt(HistoryPoint::getFailures).sum());
+        reopened.shutdown();
+    }
+
+    private HistoryStore open() {
+        return new HistoryStore(directory.toString(), 6, 7, 90, 64, 1024);
+    }
+
+    private static long minuteStart(long millis) {
+        return millis - millis % 60_000;
+    }
+
+    private static void awaitWritten(HistoryStore store, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (store.getWrittenCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, store.getWrittenCount());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.networkdiagnostictool.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HostResolverTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final InetAddress address = InetAddress.getLoopbackAddress();
+    private HostResolver resolver;
+
+    @AfterEach
+    void shutdown() {
+        resolver.shutdown();
+    }
+
+    @Test
+    void servesHitsUntilTheTtlExpires() throws Exception {
+        resolver = resolver(host -> {
+            lookups.incrementAndGet();
+            return address;
+        }, 2, false);
+
+        assertSame(address, resolver.resolve("Example.com"));
+        assertSame(address, resolver.resolve("example.com"));
+        assertEquals(1, lookups.get());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        resolver.resolve("example.com");
+        assertEquals(2, lookups.get());
+        assertEquals(1, resolver.getStats().getHits());
+        assertEquals(2, resolver.getStats().getMisses());
+
+        // IP literals never reach the lookup or the cache
+        resolver.resolve("10.0.0.1");
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void remembersUnknownNamesAndEvictsLeastRecentlyUsed() throws Exception {
+        resolver = resolver(host -> {
+            lookups.incrementAndGet();
+            if (host.startsWith("missing")) {
+                throw new UnknownHostException(host);
+            }
+            return address;
+        }, 2, false);
+
+        assertThrows(UnknownHostException.class, () -> resolver.resolve("missing.example"));
+        assertThrows(UnknownHostException.class, () -> resolver.resolve("missing.example"));
+        assertEquals(1, lookups.get());
+        assertEquals(1, resolver.getStats().getNegativeHits());
+
+        resolver.resolve("a.example");
+        resolver.resolve("b.example");
+        assertEquals(1, resolver.getStats().getEvictions());
+        assertThrows(UnknownHostException.class, () -> resolver.resolve("missing.example"));
+        assertEquals(4, lookups.get());
+    }
+
+    @Test
+    void sharesOneLookupBetweenConcurrentMisses() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        resolver = resolver(host -> {
+            lookups.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return address;
+        }, 10, false);
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] results = new Future<?>[8];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = callers.submit(() -> resolver.resolve("slow.example"));
+            }
+            while (resolver.getStats().getCoalescedMisses() < 7) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<?> result : results) {
+                assertSame(address, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, lookups.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void refreshesHotNamesAheadOfExpiryAndCanBeBypassed() throws Exception {
+        resolver = resolver(host -> {
+            lookups.incrementAndGet();
+            return address;
+        }, 10, false);
+
+        resolver.resolve("hot.example");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        resolver.resolve("hot.example");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (resolver.getStats().getRefreshes() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(2, lookups.get());
+        assertEquals(1, resolver.getStats().getRefreshes());
+
+        // The refreshed entry is valid for a full TTL from the refresh
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        resolver.resolve("hot.example");
+        assertEquals(2, lookups.get());
+
+        resolver.setBypass(true);
+        resolver.resolve("hot.example");
+        assertEquals(3, lookups.get());
+    }
+
+    private HostResolver resolver(HostResolver.Lookup lookup, int maxEntries, boolean bypass) {
+        return new HostResolver(lookup, now::get, maxEntries, 10_000, 5_000, 0.8, bypass);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ArpEntry;
+import com.example.networkdiagnostictool.model.SweepHost;
+import com.example.networkdiagnostictool.model.SweepSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HostSweeperTest {
+
+    private final AsyncConnector connector = new AsyncConnector();
+    private final ArpCacheService arpCacheService = mock(ArpCacheService.class);
+    private final List<String> probed = new CopyOnWriteArrayList<>();
+    private HostSweeper sweeper;
+
+    @AfterEach
+    void stop() {
+        sweeper.shutdown();
+        connector.shutdown();
+    }
+
+    @Test
+    void seedsFromTheArpCacheAndProbesTheRest() throws Exception {
+        ArpTable.Builder arp = new ArpTable.Builder();
+        arp.add(new ArpEntry("10.1.0.5", "aa:bb:cc:dd:ee:05", "eth0", 1, ArpEntry.FLAG_COMPLETE));
+        arp.add(new ArpEntry("10.1.0.6", "00:00:00:00:00:00", "eth0", 1, 0));
+        arp.add(new ArpEntry("10.2.0.1", "aa:bb:cc:dd:ee:01", "eth0", 1, ArpEntry.FLAG_COMPLETE));
+        when(arpCacheService.getTable()).thenReturn(arp.build());
+        sweeper = sweeper((address, timeout) -> {
+            probed.add(address.getHostAddress());
+            return address.getAddress()[3] % 2 == 1;
+        });
+
+        List<SweepHost> hosts = new CopyOnWriteArrayList<>();
+        SweepSummary summary = sweeper.sweep(CidrRange.parse("10.1.0.0/29"), new int[0], 100, true, hosts::add)
+                .get(5, TimeUnit.SECONDS);
+
+        // .0 and .7 are the network and broadcast addresses, .5 is known and .6 never resolved
+        assertEquals(List.of("10.1.0.1", "10.1.0.2", "10.1.0.3", "10.1.0.4", "10.1.0.6"),
+                probed.stream().sorted().collect(Collectors.toList()));
+        assertEquals(SweepHost.builder().address("10.1.0.5").alive(true).source("arp")
+                .macAddress("aa:bb:cc:dd:ee:05").build(), hosts.get(0));
+        Map<String, SweepHost> byAddress = hosts.stream().collect(Collectors.toMap(SweepHost::getAddress, h -> h));
+        assertEquals(6, byAddress.size());
+        assertEquals("ping", byAddress.get("10.1.0.3").getSource());
+        assertEquals(false, byAddress.get("10.1.0.4").isAlive());
+        assertEquals(6, summary.getAddresses());
+        assertEquals(5, summary.getProbed());
+        assertEquals(3, summary.getAlive());
+    }
+
+    @Test
+    void countsRefusedAndAcceptedPortsAsLiveHosts() throws Exception {
+        when(arpCacheService.getTable()).thenReturn(ArpTable.EMPTY);
+        sweeper = sweeper((address, timeout) -> false);
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"))) {
+            List<SweepHost> hosts = new CopyOnWriteArrayList<>();
+            sweeper.sweep(CidrRange.parse("127.0.0.0/30"), new int[]{server.getLocalPort()}, 2000, false, hosts::add)
+                    .get(5, TimeUnit.SECONDS);
+
+            hosts.sort(Comparator.comparing(SweepHost::getAddress));
+            assertEquals(2, hosts.size());
+            assertEquals(List.of(server.getLocalPort()), hosts.get(0).getOpenPorts());
+            assertEquals("tcp", hosts.get(0).getSource());
+            // Nothing listens on 127.0.0.2, but the refusal comes from a live host
+            assertEquals(List.of(), hosts.get(1).getOpenPorts());
+            assertTrue(hosts.get(1).isAlive());
+        }
+    }
+
+    @Test
+    void pacesProbesOverallAndPerSubnet() throws Exception {
+        when(arpCacheService.getTable()).thenReturn(ArpTable.EMPTY);
+        sweeper = new HostSweeper(arpCacheService, connector, (address, timeout) -> {
+            probed.add(address.getHostAddress());
+            return false;
+        }, 50, 10_000, 24, 1, 2, 16);
+
+        long start = System.nanoTime();
+        assertEquals(30, sweeper.sweep(CidrRange.parse("10.3.0.0/27"), new int[0], 100, false, host -> { })
+                .get(10, TimeUnit.SECONDS).getProbed());
+        // A burst of 5, then 50 per second
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(450));
+        sweeper.shutdown();
+
+        probed.clear();
+        sweeper = new HostSweeper(arpCacheService, connector, (address, timeout) -> {
+            probed.add(address.getHostAddress());
+            return false;
+        }, 10_000, 40, 28, 1, 2, 16);
+        start = System.nanoTime();
+        assertEquals(30, sweeper.sweep(CidrRange.parse("10.3.1.0/27"), new int[0], 100, false, host -> { })
+                .get(10, TimeUnit.SECONDS).getProbed());
+        // Each /28 gets a burst of 4, then 40 per second, and the two take turns
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(250));
+        assertEquals(List.of("10.3.1.16", "10.3.1.1", "10.3.1.17", "10.3.1.2"), probed.subList(0, 4));
+    }
+
+    @Test
+    void rejectsLargeRangesAndConcurrentSweeps() throws Exception {
+        when(arpCacheService.getTable()).thenReturn(ArpTable.EMPTY);
+        CountDownLatch release = new CountDownLatch(1);
+        sweeper = new HostSweeper(arpCacheService, connector, (address, timeout) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+            return false;
+        }, 1000, 1000, 24, 4, 1, 16);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> sweeper.sweep(CidrRange.parse("10.0.0.0/15"), new int[0], 100, false, host -> { }));
+        CompletableFuture<SweepSummary> running = sweeper.sweep(CidrRange.parse("10.4.0.0/30"), new int[0], 100, false, host -> { });
+        assertThrows(IllegalStateException.class,
+                () -> sweeper.sweep(CidrRange.parse("10.5.0.0/30"), new int[0], 100, false, host -> { }));
+        release.countDown();
+        assertEquals(2, running.get(5, TimeUnit.SECONDS).getAddresses());
+        assertThrows(IllegalArgumentException.class, () -> CidrRange.parse("10.0.0.0/33"));
+        assertThrows(IllegalArgumentException.class, () -> CidrRange.parse("10.0.0/8"));
+    }
+
+    private HostSweeper sweeper(Reachability reachability) {
+        return new HostSweeper(arpCacheService, connector, reachability, 1000, 1000, 24, 4, 2, 16);
+    }
+}
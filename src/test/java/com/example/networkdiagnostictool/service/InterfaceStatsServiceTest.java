@@ -0,0 +1,117 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.InterfaceRateSample;
+import com.example.networkdiagnostictool.model.InterfaceRates;
+import com.example.networkdiagnostictool.model.InterfaceStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InterfaceStatsServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void computesPerSecondRatesIntoABoundedRing() throws IOException {
+        Path dev = tempDir.resolve("dev");
+        Path sys = tempDir.resolve("sys");
+        Files.createDirectories(sys.resolve("eth0"));
+        Files.write(sys.resolve("eth0").resolve("speed"), "1000\n".getBytes(StandardCharsets.US_ASCII));
+        Files.write(sys.resolve("eth0").resolve("operstate"), "up\n".getBytes(StandardCharsets.US_ASCII));
+        AtomicLong clock = new AtomicLong();
+        InterfaceStatsService service = new InterfaceStatsService(dev, sys, 1000, 3, clock::get);
+
+        // eth0 receives 12.5 MB and 1000 packets per half second; lo is idle
+        for (int i = 0; i < 5; i++) {
+            write(dev, "eth0: " + (i * 12_500_000L) + " " + (i * 1000) + " 0 " + i + " 0 0 0 0 100 1 0 0 0 0 0 0\n"
+                    + "lo: 7 1 0 0 0 0 0 0 7 1 0 0 0 0 0 0\n");
+            service.sample();
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        }
+
+        InterfaceRates rates = service.getRates("eth0", 10);
+        assertEquals(3, rates.getSamples().size());
+        InterfaceRateSample latest = rates.getSamples().get(2);
+        assertEquals(25_000_000, latest.getRxBytesPerSecond(), 1e-6);
+        assertEquals(500, latest.getDurationMillis(), 1e-9);
+        assertEquals(2000, latest.getRxPacketsPerSecond(), 1e-6);
+        assertEquals(2, latest.getRxDroppedPerSecond(), 1e-6);
+        assertEquals(0, latest.getTxBytesPerSecond(), 1e-6);
+        assertEquals(1, service.getRates("eth0", 1).getSamples().size());
+        assertNull(service.getRates("eth1", 10));
+
+        List<InterfaceStats> interfaces = service.getInterfaces();
+        assertEquals("eth0", interfaces.get(0).getName());
+        assertEquals("up", interfaces.get(0).getOperState());
+        assertEquals(1000, interfaces.get(0).getSpeedMbps());
+        assertEquals(50_000_000L, interfaces.get(0).getRxBytes());
+        // 25 MB/s is 200 Mbit/s on a 1 Gbit/s link
+        assertEquals(0.2, interfaces.get(0).getUtilization(), 1e-9);
+        assertEquals("lo", interfaces.get(1).getName());
+        assertNull(interfaces.get(1).getSpeedMbps());
+        assertEquals(0, interfaces.get(1).getRxBytesPerSecond(), 1e-9);
+    }
+
+    @Test
+    void skipsCounterResetsAndForgetsRemovedInterfaces() throws IOException {
+        Path dev = tempDir.resolve("dev");
+        AtomicLong clock = new AtomicLong();
+        InterfaceStatsService service = new InterfaceStatsService(dev, tempDir, 1000, 10, clock::get);
+
+        write(dev, "veth0: 1000 10 0 0 0 0 0 0 0 0 0 0 0 0 0 0\nveth1: 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0\n");
+        service.sample();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        // veth0 was recreated and starts counting from zero again; veth1 is gone
+        write(dev, "veth0: 10 1 0 0 0 0 0 0 0 0 0 0 0 0 0 0\n");
+        service.sample();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        write(dev, "veth0: 110 2 0 0 0 0 0 0 0 0 0 0 0 0 0 0\n");
+        service.sample();
+
+        List<InterfaceRateSample> samples = service.getRates("veth0", 10).getSamples();
+        assertEquals(1, samples.size());
+        assertEquals(100, samples.get(0).getRxBytesPerSecond(), 1e-9);
+        assertNull(service.getRates("veth1", 10));
+        assertEquals(1, service.getInterfaces().size());
+    }
+
+    @Test
+    void skipsSamplesThatComeTooSoonAndReportsActualDurations() throws IOException {
+        Path dev = tempDir.resolve("dev");
+        AtomicLong clock = new AtomicLong();
+        InterfaceStatsService service = new InterfaceStatsService(dev, tempDir, 1000, 10, clock::get);
+
+        write(dev, "eth0: 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0\n");
+        service.sample();
+        // A delayed run, then the catch-up run right behind it
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1600));
+        write(dev, "eth0: 1600 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0\n");
+        service.sample();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        write(dev, "eth0: 1700 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0\n");
+        service.sample();
+
+        List<InterfaceRateSample> samples = service.getRates("eth0", 10).getSamples();
+        assertEquals(1, samples.size());
+        assertEquals(1600, samples.get(0).getDurationMillis(), 1e-9);
+        assertEquals(1000, samples.get(0).getRxBytesPerSecond(), 1e-9);
+    }
+
+    private void write(Path dev, String lines) throws IOException {
+        Path next = tempDir.resolve("dev.next");
+        Files.write(next, (ProcNetDevReaderTest.HEADER + lines).getBytes(StandardCharsets.US_ASCII));
+        Files.move(next, dev, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.IptablesBatchOperation;
+import com.example.networkdiagnostictool.model.IptablesBatchResult;
+import com.example.networkdiagnostictool.model.IptablesRule;
+import com.example.networkdiagnostictool.model.IptablesRuleStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IpTablesServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rendersBatchAsSingleRestoreTransaction() {
+        List<IptablesBatchOperation> operations = List.of(
+                new IptablesBatchOperation(IptablesBatchOperation.Operation.ADD, IptablesRule.builder()
+                        .chain(IptablesRule.Chain.INPUT).sourceIp("192.168.1.0/24").protocol(IptablesRule.Protocol.TCP)
+                        .destinationPort(80).action(IptablesRule.Action.ACCEPT).build()),
+                new IptablesBatchOperation(IptablesBatchOperation.Operation.DELETE, IptablesRule.builder()
+                        .chain(IptablesRule.Chain.OUTPUT).destinationIp("10.0.0.1").action(IptablesRule.Action.DROP).build()));
+
+        assertTrue(IpTablesService.validateBatch(operations).isEmpty());
+        assertEquals("*filter\n"
+                        + "-A INPUT -s 192.168.1.0/24 -p tcp --dport 80 -j ACCEPT\n"
+                        + "-D OUTPUT -d 10.0.0.1 -j DROP\n"
+                        + "COMMIT\n",
+                IpTablesService.renderRestoreInput(operations));
+    }
+
+    @Test
+    void reportsEveryInvalidOperationByIndex() {
+        List<IptablesBatchOperation> operations = List.of(
+                new IptablesBatchOperation(IptablesBatchOperation.Operation.ADD, IptablesRule.builder()
+                        .chain(IptablesRule.Chain.INPUT).action(IptablesRule.Action.ACCEPT).build()),
+                new IptablesBatchOperation(IptablesBatchOperation.Operation.ADD, IptablesRule.builder()
+                        .chain(IptablesRule.Chain.INPUT).sourceIp("10.0.0.1\n-A INPUT -j ACCEPT")
+                        .action(IptablesRule.Action.DROP).build()),
+                new IptablesBatchOperation(null, IptablesRule.builder()
+                        .destinationPort(70000).action(IptablesRule.Action.DROP).build()));
+
+        List<IptablesBatchResult.RuleError> errors = IpTablesService.validateBatch(operations);
+
+        assertEquals(List.of(1, 2, 2, 2, 2), errors.stream().map(IptablesBatchResult.RuleError::getIndex)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void streamsEachRuleBeforeTheListingExits() throws Exception {
+        Path release = tempDir.resolve("release");
+        Path exited = tempDir.resolve("exited");
+        Path save = fakeSave("echo '*filter'",
+                "echo ':INPUT ACCEPT [0:0]'",
+                "echo '[3:180] -A INPUT -s 10.0.0.0/8 -p tcp -m tcp --dport 22 -j ACCEPT'",
+                // Hold the rest of the listing back until the first rule reached the sink
+                "for i in $(seq 100); do [ -f '" + release + "' ] && break; sleep 0.1; done",
+                "echo '[0:0] -A INPUT -j DROP'",
+                "echo 'COMMIT'",
+                "touch '" + exited + "'");
+        CommandExecutor executor = new CommandExecutor(2, 10_000, 1000);
+        IpTablesService service = new IpTablesService(executor, 10_000, List.of(save.toString()));
+        try {
+            List<IptablesRuleStats> rules = new ArrayList<>();
+            service.streamRules(rule -> {
+                if (rules.isEmpty()) {
+                    assertFalse(Files.exists(exited));
+                    try {
+                        Files.createFile(release);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                rules.add(rule);
+            });
+
+            assertEquals(2, rules.size());
+            assertEquals("10.0.0.0/8", rules.get(0).getSourceIp());
+            assertEquals(3, rules.get(0).getPackets());
+            assertEquals(2, rules.get(1).getPosition());
+            assertEquals("DROP", rules.get(1).getTarget());
+        } finally {
+            service.shutdown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void stopsTheListingWhenTheSinkFails() throws Exception {
+        Path save = fakeSave("echo '*filter'",
+                "echo ':INPUT ACCEPT [0:0]'",
+                "echo '[0:0] -A INPUT -j ACCEPT'",
+                "sleep 30");
+        Path failing = fakeSave("echo 'permission denied' >&2", "exit 1");
+        CommandExecutor executor = new CommandExecutor(2, 10_000, 1000);
+        IpTablesService service = new IpTablesService(executor, 20_000, List.of(save.toString()));
+        try {
+            long start = System.nanoTime();
+            assertThrows(UncheckedIOException.class, () -> service.streamRules(rule -> {
+                throw new UncheckedIOException(new IOException("Client went away"));
+            }));
+            // The process is destroyed rather than left to run into the stream timeout
+            for (int i = 0; i < 100 && executor.getActiveCount() > 0; i++) {
+                Thread.sleep(50);
+            }
+            assertEquals(0, executor.getActiveCount());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+
+            IpTablesService broken = new IpTablesService(executor, 20_000, List.of(failing.toString()));
+            IllegalStateException error = assertThrows(IllegalStateException.class, () -> broken.streamRules(rule -> { }));
+            assertTrue(error.getMessage().contains("permission denied"), error.getMessage());
+            broken.shutdown();
+        } finally {
+            service.shutdown();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Compares the process spawns of the per-rule path (a {@code which} check plus one iptables
+     * call per rule) with a single restore transaction fed through stdin, and times rendering the
+     * restore payload on its own. The spawned commands are stand-ins, {@code true} and {@code cat},
+     * so the benchmark runs unprivileged: beyond rendering, it measures only fork and exec overhead
+     * and the stdin transfer, not the time iptables or iptables-restore spend applying rules.
+     * Run with {@code mvn test -Dbenchmark=true -Dtest=IpTablesServiceTest}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkBatchAgainstPerRulePath() throws Exception {
+        int ruleCount = 2000;
+        List<IptablesBatchOperation> operations = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount; i++) {
+            operations.add(new IptablesBatchOperation(IptablesBatchOperation.Operation.ADD, IptablesRule.builder()
+                    .chain(IptablesRule.Chain.INPUT).sourceIp("10." + (i >> 8) + "." + (i & 0xff) + ".0/24")
+                    .protocol(IptablesRule.Protocol.TCP).destinationPort(443).action(IptablesRule.Action.ACCEPT).build()));
+        }
+
+        String payload = null;
+        long renderNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 20; round++) {
+            long start = System.nanoTime();
+            payload = IpTablesService.renderRestoreInput(operations);
+            renderNanos = Math.min(renderNanos, System.nanoTime() - start);
+        }
+        assertEquals(ruleCount + 2, payload.split("\n").length);
+
+        CommandExecutor executor = new CommandExecutor(8, 60_000, 60_000);
+        try {
+            long start = System.nanoTime();
+            for (IptablesBatchOperation operation : operations) {
+                executor.execute("true");
+                List<String> command = new ArrayList<>(operation.getRule().toArguments("-A"));
+                command.add(0, "true");
+                executor.execute(CommandExecutor.command(command));
+            }
+            double perRuleMillis = (System.nanoTime() - start) / 1e6;
+
+            StringBuilder echoed = new StringBuilder();
+            start = System.nanoTime();
+            CommandResult result = executor.execute(CommandExecutor.command("cat")
+                    .input(payload.getBytes(StandardCharsets.UTF_8))
+                    .onStdout(line -> echoed.append(line).append('\n')));
+            double batchMillis = (System.nanoTime() - start) / 1e6;
+
+            assertTrue(result.isSuccess());
+            assertEquals(payload, echoed.toString());
+            System.out.printf("%d rules: rendering the restore payload %.2f ms; spawn overhead only (no rules applied):"
+                            + " per-rule path %.0f ms (%d forks), batch %.1f ms (1 fork)%n",
+                    ruleCount, renderNanos / 1e6, perRuleMillis, ruleCount * 2, batchMillis);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Path fakeSave(String... lines) throws IOException {
+        Path save = Files.createTempFile(tempDir, "iptables-save", ".sh");
+        List<String> script = new ArrayList<>();
+        script.add("#!/bin/sh");
+        script.addAll(List.of(lines));
+        Files.write(save, script);
+        save.toFile().setExecutable(true);
+        return save;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.IptablesChain;
+import com.example.networkdiagnostictool.model.IptablesRule;
+import com.example.networkdiagnostictool.model.IptablesRuleStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IptablesSaveParserTest {
+
+    private static final String SAVE_OUTPUT = String.join("\n",
+            "# Generated by iptables-save v1.8.7 on Sat Oct 17 10:00:00 2026",
+            "*filter",
+            ":INPUT DROP [120:9600]",
+            ":FORWARD ACCEPT [0:0]",
+            ":OUTPUT ACCEPT [5000:400000]",
+            ":ssh-guard - [0:0]",
+            "[900:54000] -A INPUT -s 10.0.0.0/8 -i eth0 -p tcp -m tcp --dport 22 -j ssh-guard",
+            "[10:800] -A INPUT -p udp -m udp --sport 53 -m comment --comment \"dns replies\" -j ACCEPT",
+            "[3:180] -A INPUT -m state --state RELATED,ESTABLISHED -j ACCEPT",
+            "[1:60] -A INPUT ! -s 192.168.0.0/16 -p tcp --syn -j REJECT --reject-with tcp-reset",
+            "[7:420] -A ssh-guard -p tcp -m tcp --dport 1000:2000 -j DROP",
+            "COMMIT",
+            "# Completed on Sat Oct 17 10:00:00 2026");
+
+    @Test
+    void parsesChainsRulesAndCounters() {
+        List<IptablesChain> chains = parse(SAVE_OUTPUT);
+
+        assertEquals(4, chains.size());
+        IptablesChain input = chains.get(0);
+        assertEquals("filter", input.getTable());
+        assertEquals("DROP", input.getPolicy());
+        assertEquals(120, input.getPackets());
+        assertNull(chains.get(3).getPolicy());
+        assertEquals(4, input.getRules().size());
+
+        IptablesRuleStats jump = input.getRules().get(0);
+        assertEquals(1, jump.getPosition());
+        assertEquals("10.0.0.0/8", jump.getSourceIp());
+        assertEquals("eth0", jump.getInInterface());
+        assertEquals(IptablesRule.Protocol.TCP, jump.getProtocol());
+        assertEquals("22", jump.getDestinationPort());
+        assertEquals("ssh-guard", jump.getTarget());
+        assertNull(jump.getAction());
+        assertEquals(900, jump.getPackets());
+        assertEquals(54000, jump.getBytes());
+        assertTrue(jump.isFullyParsed());
+
+        IptablesRuleStats dns = input.getRules().get(1);
+        assertEquals("53", dns.getSourcePort());
+        assertEquals(IptablesRule.Action.ACCEPT, dns.getAction());
+        assertEquals("-p udp -m udp --sport 53 -m comment --comment \"dns replies\" -j ACCEPT", dns.getSpec());
+        assertTrue(dns.isFullyParsed());
+
+        assertFalse(input.getRules().get(2).isFullyParsed());
+        IptablesRuleStats negated = input.getRules().get(3);
+        assertNull(negated.getSourceIp());
+        assertEquals(IptablesRule.Action.REJECT, negated.getAction());
+        assertFalse(negated.isFullyParsed());
+
+        assertEquals("1000:2000", chains.get(3).getRules().get(0).getDestinationPort());
+    }
+
+    @Test
+    void computesRatesFromCounterDeltas() {
+        List<IptablesChain> previous = parse(SAVE_OUTPUT);
+        List<IptablesChain> current = parse(SAVE_OUTPUT
+                .replace("[900:54000]", "[1900:114000]")
+                .replace("[10:800]", "[4:320]"));
+
+        IptablesRulesetService.applyRates(previous, current, TimeUnit.SECONDS.toNanos(10));
+
+        IptablesRuleStats jump = current.get(0).getRules().get(0);
+        assertEquals(100.0, jump.getPacketsPerSecond(), 1e-9);
+        assertEquals(6000.0, jump.getBytesPerSecond(), 1e-9);
+        // Counters were zeroed in between: the new values are the delta
+        assertEquals(0.4, current.get(0).getRules().get(1).getPacketsPerSecond(), 1e-9);
+        assertEquals(0.0, current.get(0).getRules().get(2).getPacketsPerSecond(), 1e-9);
+    }
+
+    private static List<IptablesChain> parse(String output) {
+        IptablesSaveParser parser = new IptablesSaveParser();
+        output.lines().forEach(parser);
+        assertEquals(0, parser.getMalformedLines());
+        return parser.chains();
+    }
+}
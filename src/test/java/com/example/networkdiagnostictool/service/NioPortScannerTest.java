@@ -0,0 +1,97 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.PortScanResult;
+import com.example.networkdiagnostictool.model.PortStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NioPortScannerTest {
+
+    private final NioPortScanner scanner = new NioPortScanner();
+    private final List<ServerSocketChannel> listeners = new ArrayList<>();
+
+    @AfterEach
+    void closeListeners() throws IOException {
+        for (ServerSocketChannel listener : listeners) {
+            listener.close();
+        }
+    }
+
+    @Test
+    void parsesPortSpecIntoSortedUniquePorts() {
+        assertArrayEquals(new int[]{22, 80, 81, 82, 443}, NioPortScanner.parsePortSpec("443, 80-82,22,81"));
+        assertThrows(IllegalArgumentException.class, () -> NioPortScanner.parsePortSpec("0-10"));
+        assertThrows(IllegalArgumentException.class, () -> NioPortScanner.parsePortSpec("90-80"));
+        assertThrows(IllegalArgumentException.class, () -> NioPortScanner.parsePortSpec("http"));
+    }
+
+    @Test
+    void reportsOpenAndClosedLoopbackPorts() throws IOException {
+        int open = listen().socket().getLocalPort();
+        int closed = unusedPort();
+
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        PortScanResult result = scanner.scan("localhost", loopback, new int[]{open, closed}, 2000, 16);
+
+        assertEquals(2, result.getScannedPorts());
+        assertEquals(PortStatus.State.OPEN, result.getPorts().get(0).getState());
+        assertEquals(PortStatus.State.CLOSED, result.getPorts().get(1).getState());
+    }
+
+    /**
+     * Scans-per-second benchmark against loopback listeners.
+     * Run with {@code mvn test -Dbenchmark=true -Dtest=NioPortScannerTest}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkLoopbackScanThroughput() throws IOException {
+        int listenerCount = 500;
+        int[] ports = new int[listenerCount * 2];
+        for (int i = 0; i < listenerCount; i++) {
+            ports[i] = listen().socket().getLocalPort();
+        }
+        for (int i = listenerCount; i < ports.length; i++) {
+            ports[i] = unusedPort();
+        }
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+
+        for (int warmup = 0; warmup < 5; warmup++) {
+            scanner.scan("localhost", loopback, ports, 2000, 256);
+        }
+        int rounds = 20;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            PortScanResult result = scanner.scan("localhost", loopback, ports, 2000, 256);
+            assertEquals(listenerCount, result.getOpenPorts());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("NIO scan: %d ports x %d rounds in %.3f s -> %.0f port probes/s%n",
+                ports.length, rounds, seconds, ports.length * rounds / seconds);
+    }
+
+    private ServerSocketChannel listen() throws IOException {
+        ServerSocketChannel listener = ServerSocketChannel.open();
+        listener.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        listeners.add(listener);
+        return listener;
+    }
+
+    private static int unusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+}
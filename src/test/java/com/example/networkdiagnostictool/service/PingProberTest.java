@@ -0,0 +1,150 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.PingStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PingProberTest {
+
+    private final AsyncConnector connector = new AsyncConnector();
+    private final HostResolver resolver = new HostResolver(10, 60_000, 5_000, 0.8, false);
+    private PingProber prober;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void stop() {
+        if (prober != null) {
+            prober.shutdown();
+        }
+        connector.shutdown();
+    }
+
+    @Test
+    void countsAcceptedAndRefusedConnectsAsReplies() throws IOException {
+        prober = new PingProber(resolver, connector, tempDir.resolve("missing").toString(), 2);
+        int closedPort;
+        try (ServerSocket closed = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            closedPort = closed.getLocalPort();
+        }
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            PingStats open = prober.ping("127.0.0.1", null, server.getLocalPort(), 5, 20, 1000);
+
+            assertEquals("tcp", open.getMethod());
+            assertEquals(server.getLocalPort(), open.getPort());
+            assertEquals(5, open.getSent());
+            assertEquals(5, open.getReceived());
+            assertEquals(0.0, open.getLossPercent());
+            assertTrue(open.getMinMicros() <= open.getAvgMicros() && open.getAvgMicros() <= open.getMaxMicros());
+            assertTrue(open.getElapsedMillis() >= 80);
+        }
+
+        PingStats refused = prober.ping("127.0.0.1", "tcp", closedPort, 3, 10, 1000);
+        assertEquals(3, refused.getReceived());
+    }
+
+    @Test
+    void readsEchoRepliesInArrivalOrderFromPing() throws IOException {
+        // Probe 1 is answered after 2 and 3, probe 4 is lost and 3 is answered twice
+        Path arguments = tempDir.resolve("arguments");
+        Path ping = fakePing(arguments,
+                "PING 127.0.0.1 (127.0.0.1) 56(84) bytes of data.",
+                "64 bytes from 127.0.0.1: icmp_seq=2 ttl=64 time=0.512 ms",
+                "64 bytes from 127.0.0.1: icmp_seq=3 ttl=64 time=0.488 ms",
+                "64 bytes from 127.0.0.1: icmp_seq=3 ttl=64 time=0.601 ms (DUP!)",
+                "64 bytes from 127.0.0.1: icmp_seq=1 ttl=64 time=301 ms",
+                "64 bytes from 127.0.0.1: icmp_seq=5 ttl=64 time=0.5 ms",
+                "",
+                "--- 127.0.0.1 ping statistics ---",
+                "5 packets transmitted, 4 received, +1 duplicates, 20% packet loss, time 4005ms");
+        prober = new PingProber(resolver, connector, ping.toString(), 2);
+
+        PingStats stats = prober.ping("127.0.0.1", null, 80, 5, 200, 1500);
+
+        assertEquals(List.of("-4 -n -c 5 -i 0.200 -W 2 -w 3 127.0.0.1"), Files.readAllLines(arguments));
+        assertEquals("icmp", stats.getMethod());
+        assertNull(stats.getPort());
+        assertEquals(5, stats.getSent());
+        assertEquals(4, stats.getReceived());
+        assertEquals(20.0, stats.getLossPercent());
+        assertEquals(1, stats.getOutOfOrder());
+        assertEquals(488, stats.getMinMicros());
+        assertEquals(301_000, stats.getMaxMicros());
+        assertTrue(stats.getMdevMicros() > 0);
+    }
+
+    @Test
+    void reportsFailingPingAndMissingCommand() throws IOException {
+        Path ping = tempDir.resolve("ping");
+        Files.write(ping, List.of("#!/bin/sh", "echo 'ping: socket: Operation not permitted' >&2", "exit 2"));
+        ping.toFile().setExecutable(true);
+        prober = new PingProber(resolver, connector, ping.toString(), 2);
+        assertThrows(IllegalStateException.class, () -> prober.ping("127.0.0.1", "icmp", 80, 1, 10, 100));
+
+        assertEquals(ping.toString(), PingProber.findExecutable("ping", "/nonexistent:" + tempDir));
+        assertNull(PingProber.findExecutable("ping", "/nonexistent"));
+        assertNull(PingProber.findExecutable(tempDir.resolve("missing").toString(), null));
+
+        prober.shutdown();
+        prober = new PingProber(resolver, connector, tempDir.resolve("missing").toString(), 2);
+        assertThrows(IllegalArgumentException.class, () -> prober.ping("127.0.0.1", "icmp", 80, 1, 10, 100));
+        assertThrows(IllegalArgumentException.class, () -> prober.ping("127.0.0.1", "udp", 80, 1, 10, 100));
+    }
+
+    @Test
+    void rejectsPingsBeyondItsOwnLimit() throws Exception {
+        // The first series runs until the test lets it finish
+        Path started = tempDir.resolve("started");
+        Path release = tempDir.resolve("release");
+        Path ping = tempDir.resolve("ping");
+        Files.write(ping, List.of("#!/bin/sh", "touch '" + started + "'",
+                "while [ ! -e '" + release + "' ]; do sleep 0.05; done",
+                "echo '64 bytes from 127.0.0.1: icmp_seq=1 ttl=64 time=0.5 ms'"));
+        ping.toFile().setExecutable(true);
+        prober = new PingProber(resolver, connector, ping.toString(), 1);
+
+        CompletableFuture<PingStats> first = CompletableFuture.supplyAsync(
+                () -> prober.ping("127.0.0.1", "icmp", 80, 1, 10, 5000));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Files.exists(started) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(Files.exists(started));
+
+        assertThrows(RejectedExecutionException.class, () -> prober.ping("127.0.0.1", "icmp", 80, 1, 10, 5000));
+        Files.createFile(release);
+        assertEquals(1, first.get(10, TimeUnit.SECONDS).getReceived());
+    }
+
+    private Path fakePing(Path arguments, String... output) throws IOException {
+        Path ping = tempDir.resolve("ping");
+        List<String> script = new ArrayList<>();
+        script.add("#!/bin/sh");
+        script.add("echo \"$*\" > '" + arguments + "'");
+        for (String line : output) {
+            script.add("echo '" + line + "'");
+        }
+        script.add("exit 1");
+        Files.write(ping, script);
+        ping.toFile().setExecutable(true);
+        return ping;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.networkdiagnostictool.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProbeResultCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger runs = new AtomicInteger();
+    private final Supplier<CompletableFuture<Integer>> probe = () -> CompletableFuture.completedFuture(runs.incrementAndGet());
+
+    @Test
+    void concurrentIdenticalProbesShareOneRun() {
+        ProbeResultCache cache = new ProbeResultCache(registry, now::get, 1000, 100);
+        CompletableFuture<Integer> running = new CompletableFuture<>();
+        List<CompletableFuture<ProbeResultCache.Result<Integer>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(cache.get("port", "Example.com", 80, false, () -> {
+                runs.incrementAndGet();
+                return running;
+            }));
+        }
+        assertFalse(results.get(7).isDone());
+        running.complete(80);
+
+        int misses = 0;
+        for (CompletableFuture<ProbeResultCache.Result<Integer>> result : results) {
+            assertEquals(80, result.join().getValue());
+            if (result.join().getSource() == ProbeResultCache.Source.MISS) {
+                misses++;
+            }
+        }
+        assertEquals(1, runs.get());
+        assertEquals(1, misses);
+        assertEquals(7, registry.counter("tcpip.probe.cache", "result", "coalesced").count());
+    }
+
+    @Test
+    void servesResultsWithinTheTtlUnlessFreshIsRequested() {
+        ProbeResultCache cache = new ProbeResultCache(registry, now::get, 1000, 100);
+
+        assertEquals(ProbeResultCache.Source.MISS, cache.get("ping", "a", 0, false, probe).join().getSource());
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        ProbeResultCache.Result<Integer> hit = cache.get("ping", "A", 0, false, probe).join();
+        assertEquals(ProbeResultCache.Source.HIT, hit.getSource());
+        assertEquals(1, hit.getValue());
+        assertEquals(400, hit.getAgeMillis());
+
+        // Different operations and ports are separate probes
+        assertEquals(ProbeResultCache.Source.MISS, cache.get("port", "a", 0, false, probe).join().getSource());
+        assertEquals(ProbeResultCache.Source.MISS, cache.get("ping", "a", 1, false, probe).join().getSource());
+
+        ProbeResultCache.Result<Integer> fresh = cache.get("ping", "a", 0, true, probe).join();
+        assertEquals(ProbeResultCache.Source.MISS, fresh.getSource());
+        assertEquals(4, fresh.getValue());
+        assertEquals(0, fresh.getAgeMillis());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertEquals(5, cache.get("ping", "a", 0, false, probe).join().getValue());
+    }
+
+    @Test
+    void zeroTtlOnlyCoalescesAndFailuresAreNotCached() {
+        ProbeResultCache cache = new ProbeResultCache(registry, now::get, 0, 100);
+
+        cache.get("ping", "a", 0, false, probe).join();
+        assertEquals(ProbeResultCache.Source.MISS, cache.get("ping", "a", 0, false, probe).join().getSource());
+
+        ProbeResultCache cached = new ProbeResultCache(registry, now::get, 1000, 100);
+        CompletionException failure = assertThrows(CompletionException.class, () -> cached.get("ping", "b", 0, false,
+                () -> CompletableFuture.<Boolean>failedFuture(new IllegalStateException("probe failed"))).join());
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertTrue(cached.get("ping", "b", 0, false, () -> CompletableFuture.completedFuture(true)).join().getValue());
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ProbeStatus;
+import com.example.networkdiagnostictool.model.ProbeTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProbeSchedulerTest {
+
+    private final AsyncConnector connector = new AsyncConnector();
+    private final HostResolver resolver = new HostResolver(10, 60_000, 5_000, 0.8, false);
+    private final TcpIpDiagnosticService service = new TcpIpDiagnosticService(new NioPortScanner(), connector, resolver,
+            new SimpleMeterRegistry(), 2000, 256);
+    private HistoryStore history;
+    private ProbeScheduler scheduler;
+
+    @TempDir
+    Path historyDirectory;
+
+    @BeforeEach
+    void openHistory() {
+        history = new HistoryStore(historyDirectory.toString(), 1, 1, 1, 1 << 20, 1 << 16);
+    }
+
+    @AfterEach
+    void shutdown() {
+        scheduler.shutdown();
+        history.shutdown();
+        connector.shutdown();
+        resolver.shutdown();
+    }
+
+    @Test
+    void probesRegisteredTargetsUntilUnregistered() throws Exception {
+        scheduler = new ProbeScheduler(service, history, 10, 2, 2, 1024, 0.1, 10);
+        int closedPort;
+        try (ServerSocket closed = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            closedPort = closed.getLocalPort();
+        }
+        try (ServerSocket server = acceptingServer(50)) {
+            ProbeTarget open = scheduler.register(tcp(server.getLocalPort(), 100));
+            ProbeTarget refused = scheduler.register(tcp(closedPort, 100));
+
+            assertTrue(await(() -> scheduler.getStatus(open.getId()).getProbes() >= 3
+                    && scheduler.getStatus(refused.getId()).getProbes() >= 3));
+            ProbeStatus up = scheduler.getStatus(open.getId());
+            assertTrue(up.getLastSuccess());
+            assertTrue(up.getLastLatencyMicros() >= 0);
+            assertEquals(0, up.getFailures());
+            ProbeStatus down = scheduler.getStatus(refused.getId());
+            assertFalse(down.getLastSuccess());
+            assertEquals(-1, down.getLastLatencyMicros());
+            assertEquals(down.getProbes(), down.getConsecutiveFailures());
+            assertEquals(2, scheduler.getStatuses().size());
+            String series = "probe/tcp/127.0.0.1:" + server.getLocalPort();
+            assertEquals(Set.of("probe/tcp/127.0.0.1:" + closedPort, series), Set.copyOf(history.getSeries("probe/")));
+
+            ProbeStatus last = scheduler.unregister(open.getId());
+            assertNotNull(last);
+            assertNull(scheduler.getStatus(open.getId()));
+            assertNull(scheduler.unregister(open.getId()));
+
+            // A target registered again continues its series instead of adding one
+            int seriesId = history.seriesId(series);
+            ProbeTarget again = scheduler.register(tcp(server.getLocalPort(), 100));
+            assertTrue(await(() -> scheduler.getStatus(again.getId()).getProbes() >= 1));
+            assertEquals(2, history.getSeries("probe/").size());
+            assertEquals(seriesId, history.seriesId(series));
+        }
+    }
+
+    @Test
+    void validatesTargetsAndAppliesDefaults() {
+        scheduler = new ProbeScheduler(service, history, 1, 1, 1, 16, 0.1, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> scheduler.register(tcp(0, 1000)));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.register(tcp(80, 10)));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.register(ProbeTarget.builder()
+                .host("127.0.0.1").intervalMillis(1000).build()));
+
+        ProbeTarget ping = scheduler.register(ProbeTarget.builder().host("127.0.0.1").port(80)
+                .type(ProbeTarget.Type.PING).intervalMillis(60_000).build());
+        assertNotNull(ping.getId());
+        assertNull(ping.getPort());
+        assertEquals(5000, ping.getTimeoutMillis());
+        assertEquals(1, ping.getMaxConcurrent());
+        assertThrows(IllegalStateException.class, () -> scheduler.register(tcp(80, 1000)));
+
+        assertEquals("probe/ping/127.0.0.1", ProbeScheduler.seriesName(ping));
+        assertEquals("probe/tcp/[fe80::1%eth0]:443", ProbeScheduler.seriesName(ProbeTarget.builder()
+                .host("FE80::1%eth0").port(443).type(ProbeTarget.Type.TCP).build()));
+    }
+
+    @Test
+    void neverRegistersMoreThanTheMaximumWhenRacing() throws Exception {
+        scheduler = new ProbeScheduler(service, history, 5, 1, 1, 16, 0.1, 10);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<ProbeTarget> registered = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger rejected = new AtomicInteger();
+        List<Thread> racers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread racer = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 10; i++) {
+                        try {
+                            registered.add(scheduler.register(tcp(80, 60_000)));
+                        } catch (IllegalStateException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            racer.start();
+            racers.add(racer);
+        }
+        start.countDown();
+        for (Thread racer : racers) {
+            racer.join();
+        }
+
+        assertEquals(5, registered.size());
+        assertEquals(threads * 10 - 5, rejected.get());
+        assertEquals(5, scheduler.getTargetCount());
+        assertEquals(5, scheduler.getStatuses().size());
+
+        scheduler.unregister(registered.get(0).getId());
+        assertEquals(4, scheduler.getTargetCount());
+        assertNotNull(scheduler.register(tcp(80, 60_000)));
+        assertThrows(IllegalStateException.class, () -> scheduler.register(tcp(80, 60_000)));
+    }
+
+    private static ProbeTarget tcp(int port, long intervalMillis) {
+        return ProbeTarget.builder().host("127.0.0.1").port(port).type(ProbeTarget.Type.TCP)
+                .intervalMillis(intervalMillis).build();
+    }
+
+    /**
+     * Opens a loopback server that accepts and immediately closes every connection.
+     */
+    private static ServerSocket acceptingServer(int backlog) throws Exception {
+        ServerSocket server = new ServerSocket(0, backlog, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try (Socket ignored = server.accept()) {
+                    // Close right away
+                } catch (Exception e) {
+                    return;
+                }
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return server;
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
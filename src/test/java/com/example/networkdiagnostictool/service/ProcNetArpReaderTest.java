@@ -0,0 +1,128 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ArpEntry;
+import com.example.networkdiagnostictool.util.OperatingSystem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ProcNetArpReaderTest {
+
+    private static final String HEADER =
+            "IP address       HW type     Flags       HW address            Mask     Device\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parsesAllColumnsOfProcNetArp() throws IOException {
+        Path file = tempDir.resolve("arp");
+        Files.write(file, (HEADER
+                + "192.168.1.1      0x1         0x2         aa:bb:cc:dd:ee:ff     *        eth0\n"
+                + "192.168.1.77     0x1         0x0         00:00:00:00:00:00     *        eth0\n"
+                + "10.0.0.5         0x1         0x6         11:22:33:44:55:66     *        br-lan").getBytes(StandardCharsets.US_ASCII));
+
+        List<ArpEntry> entries = new ArrayList<>();
+        int count = new ProcNetArpReader().read(file, entries::add);
+
+        assertEquals(3, count);
+        assertEquals(new ArpEntry("192.168.1.1", "aa:bb:cc:dd:ee:ff", "eth0", 1, ArpEntry.FLAG_COMPLETE), entries.get(0));
+        assertEquals(0, entries.get(1).getFlags());
+        assertEquals("br-lan", entries.get(2).getInterfaceName());
+        assertEquals(ArpEntry.FLAG_COMPLETE | ArpEntry.FLAG_PERMANENT, entries.get(2).getFlags());
+        assertSame(entries.get(0).getInterfaceName(), entries.get(1).getInterfaceName());
+    }
+
+    @Test
+    void handlesLinesSpanningBufferRefills() throws IOException {
+        Path file = writeSyntheticTable(20_000);
+
+        List<ArpEntry> entries = new ArrayList<>();
+        new ProcNetArpReader().read(file, entries::add);
+
+        assertEquals(20_000, entries.size());
+        for (int i = 0; i < entries.size(); i += 997) {
+            ArpEntry entry = entries.get(i);
+            assertEquals(String.format("10.%d.%d.%d", (i >> 16) & 0xff, (i >> 8) & 0xff, i & 0xff), entry.getIpAddress());
+            assertEquals(String.format("02:00:00:%02x:%02x:%02x", (i >> 16) & 0xff, (i >> 8) & 0xff, i & 0xff),
+                    entry.getMacAddress());
+            assertEquals("veth" + i % 16, entry.getInterfaceName());
+        }
+    }
+
+    /**
+     * Compares the legacy split-based parser with the single-pass reader on a 50k-line table.
+     * The legacy figure excludes the cost of forking {@code arp}, so the real gap is larger.
+     * Run with {@code mvn test -Dbenchmark=true -Dtest=ProcNetArpReaderTest}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkAgainstLegacyParser() throws IOException {
+        Path file = writeSyntheticTable(50_000);
+        ProcNetArpReader reader = new ProcNetArpReader();
+        List<ArpEntry> sink = new ArrayList<>(50_000);
+
+        int rounds = 50;
+        for (int warmup = 0; warmup < rounds; warmup++) {
+            legacyParse(file);
+            sink.clear();
+            reader.read(file, sink::add);
+        }
+
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            legacyParse(file);
+        }
+        double legacyMillis = (System.nanoTime() - start) / 1e6 / rounds;
+
+        start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            sink.clear();
+            reader.read(file, sink::add);
+        }
+        double readerMillis = (System.nanoTime() - start) / 1e6 / rounds;
+
+        System.out.printf("50k-line ARP table: legacy split parser %.2f ms, /proc reader %.2f ms (%.1fx)%n",
+                legacyMillis, readerMillis, legacyMillis / readerMillis);
+    }
+
+    private Path writeSyntheticTable(int lines) throws IOException {
+        StringBuilder table = new StringBuilder(HEADER);
+        for (int i = 0; i < lines; i++) {
+            table.append(String.format("10.%d.%d.%d%-8s 0x1         0x2         02:00:%02x:%02x:%02x:%02x     *        veth%d%n",
+                    (i >> 16) & 0xff, (i >> 8) & 0xff, i & 0xff, "",
+                    (i >> 24) & 0xff, (i >> 16) & 0xff, (i >> 8) & 0xff, i & 0xff, i % 16));
+        }
+        Path file = tempDir.resolve("arp-" + lines);
+        Files.write(file, table.toString().getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    /**
+     * The pre-existing path: read the table as lines and split every line with a regex.
+     */
+    private static List<ArpEntry> legacyParse(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    lines.add(line.trim());
+                }
+            }
+        }
+        return ArpCacheService.parseArpEntries(lines, OperatingSystem.LINUX);
+    }
+}
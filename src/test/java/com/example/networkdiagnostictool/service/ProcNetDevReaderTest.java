@@ -0,0 +1,87 @@
+package com.example.networkdiagnostictool.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcNetDevReaderTest {
+
+    static final String HEADER =
+            "Inter-|   Receive                                                |  Transmit\n"
+                    + " face |bytes    packets errs drop fifo frame compressed multicast|bytes    packets errs drop fifo colls carrier compressed\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parsesEveryCounterOfEveryInterface() throws IOException {
+        Path file = tempDir.resolve("dev");
+        Files.write(file, (HEADER
+                + "    lo: 1000      10    0    0    0     0          0         0     1000      10    0    0    0     0       0          0\n"
+                + "  eth0:123456789 2000 1 2 3 4 5 6 987654321 3000 7 8 9 10 11 12\n"
+                + "veth1a2b3c: 5 1 0 0 0 0 0 0 6 1 0 0 0 0 0 0").getBytes(StandardCharsets.US_ASCII));
+
+        List<String> names = new ArrayList<>();
+        List<long[]> counters = new ArrayList<>();
+        int count = new ProcNetDevReader().read(file, (name, values) -> {
+            names.add(name);
+            counters.add(values.clone());
+        });
+
+        assertEquals(3, count);
+        assertEquals(List.of("lo", "eth0", "veth1a2b3c"), names);
+        assertArrayEquals(new long[]{123456789, 2000, 1, 2, 3, 4, 5, 6, 987654321, 3000, 7, 8, 9, 10, 11, 12},
+                counters.get(1));
+        assertEquals(6, counters.get(2)[ProcNetDevReader.TX_BYTES]);
+    }
+
+    @Test
+    void rereadsHundredsOfInterfacesWithoutAllocating() throws IOException {
+        Path file = writeInterfaces(tempDir, 500, 0);
+        ProcNetDevReader reader = new ProcNetDevReader();
+        String[] first = new String[500];
+        int[] index = {0};
+        reader.read(file, (name, values) -> first[index[0]++] = name);
+
+        long[] total = new long[1];
+        ProcNetDevReader.CounterVisitor sum = (name, values) -> total[0] += values[ProcNetDevReader.RX_BYTES];
+        for (int warmup = 0; warmup < 1000; warmup++) {
+            reader.read(file, sum);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        int rounds = 100;
+        for (int round = 0; round < rounds; round++) {
+            reader.read(file, sum);
+        }
+        long perRead = (threads.getCurrentThreadAllocatedBytes() - before) / rounds;
+
+        // Opening the file still costs a channel and a few small objects, independent of the interface count
+        assertTrue(perRead < 2048, perRead + " bytes per read");
+        index[0] = 0;
+        reader.read(file, (name, values) -> assertSame(first[index[0]++], name));
+    }
+
+    static Path writeInterfaces(Path directory, int interfaces, long base) throws IOException {
+        StringBuilder table = new StringBuilder(HEADER);
+        for (int i = 0; i < interfaces; i++) {
+            long rx = base * (i + 1);
+            table.append(String.format("veth%06x: %d %d 0 0 0 0 0 0 %d %d 0 0 0 0 0 0%n", i, rx, rx / 100, rx * 2, rx / 50));
+        }
+        Path file = directory.resolve("dev-" + interfaces + "-" + base);
+        Files.write(file, table.toString().getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.networkdiagnostictool.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcNetSocketReaderTest {
+
+    static final String HEADER = "  sl  local_address rem_address   st tx_queue rx_queue tr tm->when retrnsmt   uid  timeout inode\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void decodesIpv4AndIpv6Sockets() throws IOException {
+        Path tcp = tempDir.resolve("tcp");
+        Files.write(tcp, (HEADER
+                + line(0, "127.0.0.1", 3306, "0.0.0.0", 0, 10, 0, 0)
+                + line(1, "10.0.0.2", 51234, "93.184.216.34", 443, 1, 0x10, 0x2A0)
+                + "garbage\n").getBytes(StandardCharsets.US_ASCII));
+        Path tcp6 = tempDir.resolve("tcp6");
+        Files.write(tcp6, (HEADER + line(0, "::1", 8080, "2001:db8::7", 40000, 6, 0, 0).trim())
+                .getBytes(StandardCharsets.US_ASCII));
+
+        ProcNetSocketReader reader = new ProcNetSocketReader();
+        List<long[]> sockets = new ArrayList<>();
+        ProcNetSocketReader.SocketVisitor collect = s -> sockets.add(new long[]{
+                s.getLocalHigh(), s.getLocalLow(), s.getLocalPort(), s.getRemoteHigh(), s.getRemoteLow(),
+                s.getRemotePort(), s.getState(), s.getTxQueue(), s.getRxQueue(), s.getUid(), s.getInode()});
+
+        assertEquals(2, reader.read(tcp, ProcNetSocketReader.PROTOCOL_TCP, collect));
+        assertEquals(1, reader.read(tcp6, ProcNetSocketReader.PROTOCOL_TCP, collect));
+
+        long[] listener = sockets.get(0);
+        assertEquals(ProcNetSocketReader.ipv4Low(0x7F000001), listener[1]);
+        assertTrue(ProcNetSocketReader.isIpv4(listener[0], listener[1]));
+        assertEquals(3306, listener[2]);
+        assertEquals(10, listener[6]);
+        assertEquals(1000, listener[9]);
+        assertEquals(100000, listener[10]);
+
+        long[] established = sockets.get(1);
+        assertEquals(ProcNetSocketReader.ipv4Low(0x5DB8D822), established[4]);
+        assertEquals(443, established[5]);
+        assertEquals(1, established[6]);
+        assertEquals(0x10, established[7]);
+        assertEquals(0x2A0, established[8]);
+
+        long[] loopback6 = sockets.get(2);
+        assertFalse(ProcNetSocketReader.isIpv4(loopback6[0], loopback6[1]));
+        assertEquals(0, loopback6[0]);
+        assertEquals(1, loopback6[1]);
+        assertEquals(0x20010DB800000000L, loopback6[3]);
+        assertEquals(7, loopback6[4]);
+        assertEquals(40000, loopback6[5]);
+        assertEquals(6, loopback6[6]);
+    }
+
+    /**
+     * Formats one socket table line the way the kernel does, each address word as a native-endian integer.
+     */
+    static String line(int sl, String local, int localPort, String remote, int remotePort, int state,
+                       int txQueue, int rxQueue) {
+        return String.format("%4d: %s:%04X %s:%04X %02X %08X:%08X 00:00000000 00000000  1000        0 %d 1 0000000000000000 20 4 30 10 -1%n",
+                sl, address(local), localPort, address(remote), remotePort, state, txQueue, rxQueue, 100000 + sl);
+    }
+
+    private static String address(String literal) {
+        byte[] bytes;
+        try {
+            bytes = InetAddress.getByName(literal).getAddress();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(literal, e);
+        }
+        StringBuilder hex = new StringBuilder(32);
+        for (int word = 0; word < bytes.length; word += 4) {
+            int value = ((bytes[word] & 0xff) << 24) | ((bytes[word + 1] & 0xff) << 16)
+                    | ((bytes[word + 2] & 0xff) << 8) | (bytes[word + 3] & 0xff);
+            if (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
+                value = Integer.reverseBytes(value);
+            }
+            hex.append(String.format("%08X", value));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.networkdiagnostictool.service;
+
+import com.example.networkdiagnostictool.model.ThroughputResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThroughputTesterTest {
+
+    private final ThroughputPayload payload = new ThroughputPayload();
+    private final ThroughputListener listener = new ThroughputListener(payload, true, 0, 4, 10_000);
+    private final HostResolver resolver = new HostResolver(10, 60_000, 5_000, 0.8, false);
+    private final ThroughputTester tester = new ThroughputTester(payload, resolver, 1, 2_000, 60_000);
+
+    @AfterEach
+    void shutdown() {
+        tester.shutdown();
+        listener.close();
+        payload.close();
+        resolver.shutdown();
+    }
+
+    @Test
+    void measuresUploadGoodputConfirmedByTheListener() {
+        ThroughputResult result = tester.run("127.0.0.1", listener.getPort(), ThroughputResult.Direction.UPLOAD,
+                500, null, 2, 100);
+
+        assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+        assertTrue(result.getGoodputBytes() > 0);
+        assertEquals(result.getBytes(), result.getGoodputBytes());
+        assertTrue(result.getMbps() > 0);
+        assertTrue(result.getConfirmedMillis() >= result.getDurationMillis());
+        assertEquals(result.getGoodputBytes() * 8 / 1000.0 / result.getConfirmedMillis(), result.getMbps(),
+                result.getMbps() * 0.01);
+        assertFalse(result.getSamples().isEmpty());
+        // Chunks already in flight when the test ends are counted in the total but not sampled
+        assertTrue(result.getSamples().stream().mapToLong(s -> s.getBytes()).sum() <= result.getBytes());
+    }
+
+    @Test
+    void measuresDownloadGoodput() {
+        ThroughputResult result = tester.run("127.0.0.1", listener.getPort(), ThroughputResult.Direction.DOWNLOAD,
+                500, null, 2, 100);
+
+        assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+        assertTrue(result.getGoodputBytes() > 0);
+        assertEquals(result.getBytes(), result.getGoodputBytes());
+        assertFalse(result.getSamples().isEmpty());
+    }
+
+    @Test
+    void givesBufferedDataTheTimeToDrainAtTheMeasuredRate() {
+        // 1 MB buffered after moving 10 MB in 1 s takes 100 ms to deliver
+        assertEquals(2_100, ThroughputTester.closeGraceMillis(1_000_000, 10_000_000, 1_000_000_000, 2_000, 60_000));
+        assertEquals(60_000, ThroughputTester.closeGraceMillis(1_000_000, 1_000, 1_000_000_000, 2_000, 60_000));
+        assertEquals(2_000, ThroughputTester.closeGraceMillis(0, 10_000_000, 1_000_000_000, 2_000, 60_000));
+        assertEquals(60_000, ThroughputTester.closeGraceMillis(1_000_000, 0, 1_000_000_000, 2_000, 60_000));
+    }
+
+    @Test
+    void endsEarlyAtTheByteLimit() {
+        long limit = 3 * 1024 * 1024 + 17;
+        for (ThroughputResult.Direction direction : ThroughputResult.Direction.values()) {
+            ThroughputResult result = tester.run("127.0.0.1", listener.getPort(), direction, 30_000, limit, 3, 100);
+
+            assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+            assertEquals(limit, result.getGoodputBytes());
+            assertTrue(result.getDurationMillis() < 30_000);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.networkdiagnostictool.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTest {
+
+    // 8 buckets of 5 ms: a revolution is 40 ms, so longer delays need several rounds
+    private final HashedTimingWheel wheel = new HashedTimingWheel("test-wheel", 5, 8);
+
+    @AfterEach
+    void stop() {
+        wheel.stop();
+    }
+
+    @Test
+    void runsTasksInDeadlineOrderAcrossRevolutions() throws Exception {
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        long start = System.nanoTime();
+        wheel.schedule(() -> { order.add(150); done.countDown(); }, 150, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> { order.add(10); done.countDown(); }, 10, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> { order.add(90); done.countDown(); }, 90, TimeUnit.MILLISECONDS);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(10, 90, 150), order);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 145);
+    }
+
+    @Test
+    void skipsCancelledTasksAndSurvivesFailingOnes() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        List<String> ran = new CopyOnWriteArrayList<>();
+        HashedTimingWheel.Timeout cancelled = wheel.schedule(() -> ran.add("cancelled"), 20, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> { throw new IllegalStateException("boom"); }, 20, TimeUnit.MILLISECONDS);
+        wheel.schedule(done::countDown, 40, TimeUnit.MILLISECONDS);
+        cancelled.cancel();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(cancelled.isCancelled());
+        assertFalse(ran.contains("cancelled"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.networkdiagnostictool.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HostParserTest {
+
+    @Test
+    void classifiesWithoutResolving() {
+        assertEquals(HostParser.IPV4, HostParser.classify("192.168.100.254"));
+        assertEquals(HostParser.IPV6, HostParser.classify("2001:db8::1"));
+        assertEquals(HostParser.IPV6, HostParser.classify("fe80::1%eth0"));
+        assertEquals(HostParser.IPV6, HostParser.classify("[::1]"));
+        assertEquals(HostParser.HOSTNAME, HostParser.classify("localhost"));
+        assertEquals(HostParser.HOSTNAME, HostParser.classify("db-1.internal.example.com."));
+        assertEquals(HostParser.HOSTNAME, HostParser.classify("3com.net"));
+
+        for (String invalid : new String[]{"", "999.1.1.1", "1.2.3", "1.2.3.4.5", "01234.1.1.1", "-db.example.com",
+                "db-.example.com", "a..b", "host name", "example.com/24", "1.2.3.4%eth0", "[::1", "fe80::1%",
+                "1::2::3", ":1::2", "1::2:", "1:2:3:4:5:6:7", "1:2:3:4:5:6:7:8:9", "12345::1", "::g",
+                "1:2:3:4:5:6:7::8", "::1.2.3", "1.2.3.4::", "a".repeat(64) + ".com", "a.".repeat(127) + "com"}) {
+            assertEquals(HostParser.INVALID, HostParser.classify(invalid), invalid);
+        }
+    }
+
+    @Test
+    void parsesIpv6LikeInetAddress() throws Exception {
+        HostParser parser = new HostParser();
+        for (String literal : new String[]{"::", "::1", "1::", "2001:db8::1", "2001:db8:0:0:1:0:0:1",
+                "2001:DB8:85A3:0000:0000:8A2E:0370:7334", "fe80::1:2:3:4:5:6", "1:2:3:4:5:6::8", "1::3:4:5:6:7:8",
+                "::ffff:10.1.2.3", "64:ff9b::192.0.2.33", "1:2:3:4:5:6:1.2.3.4", "ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff"}) {
+            assertTrue(parser.parseAddress(literal), literal);
+            assertFalse(parser.hasZone());
+            assertArrayEquals(InetAddress.getByName(literal).getAddress(), parser.toBytes(), literal);
+        }
+
+        assertTrue(parser.parseAddress("[fe80::a%2]"));
+        assertTrue(parser.hasZone());
+        assertEquals(0xfe80_0000_0000_0000L, parser.getHigh());
+        assertEquals(0xa, parser.getLow());
+    }
+
+    @Test
+    void holdsIpv4InMappedForm() {
+        HostParser parser = new HostParser();
+        assertTrue(parser.parseAddress("10.1.2.3"));
+        assertTrue(parser.isIpv4());
+        assertEquals(0, parser.getHigh());
+        assertEquals(0x0000_FFFF_0A01_0203L, parser.getLow());
+        assertArrayEquals(new byte[]{10, 1, 2, 3}, parser.toBytes());
+
+        assertTrue(parser.parseAddress("::ffff:10.1.2.3"));
+        assertTrue(parser.isIpv4());
+        assertFalse(parser.parseAddress("example.com"));
+    }
+
+    @Test
+    void parsesIpv4CidrBlocks() {
+        long cidr = HostParser.parseIpv4Cidr("192.168.1.7/24");
+        assertEquals(0xC0A80107, HostParser.cidrAddress(cidr));
+        assertEquals(24, HostParser.cidrPrefix(cidr));
+        assertEquals(32, HostParser.cidrPrefix(HostParser.parseIpv4Cidr("10.0.0.1")));
+        assertEquals(0, HostParser.cidrPrefix(HostParser.parseIpv4Cidr("0.0.0.0/0")));
+
+        for (String invalid : new String[]{"10.0.0.0/33", "10.0.0.0/", "10.0.0.0/-1", "10.0.0.0/0024", "10.0.0/8",
+                "10.0.0.0/8/8", "::1/128"}) {
+            assertEquals(-1, HostParser.parseIpv4Cidr(invalid), invalid);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.networkdiagnostictool.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyHistogramTest {
+
+    @Test
+    void reportsPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        assertEquals(10_000, histogram.getTotalCount());
+        assertEquals(1_000, histogram.getMin());
+        assertEquals(10_000_000, histogram.getMax());
+        assertEquals(5_000_000, histogram.getValueAtPercentile(50), 5_000_000 * 0.04);
+        assertEquals(9_000_000, histogram.getValueAtPercentile(90), 9_000_000 * 0.04);
+        assertEquals(9_900_000, histogram.getValueAtPercentile(99), 9_900_000 * 0.04);
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100), 10_000_000 * 0.04);
+    }
+
+    @Test
+    void handlesSmallAndEmptyInputs() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+
+        histogram.record(7);
+        assertEquals(7, histogram.getValueAtPercentile(50));
+        assertEquals(7, histogram.getValueAtPercentile(99));
+
+        histogram.reset();
+        assertEquals(0, histogram.getTotalCount());
+    }
+}
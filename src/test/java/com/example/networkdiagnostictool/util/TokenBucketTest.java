@@ -0,0 +1,31 @@
+package com.example.networkdiagnostictool.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void spendsTheBurstThenPacesReservations() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(0, bucket.reserve(0));
+        // Each further token is a tenth of a second further out
+        assertEquals(SECOND / 10, bucket.reserve(0));
+        assertEquals(2 * SECOND / 10, bucket.reserve(0));
+        assertEquals(SECOND / 10, bucket.reserve(2 * SECOND / 10));
+        assertFalse(bucket.isFull(2 * SECOND / 10));
+
+        // Idle time refills no more than the burst
+        assertTrue(bucket.isFull(10 * SECOND));
+        assertEquals(0, bucket.reserve(10 * SECOND));
+        assertEquals(0, bucket.reserve(10 * SECOND));
+        assertEquals(SECOND / 10, bucket.reserve(10 * SECOND));
+    }
+}
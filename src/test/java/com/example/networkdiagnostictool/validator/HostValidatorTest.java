@@ -0,0 +1,39 @@
+package com.example.networkdiagnostictool.validator;
+
+import com.example.networkdiagnostictool.service.HostResolver;
+import org.junit.jupiter.api.Test;
+
+import java.net.NetworkInterface;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HostValidatorTest {
+
+    private final HostValidator validator = new HostValidator(new HostResolver(100, 60_000, 5_000, 0.8, false));
+
+    @Test
+    void acceptsLiteralsAndRejectsMalformedHosts() {
+        assertTrue(validator.isValidHost("192.168.100.254"));
+        assertTrue(validator.isValidHost("2001:db8::1"));
+        assertTrue(validator.isValidHost("localhost"));
+        assertFalse(validator.isValidHost("999.1.1.1"));
+        assertFalse(validator.isValidHost("fe80::1%"));
+        assertFalse(validator.isValidHost(""));
+    }
+
+    @Test
+    void checksZoneIdsAgainstTheInterfaces() throws Exception {
+        NetworkInterface existing = NetworkInterface.networkInterfaces().findFirst().orElseThrow();
+        assertTrue(validator.isValidHost("fe80::1%" + existing.getIndex()));
+        assertTrue(validator.isValidHost("[fe80::1%" + existing.getIndex() + "]"));
+
+        assertFalse(validator.isValidHost("fe80::1%nosuchif"));
+        assertFalse(validator.isValidHost("[fe80::1%nosuchif]"));
+        int unused = 1;
+        while (NetworkInterface.getByIndex(unused) != null) {
+            unused++;
+        }
+        assertFalse(validator.isValidHost("fe80::1%" + unused));
+    }
+}